@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+#
+# Measure the time from the launch of the service to its first successful request and its resident memory then:
+#   benchmarks/startup.sh java -jar target/ModerationService-0.0.1-SNAPSHOT.jar
+#   benchmarks/startup.sh java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar <jar>  (from target/cds)
+#   benchmarks/startup.sh target/ModerationService
+# The service gets the environment of the script (DB_*, S3_*, AUTH_SERVICE_URL, ...). It's launched RUNS times
+# (5 by default) on SERVER_PORT (8080 by default).
+set -euo pipefail
+
+if [ $# -eq 0 ]; then
+    sed -n '3,8p' "$0"
+    exit 1
+fi
+
+runs=${RUNS:-5}
+export SERVER_PORT=${SERVER_PORT:-8080}
+url="http://localhost:$SERVER_PORT/actuator/health"
+
+for run in $(seq "$runs"); do
+    start=$(date +%s%N)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$url"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "The service exited, run it without the script to see the log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+    echo "run $run: first request after $(( (end - start) / 1000000 )) ms, RSS $(( rss / 1024 )) MB"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+done
@@ -0,0 +1,22 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for fetching data of an article from external services in parallel.
+ */
+@ConfigurationProperties(prefix = "article-fetch")
+@Data
+public class ArticleFetchConfiguration {
+    /**
+     * Maximum count of calls to external services running in parallel.
+     */
+    private int parallelism = 16;
+
+    /**
+     * Maximum count of calls waiting for a free thread. When the queue is full, a platform calling thread makes the
+     * call itself, and a virtual one waits for space in the queue.
+     */
+    private int queueCapacity = 64;
+}
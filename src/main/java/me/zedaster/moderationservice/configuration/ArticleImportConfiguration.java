@@ -0,0 +1,23 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * Configuration for the bulk import of articles.
+ */
+@ConfigurationProperties(prefix = "article-import")
+@ConfigurationPropertiesScan
+@Data
+public class ArticleImportConfiguration {
+    /**
+     * Count of records that are inserted to the database in one transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Maximum count of content uploads to the S3 storage running in parallel.
+     */
+    private int uploadParallelism = 8;
+}
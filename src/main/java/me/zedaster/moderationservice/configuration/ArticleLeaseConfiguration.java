@@ -0,0 +1,18 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for claiming of moderating articles by moderators.
+ */
+@ConfigurationProperties(prefix = "article-lease")
+@Data
+public class ArticleLeaseConfiguration {
+    /**
+     * How long a claimed article is reserved for the moderator. The lease can be renewed before it expires.
+     */
+    private Duration duration = Duration.ofMinutes(5);
+}
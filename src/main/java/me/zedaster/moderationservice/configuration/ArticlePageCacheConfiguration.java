@@ -0,0 +1,29 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the cache of serialized pages of the moderation queue.
+ */
+@ConfigurationProperties(prefix = "article-page-cache")
+@Data
+public class ArticlePageCacheConfiguration {
+    /**
+     * Whether pages are cached. Every request loads and serializes the page if it's disabled.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a page is served from the cache. Pages are invalidated by changes of articles made by this instance,
+     * so the time limits only how long changes of usernames and changes made by other instances stay unseen.
+     */
+    private Duration timeToLive = Duration.ofSeconds(5);
+
+    /**
+     * Maximum count of cached pages
+     */
+    private int maxEntries = 1000;
+}
@@ -0,0 +1,43 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for prefetching of articles a moderator is likely to open next.
+ */
+@ConfigurationProperties(prefix = "article-prefetch")
+@Data
+public class ArticlePrefetchConfiguration {
+    /**
+     * Whether articles are prefetched
+     */
+    private boolean enabled = true;
+
+    /**
+     * Count of next articles in the queue that are prefetched when an article or a page is served
+     */
+    private int count = 3;
+
+    /**
+     * Count of threads of prefetching
+     */
+    private int parallelism = 2;
+
+    /**
+     * Maximum count of prefetches waiting for a free thread. New prefetches are dropped when the queue is full.
+     */
+    private int queueCapacity = 16;
+
+    /**
+     * How long prefetched data is kept. Data that isn't used in this time is wasted.
+     */
+    private Duration timeToLive = Duration.ofSeconds(30);
+
+    /**
+     * Maximum count of prefetched articles. No more articles are prefetched when it's reached.
+     */
+    private int maxEntries = 500;
+}
@@ -0,0 +1,23 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration for reading bodies of created articles.
+ */
+@ConfigurationProperties(prefix = "article-upload")
+@Data
+public class ArticleUploadConfiguration {
+    /**
+     * Maximum size of a request body. Larger bodies are rejected before they are read.
+     * The default fits the longest title and content even if every character is escaped.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(128);
+
+    /**
+     * Directory for content being uploaded. The temporary directory of the system if empty.
+     */
+    private String spoolDirectory = "";
+}
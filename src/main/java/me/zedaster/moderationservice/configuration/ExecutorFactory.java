@@ -0,0 +1,151 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory of executors for blocking calls made by services. The executors run on virtual threads if they are
+ * enabled by {@code spring.threads.virtual.enabled} and supported by the JVM, otherwise on platform threads.
+ * The count of threads is bounded in both modes, so the executors still limit the load on external services.
+ * Tasks are wrapped with the {@link TaskDecorator} bean if it exists, e.g. to carry state of the submitting thread.
+ */
+@Component
+@Slf4j
+public class ExecutorFactory {
+    /**
+     * Whether the executors run on virtual threads
+     */
+    private final boolean virtualThreads;
+
+    /**
+     * Decorator of submitted tasks or null
+     */
+    private final TaskDecorator taskDecorator;
+
+    public ExecutorFactory(Environment environment, @Nullable TaskDecorator taskDecorator) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        if (!virtualThreads && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("Virtual threads are enabled, but Java {} doesn't support them. Requests and calls to external "
+                    + "services run on platform threads.", Runtime.version().feature());
+        }
+        this.taskDecorator = taskDecorator;
+    }
+
+    /**
+     * Create an executor with a fixed count of threads and an unbounded queue
+     * @param name Prefix of names of the threads
+     * @param threads Count of threads
+     * @return Executor
+     */
+    public ExecutorService newFixedExecutor(String name, int threads) {
+        return new DecoratingThreadPoolExecutor(threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory(name), new ThreadPoolExecutor.AbortPolicy(), taskDecorator);
+    }
+
+    /**
+     * Create an executor with a fixed count of threads and a bounded queue. When the queue is full, a platform
+     * calling thread runs the task itself, and a virtual one waits for space in the queue. Platform callers are
+     * bounded by their own pool, but virtual ones aren't, so running tasks by them would lift the bound of the
+     * executor. Without the bound blocking calls may exhaust pools of connections, e.g. of the Apache client of S3,
+     * and threads waiting there are pinned to their carriers on Java 21, which can stop all virtual threads.
+     * @param name Prefix of names of the threads
+     * @param threads Count of threads
+     * @param queueCapacity Capacity of the queue
+     * @return Executor
+     */
+    public ExecutorService newBoundedExecutor(String name, int threads, int queueCapacity) {
+        RejectedExecutionHandler rejectedExecutionHandler = virtualThreads
+                ? new WaitForQueuePolicy()
+                : new ThreadPoolExecutor.CallerRunsPolicy();
+        return new DecoratingThreadPoolExecutor(threads, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(name), rejectedExecutionHandler, taskDecorator);
+    }
+
+    /**
+     * Create an executor for optional background work. Its platform threads have the lowest priority. Virtual threads
+     * ignore priorities, so on them the work is limited only by the count of threads and the capacity of the queue.
+     * When the queue is full, tasks are rejected with {@link RejectedExecutionException}, so the work is dropped
+     * instead of slowing down the caller. Tasks aren't decorated, because they outlive the requests that submitted them.
+     * @param name Prefix of names of the threads
+     * @param threads Count of threads
+     * @param queueCapacity Capacity of the queue
+     * @return Executor
+     */
+    public ExecutorService newBackgroundExecutor(String name, int threads, int queueCapacity) {
+        ThreadFactory threadFactory = threadFactory(name);
+        if (threadFactory instanceof CustomizableThreadFactory platformThreadFactory) {
+            platformThreadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        }
+        return new DecoratingThreadPoolExecutor(threads, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy(), null);
+    }
+
+    /**
+     * Check if the executors run on virtual threads
+     * @return true if virtual threads are used
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    private ThreadFactory threadFactory(String name) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory(name + "-");
+    }
+
+    /**
+     * Handler of rejected tasks that makes the calling thread wait until the queue has space. Tasks are still
+     * rejected with {@link RejectedExecutionException} when the executor is shut down.
+     */
+    static class WaitForQueuePolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor is shut down");
+            }
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for space in the queue", e);
+            }
+        }
+    }
+
+    /**
+     * Executor with a fixed count of threads that decorates submitted tasks
+     */
+    private static class DecoratingThreadPoolExecutor extends ThreadPoolExecutor {
+        private final TaskDecorator taskDecorator;
+
+        DecoratingThreadPoolExecutor(int threads, long keepAliveTime, TimeUnit unit, BlockingQueue<Runnable> queue,
+                                     ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler,
+                                     TaskDecorator taskDecorator) {
+            super(threads, threads, keepAliveTime, unit, queue, threadFactory, rejectedExecutionHandler);
+            this.taskDecorator = taskDecorator;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            super.execute(taskDecorator == null ? command : taskDecorator.decorate(command));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package me.zedaster.moderationservice.configuration;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.ObservationFilter;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics beans. Endpoints, HTTP clients, repositories, Hikari and Hibernate are timed by Spring Boot. Methods
+ * annotated with {@link io.micrometer.observation.annotation.Observed} are timed with tags of this configuration.
+ */
+@Configuration
+public class MetricsConfig {
+    /**
+     * Add {@code outcome} and {@code exception} tags to timers of observed methods, like the ones of endpoints and
+     * HTTP clients have
+     * @return Filter of observations
+     */
+    @Bean
+    public ObservationFilter observedMethodTagsFilter() {
+        return context -> {
+            if (context instanceof ObservedAspect.ObservedAspectContext) {
+                Throwable error = context.getError();
+                context.addLowCardinalityKeyValue(KeyValue.of("outcome", error == null ? "SUCCESS" : "ERROR"));
+                context.addLowCardinalityKeyValue(KeyValue.of("exception",
+                        error == null ? "none" : error.getClass().getSimpleName()));
+            }
+            return context;
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the log of moderation events.
+ */
+@ConfigurationProperties(prefix = "moderation-event-log")
+@Data
+public class ModerationEventLogConfiguration {
+    /**
+     * Maximum count of events waiting to be written. New events are dropped when the queue is full.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum count of events written by one insert.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum time an event waits in the queue before it's written.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Count of attempts to write a batch of events. The events of a batch that fails all of them are lost.
+     */
+    private int retryAttempts = 10;
+
+    /**
+     * Delay before the second attempt to write a batch. It's doubled after each next failed attempt.
+     */
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    /**
+     * Maximum delay between attempts to write a batch.
+     */
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Count of months the monthly partitions of the log are kept for. Older partitions are dropped.
+     */
+    private int retentionMonths = 12;
+}
@@ -0,0 +1,38 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for detection of near-duplicate articles.
+ */
+@ConfigurationProperties(prefix = "near-duplicates")
+@Data
+public class NearDuplicateConfiguration {
+    /**
+     * Whether near-duplicates are detected
+     */
+    private boolean enabled = true;
+
+    /**
+     * Count of hashes in a signature of content. More hashes give a more precise similarity.
+     * Changing it or the size of shingles makes stored signatures incomparable, so they must be recalculated.
+     */
+    private int hashCount = 64;
+
+    /**
+     * Count of bands of a signature in the index. It must divide the count of hashes. More bands find less similar
+     * candidates.
+     */
+    private int bands = 16;
+
+    /**
+     * Count of words in a shingle
+     */
+    private int shingleSize = 3;
+
+    /**
+     * Minimum estimated similarity of articles that are near-duplicates, from 0 to 1
+     */
+    private double similarityThreshold = 0.6;
+}
@@ -0,0 +1,39 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the stream of changes of the moderation queue.
+ */
+@ConfigurationProperties(prefix = "queue-events")
+@Data
+public class QueueEventsConfiguration {
+    /**
+     * Maximum count of open streams. New subscriptions are rejected when it's reached.
+     */
+    private int maxSubscribers = 10_000;
+
+    /**
+     * Interval of comments sent to idle streams, so proxies keep them open and closed streams are noticed.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * How long a stream stays open. Clients reconnect after it's closed.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Count of events buffered for a stream. A stream is closed when its buffer is full, because the client doesn't
+     * keep up.
+     */
+    private int subscriberBufferSize = 64;
+
+    /**
+     * Count of threads writing events to streams
+     */
+    private int writerThreads = 8;
+}
@@ -0,0 +1,47 @@
+package me.zedaster.moderationservice.configuration;
+
+import me.zedaster.moderationservice.dto.ImportArticleDto;
+import me.zedaster.moderationservice.dto.NamedArticleSummary;
+import me.zedaster.moderationservice.dto.PublishArticleDto;
+import me.zedaster.moderationservice.dto.QueueEventDto;
+import me.zedaster.moderationservice.entity.ModeratingStatusConverter;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Hints for ahead-of-time processing and the native image (the {@code native} Maven profile).
+ * <p>
+ * Spring infers hints for DTOs of endpoint signatures, JPA entities and repositories. Hints are registered here only
+ * for what is reached by reflection otherwise: DTOs serialized by an {@link com.fasterxml.jackson.databind.ObjectMapper}
+ * directly or sent by HTTP clients, the JPA converter and the second-level cache. The AWS SDK ships its own metadata.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(RuntimeHintsConfig.ApplicationRuntimeHints.class)
+@RegisterReflectionForBinding({
+        NamedArticleSummary.class, // Pages of the queue cached as JSON
+        QueueEventDto.class, // Server-sent events of the queue
+        ImportArticleDto.class, // Lines of imported files
+        PublishArticleDto.class // Requests to the article service
+})
+public class RuntimeHintsConfig {
+    static class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(ModeratingStatusConverter.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Hibernate and the JCache API create the cache by class names from application.yml
+            hints.reflection().registerType(TypeReference.of("org.ehcache.jsr107.EhcacheCachingProvider"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(TypeReference.of("org.hibernate.cache.jcache.internal.JCacheRegionFactory"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("ehcache.xml");
+            hints.resources().registerPattern("ehcache-*.xsd");
+        }
+    }
+}
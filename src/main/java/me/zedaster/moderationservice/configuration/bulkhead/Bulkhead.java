@@ -0,0 +1,130 @@
+package me.zedaster.moderationservice.configuration.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limit of concurrent calls to a dependency. Calls over the limit wait in a bounded queue for a limited time, other
+ * calls are rejected at once with {@link BulkheadFullException}. So a slow dependency holds at most a fixed count of
+ * threads, and calls to other dependencies keep working.
+ * <p>
+ * Metrics tagged with the dependency: {@code bulkhead.calls.active}, {@code bulkhead.calls.waiting},
+ * {@code bulkhead.saturation} (share of the limit in use, from 0 to 1) and {@code bulkhead.rejections} tagged with
+ * the reason ({@code queue_full} or {@code timeout}).
+ */
+public class Bulkhead {
+    private final Dependency dependency;
+
+    private final int maxConcurrentCalls;
+
+    private final int maxWaitingCalls;
+
+    private final long maxWaitNanos;
+
+    /**
+     * Permits of calls. It's fair, so waiting calls proceed in order.
+     */
+    private final Semaphore permits;
+
+    private final AtomicInteger waitingCalls = new AtomicInteger();
+
+    /**
+     * Counters of rejected calls or null if there are no metrics
+     */
+    private final Counter queueFullRejections;
+
+    private final Counter timeoutRejections;
+
+    public Bulkhead(Dependency dependency, BulkheadConfiguration.Limits limits, @Nullable MeterRegistry meterRegistry) {
+        this.dependency = dependency;
+        this.maxConcurrentCalls = limits.getMaxConcurrentCalls();
+        this.maxWaitingCalls = limits.getMaxWaitingCalls();
+        this.maxWaitNanos = limits.getMaxWait().toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+
+        if (meterRegistry == null) {
+            this.queueFullRejections = null;
+            this.timeoutRejections = null;
+            return;
+        }
+        String tag = dependency.getMetricName();
+        Gauge.builder("bulkhead.calls.active", this, Bulkhead::getActiveCalls)
+                .description("Calls to the dependency in progress")
+                .tag("dependency", tag)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.calls.waiting", this, Bulkhead::getWaitingCalls)
+                .description("Calls to the dependency waiting for a permit")
+                .tag("dependency", tag)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", this, bulkhead -> (double) bulkhead.getActiveCalls() / maxConcurrentCalls)
+                .description("Share of the limit of concurrent calls to the dependency in use")
+                .tag("dependency", tag)
+                .register(meterRegistry);
+        this.queueFullRejections = rejectionCounter(meterRegistry, tag, "queue_full");
+        this.timeoutRejections = rejectionCounter(meterRegistry, tag, "timeout");
+    }
+
+    /**
+     * Take a permit for a call. The permit must be returned by {@link #release()} when the call finishes.
+     * @throws BulkheadFullException If the queue of waiting calls is full or the call waited too long
+     */
+    public void acquire() throws BulkheadFullException {
+        try {
+            // Unlike tryAcquire(), a timed attempt respects the fairness, so a new call doesn't overtake waiting calls
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            if (waitingCalls.incrementAndGet() > maxWaitingCalls) {
+                waitingCalls.decrementAndGet();
+                reject(queueFullRejections);
+            }
+            try {
+                if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                    reject(timeoutRejections);
+                }
+            } finally {
+                waitingCalls.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(timeoutRejections);
+        }
+    }
+
+    /**
+     * Return the permit of a finished call
+     */
+    public void release() {
+        permits.release();
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public int getWaitingCalls() {
+        return waitingCalls.get();
+    }
+
+    private void reject(@Nullable Counter rejections) {
+        if (rejections != null) {
+            rejections.increment();
+        }
+        throw new BulkheadFullException(dependency);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String dependency, String reason) {
+        return Counter.builder("bulkhead.rejections")
+                .description("Calls to the dependency rejected by the bulkhead")
+                .tag("dependency", dependency)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,93 @@
+package me.zedaster.moderationservice.configuration.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.Nullable;
+
+/**
+ * Aspect that runs calls to dependencies through their {@link Bulkhead bulkheads}. It's applied before other aspects,
+ * so rejected calls are neither timed nor observed.
+ * <p>
+ * The database is limited by {@link BulkheadDataSource} instead. A permit per repository call could be rejected in the
+ * middle of a transaction that already holds a connection, while a permit per connection is taken when the
+ * transaction begins.
+ * <p>
+ * A call made by a thread that is already in a call to the same dependency (e.g. a repository calling another one)
+ * doesn't take a second permit, otherwise it could wait for itself. Non-blocking calls returning a {@link Publisher}
+ * are not limited, because they hold no threads.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkheadAspect {
+    /**
+     * Bulkheads by ordinals of dependencies. Null if a dependency isn't limited by the aspect.
+     */
+    private final Bulkhead[] bulkheads = new Bulkhead[Dependency.values().length];
+
+    /**
+     * Counts of calls in progress by ordinals of dependencies on the current thread
+     */
+    private final ThreadLocal<int[]> depths = ThreadLocal.withInitial(() -> new int[Dependency.values().length]);
+
+    public BulkheadAspect(BulkheadConfiguration configuration, @Nullable MeterRegistry meterRegistry) {
+        configuration.getLimits().forEach((dependency, limits) -> {
+            if (dependency != Dependency.DATABASE) {
+                bulkheads[dependency.ordinal()] = new Bulkhead(dependency, limits, meterRegistry);
+            }
+        });
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.s3()")
+    public Object limitS3(ProceedingJoinPoint joinPoint) throws Throwable {
+        return limit(Dependency.S3, joinPoint);
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.authService()")
+    public Object limitAuthService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return limit(Dependency.AUTH_SERVICE, joinPoint);
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.articleService()")
+    public Object limitArticleService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return limit(Dependency.ARTICLE_SERVICE, joinPoint);
+    }
+
+    /**
+     * Get the bulkhead of a dependency
+     * @param dependency Dependency
+     * @return Bulkhead or null if calls to the dependency are not limited by the aspect
+     */
+    @Nullable
+    public Bulkhead getBulkhead(Dependency dependency) {
+        return bulkheads[dependency.ordinal()];
+    }
+
+    private Object limit(Dependency dependency, ProceedingJoinPoint joinPoint) throws Throwable {
+        Bulkhead bulkhead = bulkheads[dependency.ordinal()];
+        int[] threadDepths = depths.get();
+        if (bulkhead == null || threadDepths[dependency.ordinal()] > 0 || isNonBlocking(joinPoint)) {
+            return joinPoint.proceed();
+        }
+
+        bulkhead.acquire();
+        threadDepths[dependency.ordinal()]++;
+        try {
+            return joinPoint.proceed();
+        } finally {
+            threadDepths[dependency.ordinal()]--;
+            bulkhead.release();
+        }
+    }
+
+    private static boolean isNonBlocking(ProceedingJoinPoint joinPoint) {
+        return joinPoint.getSignature() instanceof MethodSignature signature
+                && Publisher.class.isAssignableFrom(signature.getReturnType());
+    }
+}
@@ -0,0 +1,46 @@
+package me.zedaster.moderationservice.configuration.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Beans for limiting concurrent calls to dependencies, so a slow dependency doesn't take all threads of the service.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+    @Bean
+    public BulkheadAspect bulkheadAspect(BulkheadConfiguration configuration,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BulkheadAspect(configuration, meterRegistry.getIfAvailable());
+    }
+
+    /**
+     * Wrap the primary data source, so connections are taken through the bulkhead of the database
+     */
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<BulkheadConfiguration> configuration,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                BulkheadConfiguration.Limits limits = configuration.getObject().getLimits().get(Dependency.DATABASE);
+                if (limits == null) {
+                    return bean;
+                }
+                return new BulkheadDataSource(dataSource,
+                        new Bulkhead(Dependency.DATABASE, limits, meterRegistry.getIfAvailable()));
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package me.zedaster.moderationservice.configuration.bulkhead;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for the bulkheads of calls to dependencies.
+ */
+@ConfigurationProperties(prefix = "bulkhead")
+@Data
+public class BulkheadConfiguration {
+    /**
+     * Whether calls to dependencies are limited.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Limits of calls to the dependencies. Calls to dependencies missing here are not limited.
+     */
+    private Map<Dependency, Limits> limits = new EnumMap<>(Map.of(
+            // Connections, at most the size of the pool, so transactions wait in the bounded queue instead of the pool
+            Dependency.DATABASE, new Limits(10, 100, Duration.ofSeconds(1)),
+            Dependency.S3, new Limits(32, 64, Duration.ofMillis(500)),
+            Dependency.AUTH_SERVICE, new Limits(32, 64, Duration.ofMillis(500)),
+            Dependency.ARTICLE_SERVICE, new Limits(16, 32, Duration.ofMillis(500))));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limits {
+        /**
+         * Maximum count of calls in progress.
+         */
+        private int maxConcurrentCalls;
+
+        /**
+         * Maximum count of calls waiting for one of the calls in progress to finish. Calls over it are rejected at once.
+         */
+        private int maxWaitingCalls;
+
+        /**
+         * Maximum time a call waits. Calls waiting longer are rejected.
+         */
+        private Duration maxWait;
+    }
+}
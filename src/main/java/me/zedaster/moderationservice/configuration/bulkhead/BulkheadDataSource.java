@@ -0,0 +1,112 @@
+package me.zedaster.moderationservice.configuration.bulkhead;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Data source that runs taking of connections through the {@link Bulkhead} of the database. A connection holds a
+ * permit until it's closed, so a transaction is admitted or rejected when it takes its connection, and never fails
+ * in the middle because other requests wait for connections.
+ * <p>
+ * It wraps the outermost data source. Behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * the permit is taken when the transaction begins, before the pool is asked for a connection.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    private final Bulkhead bulkhead;
+
+    public BulkheadDataSource(DataSource targetDataSource, Bulkhead bulkhead) {
+        super(targetDataSource);
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Get the bulkhead of the connections
+     * @return Bulkhead
+     */
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        bulkhead.acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException | Error e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        bulkhead.acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException | Error e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class}, new ReleasingInvocationHandler(connection));
+    }
+
+    /**
+     * Handler of a connection that returns the permit when the connection is closed for the first time
+     */
+    private class ReleasingInvocationHandler implements InvocationHandler {
+        private final Connection target;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        ReleasingInvocationHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        try {
+                            target.close();
+                        } finally {
+                            bulkhead.release();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    if (closed.get()) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
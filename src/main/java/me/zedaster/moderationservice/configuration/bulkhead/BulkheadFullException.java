@@ -0,0 +1,9 @@
+package me.zedaster.moderationservice.configuration.bulkhead;
+
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+
+public class BulkheadFullException extends RuntimeException {
+    public BulkheadFullException(Dependency dependency) {
+        super("%s is busy, try again later!".formatted(dependency.getDescription()));
+    }
+}
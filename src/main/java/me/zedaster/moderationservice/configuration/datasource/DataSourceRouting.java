@@ -0,0 +1,41 @@
+package me.zedaster.moderationservice.configuration.datasource;
+
+/**
+ * Holder of the routing state of the current thread. Read-only transactions go to a replica unless the primary
+ * database is forced, e.g. when the reads must see recent writes of the caller.
+ */
+public final class DataSourceRouting {
+    private static final ThreadLocal<Boolean> primaryForced = ThreadLocal.withInitial(() -> false);
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Check if the current thread must use the primary database
+     * @return true if the primary database is forced
+     */
+    public static boolean isPrimaryForced() {
+        return primaryForced.get();
+    }
+
+    /**
+     * Send all reads of the current thread to the primary database until the returned scope is closed.
+     * <br/>
+     * Usage: {@code try (var ignored = DataSourceRouting.forcePrimary()) { ... }}
+     * @return Scope that restores the previous state on close
+     */
+    public static Scope forcePrimary() {
+        boolean previous = primaryForced.get();
+        primaryForced.set(true);
+        return () -> primaryForced.set(previous);
+    }
+
+    /**
+     * Scope of forced primary database
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
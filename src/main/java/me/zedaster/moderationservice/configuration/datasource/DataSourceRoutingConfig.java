@@ -0,0 +1,75 @@
+package me.zedaster.moderationservice.configuration.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Beans for routing read-only transactions to read replicas. They are created only if the replicas are enabled,
+ * otherwise the default data source of Spring Boot is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-replicas", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties primaryProperties,
+                                                             ReplicaDataSourceConfiguration replicaConfiguration,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY_KEY);
+        // Pools behind the routing data source aren't found by the auto-configured pool metrics
+        meterRegistry.ifAvailable(primary::setMetricRegistry);
+
+        String username = replicaConfiguration.getUsername() == null ?
+                primaryProperties.determineUsername() : replicaConfiguration.getUsername();
+        String password = replicaConfiguration.getPassword() == null ?
+                primaryProperties.determinePassword() : replicaConfiguration.getPassword();
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaConfiguration.getUrls()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, replicaConfiguration.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<PrimaryStickinessFilter> primaryStickinessFilter(
+            ReplicaDataSourceConfiguration replicaConfiguration) {
+        FilterRegistrationBean<PrimaryStickinessFilter> registration = new FilterRegistrationBean<>(
+                new PrimaryStickinessFilter(replicaConfiguration.getPrimaryStickiness()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,85 @@
+package me.zedaster.moderationservice.configuration.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filter that sends all reads of a user to the primary database for a short time after the user changed something,
+ * so the user always sees their own writes even if the replicas lag behind.
+ */
+public class PrimaryStickinessFilter extends OncePerRequestFilter {
+    /**
+     * Request parameter with ID of authorized user
+     */
+    private static final String USER_ID_PARAMETER = "tokenPayload.sub";
+
+    /**
+     * Count of tracked users after which expired entries are removed
+     */
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    /**
+     * How long reads of a user stick to the primary database after a write, in nanoseconds
+     */
+    private final long stickinessNanos;
+
+    /**
+     * Deadlines of stickiness (in {@link System#nanoTime()} units) by user ID
+     */
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public PrimaryStickinessFilter(Duration stickiness) {
+        this.stickinessNanos = stickiness.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userId = request.getParameter(USER_ID_PARAMETER);
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean isWrite = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+        if (isWrite || isSticky(userId)) {
+            try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+                chain.doFilter(request, response);
+            }
+        } else {
+            chain.doFilter(request, response);
+        }
+
+        if (isWrite && response.getStatus() < 400) {
+            markSticky(userId);
+        }
+    }
+
+    private boolean isSticky(String userId) {
+        Long deadline = stickyUntil.get(userId);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline - System.nanoTime() > 0) {
+            return true;
+        }
+        stickyUntil.remove(userId, deadline);
+        return false;
+    }
+
+    private void markSticky(String userId) {
+        long now = System.nanoTime();
+        stickyUntil.put(userId, now + stickinessNanos);
+        if (stickyUntil.size() > SWEEP_THRESHOLD) {
+            stickyUntil.values().removeIf(deadline -> deadline - now <= 0);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package me.zedaster.moderationservice.configuration.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for read replicas of the database.
+ */
+@ConfigurationProperties(prefix = "datasource-replicas")
+@Data
+public class ReplicaDataSourceConfiguration {
+    /**
+     * Whether read-only transactions are routed to the replicas.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URLs of the replicas.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Username for the replicas. The username of the primary database is used if it's null.
+     */
+    private String username;
+
+    /**
+     * Password for the replicas. The password of the primary database is used if it's null.
+     */
+    private String password;
+
+    /**
+     * Interval between health checks of the replicas.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long reads of a user go to the primary database after the user changed something. It should be longer
+     * than the usual replication lag.
+     */
+    private Duration primaryStickiness = Duration.ofSeconds(5);
+}
@@ -0,0 +1,150 @@
+package me.zedaster.moderationservice.configuration.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source that sends read-only transactions to healthy replicas in round-robin order and everything else to
+ * the primary database. It must be wrapped in
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so the connection is taken after the
+ * read-only flag of the transaction is known.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    /**
+     * Lookup key of the primary database
+     */
+    static final String PRIMARY_KEY = "primary";
+
+    /**
+     * Timeout of a health check query in seconds
+     */
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Primary database
+     */
+    private final DataSource primary;
+
+    /**
+     * Replicas by their lookup keys
+     */
+    private final Map<String, DataSource> replicas;
+
+    /**
+     * Keys of replicas that passed the last health check
+     */
+    private volatile List<String> healthyReplicaKeys;
+
+    /**
+     * Counter for round-robin balancing
+     */
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Executor of health checks
+     */
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaList, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = new HashMap<>();
+        for (int i = 0; i < replicaList.size(); i++) {
+            replicas.put("replica-" + i, replicaList.get(i));
+        }
+        this.healthyReplicaKeys = List.of();
+
+        Map<Object, Object> targetDataSources = new HashMap<>(replicas);
+        targetDataSources.put(PRIMARY_KEY, primary);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkReplicas();
+        long intervalMillis = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || DataSourceRouting.isPrimaryForced()) {
+            return PRIMARY_KEY;
+        }
+
+        List<String> healthyKeys = healthyReplicaKeys;
+        if (healthyKeys.isEmpty()) {
+            return PRIMARY_KEY;
+        }
+        int index = Math.floorMod(nextReplica.getAndIncrement(), healthyKeys.size());
+        return healthyKeys.get(index);
+    }
+
+    /**
+     * Check all replicas and update the list of healthy ones
+     */
+    void checkReplicas() {
+        List<String> healthyKeys = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (isHealthy(replica.getValue())) {
+                healthyKeys.add(replica.getKey());
+            } else if (healthyReplicaKeys.contains(replica.getKey())) {
+                log.warn("Replica {} failed a health check and is excluded from routing", replica.getKey());
+            }
+        }
+        healthyKeys.sort(String::compareTo);
+        healthyReplicaKeys = List.copyOf(healthyKeys);
+    }
+
+    /**
+     * Get keys of replicas that passed the last health check
+     * @return Keys of healthy replicas
+     */
+    List<String> getHealthyReplicaKeys() {
+        return healthyReplicaKeys;
+    }
+
+    @Override
+    public void close() throws IOException {
+        healthChecker.shutdownNow();
+        closeIfPossible(primary);
+        for (DataSource replica : replicas.values()) {
+            closeIfPossible(replica);
+        }
+    }
+
+    private static boolean isHealthy(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS);
+        } catch (SQLException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void closeIfPossible(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Pointcuts of calls to dependencies of the service, shared by the aspects that time them.
+ */
+public class DependencyPointcuts {
+    /**
+     * Calls of repositories: Spring Data repositories and repositories on JdbcTemplate
+     */
+    @Pointcut("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " || within(me.zedaster.moderationservice.repository..*)")
+    public void database() {
+    }
+
+    /**
+     * Calls of the S3 storage
+     */
+    @Pointcut("within(me.zedaster.moderationservice.service.ContentService)")
+    public void s3() {
+    }
+
+    /**
+     * Calls of the auth service
+     */
+    @Pointcut("within(me.zedaster.moderationservice.service.CreatorService)")
+    public void authService() {
+    }
+
+    /**
+     * Calls of the article service
+     */
+    @Pointcut("within(me.zedaster.moderationservice.service.ArticleService)")
+    public void articleService() {
+    }
+}
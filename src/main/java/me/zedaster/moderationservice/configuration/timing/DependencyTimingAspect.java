@@ -0,0 +1,46 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Aspect that adds durations of calls to repositories and clients of other services to the timings of the current
+ * request. Calls made outside of requests are not timed.
+ */
+@Aspect
+public class DependencyTimingAspect {
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.database()")
+    public Object timeDatabase(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Dependency.DATABASE, joinPoint);
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.s3()")
+    public Object timeS3(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Dependency.S3, joinPoint);
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.authService()")
+    public Object timeAuthService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Dependency.AUTH_SERVICE, joinPoint);
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.articleService()")
+    public Object timeArticleService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Dependency.ARTICLE_SERVICE, joinPoint);
+    }
+
+    private static Object time(Dependency dependency, ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            return joinPoint.proceed();
+        }
+        long startNanos = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timings.add(dependency, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time spent in calls to dependencies while handling a request. The timings of the current thread are set by
+ * {@link ServerTimingFilter}. Calls made by tasks on other threads are counted too if the tasks are decorated with
+ * {@link #propagate(Runnable)}. Calls of parallel tasks overlap, so the sum of the timings may exceed the total time.
+ */
+public final class RequestTimings {
+    private static final ThreadLocal<RequestTimings> current = new ThreadLocal<>();
+
+    /**
+     * Dependencies that are timed
+     */
+    public enum Dependency {
+        DATABASE("db", "Database"),
+        S3("s3", "S3 storage"),
+        AUTH_SERVICE("auth", "Auth service"),
+        ARTICLE_SERVICE("article", "Article service");
+
+        /**
+         * Name of the metric in the Server-Timing header
+         */
+        private final String metricName;
+
+        /**
+         * Description of the metric in the Server-Timing header
+         */
+        private final String description;
+
+        Dependency(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static final Dependency[] DEPENDENCIES = Dependency.values();
+
+    /**
+     * Start of the request in {@link System#nanoTime()} units
+     */
+    private final long startNanos;
+
+    /**
+     * Method and URI of the request or null if unknown
+     */
+    private final String request;
+
+    private final AtomicLongArray durationNanos = new AtomicLongArray(DEPENDENCIES.length);
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(DEPENDENCIES.length);
+
+    public RequestTimings() {
+        this(null);
+    }
+
+    public RequestTimings(String request) {
+        this.startNanos = System.nanoTime();
+        this.request = request;
+    }
+
+    /**
+     * Get the timings of the request handled by the current thread
+     * @return Timings or null if the current thread doesn't handle a request
+     */
+    public static RequestTimings current() {
+        return current.get();
+    }
+
+    /**
+     * Collect timings of the current thread into the specified object until the returned scope is closed.
+     * <br/>
+     * Usage: {@code try (var ignored = RequestTimings.bind(timings)) { ... }}
+     * @param timings Timings of the request
+     * @return Scope that restores the previous timings on close
+     */
+    public static Scope bind(RequestTimings timings) {
+        RequestTimings previous = current.get();
+        current.set(timings);
+        return () -> restore(previous);
+    }
+
+    /**
+     * Make a task collect timings into the timings of the current thread, wherever it runs
+     * @param task Task
+     * @return Decorated task or the same task if the current thread doesn't handle a request
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestTimings timings = current.get();
+        if (timings == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = bind(timings)) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Add a call to a dependency
+     * @param dependency Called dependency
+     * @param nanos Duration of the call in nanoseconds
+     */
+    public void add(Dependency dependency, long nanos) {
+        durationNanos.addAndGet(dependency.ordinal(), nanos);
+        counts.incrementAndGet(dependency.ordinal());
+    }
+
+    /**
+     * Get the total duration of calls to a dependency
+     * @param dependency Dependency
+     * @return Duration in nanoseconds
+     */
+    public long getDurationNanos(Dependency dependency) {
+        return durationNanos.get(dependency.ordinal());
+    }
+
+    /**
+     * Get the count of calls to a dependency
+     * @param dependency Dependency
+     * @return Count of calls
+     */
+    public int getCount(Dependency dependency) {
+        return counts.get(dependency.ordinal());
+    }
+
+    /**
+     * Get the method and URI of the request
+     * @return Description of the request, e.g. {@code GET /protected/moderation/articles/1}, or null if unknown
+     */
+    public String getRequest() {
+        return request;
+    }
+
+    /**
+     * Get the time since the start of the request
+     * @return Time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Format the timings as a value of the Server-Timing header, e.g.
+     * {@code db;dur=3.1;desc="Database, 2 calls", total;dur=5.4}. Dependencies that weren't called are skipped.
+     * @return Value of the header
+     */
+    public String toServerTimingHeader() {
+        StringBuilder header = new StringBuilder(128);
+        for (Dependency dependency : DEPENDENCIES) {
+            int count = getCount(dependency);
+            if (count == 0) {
+                continue;
+            }
+            header.append(dependency.metricName).append(";dur=").append(formatMillis(getDurationNanos(dependency)))
+                    .append(";desc=\"").append(dependency.description).append(", ").append(count)
+                    .append(count == 1 ? " call\", " : " calls\", ");
+        }
+        return header.append("total;dur=").append(formatMillis(getElapsedNanos())).toString();
+    }
+
+    /**
+     * Format the timings as fields of a log line, e.g. {@code total_ms=5.4 db_ms=3.1 db_calls=2}
+     * @return Fields separated by spaces
+     */
+    public String toLogFields() {
+        StringBuilder fields = new StringBuilder(128).append("total_ms=").append(formatMillis(getElapsedNanos()));
+        for (Dependency dependency : DEPENDENCIES) {
+            int count = getCount(dependency);
+            if (count == 0) {
+                continue;
+            }
+            fields.append(' ').append(dependency.metricName).append("_ms=")
+                    .append(formatMillis(getDurationNanos(dependency)))
+                    .append(' ').append(dependency.metricName).append("_calls=").append(count);
+        }
+        return fields.toString();
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+
+    private static void restore(RequestTimings previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    /**
+     * Scope of bound timings
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,39 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Beans for timing calls to dependencies during requests. The timings are collected only for servlet requests.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig {
+    @Bean
+    public DependencyTimingAspect dependencyTimingAspect() {
+        return new DependencyTimingAspect();
+    }
+
+    /**
+     * Decorator of tasks of executors, so calls of parallel tasks are added to the timings of the request
+     */
+    @Bean
+    public TaskDecorator requestTimingsTaskDecorator() {
+        return RequestTimings::propagate;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingConfiguration configuration) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(configuration.isLogEnabled()));
+        // Right after the stickiness filter, so the timings cover almost the whole request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,21 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for timings of requests.
+ */
+@ConfigurationProperties(prefix = "server-timing")
+@Data
+public class ServerTimingConfiguration {
+    /**
+     * Whether calls to dependencies are timed and sent in the Server-Timing header.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether a line with the timings is logged for every request.
+     */
+    private boolean logEnabled = false;
+}
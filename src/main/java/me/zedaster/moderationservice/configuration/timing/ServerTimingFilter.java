@@ -0,0 +1,104 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Filter that collects {@link RequestTimings} of a request and sends them in the Server-Timing header. The header is
+ * added right before the body is written, when the handler has done its work, or at the end of a request without
+ * body. The timings can also be logged as a line per request.
+ */
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    /**
+     * Whether a line with the timings is logged for every request
+     */
+    private final boolean logEnabled;
+
+    public ServerTimingFilter(boolean logEnabled) {
+        this.logEnabled = logEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = new RequestTimings(request.getMethod() + " " + request.getRequestURI());
+        ServerTimingResponse timingResponse = new ServerTimingResponse(response, timings);
+        try (RequestTimings.Scope ignored = RequestTimings.bind(timings)) {
+            chain.doFilter(request, timingResponse);
+        } finally {
+            timingResponse.addServerTimingHeader();
+            if (logEnabled) {
+                log.info("{} {} {}", timings.getRequest(), response.getStatus(), timings.toLogFields());
+            }
+        }
+    }
+
+    /**
+     * Response that adds the Server-Timing header once before the body is written
+     */
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final RequestTimings timings;
+
+        private boolean headerAdded = false;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTimingHeader() {
+            if (!headerAdded && !isCommitted()) {
+                setHeader(SERVER_TIMING_HEADER, timings.toServerTimingHeader());
+            }
+            headerAdded = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTimingHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
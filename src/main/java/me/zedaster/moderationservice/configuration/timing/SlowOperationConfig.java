@@ -0,0 +1,30 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans for detecting slow calls to dependencies.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "slow-operation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowOperationConfig {
+    @Bean
+    public SlowOperationDetector slowOperationDetector(SlowOperationConfiguration configuration,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SlowOperationDetector(configuration, meterRegistry.getIfAvailable());
+    }
+
+    /**
+     * Capture SQL of Hibernate statements, so slow repository calls are logged with their SQL
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlCaptureCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlCapture());
+    }
+}
@@ -0,0 +1,40 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import lombok.Data;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for the detector of slow calls to dependencies.
+ */
+@ConfigurationProperties(prefix = "slow-operation")
+@Data
+public class SlowOperationConfiguration {
+    /**
+     * Whether slow calls are detected and logged.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Durations after which calls to the dependencies are slow. Calls to dependencies missing here are not checked.
+     */
+    private Map<Dependency, Duration> thresholds = new EnumMap<>(Map.of(
+            Dependency.DATABASE, Duration.ofMillis(200),
+            Dependency.S3, Duration.ofMillis(300),
+            Dependency.AUTH_SERVICE, Duration.ofMillis(300),
+            Dependency.ARTICLE_SERVICE, Duration.ofMillis(500)));
+
+    /**
+     * Maximum count of logged slow calls per minute. Other slow calls are only counted.
+     */
+    private int maxRecordsPerMinute = 20;
+
+    /**
+     * Maximum length of a logged parameter or SQL statement.
+     */
+    private int maxValueLength = 200;
+}
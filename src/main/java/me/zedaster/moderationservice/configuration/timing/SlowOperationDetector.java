@@ -0,0 +1,258 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspect that logs calls to dependencies that take longer than their thresholds. A record contains the called
+ * operation, its parameters, the article ID, the SQL of repository calls and the timings of the request so far.
+ * <p>
+ * At most {@link SlowOperationConfiguration#getMaxRecordsPerMinute()} records are logged per minute, so an outage of a
+ * dependency doesn't flood the log. The count of skipped records is logged with the next record, and every slow call
+ * is counted by the {@code slow.operations} metric.
+ */
+@Aspect
+@Slf4j
+public class SlowOperationDetector {
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final String REPOSITORY_PACKAGE = "me.zedaster.moderationservice.repository";
+
+    /**
+     * Thresholds by ordinals of dependencies in nanoseconds. Long.MAX_VALUE if a dependency isn't checked.
+     */
+    private final long[] thresholdNanos = new long[Dependency.values().length];
+
+    private final int maxRecordsPerMinute;
+
+    private final int maxValueLength;
+
+    /**
+     * Counters of slow calls by ordinals of dependencies or null if there are no metrics
+     */
+    private final Counter[] slowCallCounters;
+
+    /**
+     * Start of the current window of the rate limit in {@link System#nanoTime()} units
+     */
+    private long windowStartNanos;
+
+    /**
+     * Count of records logged in the current window
+     */
+    private int windowRecords = 0;
+
+    /**
+     * Count of records skipped since the last logged one
+     */
+    private long skippedRecords = 0;
+
+    public SlowOperationDetector(SlowOperationConfiguration configuration, @Nullable MeterRegistry meterRegistry) {
+        for (Dependency dependency : Dependency.values()) {
+            Duration threshold = configuration.getThresholds().get(dependency);
+            thresholdNanos[dependency.ordinal()] = threshold == null ? Long.MAX_VALUE : threshold.toNanos();
+        }
+        this.maxRecordsPerMinute = configuration.getMaxRecordsPerMinute();
+        this.maxValueLength = configuration.getMaxValueLength();
+        this.windowStartNanos = System.nanoTime();
+
+        if (meterRegistry == null) {
+            this.slowCallCounters = null;
+        } else {
+            this.slowCallCounters = new Counter[Dependency.values().length];
+            for (Dependency dependency : Dependency.values()) {
+                slowCallCounters[dependency.ordinal()] = Counter.builder("slow.operations")
+                        .description("Calls to dependencies that took longer than their thresholds")
+                        .tag("dependency", dependency.getMetricName())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.database()")
+    public Object detectDatabase(ProceedingJoinPoint joinPoint) throws Throwable {
+        return detect(Dependency.DATABASE, joinPoint);
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.s3()")
+    public Object detectS3(ProceedingJoinPoint joinPoint) throws Throwable {
+        return detect(Dependency.S3, joinPoint);
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.authService()")
+    public Object detectAuthService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return detect(Dependency.AUTH_SERVICE, joinPoint);
+    }
+
+    @Around("me.zedaster.moderationservice.configuration.timing.DependencyPointcuts.articleService()")
+    public Object detectArticleService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return detect(Dependency.ARTICLE_SERVICE, joinPoint);
+    }
+
+    private Object detect(Dependency dependency, ProceedingJoinPoint joinPoint) throws Throwable {
+        long threshold = thresholdNanos[dependency.ordinal()];
+        if (threshold == Long.MAX_VALUE) {
+            return joinPoint.proceed();
+        }
+        if (dependency == Dependency.DATABASE) {
+            SqlCapture.clear();
+        }
+
+        long startNanos = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (elapsedNanos >= threshold) {
+                onSlowCall(dependency, joinPoint, elapsedNanos, threshold, failure);
+            }
+        }
+    }
+
+    private void onSlowCall(Dependency dependency, ProceedingJoinPoint joinPoint, long elapsedNanos,
+                            long thresholdNanos, Throwable failure) {
+        if (slowCallCounters != null) {
+            slowCallCounters[dependency.ordinal()].increment();
+        }
+        long skipped = acquireRecord();
+        if (skipped < 0) {
+            return;
+        }
+
+        StringBuilder record = new StringBuilder(512)
+                .append("Slow call to ").append(dependency.getDescription()).append(": ")
+                .append(operationName(joinPoint))
+                .append(" took ").append(formatMillis(elapsedNanos))
+                .append(" ms (threshold ").append(formatMillis(thresholdNanos)).append(" ms)");
+        if (failure != null) {
+            record.append(" and failed with ").append(failure.getClass().getSimpleName());
+        }
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Long articleId = findArticleId(signature.getParameterNames(), joinPoint.getArgs());
+        if (articleId != null) {
+            record.append(", article=").append(articleId);
+        }
+        record.append(", params=").append(formatArgs(joinPoint.getArgs()));
+        if (dependency == Dependency.DATABASE) {
+            String sql = findSql(signature);
+            if (sql != null) {
+                record.append(", sql=\"").append(abbreviate(sql)).append('"');
+            }
+        }
+
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            record.append(", request=\"").append(timings.getRequest()).append("\", timings: ")
+                    .append(timings.toLogFields());
+        }
+        if (skipped > 0) {
+            record.append(", skipped records: ").append(skipped);
+        }
+        log.warn(record.toString());
+    }
+
+    /**
+     * Take a place for a record in the rate limit
+     * @return Count of records skipped since the last logged record or -1 if this record must be skipped too
+     */
+    private synchronized long acquireRecord() {
+        long now = System.nanoTime();
+        if (now - windowStartNanos >= WINDOW_NANOS) {
+            windowStartNanos = now;
+            windowRecords = 0;
+        }
+        if (windowRecords >= maxRecordsPerMinute) {
+            skippedRecords++;
+            return -1;
+        }
+        windowRecords++;
+        long skipped = skippedRecords;
+        skippedRecords = 0;
+        return skipped;
+    }
+
+    /**
+     * Get the name of the called operation, e.g. {@code ArticleSummaryRepository.findById}
+     */
+    private static String operationName(ProceedingJoinPoint joinPoint) {
+        Class<?> type = ClassUtils.getUserClass(joinPoint.getTarget());
+        // Spring Data repositories are proxies of the repository interfaces
+        for (Class<?> proxiedInterface : joinPoint.getThis().getClass().getInterfaces()) {
+            if (proxiedInterface.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                type = proxiedInterface;
+                break;
+            }
+        }
+        return type.getSimpleName() + "." + joinPoint.getSignature().getName();
+    }
+
+    /**
+     * Find the article ID among the parameters. It is a number in a parameter named {@code articleId} or {@code id}.
+     */
+    private static Long findArticleId(String[] parameterNames, Object[] args) {
+        if (parameterNames == null) {
+            return null;
+        }
+        for (int i = 0; i < parameterNames.length; i++) {
+            boolean isIdParameter = "articleId".equals(parameterNames[i]) || "id".equals(parameterNames[i]);
+            if (isIdParameter && args[i] instanceof Number number) {
+                return number.longValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the SQL of a repository call: the last statement prepared by Hibernate during the call or the query of the
+     * repository method
+     */
+    private static String findSql(MethodSignature signature) {
+        String sql = SqlCapture.lastStatement();
+        if (sql != null) {
+            return sql;
+        }
+        Query query = signature.getMethod().getAnnotation(Query.class);
+        return query == null ? null : query.value();
+    }
+
+    private String formatArgs(Object[] args) {
+        StringBuilder formatted = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                formatted.append(", ");
+            }
+            formatted.append(abbreviate(String.valueOf(args[i])));
+        }
+        return formatted.append(']').toString();
+    }
+
+    private String abbreviate(String value) {
+        String singleLine = value.replaceAll("\\s+", " ");
+        if (singleLine.length() <= maxValueLength) {
+            return singleLine;
+        }
+        return singleLine.substring(0, maxValueLength) + "...(" + singleLine.length() + " chars)";
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,32 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Inspector of Hibernate statements that remembers the last SQL statement prepared by the current thread, so a slow
+ * repository call can be logged with its SQL.
+ */
+public class SqlCapture implements StatementInspector {
+    private static final ThreadLocal<String> lastStatement = new ThreadLocal<>();
+
+    /**
+     * Get the last statement prepared by the current thread
+     * @return SQL or null if there were no statements since {@link #clear()}
+     */
+    public static String lastStatement() {
+        return lastStatement.get();
+    }
+
+    /**
+     * Forget the last statement of the current thread
+     */
+    public static void clear() {
+        lastStatement.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        lastStatement.set(sql);
+        return sql;
+    }
+}
@@ -1,12 +1,22 @@
 package me.zedaster.moderationservice.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.configuration.bulkhead.BulkheadFullException;
 import me.zedaster.moderationservice.dto.ErrorDto;
+import me.zedaster.moderationservice.service.ArticleLeasedException;
+import me.zedaster.moderationservice.service.ArticleTooLargeException;
+import me.zedaster.moderationservice.service.InvalidArticleException;
+import me.zedaster.moderationservice.service.NoSuchRevisionException;
+import me.zedaster.moderationservice.service.InvalidCursorException;
 import me.zedaster.moderationservice.service.NoSuchArticleException;
+import me.zedaster.moderationservice.service.TooManySubscribersException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.util.DisconnectedClientHelper;
 
 @ControllerAdvice
 @Slf4j
@@ -32,6 +42,92 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(new ErrorDto(exception.getMessage()), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handle revision not found exceptions.
+     * @param exception The instance of the exception.
+     * @return Json with error message from the exception.
+     */
+    @ExceptionHandler(NoSuchRevisionException.class)
+    public ResponseEntity<ErrorDto> handleNoSuchRevisionException(NoSuchRevisionException exception) {
+        return new ResponseEntity<>(new ErrorDto(exception.getMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handle exceptions of articles claimed by another moderator.
+     * @param exception The instance of the exception.
+     * @return Json with error message from the exception.
+     */
+    @ExceptionHandler(ArticleLeasedException.class)
+    public ResponseEntity<ErrorDto> handleArticleLeasedException(ArticleLeasedException exception) {
+        return new ResponseEntity<>(new ErrorDto(exception.getMessage()), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handle exceptions of malformed cursors.
+     * @param exception The instance of the exception.
+     * @return Json with error message from the exception.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDto> handleInvalidCursorException(InvalidCursorException exception) {
+        return new ResponseEntity<>(new ErrorDto(exception.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handle exceptions of invalid created articles.
+     * @param exception The instance of the exception.
+     * @return Json with error message from the exception.
+     */
+    @ExceptionHandler(InvalidArticleException.class)
+    public ResponseEntity<ErrorDto> handleInvalidArticleException(InvalidArticleException exception) {
+        return new ResponseEntity<>(new ErrorDto(exception.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handle exceptions of created articles over the size limit.
+     * @param exception The instance of the exception.
+     * @return Json with error message from the exception.
+     */
+    @ExceptionHandler(ArticleTooLargeException.class)
+    public ResponseEntity<ErrorDto> handleArticleTooLargeException(ArticleTooLargeException exception) {
+        return new ResponseEntity<>(new ErrorDto(exception.getMessage()), HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    /**
+     * Handle exceptions of subscriptions over the limit.
+     * @param exception The instance of the exception.
+     * @return Json with error message from the exception.
+     */
+    @ExceptionHandler(TooManySubscribersException.class)
+    public ResponseEntity<ErrorDto> handleTooManySubscribersException(TooManySubscribersException exception) {
+        return new ResponseEntity<>(new ErrorDto(exception.getMessage()), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handle exceptions of calls rejected by a bulkhead of a busy dependency.
+     * @param exception The instance of the exception.
+     * @return Json with error message from the exception.
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorDto> handleBulkheadFullException(BulkheadFullException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDto(exception.getMessage()));
+    }
+
+    /**
+     * Handle exceptions of transactions that failed to begin. They are rejected by the bulkhead of the database when
+     * it's busy.
+     * @param exception The instance of the exception.
+     * @return Json with error message from the exception.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorDto> handleCannotCreateTransactionException(CannotCreateTransactionException exception) {
+        if (exception.getCause() instanceof BulkheadFullException bulkheadFullException) {
+            return handleBulkheadFullException(bulkheadFullException);
+        }
+        return handleOtherException(exception);
+    }
+
     /**
      * Handle internal server error exceptions.
      * @param exception The instance of the exception.
@@ -39,6 +135,11 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDto> handleOtherException(Exception exception) {
+        // Clients of streams disconnect at any time and nothing can be sent to them
+        if (DisconnectedClientHelper.isClientDisconnectedException(exception)) {
+            log.debug("Client disconnected: {}", exception.getMessage());
+            return null;
+        }
         log.error("Internal server error", exception);
         return new ResponseEntity<>(new ErrorDto("Internal server error"), HttpStatus.INTERNAL_SERVER_ERROR);
     }
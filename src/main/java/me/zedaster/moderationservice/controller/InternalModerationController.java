@@ -0,0 +1,69 @@
+package me.zedaster.moderationservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.dto.CacheRegionStatsDto;
+import me.zedaster.moderationservice.dto.ImportReportDto;
+import me.zedaster.moderationservice.service.ArticleCounterService;
+import me.zedaster.moderationservice.service.ArticleImportService;
+import me.zedaster.moderationservice.service.CacheStatisticsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Controller for internal moderation endpoints that are available only to other services
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/internal/moderation")
+@RequiredArgsConstructor
+public class InternalModerationController {
+    /**
+     * Import service
+     */
+    private final ArticleImportService articleImportService;
+
+    /**
+     * Service for counters of articles
+     */
+    private final ArticleCounterService articleCounterService;
+
+    /**
+     * Service for statistics of the second-level cache
+     */
+    private final CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * Import articles for moderation in bulk
+     * @param body Stream of NDJSON records, one article per line
+     * @return Report of the import with errors of particular records
+     * @throws IOException If the body can't be read
+     */
+    @PostMapping(value = "/articles/import", consumes = "application/x-ndjson")
+    public ImportReportDto importArticles(InputStream body) throws IOException {
+        return articleImportService.importArticles(body);
+    }
+
+    /**
+     * Recalculate counters of articles from scratch
+     */
+    @PostMapping("/counters/rebuild")
+    public void rebuildCounters() {
+        articleCounterService.rebuild();
+    }
+
+    /**
+     * Get statistics of regions of the second-level cache
+     * @return Statistics of each region
+     */
+    @GetMapping("/cache/stats")
+    public List<CacheRegionStatsDto> getCacheStatistics() {
+        return cacheStatisticsService.getRegionStatistics();
+    }
+}
@@ -3,46 +3,133 @@ package me.zedaster.moderationservice.controller;
 import lombok.RequiredArgsConstructor;
 import me.zedaster.moderationservice.dto.*;
 import me.zedaster.moderationservice.service.ArticleModerationService;
+import me.zedaster.moderationservice.service.ArticleUpload;
+import me.zedaster.moderationservice.service.ArticleUploadReader;
+import me.zedaster.moderationservice.service.ArticlePageCache;
+import me.zedaster.moderationservice.service.ArticlePrefetcher;
+import me.zedaster.moderationservice.service.QueueEventBroadcaster;
+import me.zedaster.moderationservice.service.TooManySubscribersException;
+import me.zedaster.moderationservice.service.ArticleLeasedException;
 import me.zedaster.moderationservice.service.NoSuchArticleException;
-import org.springframework.transaction.annotation.Transactional;
+import me.zedaster.moderationservice.service.NoSuchRevisionException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
  * Controller for protected moderation endpoints
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/protected/moderation")
 @RequiredArgsConstructor
 public class ProtectedModerationController {
+    /**
+     * Header with total count of items matching a list request
+     */
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     /**
      * Moderation service
      */
     private final ArticleModerationService articleModerationService;
 
+    /**
+     * Cache of serialized pages of the moderation queue
+     */
+    private final ArticlePageCache articlePageCache;
+
+    /**
+     * Prefetcher of articles moderators are likely to open next
+     */
+    private final ArticlePrefetcher articlePrefetcher;
+
+    /**
+     * Reader of bodies of created articles
+     */
+    private final ArticleUploadReader articleUploadReader;
+
+    /**
+     * Broadcaster of changes of the moderation queue
+     */
+    private final QueueEventBroadcaster queueEventBroadcaster;
+
     /**
      * Get moderating articles of authorized user
      * @param userId User ID of authorized user
      * @param pageNumber Page number
-     * @return List of summaries
+     * @return List of summaries. Total count of articles of the user is in {@value TOTAL_COUNT_HEADER} header.
      */
     @GetMapping("/articles/user")
-    public List<ArticleSummary> getUserArticles(
+    public ResponseEntity<List<ArticleSummary>> getUserArticles(
             @RequestParam("tokenPayload.sub") long userId,
             @RequestParam(value = "page", required = false) Integer pageNumber) {
-        return articleModerationService.getUserArticleSummaries(userId, pageNumber);
+        List<ArticleSummary> summaries = articleModerationService.getUserArticleSummaries(userId, pageNumber);
+        long totalCount = articleModerationService.getArticleStats(userId).getTotal();
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(totalCount))
+                .body(summaries);
+    }
+
+    /**
+     * Get counts of moderating articles of authorized user
+     * @param userId User ID of authorized user
+     * @return Counts of articles by status
+     */
+    @GetMapping("/articles/user/stats")
+    public ArticleStatsDto getUserArticleStats(@RequestParam("tokenPayload.sub") long userId) {
+        return articleModerationService.getArticleStats(userId);
+    }
+
+    /**
+     * Claim the next article for moderation. The article isn't given to other moderators until the lease expires.
+     * @param role Role of authorized user
+     * @param userId User ID of authorized user
+     * @return Lease of the claimed article or no content if there are no unclaimed articles
+     * @throws NoAccessException If user has no access to this method
+     */
+    @GetMapping("/articles/next")
+    public ResponseEntity<ArticleLease> claimNextArticle(@RequestParam("tokenPayload.role") Role role,
+                                                         @RequestParam("tokenPayload.sub") long userId) {
+        assertRoleCanModerate(role);
+        return articleModerationService.claimNextArticle(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Renew the lease of an article claimed by authorized user
+     * @param role Role of authorized user
+     * @param userId User ID of authorized user
+     * @param id Article ID
+     * @return Renewed lease
+     * @throws NoAccessException If user has no access to this method
+     * @throws NoSuchArticleException If article was not found by specified ID
+     * @throws ArticleLeasedException If article is claimed by another moderator
+     */
+    @PatchMapping("/articles/{id}/lease")
+    public ArticleLease renewLease(@RequestParam("tokenPayload.role") Role role,
+                                   @RequestParam("tokenPayload.sub") long userId,
+                                   @PathVariable("id") long id) {
+        assertRoleCanModerate(role);
+        return articleModerationService.renewLease(id, userId);
     }
 
     /**
-     * Get particular article by ID
+     * Get particular article by ID. When a moderator opens an article, the next articles in the queue are prefetched.
      * @param role Role of authorized user
      * @param userId User ID of authorized user
      * @param id Article ID
      * @return Article object
      */
     @GetMapping("/articles/{id}")
-    @Transactional
     public Article getParticularArticle(@RequestParam("tokenPayload.role") Role role,
                                         @RequestParam("tokenPayload.sub") long userId,
                                         @PathVariable("id") long id) {
@@ -50,75 +137,263 @@ public class ProtectedModerationController {
             throw new NoAccessException();
         }
 
-        return articleModerationService.getArticle(id);
+        Article article = articleModerationService.getArticle(id);
+        if (role.canModerate()) {
+            articlePrefetcher.prefetchAfter(article.getId(), article.getCreatedAt());
+        }
+        return article;
+    }
+
+    /**
+     * Create article. The body is read as a stream, so the content is never held in memory as a whole.
+     * @param userId User ID of authorized user
+     * @param contentLength Length of the body if it's known
+     * @param body JSON of {@link CreateArticleDto}
+     * @throws IOException If the body can't be read
+     */
+    @PostMapping(value = "/articles", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void createArticle(@RequestParam("tokenPayload.sub") long userId,
+                              @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, defaultValue = "-1") long contentLength,
+                              InputStream body) throws IOException {
+        try (ArticleUpload upload = articleUploadReader.read(body, contentLength)) {
+            articleModerationService.saveArticle(userId, upload);
+        }
     }
 
     /**
-     * Create article
+     * Resubmit an article after the moderator asked for edit. The article goes back to moderation without losing its
+     * place in the queue, the replaced revision is kept. The body is read as a stream like in
+     * {@link #createArticle(long, long, InputStream)}.
      * @param userId User ID of authorized user
-     * @param createArticleDto Article data
+     * @param id Article ID
+     * @param contentLength Length of the body if it's known
+     * @param body JSON of {@link CreateArticleDto}
+     * @throws IOException If the body can't be read
+     * @throws NoSuchArticleException If article was not found by specified ID or is created by another user
      */
-    @PostMapping("/articles")
-    public void createArticle(@RequestParam("tokenPayload.sub") long userId, @RequestBody CreateArticleDto createArticleDto) {
-        articleModerationService.saveArticle(userId, createArticleDto);
+    @PutMapping(value = "/articles/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void resubmitArticle(@RequestParam("tokenPayload.sub") long userId,
+                                @PathVariable("id") long id,
+                                @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, defaultValue = "-1") long contentLength,
+                                InputStream body) throws IOException {
+        try (ArticleUpload upload = articleUploadReader.read(body, contentLength)) {
+            articleModerationService.resubmitArticle(id, userId, upload);
+        }
+    }
+
+    /**
+     * Get changes between revisions of an article. Lines are compared first, then words of changed lines.
+     * @param role Role of authorized user
+     * @param id Article ID
+     * @param fromRevision Number of the older revision. The revision before the newer one by default.
+     * @param toRevision Number of the newer revision. The latest revision by default.
+     * @return Changed lines with a few unchanged lines around them
+     * @throws NoAccessException If user has no access to this method
+     * @throws NoSuchArticleException If article was not found by specified ID
+     * @throws NoSuchRevisionException If any of the revisions was not found
+     */
+    @GetMapping("/articles/{id}/diff")
+    public ArticleDiff getArticleDiff(@RequestParam("tokenPayload.role") Role role,
+                                      @PathVariable("id") long id,
+                                      @RequestParam(value = "from", required = false) Integer fromRevision,
+                                      @RequestParam(value = "to", required = false) Integer toRevision) {
+        assertRoleCanModerate(role);
+        return articleModerationService.getArticleDiff(id, fromRevision, toRevision);
+    }
+
+    /**
+     * Get near-duplicates of an article: earlier or later articles with similar content
+     * @param role Role of authorized user
+     * @param id Article ID
+     * @return IDs of the near-duplicates in ascending order
+     * @throws NoAccessException If user has no access to this method
+     * @throws NoSuchArticleException If article was not found by specified ID
+     */
+    @GetMapping("/articles/{id}/duplicates")
+    public List<Long> getNearDuplicates(@RequestParam("tokenPayload.role") Role role,
+                                        @PathVariable("id") long id) {
+        assertRoleCanModerate(role);
+        return articleModerationService.getNearDuplicates(id);
     }
 
     /**
      * Get all moderating articles
      * @param role Role of authorized user
      * @param pageNumber Page number
-     * @return List of summaries with creator data
+     * @param status Status of articles (optional)
+     * @param creatorId User ID of creator of articles (optional)
+     * @param sortOrder Order of articles by the date of creation. The oldest go first by default.
+     * @return JSON list of summaries with creator data. Total count of articles matching the filters is in
+     * {@value TOTAL_COUNT_HEADER} header.
      * @throws NoAccessException If user has no access to this method
      */
-    @GetMapping("/articles")
-    public List<NamedArticleSummary> getAllArticles(
+    @GetMapping(value = "/articles", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllArticles(
             @RequestParam("tokenPayload.role") Role role,
-            @RequestParam(value = "page", required = false) Integer pageNumber) {
+            @RequestParam(value = "page", required = false) Integer pageNumber,
+            @RequestParam(value = "status", required = false) ModerationStatus status,
+            @RequestParam(value = "creatorId", required = false) Long creatorId,
+            @RequestParam(value = "sort", defaultValue = "OLDEST") ArticleSortOrder sortOrder) {
+        assertRoleCanModerate(role);
+        byte[] summaries = articlePageCache.getArticleSummaries(pageNumber, status, creatorId, sortOrder);
+        long totalCount = articleModerationService.getArticleStats(creatorId).countOf(status);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(totalCount))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(summaries);
+    }
+
+    /**
+     * Subscribe to changes of the moderation queue. Each change is sent as an event named by its type (CREATED,
+     * CLAIMED, EDIT_REQUESTED, RESUBMITTED, ACCEPTED or REMOVED) with {@link QueueEventDto} as JSON data.
+     * @param role Role of authorized user
+     * @return Stream of Server-Sent Events
+     * @throws NoAccessException If user has no access to this method
+     * @throws TooManySubscribersException If there are too many open streams
+     */
+    @GetMapping(value = "/articles/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToQueueEvents(@RequestParam("tokenPayload.role") Role role) {
+        assertRoleCanModerate(role);
+        return queueEventBroadcaster.subscribe();
+    }
+
+    /**
+     * Search articles by title
+     * @param role Role of authorized user
+     * @param text Text to search
+     * @param status Status of articles (optional)
+     * @param cursor Cursor of the page from the previous result (optional)
+     * @return Page of found articles with creator data and cursor of the next page
+     * @throws NoAccessException If user has no access to this method
+     */
+    @GetMapping("/articles/search")
+    public ArticleSearchResult searchArticles(
+            @RequestParam("tokenPayload.role") Role role,
+            @RequestParam("q") String text,
+            @RequestParam(value = "status", required = false) ModerationStatus status,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        assertRoleCanModerate(role);
+        return articleModerationService.searchArticles(text, status, cursor);
+    }
+
+    /**
+     * Get counts of moderating articles
+     * @param role Role of authorized user
+     * @param creatorId User ID of creator of articles (optional)
+     * @return Counts of articles by status
+     * @throws NoAccessException If user has no access to this method
+     */
+    @GetMapping("/articles/stats")
+    public ArticleStatsDto getArticleStats(
+            @RequestParam("tokenPayload.role") Role role,
+            @RequestParam(value = "creatorId", required = false) Long creatorId) {
         assertRoleCanModerate(role);
-        return articleModerationService.getArticleSummaries(pageNumber);
+        return articleModerationService.getArticleStats(creatorId);
     }
 
     /**
      * Accept and publish article
      * @param role Role of authorized user
+     * @param userId User ID of authorized user
      * @param id Article ID
      * @throws NoAccessException If user has no access to this method
      * @throws NoSuchArticleException If article was not found by specified ID
+     * @throws ArticleLeasedException If article is claimed by another moderator
      */
     @PatchMapping("/articles/{id}/accept")
-    public void acceptArticle(@RequestParam("tokenPayload.role") Role role, @PathVariable("id") long id)  {
+    public void acceptArticle(@RequestParam("tokenPayload.role") Role role,
+                              @RequestParam("tokenPayload.sub") long userId,
+                              @PathVariable("id") long id)  {
         assertRoleCanModerate(role);
-        articleModerationService.publishArticle(id);
+        articleModerationService.publishArticle(id, userId);
     }
 
     /**
      * Ask for edit article by moderator
      * @param role Role of authorized user
+     * @param userId User ID of authorized user
      * @param id Article ID
      * @param askEditDto Comment about the article
      * @throws NoAccessException If user has no access to this method
      * @throws NoSuchArticleException If article was not found by specified ID
+     * @throws ArticleLeasedException If article is claimed by another moderator
      */
     @PatchMapping("/articles/{id}/askEdit")
     public void askEditArticle(
             @RequestParam("tokenPayload.role") Role role,
+            @RequestParam("tokenPayload.sub") long userId,
             @PathVariable("id") long id,
             @RequestBody AskEditDto askEditDto) {
         assertRoleCanModerate(role);
-        articleModerationService.askEdit(id, askEditDto.getComment());
+        articleModerationService.askEdit(id, userId, askEditDto.getComment());
     }
 
     /**
      * Decline and remove article
      * @param role Role of authorized user
+     * @param userId User ID of authorized user
      * @param id Article ID
      * @throws NoAccessException If user has no access to this method
      * @throws NoSuchArticleException If article was not found by specified ID
+     * @throws ArticleLeasedException If article is claimed by another moderator
      */
     @DeleteMapping("/articles/{id}")
-    public void removeArticle(@RequestParam("tokenPayload.role") Role role, @PathVariable("id") long id) {
+    public void removeArticle(@RequestParam("tokenPayload.role") Role role,
+                              @RequestParam("tokenPayload.sub") long userId,
+                              @PathVariable("id") long id) {
+        assertRoleCanModerate(role);
+        articleModerationService.removeArticle(id, userId);
+    }
+
+    /**
+     * Ask for edit of many articles at once
+     * @param role Role of authorized user
+     * @param userId User ID of authorized user
+     * @param bulkAskEditDto IDs of the articles and comment about them
+     * @return IDs of changed articles and IDs of skipped articles. Articles are skipped if they were not found, are
+     * claimed by another moderator or aren't in MODERATING status.
+     * @throws NoAccessException If user has no access to this method
+     */
+    @PatchMapping("/articles/bulk/askEdit")
+    public BulkDecisionResult askEditArticles(@RequestParam("tokenPayload.role") Role role,
+                                              @RequestParam("tokenPayload.sub") long userId,
+                                              @RequestBody BulkAskEditDto bulkAskEditDto) {
+        assertRoleCanModerate(role);
+        return articleModerationService.askEditArticles(bulkAskEditDto.getIds(), userId, bulkAskEditDto.getComment());
+    }
+
+    /**
+     * Decline and remove many articles at once
+     * @param role Role of authorized user
+     * @param userId User ID of authorized user
+     * @param bulkDecisionDto IDs of the articles
+     * @return IDs of removed articles and IDs of skipped articles. Articles are skipped if they were not found or
+     * are claimed by another moderator.
+     * @throws NoAccessException If user has no access to this method
+     */
+    @PostMapping("/articles/bulk/decline")
+    public BulkDecisionResult removeArticles(@RequestParam("tokenPayload.role") Role role,
+                                             @RequestParam("tokenPayload.sub") long userId,
+                                             @RequestBody BulkDecisionDto bulkDecisionDto) {
+        assertRoleCanModerate(role);
+        return articleModerationService.removeArticles(bulkDecisionDto.getIds(), userId);
+    }
+
+    /**
+     * Decline and remove an article together with its near-duplicates
+     * @param role Role of authorized user
+     * @param userId User ID of authorized user
+     * @param id Article ID
+     * @return IDs of removed articles and IDs of skipped articles. Articles are skipped if they were not found or
+     * are claimed by another moderator.
+     * @throws NoAccessException If user has no access to this method
+     */
+    @PostMapping("/articles/{id}/duplicates/decline")
+    public BulkDecisionResult removeNearDuplicates(@RequestParam("tokenPayload.role") Role role,
+                                                   @RequestParam("tokenPayload.sub") long userId,
+                                                   @PathVariable("id") long id) {
         assertRoleCanModerate(role);
-        articleModerationService.removeArticle(id);
+        return articleModerationService.removeNearDuplicates(id, userId);
     }
 
     private void assertRoleCanModerate(Role role)  {
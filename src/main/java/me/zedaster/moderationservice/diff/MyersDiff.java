@@ -0,0 +1,174 @@
+package me.zedaster.moderationservice.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Myers' O(ND) difference algorithm in its linear space variant. Instead of keeping a trace of every step, it finds
+ * the middle snake of the shortest edit script with forward and backward searches and recurses into both halves.
+ * So the memory used is O(N + M) besides the result, no matter how different the sequences are.
+ * <p>
+ * Sequences are compared as arrays of token IDs, see {@link TextTokens}.
+ */
+public final class MyersDiff {
+    private final int[] a;
+
+    private final int[] b;
+
+    private final List<Edit> edits = new ArrayList<>();
+
+    private MyersDiff(int[] a, int[] b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * Find the shortest edit script that turns one sequence into another
+     * @param a Source sequence
+     * @param b Target sequence
+     * @return Changed regions in ascending order. Everything between them is equal in both sequences.
+     */
+    public static List<Edit> diff(int[] a, int[] b) {
+        MyersDiff diff = new MyersDiff(a, b);
+        diff.compare(0, a.length, 0, b.length);
+        return diff.edits;
+    }
+
+    private void compare(int aFrom, int aTo, int bFrom, int bTo) {
+        // Common prefix and suffix are cut off first, it's the most common case for edited texts
+        while (aFrom < aTo && bFrom < bTo && a[aFrom] == b[bFrom]) {
+            aFrom++;
+            bFrom++;
+        }
+        while (aFrom < aTo && bFrom < bTo && a[aTo - 1] == b[bTo - 1]) {
+            aTo--;
+            bTo--;
+        }
+
+        if (aFrom == aTo || bFrom == bTo) {
+            if (aFrom != aTo || bFrom != bTo) {
+                addEdit(aFrom, aTo, bFrom, bTo);
+            }
+            return;
+        }
+
+        long split = findMiddleSnake(aFrom, aTo, bFrom, bTo);
+        if (split < 0) {
+            addEdit(aFrom, aTo, bFrom, bTo);
+            return;
+        }
+        int x = (int) (split >>> 32);
+        int y = (int) split;
+        compare(aFrom, x, bFrom, y);
+        compare(x, aTo, y, bTo);
+    }
+
+    /**
+     * Find a point on the middle snake of the shortest edit script. Forward and backward searches run by turns
+     * until their furthest reaching paths overlap.
+     * @return Absolute position of the point in both sequences packed as {@code x << 32 | y} or -1 if the ranges
+     * have nothing in common
+     */
+    private long findMiddleSnake(int aFrom, int aTo, int bFrom, int bTo) {
+        int n = aTo - aFrom;
+        int m = bTo - bFrom;
+        int maxD = (n + m + 1) / 2;
+        int offset = maxD;
+        int length = 2 * maxD + 2;
+        int[] forward = new int[length];
+        int[] backward = new int[length];
+        Arrays.fill(forward, -1);
+        Arrays.fill(backward, -1);
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+
+        int delta = n - m;
+        // If the delta is odd, the paths can overlap only after a forward step, otherwise after a backward one
+        boolean checkOnForward = (delta & 1) != 0;
+        // Diagonals that went out of the ranges aren't extended any more
+        int forwardStart = 0;
+        int forwardEnd = 0;
+        int backwardStart = 0;
+        int backwardEnd = 0;
+
+        for (int d = 0; d < maxD; d++) {
+            for (int k = -d + forwardStart; k <= d - forwardEnd; k += 2) {
+                int index = offset + k;
+                int x = k == -d || (k != d && forward[index - 1] < forward[index + 1])
+                        ? forward[index + 1]
+                        : forward[index - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[aFrom + x] == b[bFrom + y]) {
+                    x++;
+                    y++;
+                }
+                forward[index] = x;
+
+                if (x > n) {
+                    forwardEnd += 2;
+                } else if (y > m) {
+                    forwardStart += 2;
+                } else if (checkOnForward) {
+                    int backwardIndex = offset + delta - k;
+                    if (backwardIndex >= 0 && backwardIndex < length && backward[backwardIndex] != -1
+                            && x >= n - backward[backwardIndex]) {
+                        return pack(aFrom + x, bFrom + y);
+                    }
+                }
+            }
+
+            for (int k = -d + backwardStart; k <= d - backwardEnd; k += 2) {
+                int index = offset + k;
+                int x = k == -d || (k != d && backward[index - 1] < backward[index + 1])
+                        ? backward[index + 1]
+                        : backward[index - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[aTo - x - 1] == b[bTo - y - 1]) {
+                    x++;
+                    y++;
+                }
+                backward[index] = x;
+
+                if (x > n) {
+                    backwardEnd += 2;
+                } else if (y > m) {
+                    backwardStart += 2;
+                } else if (!checkOnForward) {
+                    int forwardIndex = offset + delta - k;
+                    if (forwardIndex >= 0 && forwardIndex < length && forward[forwardIndex] != -1) {
+                        int forwardX = forward[forwardIndex];
+                        int forwardY = offset + forwardX - forwardIndex;
+                        if (forwardX >= n - x) {
+                            return pack(aFrom + forwardX, bFrom + forwardY);
+                        }
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void addEdit(int aFrom, int aTo, int bFrom, int bTo) {
+        // Halves of a split may produce touching regions, they are kept as one
+        if (!edits.isEmpty()) {
+            Edit last = edits.get(edits.size() - 1);
+            if (last.aTo() == aFrom && last.bTo() == bFrom) {
+                edits.set(edits.size() - 1, new Edit(last.aFrom(), aTo, last.bFrom(), bTo));
+                return;
+            }
+        }
+        edits.add(new Edit(aFrom, aTo, bFrom, bTo));
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Changed region: tokens {@code [aFrom, aTo)} of the source are replaced by tokens {@code [bFrom, bTo)} of the
+     * target. One of the ranges may be empty.
+     */
+    public record Edit(int aFrom, int aTo, int bFrom, int bTo) {
+    }
+}
@@ -0,0 +1,139 @@
+package me.zedaster.moderationservice.diff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact delta between two texts. It's a line-based edit script found by {@link MyersDiff}: ranges of lines copied
+ * from the source text are stored as counts, only inserted lines are stored as text. The script is deflated.
+ * <p>
+ * Format of the script before deflating is a sequence of operations: a byte with the code of the operation and a
+ * variable-length count. {@link #COPY} and {@link #SKIP} take the count of lines of the source, {@link #INSERT} takes
+ * the length of UTF-8 text that follows it.
+ */
+public final class TextDelta {
+    /**
+     * Copy lines of the source to the result
+     */
+    private static final int COPY = 1;
+
+    /**
+     * Skip lines of the source
+     */
+    private static final int SKIP = 2;
+
+    /**
+     * Append text to the result
+     */
+    private static final int INSERT = 3;
+
+    private TextDelta() {
+    }
+
+    /**
+     * Create a delta that turns the source text into the target text
+     * @param source Source text
+     * @param target Target text
+     * @return Delta
+     */
+    public static byte[] create(String source, String target) {
+        List<String> sourceLines = TextTokens.lines(source);
+        List<String> targetLines = TextTokens.lines(target);
+        int[][] ids = TextTokens.toIds(sourceLines, targetLines);
+        List<MyersDiff.Edit> edits = MyersDiff.diff(ids[0], ids[1]);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            int position = 0;
+            for (MyersDiff.Edit edit : edits) {
+                writeOperation(out, COPY, edit.aFrom() - position);
+                writeOperation(out, SKIP, edit.aTo() - edit.aFrom());
+                if (edit.bTo() > edit.bFrom()) {
+                    byte[] text = String.join("", targetLines.subList(edit.bFrom(), edit.bTo()))
+                            .getBytes(StandardCharsets.UTF_8);
+                    writeOperation(out, INSERT, text.length);
+                    out.write(text);
+                }
+                position = edit.aTo();
+            }
+            writeOperation(out, COPY, sourceLines.size() - position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Apply a delta to the text it was created from
+     * @param source Source text of the delta
+     * @param delta Delta
+     * @return Target text of the delta
+     * @throws IllegalArgumentException if the delta is malformed or doesn't match the source
+     */
+    public static String apply(String source, byte[] delta) {
+        List<String> sourceLines = TextTokens.lines(source);
+        StringBuilder result = new StringBuilder(source.length());
+        int position = 0;
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(delta)))) {
+            int operation;
+            while ((operation = in.read()) != -1) {
+                int count = readCount(in);
+                switch (operation) {
+                    case COPY -> {
+                        checkLines(sourceLines, position, count);
+                        sourceLines.subList(position, position + count).forEach(result::append);
+                        position += count;
+                    }
+                    case SKIP -> {
+                        checkLines(sourceLines, position, count);
+                        position += count;
+                    }
+                    case INSERT -> result.append(new String(in.readNBytes(count), StandardCharsets.UTF_8));
+                    default -> throw new IllegalArgumentException("Unknown operation of the delta: " + operation);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed delta", e);
+        }
+        return result.toString();
+    }
+
+    private static void writeOperation(DataOutputStream out, int operation, int count) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        out.write(operation);
+        // Counts are written in 7-bit groups, so small counts take one byte
+        while ((count & ~0x7F) != 0) {
+            out.write((count & 0x7F) | 0x80);
+            count >>>= 7;
+        }
+        out.write(count);
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            count |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return count;
+            }
+        }
+        throw new IllegalArgumentException("Malformed count in the delta");
+    }
+
+    private static void checkLines(List<String> sourceLines, int position, int count) {
+        if (count < 0 || position + count > sourceLines.size()) {
+            throw new IllegalArgumentException("Delta doesn't match the source text");
+        }
+    }
+}
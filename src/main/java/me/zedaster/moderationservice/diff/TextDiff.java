@@ -0,0 +1,135 @@
+package me.zedaster.moderationservice.diff;
+
+import me.zedaster.moderationservice.dto.DiffLine;
+import me.zedaster.moderationservice.dto.DiffSegment;
+import me.zedaster.moderationservice.dto.DiffType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Readable diff between two texts. Lines are compared first, then words of edited lines are compared to show what
+ * exactly changed in them. Unchanged lines far from changes are left out.
+ */
+public final class TextDiff {
+    private final List<String> fromLines;
+
+    private final List<String> toLines;
+
+    private final int contextLines;
+
+    private final List<DiffLine> result = new ArrayList<>();
+
+    private TextDiff(List<String> fromLines, List<String> toLines, int contextLines) {
+        this.fromLines = fromLines;
+        this.toLines = toLines;
+        this.contextLines = contextLines;
+    }
+
+    /**
+     * Compare two texts
+     * @param from Older text
+     * @param to Newer text
+     * @param contextLines Count of unchanged lines kept before and after each change
+     * @return Changed lines with unchanged lines around them
+     */
+    public static List<DiffLine> diff(String from, String to, int contextLines) {
+        List<String> fromLines = TextTokens.lines(from);
+        List<String> toLines = TextTokens.lines(to);
+        int[][] ids = TextTokens.toIds(fromLines, toLines);
+        List<MyersDiff.Edit> edits = MyersDiff.diff(ids[0], ids[1]);
+
+        TextDiff diff = new TextDiff(fromLines, toLines, contextLines);
+        int fromPosition = 0;
+        int toPosition = 0;
+        for (int i = 0; i < edits.size(); i++) {
+            MyersDiff.Edit edit = edits.get(i);
+            diff.addEqual(fromPosition, toPosition, edit.aFrom() - fromPosition,
+                    i == 0 ? 0 : contextLines, contextLines);
+            diff.addChange(edit);
+            fromPosition = edit.aTo();
+            toPosition = edit.bTo();
+        }
+        if (!edits.isEmpty()) {
+            diff.addEqual(fromPosition, toPosition, fromLines.size() - fromPosition, contextLines, 0);
+        }
+        return diff.result;
+    }
+
+    /**
+     * Add unchanged lines that are close enough to changes
+     * @param fromPosition Index of the first line in the older text
+     * @param toPosition Index of the first line in the newer text
+     * @param count Count of unchanged lines
+     * @param leading Count of lines kept at the start (after the previous change)
+     * @param trailing Count of lines kept at the end (before the next change)
+     */
+    private void addEqual(int fromPosition, int toPosition, int count, int leading, int trailing) {
+        for (int i = 0; i < count; i++) {
+            if (i < leading || i >= count - trailing) {
+                result.add(new DiffLine(DiffType.EQUAL, fromPosition + i + 1, toPosition + i + 1,
+                        stripLineBreak(fromLines.get(fromPosition + i)), null));
+            }
+        }
+    }
+
+    /**
+     * Add a changed region. Deleted and inserted lines are paired in order and words of each pair are compared, the
+     * lines left without a pair are added as they are. A pair that differs only in the line break (the last line of
+     * a text may have none) is an unchanged line.
+     */
+    private void addChange(MyersDiff.Edit edit) {
+        int deleted = edit.aTo() - edit.aFrom();
+        int inserted = edit.bTo() - edit.bFrom();
+        int changed = Math.min(deleted, inserted);
+        for (int i = 0; i < changed; i++) {
+            int fromIndex = edit.aFrom() + i;
+            int toIndex = edit.bFrom() + i;
+            String fromLine = stripLineBreak(fromLines.get(fromIndex));
+            String toLine = stripLineBreak(toLines.get(toIndex));
+            result.add(fromLine.equals(toLine)
+                    ? new DiffLine(DiffType.EQUAL, fromIndex + 1, toIndex + 1, fromLine, null)
+                    : new DiffLine(DiffType.CHANGED, fromIndex + 1, toIndex + 1, null, diffWords(fromLine, toLine)));
+        }
+        for (int i = edit.aFrom() + changed; i < edit.aTo(); i++) {
+            result.add(new DiffLine(DiffType.DELETED, i + 1, null, stripLineBreak(fromLines.get(i)), null));
+        }
+        for (int i = edit.bFrom() + changed; i < edit.bTo(); i++) {
+            result.add(new DiffLine(DiffType.INSERTED, null, i + 1, stripLineBreak(toLines.get(i)), null));
+        }
+    }
+
+    private static List<DiffSegment> diffWords(String from, String to) {
+        List<String> fromWords = TextTokens.words(from);
+        List<String> toWords = TextTokens.words(to);
+        int[][] ids = TextTokens.toIds(fromWords, toWords);
+
+        List<DiffSegment> segments = new ArrayList<>();
+        int fromPosition = 0;
+        for (MyersDiff.Edit edit : MyersDiff.diff(ids[0], ids[1])) {
+            addSegment(segments, DiffType.EQUAL, fromWords.subList(fromPosition, edit.aFrom()));
+            addSegment(segments, DiffType.DELETED, fromWords.subList(edit.aFrom(), edit.aTo()));
+            addSegment(segments, DiffType.INSERTED, toWords.subList(edit.bFrom(), edit.bTo()));
+            fromPosition = edit.aTo();
+        }
+        addSegment(segments, DiffType.EQUAL, fromWords.subList(fromPosition, fromWords.size()));
+        return segments;
+    }
+
+    private static void addSegment(List<DiffSegment> segments, DiffType type, List<String> words) {
+        if (!words.isEmpty()) {
+            segments.add(new DiffSegment(type, String.join("", words)));
+        }
+    }
+
+    private static String stripLineBreak(String line) {
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > 0 && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+}
@@ -0,0 +1,90 @@
+package me.zedaster.moderationservice.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splitting of texts into tokens for {@link MyersDiff}. Tokens keep every character of the text, so joining them
+ * gives the text back.
+ */
+public final class TextTokens {
+    /**
+     * Types of characters of words
+     */
+    private static final int LETTER_OR_DIGIT = 0;
+
+    private static final int WHITESPACE = 1;
+
+    private static final int OTHER = 2;
+
+    private TextTokens() {
+    }
+
+    /**
+     * Split a text into lines. Each line keeps its line break, the last one may have none.
+     * @param text Text
+     * @return Lines
+     */
+    public static List<String> lines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            end = end < 0 ? text.length() : end + 1;
+            lines.add(text.substring(start, end));
+            start = end;
+        }
+        return lines;
+    }
+
+    /**
+     * Split a text into words. A word is a run of letters and digits or a run of whitespace, any other character
+     * is a word on its own.
+     * @param text Text
+     * @return Words
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int type = typeOf(text.codePointAt(start));
+            int end = start + Character.charCount(text.codePointAt(start));
+            if (type != OTHER) {
+                while (end < text.length() && typeOf(text.codePointAt(end)) == type) {
+                    end += Character.charCount(text.codePointAt(end));
+                }
+            }
+            words.add(text.substring(start, end));
+            start = end;
+        }
+        return words;
+    }
+
+    /**
+     * Map tokens of two sequences to IDs, equal tokens get equal IDs
+     * @param a First sequence
+     * @param b Second sequence
+     * @return IDs of the first and the second sequence
+     */
+    public static int[][] toIds(List<String> a, List<String> b) {
+        Map<String, Integer> ids = new HashMap<>();
+        return new int[][]{toIds(a, ids), toIds(b, ids)};
+    }
+
+    private static int[] toIds(List<String> tokens, Map<String, Integer> ids) {
+        int[] result = new int[tokens.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.computeIfAbsent(tokens.get(i), token -> ids.size());
+        }
+        return result;
+    }
+
+    private static int typeOf(int codePoint) {
+        if (Character.isLetterOrDigit(codePoint)) {
+            return LETTER_OR_DIGIT;
+        }
+        return Character.isWhitespace(codePoint) ? WHITESPACE : OTHER;
+    }
+}
@@ -0,0 +1,47 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Changes between two revisions of an article. Only changed lines and a few lines around them are included.
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class ArticleDiff {
+    /**
+     * Article ID
+     */
+    private final long articleId;
+
+    /**
+     * Number of the older revision starting from 1
+     */
+    private final int fromRevision;
+
+    /**
+     * Number of the newer revision
+     */
+    private final int toRevision;
+
+    /**
+     * Title of the older revision
+     */
+    private final String fromTitle;
+
+    /**
+     * Title of the newer revision
+     */
+    private final String toTitle;
+
+    /**
+     * Changed lines of the content with lines around them. Unchanged lines between them are left out.
+     */
+    private final List<DiffLine> lines;
+}
@@ -0,0 +1,25 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Article claimed by a moderator for a limited time
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class ArticleLease {
+    /**
+     * Summary of the claimed article
+     */
+    private final ArticleSummary article;
+
+    /**
+     * Time when the lease expires and the article can be claimed by another moderator
+     */
+    private final Instant expiresAt;
+}
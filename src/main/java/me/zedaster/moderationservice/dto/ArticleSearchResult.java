@@ -0,0 +1,25 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page of articles found by a search
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class ArticleSearchResult {
+    /**
+     * Found articles with creator data. The best match goes first.
+     */
+    private final List<NamedArticleSummary> articles;
+
+    /**
+     * Cursor of the next page or null if there are no more results
+     */
+    private final String nextCursor;
+}
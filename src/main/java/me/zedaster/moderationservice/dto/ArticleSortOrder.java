@@ -0,0 +1,16 @@
+package me.zedaster.moderationservice.dto;
+
+/**
+ * Order of articles in the moderation queue by the date of creation
+ */
+public enum ArticleSortOrder {
+    /**
+     * The oldest articles go first
+     */
+    OLDEST,
+
+    /**
+     * The newest articles go first
+     */
+    NEWEST
+}
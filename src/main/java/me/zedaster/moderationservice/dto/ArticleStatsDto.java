@@ -0,0 +1,37 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Counts of moderating articles
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class ArticleStatsDto {
+    /**
+     * Count of articles with each status
+     */
+    private final Map<ModerationStatus, Long> countsByStatus;
+
+    /**
+     * Total count of articles
+     */
+    private final long total;
+
+    /**
+     * Get count of articles with a status
+     * @param status Status of articles or null to get the total count
+     * @return Count of articles
+     */
+    public long countOf(ModerationStatus status) {
+        if (status == null) {
+            return total;
+        }
+        return countsByStatus.getOrDefault(status, 0L);
+    }
+}
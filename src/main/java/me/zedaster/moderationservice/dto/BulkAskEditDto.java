@@ -0,0 +1,18 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAskEditDto {
+    /**
+     * IDs of the articles
+     */
+    private final List<Long> ids;
+
+    /**
+     * Comment of the moderator for all the articles
+     */
+    private final String comment;
+}
@@ -0,0 +1,13 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkDecisionDto {
+    /**
+     * IDs of the articles
+     */
+    private final List<Long> ids;
+}
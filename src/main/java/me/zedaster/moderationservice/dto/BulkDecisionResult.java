@@ -0,0 +1,28 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Result of a decision made on many articles at once
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class BulkDecisionResult {
+    /**
+     * IDs of the articles the decision was applied to
+     */
+    private final List<Long> applied;
+
+    /**
+     * IDs of the articles that were skipped because they were not found, are claimed by another moderator or
+     * aren't in the required status
+     */
+    private final List<Long> skipped;
+}
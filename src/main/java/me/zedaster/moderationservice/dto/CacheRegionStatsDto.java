@@ -0,0 +1,38 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Statistics of a region of the second-level cache
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class CacheRegionStatsDto {
+    /**
+     * Name of the region
+     */
+    private final String region;
+
+    /**
+     * Count of lookups that found an entry
+     */
+    private final long hits;
+
+    /**
+     * Count of lookups that didn't find an entry
+     */
+    private final long misses;
+
+    /**
+     * Count of entries put into the region
+     */
+    private final long puts;
+
+    /**
+     * Count of entries in the region at the moment
+     */
+    private final long size;
+}
@@ -6,19 +6,35 @@ import lombok.Data;
 
 @Data
 public class CreateArticleDto {
+    public static final int MIN_TITLE_LENGTH = 15;
+
+    public static final int MAX_TITLE_LENGTH = 100;
+
+    public static final int MIN_CONTENT_LENGTH = 100;
+
+    public static final int MAX_CONTENT_LENGTH = 18_000;
+
+    public static final String TITLE_TOO_SHORT_MESSAGE = "Title must contain at least 15 characters!";
+
+    public static final String TITLE_TOO_LONG_MESSAGE = "Title mustn't contain more than 100 characters!";
+
+    public static final String CONTENT_TOO_SHORT_MESSAGE = "Content must contain at least 100 characters!";
+
+    public static final String CONTENT_TOO_LONG_MESSAGE = "Content mustn't contain more than 18 000 characters!";
+
     /**
      * Title of the article
      */
-    @Size(min = 15, message = "Title must contain at least 15 characters!")
-    @Size(max = 100, message = "Title mustn't contain more than 100 characters!")
+    @Size(min = MIN_TITLE_LENGTH, message = TITLE_TOO_SHORT_MESSAGE)
+    @Size(max = MAX_TITLE_LENGTH, message = TITLE_TOO_LONG_MESSAGE)
     @NotNull
     private final String title;
 
     /**
      * String content of the article
      */
-    @Size(min = 100, message = "Content must contain at least 100 characters!")
-    @Size(max = 18_000, message = "Content mustn't contain more than 18 000 characters!")
+    @Size(min = MIN_CONTENT_LENGTH, message = CONTENT_TOO_SHORT_MESSAGE)
+    @Size(max = MAX_CONTENT_LENGTH, message = CONTENT_TOO_LONG_MESSAGE)
     @NotNull
     private final String content;
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package me.zedaster.moderationservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Line of a diff between revisions of an article
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DiffLine {
+    /**
+     * Type of the line
+     */
+    private final DiffType type;
+
+    /**
+     * Number of the line in the older revision starting from 1. It's null for inserted lines.
+     */
+    private final Integer fromLine;
+
+    /**
+     * Number of the line in the newer revision starting from 1. It's null for deleted lines.
+     */
+    private final Integer toLine;
+
+    /**
+     * Text of the line without the line break. It's null for changed lines.
+     */
+    private final String text;
+
+    /**
+     * Segments of a changed line. It's null for other lines.
+     */
+    private final List<DiffSegment> segments;
+}
@@ -0,0 +1,25 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Run of words of a changed line
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class DiffSegment {
+    /**
+     * Type of the segment: {@link DiffType#EQUAL}, {@link DiffType#DELETED} or {@link DiffType#INSERTED}
+     */
+    private final DiffType type;
+
+    /**
+     * Text of the segment
+     */
+    private final String text;
+}
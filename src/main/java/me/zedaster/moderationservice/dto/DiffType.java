@@ -0,0 +1,26 @@
+package me.zedaster.moderationservice.dto;
+
+/**
+ * Type of a part of a diff between revisions of an article
+ */
+public enum DiffType {
+    /**
+     * The part is the same in both revisions
+     */
+    EQUAL,
+
+    /**
+     * The part is only in the older revision
+     */
+    DELETED,
+
+    /**
+     * The part is only in the newer revision
+     */
+    INSERTED,
+
+    /**
+     * The line was edited, its words are compared in segments
+     */
+    CHANGED
+}
@@ -0,0 +1,42 @@
+package me.zedaster.moderationservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One record of bulk article import
+ */
+@Data
+public class ImportArticleDto {
+    /**
+     * User ID of creator of the article
+     */
+    @Min(1)
+    @NotNull
+    private final Long creatorId;
+
+    /**
+     * Title of the article
+     */
+    @Size(min = 15, message = "Title must contain at least 15 characters!")
+    @Size(max = 100, message = "Title mustn't contain more than 100 characters!")
+    @NotNull
+    private final String title;
+
+    /**
+     * String content of the article
+     */
+    @Size(min = 100, message = "Content must contain at least 100 characters!")
+    @Size(max = 18_000, message = "Content mustn't contain more than 18 000 characters!")
+    @NotNull
+    private final String content;
+
+    /**
+     * Date of creation of the article. If it's null, the time of import is used.
+     */
+    private final Instant createdAt;
+}
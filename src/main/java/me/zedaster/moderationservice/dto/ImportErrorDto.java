@@ -0,0 +1,23 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Error of importing a particular record
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class ImportErrorDto {
+    /**
+     * Number of the line with the record (starting from 1)
+     */
+    private final long line;
+
+    /**
+     * Error message
+     */
+    private final String message;
+}
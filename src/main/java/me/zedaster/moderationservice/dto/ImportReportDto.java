@@ -0,0 +1,38 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Report of bulk article import
+ */
+@RequiredArgsConstructor
+@Getter
+public class ImportReportDto {
+    /**
+     * Count of successfully imported articles
+     */
+    private final long imported;
+
+    /**
+     * Count of records that weren't imported
+     */
+    private final long failed;
+
+    /**
+     * Duration of the import in milliseconds
+     */
+    private final long elapsedMillis;
+
+    /**
+     * Throughput of the import in articles per second
+     */
+    private final double articlesPerSecond;
+
+    /**
+     * Errors of particular records
+     */
+    private final List<ImportErrorDto> errors;
+}
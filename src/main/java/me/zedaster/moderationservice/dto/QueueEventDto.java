@@ -0,0 +1,41 @@
+package me.zedaster.moderationservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.event.ModerationEventType;
+
+import java.time.Instant;
+
+/**
+ * Change of the moderation queue sent to subscribed moderators
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class QueueEventDto {
+    /**
+     * Type of the change
+     */
+    private final ModerationEventType type;
+
+    /**
+     * ID of the article
+     */
+    private final long articleId;
+
+    /**
+     * User ID of the creator of the article
+     */
+    private final long creatorId;
+
+    /**
+     * User ID of the moderator who made the change. It's null for changes made by the creator.
+     */
+    private final Long moderatorId;
+
+    /**
+     * Time of the change
+     */
+    private final Instant occurredAt;
+}
@@ -0,0 +1,48 @@
+package me.zedaster.moderationservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Row of a counter of moderating articles. Global counters (with creator ID 0) are split into several stripes,
+ * so concurrent transactions mostly update different rows. The value of a counter is the sum of its stripes.
+ */
+@Entity
+@Table(name = "article_counters")
+@IdClass(ArticleCounterEntity.Key.class)
+@Getter
+@Setter
+@EqualsAndHashCode(of = {"creatorId", "status", "stripe"})
+@NoArgsConstructor
+public class ArticleCounterEntity {
+    @Id
+    @Column(nullable = false)
+    private Long creatorId;
+
+    @Id
+    @Column(nullable = false)
+    private Integer status;
+
+    @Id
+    @Column(nullable = false)
+    private Integer stripe;
+
+    @Column(nullable = false)
+    private Long count;
+
+    /**
+     * Primary key of a counter row
+     */
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long creatorId;
+
+        private Integer status;
+
+        private Integer stripe;
+    }
+}
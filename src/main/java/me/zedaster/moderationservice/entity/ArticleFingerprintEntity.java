@@ -0,0 +1,34 @@
+package me.zedaster.moderationservice.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * MinHash signature of the content of an article, see {@link me.zedaster.moderationservice.similarity.MinHasher}.
+ * Articles whose content is a near-duplicate of an earlier article share its cluster.
+ */
+@Entity
+@Table(name = "article_fingerprints")
+@Getter
+@Setter
+@EqualsAndHashCode(of = "articleId")
+@NoArgsConstructor
+public class ArticleFingerprintEntity {
+    @Id
+    private Long articleId;
+
+    /**
+     * ID of the first article of the cluster
+     */
+    @Column(nullable = false)
+    private Long clusterId;
+
+    /**
+     * Hashes of the signature in big-endian order
+     */
+    @Column(nullable = false)
+    private byte[] signature;
+}
@@ -0,0 +1,70 @@
+package me.zedaster.moderationservice.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Earlier revision of an article replaced by a resubmission. Only the latest revision is stored in full (in the
+ * content storage), earlier ones are stored as deltas: the delta of a revision turns the content of the next revision
+ * into the content of this one.
+ */
+@Entity
+@Table(name = "article_revisions", uniqueConstraints = {
+        @UniqueConstraint(name = "article_revisions_article_id_revision_key", columnNames = {"articleId", "revision"})
+})
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+public class ArticleRevisionEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_revisions_seq")
+    @SequenceGenerator(name = "article_revisions_seq", sequenceName = "article_revisions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long articleId;
+
+    /**
+     * Number of the revision starting from 1
+     */
+    @Column(nullable = false)
+    private Integer revision;
+
+    @Column(nullable = false)
+    private String title;
+
+    /**
+     * Comment of the moderator who asked to edit the revision
+     */
+    @Column
+    private String moderatorComment;
+
+    /**
+     * Delta from the content of the next revision to the content of this one, see {@link
+     * me.zedaster.moderationservice.diff.TextDelta}
+     */
+    @Column(nullable = false)
+    private byte[] delta;
+
+    /**
+     * Time when the revision was replaced
+     */
+    @Column(nullable = false)
+    private Instant replacedAt;
+
+    public ArticleRevisionEntity(Long articleId, Integer revision, String title, String moderatorComment,
+                                 byte[] delta, Instant replacedAt) {
+        this.articleId = articleId;
+        this.revision = revision;
+        this.title = title;
+        this.moderatorComment = moderatorComment;
+        this.delta = delta;
+        this.replacedAt = replacedAt;
+    }
+}
@@ -5,13 +5,19 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import me.zedaster.moderationservice.dto.ModerationStatus;
 
 import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "article_summaries", indexes = {
-        @Index(name = "article_summaries_creator_id_index", columnList = "creatorId")
+        @Index(name = "article_summaries_creator_id_index", columnList = "creatorId, createdAt, id"),
+        @Index(name = "article_summaries_status_index", columnList = "status, createdAt, id"),
+        @Index(name = "article_summaries_created_at_index", columnList = "createdAt, id")
 })
 @Getter
 @Setter
@@ -19,7 +25,8 @@ import java.time.Instant;
 @NoArgsConstructor
 public class ArticleSummaryEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_summaries_seq")
+    @SequenceGenerator(name = "article_summaries_seq", sequenceName = "article_summaries_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,6 +42,12 @@ public class ArticleSummaryEntity {
     @Column(nullable = false)
     private Long creatorId;
 
+    @Column
+    private Long leaseHolder;
+
+    @Column
+    private Instant leaseExpiresAt;
+
     @OneToOne(mappedBy = "article", fetch = FetchType.EAGER, orphanRemoval = true)
     private ModeratorCommentEntity moderatorComment;
 
@@ -0,0 +1,78 @@
+package me.zedaster.moderationservice.event;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Event in the life of a moderating article. It's published as an application event when an article is changed.
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class ModerationEvent {
+    /**
+     * Type of the event
+     */
+    private final ModerationEventType type;
+
+    /**
+     * ID of the article
+     */
+    private final long articleId;
+
+    /**
+     * User ID of the creator of the article
+     */
+    private final long creatorId;
+
+    /**
+     * User ID of the moderator who made the decision. It's null for events caused by the creator.
+     */
+    private final Long moderatorId;
+
+    /**
+     * Time of the event
+     */
+    private final Instant occurredAt;
+
+    /**
+     * How long the article waited for the decision since its creation. It's null for creation events.
+     */
+    private final Duration waitTime;
+
+    /**
+     * Create an event caused by the creator of the article
+     * @param type Type of the event
+     * @param articleId ID of the article
+     * @param creatorId User ID of the creator
+     * @return Event
+     */
+    public static ModerationEvent byCreator(ModerationEventType type, long articleId, long creatorId) {
+        return new ModerationEvent(type, articleId, creatorId, null, Instant.now(), null);
+    }
+
+    /**
+     * Create an event of a decision of a moderator
+     * @param type Type of the event
+     * @param articleId ID of the article
+     * @param creatorId User ID of the creator
+     * @param moderatorId User ID of the moderator
+     * @param createdAt Time of creation of the article
+     * @return Event
+     */
+    public static ModerationEvent byModerator(ModerationEventType type,
+                                              long articleId,
+                                              long creatorId,
+                                              long moderatorId,
+                                              Instant createdAt) {
+        Instant now = Instant.now();
+        Duration waitTime = createdAt == null ? null : Duration.between(createdAt, now);
+        return new ModerationEvent(type, articleId, creatorId, moderatorId, now, waitTime);
+    }
+}
@@ -0,0 +1,28 @@
+package me.zedaster.moderationservice.event;
+
+import lombok.Getter;
+
+/**
+ * Type of event in the life of a moderating article
+ */
+@Getter
+public enum ModerationEventType {
+    CREATED(0),
+    EDIT_REQUESTED(1),
+    ACCEPTED(2),
+    REMOVED(3),
+    CLAIMED(4),
+    RESUBMITTED(5);
+
+    private static final ModerationEventType[] values = values();
+
+    private final int id;
+
+    ModerationEventType(int id) {
+        this.id = id;
+    }
+
+    public static ModerationEventType getById(int id) {
+        return values[id];
+    }
+}
@@ -0,0 +1,65 @@
+package me.zedaster.moderationservice.repository;
+
+import jakarta.persistence.QueryHint;
+import me.zedaster.moderationservice.entity.ArticleCounterEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArticleCounterRepository extends CrudRepository<ArticleCounterEntity, ArticleCounterEntity.Key> {
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_counters"))
+    @Query(value = """
+            INSERT INTO article_counters (creator_id, status, stripe, count)
+            VALUES (:creatorId, :status, :stripe, :delta)
+            ON CONFLICT (creator_id, status, stripe) DO UPDATE SET count = article_counters.count + :delta""",
+            nativeQuery = true)
+    void add(@Param("creatorId") long creatorId,
+             @Param("status") int status,
+             @Param("stripe") int stripe,
+             @Param("delta") long delta);
+
+    @Query(value = """
+            SELECT status, sum(count) AS count
+            FROM article_counters
+            WHERE creator_id = :creatorId
+            GROUP BY status""",
+            nativeQuery = true)
+    List<StatusCount> sumByStatus(@Param("creatorId") long creatorId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_counters"))
+    @Query(value = "LOCK TABLE article_counters IN EXCLUSIVE MODE", nativeQuery = true)
+    void lock();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_counters"))
+    @Query(value = "DELETE FROM article_counters", nativeQuery = true)
+    void clear();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_counters"))
+    @Query(value = """
+            INSERT INTO article_counters (creator_id, status, stripe, count)
+            SELECT creator_id, status, 0, count(*) FROM article_summaries GROUP BY creator_id, status
+            UNION ALL
+            SELECT 0, status, 0, count(*) FROM article_summaries GROUP BY status""",
+            nativeQuery = true)
+    void insertFromSummaries();
+
+    /**
+     * Sum of a counter for a particular status
+     */
+    interface StatusCount {
+        int getStatus();
+
+        long getCount();
+    }
+}
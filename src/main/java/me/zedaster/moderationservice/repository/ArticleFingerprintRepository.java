@@ -0,0 +1,35 @@
+package me.zedaster.moderationservice.repository;
+
+import jakarta.persistence.QueryHint;
+import me.zedaster.moderationservice.entity.ArticleFingerprintEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArticleFingerprintRepository extends CrudRepository<ArticleFingerprintEntity, Long> {
+    List<ArticleFingerprintEntity> findAllByArticleIdGreaterThanOrderByArticleId(long articleId, Limit limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_fingerprints"))
+    @Query(value = """
+            INSERT INTO article_fingerprints (article_id, cluster_id, signature)
+            VALUES (:articleId, :clusterId, :signature)
+            ON CONFLICT (article_id) DO UPDATE SET cluster_id = EXCLUDED.cluster_id, signature = EXCLUDED.signature""",
+            nativeQuery = true)
+    void upsert(@Param("articleId") long articleId,
+                @Param("clusterId") long clusterId,
+                @Param("signature") byte[] signature);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_fingerprints"))
+    @Query(value = "DELETE FROM article_fingerprints WHERE article_id IN (:ids)", nativeQuery = true)
+    int deleteFingerprints(@Param("ids") List<Long> articleIds);
+}
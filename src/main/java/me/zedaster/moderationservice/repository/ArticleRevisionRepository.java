@@ -0,0 +1,25 @@
+package me.zedaster.moderationservice.repository;
+
+import jakarta.persistence.QueryHint;
+import me.zedaster.moderationservice.entity.ArticleRevisionEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArticleRevisionRepository extends CrudRepository<ArticleRevisionEntity, Long> {
+    int countByArticleId(long articleId);
+
+    List<ArticleRevisionEntity> findAllByArticleIdOrderByRevisionDesc(long articleId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_revisions"))
+    @Query(value = "DELETE FROM article_revisions WHERE article_id IN (:ids)", nativeQuery = true)
+    int deleteRevisions(@Param("ids") List<Long> articleIds);
+}
@@ -0,0 +1,136 @@
+package me.zedaster.moderationservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for search of article summaries by title. Titles are matched both by words (full-text search) and by
+ * similarity of trigrams (fuzzy search), and both ways are served by GIN indexes.
+ * <p>
+ * Only the newest {@value #MAX_RANKED_CANDIDATES} matches are ranked, so a common word doesn't make every page score
+ * and sort all titles containing it.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ArticleSearchRepository {
+    /**
+     * Text search configuration. Titles may be written in any language, so words are not stemmed.
+     */
+    private static final String TEXT_SEARCH_CONFIG = "simple";
+
+    /**
+     * Maximum count of matches that are ranked. Older matches are left out of the results.
+     */
+    static final int MAX_RANKED_CANDIDATES = 1000;
+
+    /**
+     * Names of the indexes used by the search
+     */
+    private static final List<String> INDEX_NAMES =
+            List.of("article_summaries_title_tsv_index", "article_summaries_title_trgm_index");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create the indexes used by the search if they don't exist. It's done when the application is started, because
+     * JPA can't describe GIN indexes. The indexes are built concurrently, so writes to a large table aren't blocked
+     * while they are built.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexesIfNotExist() {
+        try {
+            createIndexes();
+        } catch (DataAccessException e) {
+            log.error("Failed to create search indexes of article summaries", e);
+        }
+    }
+
+    private void createIndexes() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        dropInvalidIndexes();
+        // Concurrent builds can't run in a transaction, each statement is committed on its own here
+        jdbcTemplate.execute("""
+                CREATE INDEX CONCURRENTLY IF NOT EXISTS article_summaries_title_tsv_index
+                ON article_summaries USING GIN (to_tsvector('%s', title))""".formatted(TEXT_SEARCH_CONFIG));
+        jdbcTemplate.execute("""
+                CREATE INDEX CONCURRENTLY IF NOT EXISTS article_summaries_title_trgm_index
+                ON article_summaries USING GIN (title gin_trgm_ops)""");
+    }
+
+    /**
+     * Drop indexes left invalid by an interrupted concurrent build. Otherwise they would never be built again,
+     * because they already exist.
+     */
+    private void dropInvalidIndexes() {
+        List<String> invalidIndexes = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+                WHERE NOT i.indisvalid AND c.relname IN (?, ?)""",
+                String.class, INDEX_NAMES.toArray());
+        for (String index : invalidIndexes) {
+            log.warn("Search index {} was left invalid by an interrupted build, it's built again", index);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+        }
+    }
+
+    /**
+     * Find articles with titles matching the text. The results are ordered by rank, the best match goes first. Only
+     * the newest {@value #MAX_RANKED_CANDIDATES} matches are ranked, so the cost of a page depends on that count and
+     * not on how common the text is.
+     * @param text Text to search
+     * @param status Status of the articles or null to search articles with any status
+     * @param after Position of the last hit of the previous page or null to get the first page
+     * @param limit Maximum count of hits
+     * @return Hits ordered by rank and ID descending
+     */
+    public List<SearchHit> search(String text, ModerationStatus status, SearchHit after, int limit) {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, rank FROM (
+                    SELECT id, (ts_rank(to_tsvector('%1$s', title), query) + similarity(title, ?))::real AS rank
+                    FROM (
+                        SELECT id, title FROM article_summaries
+                        WHERE (to_tsvector('%1$s', title) @@ websearch_to_tsquery('%1$s', ?) OR title %% ?)"""
+                .formatted(TEXT_SEARCH_CONFIG));
+        parameters.add(text);
+        parameters.add(text);
+        parameters.add(text);
+        if (status != null) {
+            sql.append(" AND status = ?");
+            parameters.add(status.getId());
+        }
+        sql.append("""
+                         ORDER BY id DESC LIMIT %d
+                    ) AS candidates, websearch_to_tsquery('%s', ?) AS query
+                ) AS ranked""".formatted(MAX_RANKED_CANDIDATES, TEXT_SEARCH_CONFIG));
+        parameters.add(text);
+        if (after != null) {
+            sql.append(" WHERE (rank, id) < (?::real, ?)");
+            parameters.add(after.rank());
+            parameters.add(after.id());
+        }
+        sql.append(" ORDER BY rank DESC, id DESC LIMIT ?");
+        parameters.add(limit);
+
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new SearchHit(rs.getLong("id"), rs.getFloat("rank")),
+                parameters.toArray());
+    }
+
+    /**
+     * Article found by the search
+     * @param id ID of the article
+     * @param rank Rank of the match
+     */
+    public record SearchHit(long id, float rank) {
+    }
+}
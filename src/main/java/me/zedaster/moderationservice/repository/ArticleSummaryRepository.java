@@ -1,20 +1,174 @@
 package me.zedaster.moderationservice.repository;
 
+import jakarta.persistence.QueryHint;
+import me.zedaster.moderationservice.dto.ModerationStatus;
 import me.zedaster.moderationservice.entity.ArticleSummaryEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ArticleSummaryRepository extends CrudRepository<ArticleSummaryEntity, Long> {
     List<ArticleSummaryEntity> findAllByCreatorId(long creatorId, Pageable pageable);
 
+    List<ArticleSummaryEntity> findAllByStatus(ModerationStatus status, Pageable pageable);
+
+    List<ArticleSummaryEntity> findAllByStatusAndCreatorId(ModerationStatus status, long creatorId, Pageable pageable);
+
+    @Query("SELECT a FROM ArticleSummaryEntity a")
     List<ArticleSummaryEntity> findAll(PageRequest pageRequest);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByIdAndCreatorId(long articleId, long creatorId);
-    // TODO
 
+    @Query("""
+            SELECT a.id AS id, a.creatorId AS creatorId FROM ArticleSummaryEntity a
+            WHERE a.status = :status AND (a.createdAt > :createdAt OR (a.createdAt = :createdAt AND a.id > :id))
+            ORDER BY a.createdAt, a.id""")
+    List<QueueEntry> findNextInQueue(@Param("status") ModerationStatus status,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") long articleId,
+                                     Limit limit);
+
+    // Status 0 is MODERATING and 1 is EDIT_REQUESTED (see ModeratingStatusConverter).
+    // A lease is free if it has never been taken or has expired.
+
+    @Query(value = """
+            SELECT * FROM article_summaries
+            WHERE status = 0 AND (lease_expires_at IS NULL OR lease_expires_at < :now)
+            ORDER BY created_at, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED""",
+            nativeQuery = true)
+    Optional<ArticleSummaryEntity> findNextUnclaimed(@Param("now") Instant now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_summaries"))
+    @Query(value = """
+            UPDATE article_summaries SET lease_expires_at = :expiresAt
+            WHERE id = :id AND status = 0 AND lease_holder = :moderatorId""",
+            nativeQuery = true)
+    int renewLease(@Param("id") long articleId,
+                   @Param("moderatorId") long moderatorId,
+                   @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_summaries"))
+    @Query(value = """
+            UPDATE article_summaries SET lease_holder = :moderatorId, lease_expires_at = NULL
+            WHERE id = :id AND status = 0
+                AND (lease_holder = :moderatorId OR lease_expires_at IS NULL OR lease_expires_at < :now)""",
+            nativeQuery = true)
+    int takeModerating(@Param("id") long articleId, @Param("moderatorId") long moderatorId, @Param("now") Instant now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_summaries"))
+    @Query(value = """
+            UPDATE article_summaries SET status = 1, lease_holder = NULL, lease_expires_at = NULL
+            WHERE id = :id AND status = 0
+                AND (lease_holder = :moderatorId OR lease_expires_at IS NULL OR lease_expires_at < :now)""",
+            nativeQuery = true)
+    int requestEdit(@Param("id") long articleId, @Param("moderatorId") long moderatorId, @Param("now") Instant now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_summaries"))
+    @Query(value = """
+            UPDATE article_summaries SET status = 0
+            WHERE id = :id AND creator_id = :creatorId AND status = 1""",
+            nativeQuery = true)
+    int resubmit(@Param("id") long articleId, @Param("creatorId") long creatorId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_summaries"))
+    @Query(value = """
+            UPDATE article_summaries SET lease_holder = :moderatorId, lease_expires_at = NULL
+            WHERE id = :id
+                AND (status <> 0 OR lease_holder = :moderatorId OR lease_expires_at IS NULL OR lease_expires_at < :now)""",
+            nativeQuery = true)
+    int takeForRemoval(@Param("id") long articleId, @Param("moderatorId") long moderatorId, @Param("now") Instant now);
+
+    // Bulk decisions lock the articles they can be applied to in the order of IDs, so concurrent bulk decisions
+    // can't deadlock, and then change all of them by single statements.
+
+    @Query(value = """
+            SELECT id, creator_id AS "creatorId", status, created_at AS "createdAt" FROM article_summaries
+            WHERE id IN (:ids) AND status = 0
+                AND (lease_holder = :moderatorId OR lease_expires_at IS NULL OR lease_expires_at < :now)
+            ORDER BY id
+            FOR UPDATE""",
+            nativeQuery = true)
+    List<DecisionTarget> lockForEditRequest(@Param("ids") List<Long> articleIds,
+                                            @Param("moderatorId") long moderatorId,
+                                            @Param("now") Instant now);
+
+    @Query(value = """
+            SELECT id, creator_id AS "creatorId", status, created_at AS "createdAt" FROM article_summaries
+            WHERE id IN (:ids)
+                AND (status <> 0 OR lease_holder = :moderatorId OR lease_expires_at IS NULL OR lease_expires_at < :now)
+            ORDER BY id
+            FOR UPDATE""",
+            nativeQuery = true)
+    List<DecisionTarget> lockForRemoval(@Param("ids") List<Long> articleIds,
+                                        @Param("moderatorId") long moderatorId,
+                                        @Param("now") Instant now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_summaries"))
+    @Query(value = """
+            UPDATE article_summaries SET status = 1, lease_holder = NULL, lease_expires_at = NULL
+            WHERE id IN (:ids)""",
+            nativeQuery = true)
+    int requestEditAll(@Param("ids") List<Long> articleIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "moderator_comments"))
+    @Query(value = """
+            INSERT INTO moderator_comments (article_id, comment)
+            SELECT id, :comment FROM article_summaries WHERE id IN (:ids)
+            ON CONFLICT (article_id) DO UPDATE SET comment = EXCLUDED.comment""",
+            nativeQuery = true)
+    int upsertComments(@Param("ids") List<Long> articleIds, @Param("comment") String comment);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "moderator_comments"))
+    @Query(value = "DELETE FROM moderator_comments WHERE article_id IN (:ids)", nativeQuery = true)
+    int deleteComments(@Param("ids") List<Long> articleIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "article_summaries"))
+    @Query(value = "DELETE FROM article_summaries WHERE id IN (:ids)", nativeQuery = true)
+    int deleteSummaries(@Param("ids") List<Long> articleIds);
+
+    /**
+     * Article in the moderation queue
+     */
+    interface QueueEntry {
+        long getId();
+
+        long getCreatorId();
+    }
+
+    /**
+     * Article locked for a bulk decision
+     */
+    interface DecisionTarget {
+        long getId();
+
+        long getCreatorId();
+
+        int getStatus();
+
+        Instant getCreatedAt();
+    }
 }
@@ -0,0 +1,124 @@
+package me.zedaster.moderationservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Repository of the append-only log of moderation events. The log is a table partitioned by month, so old events
+ * are removed by dropping whole partitions.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ModerationEventRepository {
+    /**
+     * Name of the partitioned table
+     */
+    private static final String TABLE_NAME = "moderation_events";
+
+    /**
+     * Suffix format of partition names
+     */
+    private static final DateTimeFormatter PARTITION_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * Count of parameters of one row
+     */
+    private static final int ROW_PARAMETERS = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create the partitioned table if it doesn't exist
+     */
+    public void createTableIfNotExists() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS moderation_events (
+                    occurred_at timestamptz NOT NULL,
+                    event_type smallint NOT NULL,
+                    article_id bigint NOT NULL,
+                    creator_id bigint NOT NULL,
+                    moderator_id bigint,
+                    waited_millis bigint
+                ) PARTITION BY RANGE (occurred_at)""");
+        jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS moderation_events_article_id_index ON moderation_events (article_id)");
+    }
+
+    /**
+     * Create a partition for a month if it doesn't exist
+     * @param month Month
+     */
+    public void createPartitionIfNotExists(YearMonth month) {
+        String from = month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toString();
+        String to = month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toString();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted(partitionName(month), TABLE_NAME, from, to));
+    }
+
+    /**
+     * Drop partitions of months before the specified one
+     * @param firstKeptMonth The earliest month whose partition is kept
+     * @return Names of dropped partitions
+     */
+    public List<String> dropPartitionsBefore(YearMonth firstKeptMonth) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits
+                JOIN pg_class parent ON pg_inherits.inhparent = parent.oid
+                JOIN pg_class child ON pg_inherits.inhrelid = child.oid
+                WHERE parent.relname = ?""", String.class, TABLE_NAME);
+
+        String firstKeptName = partitionName(firstKeptMonth);
+        List<String> dropped = new ArrayList<>();
+        for (String partition : partitions) {
+            // Names with the same prefix and fixed-width suffix are ordered chronologically
+            if (partition.length() == firstKeptName.length() && partition.compareTo(firstKeptName) < 0) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped.add(partition);
+            }
+        }
+        Collections.sort(dropped);
+        return dropped;
+    }
+
+    /**
+     * Insert events with one multi-row statement
+     * @param events Events to insert
+     */
+    public void insertAll(List<ModerationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder("""
+                INSERT INTO moderation_events
+                (occurred_at, event_type, article_id, creator_id, moderator_id, waited_millis) VALUES """);
+        Object[] parameters = new Object[events.size() * ROW_PARAMETERS];
+        for (int i = 0; i < events.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+            ModerationEvent event = events.get(i);
+            int offset = i * ROW_PARAMETERS;
+            parameters[offset] = Timestamp.from(event.getOccurredAt());
+            parameters[offset + 1] = event.getType().getId();
+            parameters[offset + 2] = event.getArticleId();
+            parameters[offset + 3] = event.getCreatorId();
+            parameters[offset + 4] = event.getModeratorId();
+            parameters[offset + 5] = event.getWaitTime() == null ? null : event.getWaitTime().toMillis();
+        }
+        jdbcTemplate.update(sql.toString(), parameters);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return TABLE_NAME + "_" + month.format(PARTITION_SUFFIX_FORMAT);
+    }
+}
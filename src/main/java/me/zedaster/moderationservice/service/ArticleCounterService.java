@@ -0,0 +1,184 @@
+package me.zedaster.moderationservice.service;
+
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.dto.ArticleStatsDto;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import me.zedaster.moderationservice.repository.ArticleCounterRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service for incrementally maintained counters of moderating articles. The counters are updated in the transaction
+ * that changes the articles, so reading them never requires scanning article summaries.
+ */
+@Service
+@RequiredArgsConstructor
+public class ArticleCounterService {
+    /**
+     * Creator ID of global counters
+     */
+    static final long GLOBAL_CREATOR_ID = 0;
+
+    /**
+     * Count of rows of each global counter
+     */
+    private static final int GLOBAL_STRIPES = 16;
+
+    /**
+     * Repository of counter rows
+     */
+    private final ArticleCounterRepository articleCounterRepository;
+
+    /**
+     * Add articles with a status to the counters. Inside a transaction the change is collected and written right
+     * before the commit, see {@link PendingDeltas}.
+     * @param creatorId ID of the creator of the articles
+     * @param status Status of the articles
+     * @param delta Count of added articles. It's negative if the articles are removed.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void add(long creatorId, ModerationStatus status, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        PendingDeltas pendingDeltas = findPendingDeltas();
+        if (pendingDeltas == null) {
+            pendingDeltas = new PendingDeltas();
+            pendingDeltas.add(creatorId, status, delta);
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                pendingDeltas.write();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(pendingDeltas);
+            return;
+        }
+        pendingDeltas.add(creatorId, status, delta);
+    }
+
+    /**
+     * Move an article from one status to another in the counters
+     * @param creatorId ID of the creator of the article
+     * @param oldStatus Previous status of the article
+     * @param newStatus New status of the article
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void move(long creatorId, ModerationStatus oldStatus, ModerationStatus newStatus) {
+        move(creatorId, oldStatus, newStatus, 1);
+    }
+
+    /**
+     * Move articles from one status to another in the counters
+     * @param creatorId ID of the creator of the articles
+     * @param oldStatus Previous status of the articles
+     * @param newStatus New status of the articles
+     * @param count Count of moved articles
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void move(long creatorId, ModerationStatus oldStatus, ModerationStatus newStatus, long count) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        add(creatorId, oldStatus, -count);
+        add(creatorId, newStatus, count);
+    }
+
+    /**
+     * Get counts of moderating articles
+     * @param creatorId ID of the creator or null to get counts of all articles
+     * @return Counts of articles
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ArticleStatsDto getStats(Long creatorId) {
+        long counterCreatorId = creatorId == null ? GLOBAL_CREATOR_ID : creatorId;
+        Map<ModerationStatus, Long> countsByStatus = new EnumMap<>(ModerationStatus.class);
+        for (ModerationStatus status : ModerationStatus.values()) {
+            countsByStatus.put(status, 0L);
+        }
+
+        long total = 0;
+        for (ArticleCounterRepository.StatusCount statusCount : articleCounterRepository.sumByStatus(counterCreatorId)) {
+            countsByStatus.put(ModerationStatus.getById(statusCount.getStatus()), statusCount.getCount());
+            total += statusCount.getCount();
+        }
+        return new ArticleStatsDto(countsByStatus, total);
+    }
+
+    /**
+     * Find the changes collected in the current transaction
+     * @return Collected changes or null if there are none or there is no transaction
+     */
+    private PendingDeltas findPendingDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        // Synchronizations belong to the current transaction, so the changes of a suspended one are never taken
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas pendingDeltas && pendingDeltas.owner() == this) {
+                return pendingDeltas;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recalculate all counters from article summaries. Writers are blocked while the counters are recalculated.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void rebuild() {
+        articleCounterRepository.lock();
+        articleCounterRepository.clear();
+        articleCounterRepository.insertFromSummaries();
+    }
+
+    /**
+     * Changes of counter rows collected in one transaction. All global changes of the transaction go to one stripe,
+     * and the rows are updated in the order of their keys right before the commit. So concurrent transactions lock
+     * the rows they share in the same order and never deadlock, and the locks are held only until the commit.
+     */
+    private class PendingDeltas implements TransactionSynchronization {
+        private final int stripe = ThreadLocalRandom.current().nextInt(GLOBAL_STRIPES);
+
+        private final Map<CounterRow, Long> deltas = new TreeMap<>(Comparator
+                .comparingLong(CounterRow::creatorId)
+                .thenComparingInt(CounterRow::status)
+                .thenComparingInt(CounterRow::stripe));
+
+        void add(long creatorId, ModerationStatus status, long delta) {
+            deltas.merge(new CounterRow(GLOBAL_CREATOR_ID, status.getId(), stripe), delta, Long::sum);
+            deltas.merge(new CounterRow(creatorId, status.getId(), 0), delta, Long::sum);
+        }
+
+        void write() {
+            deltas.forEach((row, delta) -> {
+                if (delta != 0) {
+                    articleCounterRepository.add(row.creatorId(), row.status(), row.stripe(), delta);
+                }
+            });
+            deltas.clear();
+        }
+
+        ArticleCounterService owner() {
+            return ArticleCounterService.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write();
+        }
+    }
+
+    /**
+     * Key of a counter row
+     */
+    private record CounterRow(long creatorId, int status, int stripe) {
+    }
+}
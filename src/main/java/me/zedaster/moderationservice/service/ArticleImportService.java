@@ -0,0 +1,254 @@
+package me.zedaster.moderationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.configuration.ArticleImportConfiguration;
+import me.zedaster.moderationservice.configuration.ExecutorFactory;
+import me.zedaster.moderationservice.dto.ImportArticleDto;
+import me.zedaster.moderationservice.dto.ImportErrorDto;
+import me.zedaster.moderationservice.dto.ImportReportDto;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import me.zedaster.moderationservice.entity.ArticleSummaryEntity;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import me.zedaster.moderationservice.repository.ArticleSummaryRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Service for bulk import of articles for moderation
+ */
+@Service
+@Slf4j
+public class ArticleImportService {
+    /**
+     * Repository of article summaries
+     */
+    private final ArticleSummaryRepository articleSummaryRepository;
+
+    /**
+     * Service for article content
+     */
+    private final ContentService contentService;
+
+    /**
+     * Service for counters of articles
+     */
+    private final ArticleCounterService articleCounterService;
+
+    /**
+     * Service for detection of near-duplicate articles
+     */
+    private final NearDuplicateService nearDuplicateService;
+
+    /**
+     * Publisher of moderation events
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Mapper for parsing records
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Validator of records
+     */
+    private final Validator validator;
+
+    /**
+     * Count of records that are inserted in one transaction
+     */
+    private final int batchSize;
+
+    /**
+     * Executor for uploading content. Its size limits count of parallel uploads.
+     */
+    private final ExecutorService uploadExecutor;
+
+    public ArticleImportService(ArticleSummaryRepository articleSummaryRepository,
+                                ContentService contentService,
+                                ArticleCounterService articleCounterService,
+                                NearDuplicateService nearDuplicateService,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                ArticleImportConfiguration configuration,
+                                ExecutorFactory executorFactory) {
+        this.articleSummaryRepository = articleSummaryRepository;
+        this.contentService = contentService;
+        this.articleCounterService = articleCounterService;
+        this.nearDuplicateService = nearDuplicateService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = configuration.getBatchSize();
+        this.uploadExecutor = executorFactory.newFixedExecutor("article-import", configuration.getUploadParallelism());
+    }
+
+    /**
+     * Import articles from a stream of NDJSON records. The records are read one by one, so the whole stream is never
+     * held in memory. Invalid records and records that failed to be saved are skipped and reported.
+     * @param ndjsonStream Stream with one JSON record of {@link ImportArticleDto} per line
+     * @return Report of the import
+     * @throws IOException if the stream can't be read
+     */
+    public ImportReportDto importArticles(InputStream ndjsonStream) throws IOException {
+        long startNanos = System.nanoTime();
+        List<ImportErrorDto> errors = new ArrayList<>();
+        List<ImportRecord> batch = new ArrayList<>(batchSize);
+        long imported = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjsonStream, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            ImportArticleDto article = parseRecord(line, lineNumber, errors);
+            if (article == null) {
+                continue;
+            }
+
+            batch.add(new ImportRecord(lineNumber, article));
+            if (batch.size() >= batchSize) {
+                imported += importBatch(batch, errors);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            imported += importBatch(batch, errors);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        double articlesPerSecond = elapsedMillis == 0 ? imported : imported * 1000.0 / elapsedMillis;
+        errors.sort(Comparator.comparingLong(ImportErrorDto::getLine));
+        log.info("Imported {} articles ({} failed) in {} ms, {} articles/s",
+                imported, errors.size(), elapsedMillis, Math.round(articlesPerSecond));
+        return new ImportReportDto(imported, errors.size(), elapsedMillis, articlesPerSecond, errors);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * Parse and validate a record
+     * @param line Line with JSON record
+     * @param lineNumber Number of the line
+     * @param errors List of errors to add an error to if the record is invalid
+     * @return Parsed record or null if the record is invalid
+     */
+    private ImportArticleDto parseRecord(String line, long lineNumber, List<ImportErrorDto> errors) {
+        ImportArticleDto article;
+        try {
+            article = objectMapper.readValue(line, ImportArticleDto.class);
+        } catch (JsonProcessingException e) {
+            errors.add(new ImportErrorDto(lineNumber, "Malformed JSON record"));
+            return null;
+        }
+
+        Set<ConstraintViolation<ImportArticleDto>> violations = validator.validate(article);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            errors.add(new ImportErrorDto(lineNumber, message));
+            return null;
+        }
+        return article;
+    }
+
+    /**
+     * Insert summaries of a batch in one transaction and upload their content in parallel. If the content of some
+     * article fails to upload, its summary is removed.
+     * @param batch Batch of valid records
+     * @param errors List of errors to add errors of the batch to
+     * @return Count of imported articles
+     */
+    private long importBatch(List<ImportRecord> batch, List<ImportErrorDto> errors) {
+        Instant now = Instant.now();
+        List<ArticleSummaryEntity> entities = batch.stream()
+                .map(r -> new ArticleSummaryEntity(
+                        r.article().getTitle(),
+                        r.article().getCreatedAt() == null ? now : r.article().getCreatedAt(),
+                        r.article().getCreatorId()))
+                .toList();
+
+        List<ArticleSummaryEntity> savedEntities = new ArrayList<>(entities.size());
+        try {
+            articleSummaryRepository.saveAll(entities).forEach(savedEntities::add);
+        } catch (DataAccessException e) {
+            log.error("Failed to save a batch of imported articles", e);
+            batch.forEach(r -> errors.add(new ImportErrorDto(r.line(), "Failed to save the article")));
+            return 0;
+        }
+
+        List<CompletableFuture<Void>> uploads = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            long articleId = savedEntities.get(i).getId();
+            String content = batch.get(i).article().getContent();
+            uploads.add(CompletableFuture.runAsync(() -> contentService.saveContent(articleId, content), uploadExecutor));
+        }
+
+        List<Long> failedIds = new ArrayList<>();
+        Map<Long, Long> importedByCreator = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                uploads.get(i).join();
+                long creatorId = batch.get(i).article().getCreatorId();
+                importedByCreator.merge(creatorId, 1L, Long::sum);
+                nearDuplicateService.register(savedEntities.get(i).getId(), batch.get(i).article().getContent());
+                eventPublisher.publishEvent(ModerationEvent.byCreator(ModerationEventType.CREATED,
+                        savedEntities.get(i).getId(), creatorId));
+            } catch (CompletionException e) {
+                long articleId = savedEntities.get(i).getId();
+                failedIds.add(articleId);
+                errors.add(new ImportErrorDto(batch.get(i).line(), e.getCause().getMessage()));
+            }
+        }
+
+        if (!failedIds.isEmpty()) {
+            articleSummaryRepository.deleteAllById(failedIds);
+        }
+        importedByCreator.forEach((creatorId, count) ->
+                articleCounterService.add(creatorId, ModerationStatus.MODERATING, count));
+        return batch.size() - failedIds.size();
+    }
+
+    /**
+     * Parsed record with its line number
+     * @param line Number of the line
+     * @param article Parsed record
+     */
+    private record ImportRecord(long line, ImportArticleDto article) {
+    }
+}
@@ -0,0 +1,7 @@
+package me.zedaster.moderationservice.service;
+
+public class ArticleLeasedException extends RuntimeException {
+    public ArticleLeasedException(long articleId) {
+        super("Article with ID %d is claimed by another moderator!".formatted(articleId));
+    }
+}
@@ -1,23 +1,58 @@
 package me.zedaster.moderationservice.service;
 
-import jakarta.validation.Valid;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.configuration.ArticleFetchConfiguration;
+import me.zedaster.moderationservice.configuration.ArticleLeaseConfiguration;
+import me.zedaster.moderationservice.configuration.ExecutorFactory;
+import me.zedaster.moderationservice.diff.TextDelta;
+import me.zedaster.moderationservice.diff.TextDiff;
 import me.zedaster.moderationservice.dto.*;
+import me.zedaster.moderationservice.entity.ArticleRevisionEntity;
 import me.zedaster.moderationservice.entity.ArticleSummaryEntity;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
 import me.zedaster.moderationservice.entity.ModeratorCommentEntity;
+import me.zedaster.moderationservice.repository.ArticleRevisionRepository;
+import me.zedaster.moderationservice.repository.ArticleSearchRepository;
+import me.zedaster.moderationservice.repository.ArticleSearchRepository.SearchHit;
 import me.zedaster.moderationservice.repository.ArticleSummaryRepository;
+import me.zedaster.moderationservice.repository.ArticleSummaryRepository.DecisionTarget;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -26,17 +61,38 @@ import java.util.stream.IntStream;
 @Validated
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ArticleModerationService {
     /**
      * Size of the page with article summaries
      */
     private static final int ARTICLE_SUMMARIES_PAGE_SIZE = 10;
 
+    /**
+     * Maximum count of articles in one bulk decision
+     */
+    private static final int MAX_BULK_DECISION_SIZE = 1000;
+
+    /**
+     * Count of unchanged lines shown around each change in diffs between revisions
+     */
+    private static final int DIFF_CONTEXT_LINES = 3;
+
     /**
      * Repository of article summaries
      */
     private final ArticleSummaryRepository articleSummaryRepository;
 
+    /**
+     * Repository of earlier revisions of articles
+     */
+    private final ArticleRevisionRepository articleRevisionRepository;
+
+    /**
+     * Repository for search of articles
+     */
+    private final ArticleSearchRepository articleSearchRepository;
+
     /**
      * Service for article content
      */
@@ -52,19 +108,71 @@ public class ArticleModerationService {
      */
     private final ArticleService articleService;
 
+    /**
+     * Service for counters of articles
+     */
+    private final ArticleCounterService articleCounterService;
+
+    /**
+     * Prefetcher of articles moderators are likely to open next
+     */
+    private final ArticlePrefetcher articlePrefetcher;
+
+    /**
+     * Service for detection of near-duplicate articles
+     */
+    private final NearDuplicateService nearDuplicateService;
+
+    /**
+     * Publisher of moderation events
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Configuration of leases of claimed articles
+     */
+    private final ArticleLeaseConfiguration articleLeaseConfiguration;
+
+    /**
+     * Configuration of parallel fetching of article data
+     */
+    private final ArticleFetchConfiguration articleFetchConfiguration;
+
+    /**
+     * Executor of calls to external services made in parallel. Its queue is bounded, so a burst of requests can't
+     * pile up unlimited work.
+     */
+    private ExecutorService fetchExecutor;
+
+    /**
+     * Factory of executors for blocking calls
+     */
+    private final ExecutorFactory executorFactory;
+
+    @PostConstruct
+    public void startFetchExecutor() {
+        fetchExecutor = executorFactory.newBoundedExecutor("article-fetch",
+                articleFetchConfiguration.getParallelism(), articleFetchConfiguration.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void stopFetchExecutor() {
+        fetchExecutor.shutdown();
+    }
+
     /**
      * Get summaries of articles created by user for moderation
      * @param userId ID of the user
      * @param page Page number
      * @return List of article summaries
      */
-    @Transactional(propagation = Propagation.SUPPORTS)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ArticleSummary> getUserArticleSummaries(@Min(1) long userId, @Min(1) int page) {
         PageRequest pageRequest = PageRequest.of(page - 1, ARTICLE_SUMMARIES_PAGE_SIZE);
         return articleSummaryRepository
                 .findAllByCreatorId(userId, pageRequest)
                 .stream()
-                .map(this::entityToArticleSummary)
+                .map(ArticleModerationService::entityToArticleSummary)
                 .toList();
 
     }
@@ -72,44 +180,113 @@ public class ArticleModerationService {
     /**
      * Get summaries of articles for moderation
      * @param page Page number
+     * @param status Status of the articles or null to get articles with any status
+     * @param creatorId ID of the creator of the articles or null to get articles of all creators
+     * @param sortOrder Order of the articles by the date of creation
      * @return List of article summaries
      * @throws ExternalConnectException if connection to external services was failed
      */
-    @Transactional(propagation = Propagation.SUPPORTS, rollbackFor = ExternalConnectException.class)
-    public List<NamedArticleSummary> getArticleSummaries(@Min(1) int page) {
-        PageRequest pageRequest = PageRequest.of(page - 1, ARTICLE_SUMMARIES_PAGE_SIZE);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true, rollbackFor = ExternalConnectException.class)
+    public List<NamedArticleSummary> getArticleSummaries(@Min(1) int page,
+                                                         ModerationStatus status,
+                                                         @Min(1) Long creatorId,
+                                                         @NotNull ArticleSortOrder sortOrder) {
+        PageRequest pageRequest = PageRequest.of(page - 1, ARTICLE_SUMMARIES_PAGE_SIZE, toSort(sortOrder));
 
-        List<ArticleSummaryEntity> summaryEntities = articleSummaryRepository.findAll(pageRequest);
+        List<ArticleSummaryEntity> summaryEntities = findArticleSummaries(status, creatorId, pageRequest);
         List<Long> creatorIds = summaryEntities.stream()
                 .map(ArticleSummaryEntity::getCreatorId)
                 .toList();
         List<Creator> creators = creatorService.getCreatorsByIds(creatorIds);
 
-        return IntStream
+        List<NamedArticleSummary> summaries = IntStream
                 .range(0, summaryEntities.size())
                 .mapToObj(i -> entityToNamedArticleSummary(summaryEntities.get(i), creators.get(i)))
                 .toList();
+        articlePrefetcher.prefetch(summaries);
+        return summaries;
     }
 
     /**
-     * Get moderating article by ID
+     * Search articles for moderation by title. Titles are matched by words and by similarity, so misspelled words
+     * are found as well.
+     * @param text Text to search
+     * @param status Status of the articles or null to search articles with any status
+     * @param cursor Cursor of the page from the previous result or null to get the first page
+     * @return Page of found articles, the best match goes first
+     * @throws InvalidCursorException if the cursor is malformed
+     * @throws ExternalConnectException if connection to external services was failed
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true, rollbackFor = ExternalConnectException.class)
+    public ArticleSearchResult searchArticles(@NotBlank @Size(max = 200) String text,
+                                              ModerationStatus status,
+                                              String cursor) {
+        SearchHit after = cursor == null ? null : decodeCursor(cursor);
+        List<SearchHit> hits = articleSearchRepository.search(text, status, after, ARTICLE_SUMMARIES_PAGE_SIZE);
+        if (hits.isEmpty()) {
+            return new ArticleSearchResult(List.of(), null);
+        }
+
+        Map<Long, ArticleSummaryEntity> entitiesById = new HashMap<>();
+        articleSummaryRepository
+                .findAllById(hits.stream().map(SearchHit::id).toList())
+                .forEach(entity -> entitiesById.put(entity.getId(), entity));
+        // Articles removed after the search are skipped
+        List<ArticleSummaryEntity> summaryEntities = hits.stream()
+                .map(hit -> entitiesById.get(hit.id()))
+                .filter(Objects::nonNull)
+                .toList();
+        List<Creator> creators = creatorService.getCreatorsByIds(summaryEntities.stream()
+                .map(ArticleSummaryEntity::getCreatorId)
+                .toList());
+
+        List<NamedArticleSummary> articles = IntStream
+                .range(0, summaryEntities.size())
+                .mapToObj(i -> entityToNamedArticleSummary(summaryEntities.get(i), creators.get(i)))
+                .toList();
+        String nextCursor = hits.size() < ARTICLE_SUMMARIES_PAGE_SIZE ? null : encodeCursor(hits.get(hits.size() - 1));
+        return new ArticleSearchResult(articles, nextCursor);
+    }
+
+    /**
+     * Get moderating article by ID. The summary is loaded in its own short transaction, so the database connection
+     * is released before the content and the creator are fetched in parallel. If the article was prefetched, its
+     * content and creator are taken from the prefetcher.
      * @param articleId ID of the article
      * @return Article
      * @throws ExternalConnectException if connection to external services was failed
      * @throws NoSuchArticleException if the article was not found
      */
-    @Transactional(
-            propagation = Propagation.SUPPORTS,
-            rollbackFor = {NoSuchArticleException.class, ExternalConnectException.class})
     public Article getArticle(@Min(1) long articleId) {
         ArticleSummaryEntity summaryEntity = articleSummaryRepository
                 .findById(articleId)
                 .orElseThrow(() -> new NoSuchArticleException(articleId));
-        String content = contentService.getContent(articleId).orElseThrow(() -> new NoSuchArticleException(articleId));
-        Creator creator = creatorService.getCreator(summaryEntity.getCreatorId());
+
+        Optional<ArticlePrefetcher.PrefetchedArticle> prefetched = articlePrefetcher.take(articleId);
+        if (prefetched.isPresent()) {
+            return articleFromSummaryEntity(summaryEntity, prefetched.get().content(), prefetched.get().creator());
+        }
+
+        CompletableFuture<Optional<String>> contentFuture = CompletableFuture
+                .supplyAsync(() -> contentService.getContent(articleId), fetchExecutor);
+        CompletableFuture<Creator> creatorFuture = CompletableFuture
+                .supplyAsync(() -> creatorService.getCreator(summaryEntity.getCreatorId()), fetchExecutor);
+
+        String content = join(contentFuture).orElseThrow(() -> new NoSuchArticleException(articleId));
+        Creator creator = join(creatorFuture);
         return articleFromSummaryEntity(summaryEntity, content, creator);
     }
 
+    /**
+     * Get counts of moderating articles
+     * @param creatorId ID of the creator or null to get counts of all articles
+     * @return Counts of articles by status
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ArticleStatsDto getArticleStats(@Min(1) Long creatorId) {
+        return articleCounterService.getStats(creatorId);
+    }
+
     /**
      * Check if user owns article.
      * @param userId ID of the user
@@ -117,93 +294,581 @@ public class ArticleModerationService {
      * @return true if user owns article, false otherwise. If the article or the user was not found, returns false
      * as well.
      */
-    @Transactional(propagation = Propagation.SUPPORTS)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean userOwnArticle(@Min(1) long userId, @Min(1) long articleId) {
         return articleSummaryRepository.existsByIdAndCreatorId(articleId, userId);
     }
 
     /**
-     * Save article for moderation
+     * Save article for moderation from a streamed upload. The upload is validated by {@link ArticleUploadReader}.
      * @param creatorId ID of the creator
-     * @param createDto DTO with article data
+     * @param upload Upload with the title and the content file, it's validated while it's read
      * @throws ExternalConnectException if connection to ${@link ContentService} was failed
      */
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = ExternalConnectException.class)
-    public void saveArticle(@Min(1) long creatorId, @Valid CreateArticleDto createDto) {
-        ArticleSummaryEntity entity = new ArticleSummaryEntity(createDto.getTitle(), Instant.now(), creatorId);
+    public void saveArticle(@Min(1) long creatorId, ArticleUpload upload) {
+        ArticleSummaryEntity entity = new ArticleSummaryEntity(upload.getTitle(), Instant.now(), creatorId);
         ArticleSummaryEntity savedEntity = articleSummaryRepository.save(entity);
         long articleId = savedEntity.getId();
-        contentService.saveContent(articleId, createDto.getContent());
+        articleCounterService.add(creatorId, ModerationStatus.MODERATING, 1);
+        contentService.saveContent(articleId, upload.getContentFile(), upload.getContentSize(),
+                upload.getContentChecksum());
+        nearDuplicateService.register(articleId, upload.getContentFile());
+        eventPublisher.publishEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, articleId, creatorId));
     }
 
     /**
-     * Publish a moderating article
+     * Resubmit an article after the moderator asked for edit. The article goes back to moderation at its place in
+     * the queue. The replaced revision is kept as a delta from the new content, with its title and the comment of
+     * the moderator.
+     * <p>
+     * The new content is staged in the storage and replaces the old one after the transaction is committed. If the
+     * transaction is rolled back, the old content stays, and it's still the current revision.
      * @param articleId ID of the article
+     * @param creatorId ID of the creator
+     * @param upload Upload with the new title and content, it's validated while it's read
+     * @throws NoSuchArticleException if the article was not found or is created by another user
+     * @throws IllegalStateException if the article is not in EDIT_REQUESTED status
      * @throws ExternalConnectException if connection to ${@link ContentService} was failed
-     * @throws NoSuchArticleException if the article was not found
      */
     @Transactional(propagation = Propagation.REQUIRED,
             rollbackFor = {ExternalConnectException.class, NoSuchArticleException.class})
-    public void publishArticle(@Min(1) long articleId) {
-        Optional<ArticleSummaryEntity> summaryEntityOptional = articleSummaryRepository.findById(articleId);
-        if (summaryEntityOptional.isEmpty()) {
+    public void resubmitArticle(@Min(1) long articleId, @Min(1) long creatorId, ArticleUpload upload) {
+        // The conditional update locks the row, so concurrent resubmissions of the article wait and then fail
+        if (articleSummaryRepository.resubmit(articleId, creatorId) == 0) {
+            if (!articleSummaryRepository.existsByIdAndCreatorId(articleId, creatorId)) {
+                throw new NoSuchArticleException(articleId);
+            }
+            throw new IllegalStateException("Article with ID %d is not in EDIT_REQUESTED status".formatted(articleId));
+        }
+
+        ArticleSummaryEntity summaryEntity = articleSummaryRepository
+                .findById(articleId)
+                .orElseThrow(() -> new NoSuchArticleException(articleId));
+        String oldContent = contentService.getContent(articleId)
+                .orElseThrow(() -> new NoSuchArticleException(articleId));
+        String newContent = readContent(upload);
+
+        int revision = articleRevisionRepository.countByArticleId(articleId) + 1;
+        String comment = summaryEntity.getModeratorComment() == null
+                ? null
+                : summaryEntity.getModeratorComment().getComment();
+        articleRevisionRepository.save(new ArticleRevisionEntity(articleId, revision, summaryEntity.getTitle(),
+                comment, TextDelta.create(newContent, oldContent), Instant.now()));
+
+        summaryEntity.setTitle(upload.getTitle());
+        summaryEntity.setModeratorComment(null);
+        articleSummaryRepository.save(summaryEntity);
+        articleCounterService.move(creatorId, ModerationStatus.EDIT_REQUESTED, ModerationStatus.MODERATING);
+        // The stored content is the only full copy of the replaced revision, so it's replaced only after the commit
+        String stagingKey = contentService.stageContent(articleId, upload.getContentFile(), upload.getContentSize(),
+                upload.getContentChecksum());
+        afterCompletion(() -> publishStagedContent(articleId, stagingKey),
+                () -> removeStagedContent(stagingKey));
+        nearDuplicateService.register(articleId, newContent);
+        eventPublisher.publishEvent(ModerationEvent.byCreator(ModerationEventType.RESUBMITTED, articleId, creatorId));
+    }
+
+    /**
+     * Get changes between two revisions of an article. Earlier revisions are restored from the latest one by
+     * applying their deltas in turn.
+     * @param articleId ID of the article
+     * @param fromRevision Number of the older revision or null to take the revision before the newer one
+     * @param toRevision Number of the newer revision or null to take the latest revision
+     * @return Changes between the revisions
+     * @throws NoSuchArticleException if the article was not found
+     * @throws NoSuchRevisionException if any of the revisions was not found
+     * @throws ExternalConnectException if connection to ${@link ContentService} was failed
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true, rollbackFor = ExternalConnectException.class)
+    public ArticleDiff getArticleDiff(@Min(1) long articleId, Integer fromRevision, Integer toRevision) {
+        ArticleSummaryEntity summaryEntity = articleSummaryRepository
+                .findById(articleId)
+                .orElseThrow(() -> new NoSuchArticleException(articleId));
+        List<ArticleRevisionEntity> revisions = articleRevisionRepository
+                .findAllByArticleIdOrderByRevisionDesc(articleId);
+
+        int latestRevision = revisions.isEmpty() ? 1 : revisions.get(0).getRevision() + 1;
+        int to = toRevision == null ? latestRevision : toRevision;
+        int from = fromRevision == null ? to - 1 : fromRevision;
+        if (to < 1 || to > latestRevision) {
+            throw new NoSuchRevisionException(articleId, to);
+        }
+        if (from < 1 || from > latestRevision) {
+            throw new NoSuchRevisionException(articleId, from);
+        }
+
+        String content = contentService.getContent(articleId).orElseThrow(() -> new NoSuchArticleException(articleId));
+        RevisionText revisionText = new RevisionText(summaryEntity.getTitle(), content);
+        RevisionText fromText = from == latestRevision ? revisionText : null;
+        RevisionText toText = to == latestRevision ? revisionText : null;
+        for (ArticleRevisionEntity revision : revisions) {
+            if (revision.getRevision() < Math.min(from, to)) {
+                break;
+            }
+            revisionText = new RevisionText(revision.getTitle(),
+                    TextDelta.apply(revisionText.content(), revision.getDelta()));
+            if (revision.getRevision() == from) {
+                fromText = revisionText;
+            }
+            if (revision.getRevision() == to) {
+                toText = revisionText;
+            }
+        }
+
+        return new ArticleDiff(articleId, from, to, fromText.title(), toText.title(),
+                TextDiff.diff(fromText.content(), toText.content(), DIFF_CONTEXT_LINES));
+    }
+
+    /**
+     * Get near-duplicates of an article, which are other articles of its cluster
+     * @param articleId ID of the article
+     * @return IDs of the near-duplicates in ascending order
+     * @throws NoSuchArticleException if the article was not found
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Long> getNearDuplicates(@Min(1) long articleId) {
+        if (!articleSummaryRepository.existsById(articleId)) {
             throw new NoSuchArticleException(articleId);
         }
+        return nearDuplicateService.getNearDuplicates(articleId);
+    }
 
-        if (summaryEntityOptional.get().getStatus() != ModerationStatus.MODERATING) {
-            throw new IllegalStateException("Article with ID %d is not in MODERATING status".formatted(articleId));
+    /**
+     * Remove an article together with its near-duplicates. Articles that can't be removed are skipped, as in
+     * {@link #removeArticles(List, long)}.
+     * @param articleId ID of the article
+     * @param moderatorId User ID of the moderator
+     * @return IDs of removed and skipped articles
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public BulkDecisionResult removeNearDuplicates(@Min(1) long articleId, @Min(1) long moderatorId) {
+        List<Long> articleIds = new ArrayList<>();
+        articleIds.add(articleId);
+        articleIds.addAll(nearDuplicateService.getNearDuplicates(articleId));
+        return removeArticles(articleIds.subList(0, Math.min(articleIds.size(), MAX_BULK_DECISION_SIZE)),
+                moderatorId);
+    }
+
+    /**
+     * Claim the oldest moderating article that isn't claimed by another moderator. The article is reserved for the
+     * moderator until the lease expires, so other moderators don't get it from this method.
+     * @param moderatorId User ID of the moderator
+     * @return Lease of the claimed article or empty optional if there are no unclaimed articles
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public Optional<ArticleLease> claimNextArticle(@Min(1) long moderatorId) {
+        Instant now = Instant.now();
+        Optional<ArticleSummaryEntity> summaryEntityOptional = articleSummaryRepository.findNextUnclaimed(now);
+        if (summaryEntityOptional.isEmpty()) {
+            return Optional.empty();
         }
 
-        String title = summaryEntityOptional.get().getTitle();
-        String content = contentService.getContent(articleId).orElseThrow(() -> new NoSuchArticleException(articleId));;
-        long creatorId = summaryEntityOptional.get().getCreatorId();
+        ArticleSummaryEntity summaryEntity = summaryEntityOptional.get();
+        summaryEntity.setLeaseHolder(moderatorId);
+        summaryEntity.setLeaseExpiresAt(now.plus(articleLeaseConfiguration.getDuration()));
+        articleSummaryRepository.save(summaryEntity);
+        publishModeratorEvent(ModerationEventType.CLAIMED, summaryEntity.getId(), summaryEntity, moderatorId);
+        return Optional.of(new ArticleLease(entityToArticleSummary(summaryEntity), summaryEntity.getLeaseExpiresAt()));
+    }
 
-        articleService.saveArticle(new PublishArticleDto(title, content, creatorId));
+    /**
+     * Renew the lease of an article claimed by the moderator
+     * @param articleId ID of the article
+     * @param moderatorId User ID of the moderator
+     * @return Renewed lease
+     * @throws NoSuchArticleException if the article was not found
+     * @throws ArticleLeasedException if the article is claimed by another moderator
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public ArticleLease renewLease(@Min(1) long articleId, @Min(1) long moderatorId) {
+        Instant expiresAt = Instant.now().plus(articleLeaseConfiguration.getDuration());
+        if (articleSummaryRepository.renewLease(articleId, moderatorId, expiresAt) == 0) {
+            throw decisionRejected(articleId);
+        }
 
-        removeExistingArticle(articleId);
+        ArticleSummaryEntity summaryEntity = articleSummaryRepository
+                .findById(articleId)
+                .orElseThrow(() -> new NoSuchArticleException(articleId));
+        return new ArticleLease(entityToArticleSummary(summaryEntity), expiresAt);
+    }
+
+    /**
+     * Publish a moderating article
+     * @param articleId ID of the article
+     * @param moderatorId User ID of the moderator
+     * @throws ExternalConnectException if connection to ${@link ContentService} was failed
+     * @throws NoSuchArticleException if the article was not found
+     * @throws ArticleLeasedException if the article is claimed by another moderator
+     */
+    @Transactional(propagation = Propagation.REQUIRED,
+            rollbackFor = {ExternalConnectException.class, NoSuchArticleException.class})
+    public void publishArticle(@Min(1) long articleId, @Min(1) long moderatorId) {
+        // The conditional update locks the row, so concurrent decisions on the article wait and then fail
+        if (articleSummaryRepository.takeModerating(articleId, moderatorId, Instant.now()) == 0) {
+            throw decisionRejected(articleId);
+        }
+
+        ArticleSummaryEntity summaryEntity = articleSummaryRepository
+                .findById(articleId)
+                .orElseThrow(() -> new NoSuchArticleException(articleId));
+        String content = contentService.getContent(articleId).orElseThrow(() -> new NoSuchArticleException(articleId));
+
+        articleService.saveArticle(new PublishArticleDto(summaryEntity.getTitle(), content,
+                summaryEntity.getCreatorId()));
+
+        removeExistingArticle(articleId, summaryEntity);
+        publishModeratorEvent(ModerationEventType.ACCEPTED, articleId, summaryEntity, moderatorId);
     }
 
     /**
      * Ask for edit of a moderating article
      * @param articleId ID of the article
+     * @param moderatorId User ID of the moderator
+     * @param comment Comment of the moderator
      * @throws NoSuchArticleException if the article was not found
+     * @throws ArticleLeasedException if the article is claimed by another moderator
      */
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = NoSuchArticleException.class)
-    public void askEdit(@Min(1) long articleId, @NotNull @NotBlank String comment) {
-        Optional<ArticleSummaryEntity> summaryEntityOptional = articleSummaryRepository.findById(articleId);
-        if (summaryEntityOptional.isEmpty()) {
-            throw new NoSuchArticleException(articleId);
+    public void askEdit(@Min(1) long articleId, @Min(1) long moderatorId, @NotNull @NotBlank String comment) {
+        if (articleSummaryRepository.requestEdit(articleId, moderatorId, Instant.now()) == 0) {
+            throw decisionRejected(articleId);
         }
 
-        ArticleSummaryEntity summaryEntity = summaryEntityOptional.get();
-        summaryEntity.setStatus(ModerationStatus.EDIT_REQUESTED);
+        ArticleSummaryEntity summaryEntity = articleSummaryRepository
+                .findById(articleId)
+                .orElseThrow(() -> new NoSuchArticleException(articleId));
+        articleCounterService.move(summaryEntity.getCreatorId(), ModerationStatus.MODERATING,
+                ModerationStatus.EDIT_REQUESTED);
         summaryEntity.setModeratorComment(new ModeratorCommentEntity(articleId, comment));
         articleSummaryRepository.save(summaryEntity);
+        publishModeratorEvent(ModerationEventType.EDIT_REQUESTED, articleId, summaryEntity, moderatorId);
     }
 
     /**
      * Remove a moderating article
      * @param articleId ID of the article
+     * @param moderatorId User ID of the moderator
      * @throws NoSuchArticleException if the article was not found
      * @throws ExternalConnectException if connection to ${@link ContentService} was failed
+     * @throws ArticleLeasedException if the article is claimed by another moderator
      */
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = NoSuchArticleException.class)
-    public void removeArticle(@Min(1) long articleId) {
-        if (!articleSummaryRepository.existsById(articleId)) {
-            throw new NoSuchArticleException(articleId);
+    public void removeArticle(@Min(1) long articleId, @Min(1) long moderatorId) {
+        if (articleSummaryRepository.takeForRemoval(articleId, moderatorId, Instant.now()) == 0) {
+            throw decisionRejected(articleId);
+        }
+
+        ArticleSummaryEntity summaryEntity = articleSummaryRepository
+                .findById(articleId)
+                .orElseThrow(() -> new NoSuchArticleException(articleId));
+
+        removeExistingArticle(articleId, summaryEntity);
+        publishModeratorEvent(ModerationEventType.REMOVED, articleId, summaryEntity, moderatorId);
+    }
+
+    /**
+     * Ask for edit of many moderating articles at once. Articles that can't be changed are skipped.
+     * @param articleIds IDs of the articles
+     * @param moderatorId User ID of the moderator
+     * @param comment Comment of the moderator for all the articles
+     * @return IDs of changed and skipped articles
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public BulkDecisionResult askEditArticles(
+            @NotEmpty @Size(max = MAX_BULK_DECISION_SIZE) List<@NotNull Long> articleIds,
+            @Min(1) long moderatorId,
+            @NotNull @NotBlank String comment) {
+        List<Long> requestedIds = List.copyOf(new LinkedHashSet<>(articleIds));
+        List<DecisionTarget> targets = articleSummaryRepository
+                .lockForEditRequest(requestedIds, moderatorId, Instant.now());
+        List<Long> appliedIds = targets.stream().map(DecisionTarget::getId).toList();
+        if (appliedIds.isEmpty()) {
+            return toBulkDecisionResult(requestedIds, appliedIds);
+        }
+
+        articleSummaryRepository.requestEditAll(appliedIds);
+        articleSummaryRepository.upsertComments(appliedIds, comment);
+        targets.stream()
+                .collect(Collectors.groupingBy(DecisionTarget::getCreatorId, Collectors.counting()))
+                .forEach((creatorId, count) -> articleCounterService.move(creatorId, ModerationStatus.MODERATING,
+                        ModerationStatus.EDIT_REQUESTED, count));
+        targets.forEach(target -> publishModeratorEvent(ModerationEventType.EDIT_REQUESTED, target, moderatorId));
+        return toBulkDecisionResult(requestedIds, appliedIds);
+    }
+
+    /**
+     * Remove many articles at once. Articles that can't be removed are skipped. Their content is removed by batched
+     * requests after the transaction is committed, so a failure of the storage never brings removed articles back.
+     * @param articleIds IDs of the articles
+     * @param moderatorId User ID of the moderator
+     * @return IDs of removed and skipped articles
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public BulkDecisionResult removeArticles(
+            @NotEmpty @Size(max = MAX_BULK_DECISION_SIZE) List<@NotNull Long> articleIds,
+            @Min(1) long moderatorId) {
+        List<Long> requestedIds = List.copyOf(new LinkedHashSet<>(articleIds));
+        List<DecisionTarget> targets = articleSummaryRepository
+                .lockForRemoval(requestedIds, moderatorId, Instant.now());
+        List<Long> appliedIds = targets.stream().map(DecisionTarget::getId).toList();
+        if (appliedIds.isEmpty()) {
+            return toBulkDecisionResult(requestedIds, appliedIds);
         }
 
-        removeExistingArticle(articleId);
+        articleSummaryRepository.deleteComments(appliedIds);
+        articleSummaryRepository.deleteSummaries(appliedIds);
+        articleRevisionRepository.deleteRevisions(appliedIds);
+        nearDuplicateService.remove(appliedIds);
+        targets.stream()
+                .collect(Collectors.groupingBy(DecisionTarget::getCreatorId,
+                        Collectors.groupingBy(DecisionTarget::getStatus, Collectors.counting())))
+                .forEach((creatorId, countsByStatus) -> countsByStatus.forEach((status, count) ->
+                        articleCounterService.add(creatorId, ModerationStatus.getById(status), -count)));
+        targets.forEach(target -> publishModeratorEvent(ModerationEventType.REMOVED, target, moderatorId));
+        afterCommit(() -> removeContents(appliedIds));
+        return toBulkDecisionResult(requestedIds, appliedIds);
+    }
+
+    /**
+     * Wait for a result of an asynchronous call and rethrow its exception as is
+     * @param future Future of the call
+     * @return Result of the call
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Read the content of an upload. The content is limited in length, so it fits in memory for the delta.
+     * @param upload Upload
+     * @return Content
+     */
+    private static String readContent(ArticleUpload upload) {
+        try {
+            return Files.readString(upload.getContentFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Find out why a conditional update of an article didn't change it
+     * @param articleId ID of the article
+     * @return Exception to throw
+     */
+    private RuntimeException decisionRejected(long articleId) {
+        Optional<ArticleSummaryEntity> summaryEntityOptional = articleSummaryRepository.findById(articleId);
+        if (summaryEntityOptional.isEmpty()) {
+            return new NoSuchArticleException(articleId);
+        }
+        if (summaryEntityOptional.get().getStatus() != ModerationStatus.MODERATING) {
+            return new IllegalStateException("Article with ID %d is not in MODERATING status".formatted(articleId));
+        }
+        return new ArticleLeasedException(articleId);
     }
 
     /**
      * Remove existing article
      * @param articleId ID of the article
+     * @param summaryEntity Entity of the article summary
      * @throws ExternalConnectException if connection to ${@link ContentService} was failed
      */
-    private void removeExistingArticle(long articleId) {
+    private void removeExistingArticle(long articleId, ArticleSummaryEntity summaryEntity) {
         contentService.removeContent(articleId);
         articleSummaryRepository.deleteById(articleId);
+        articleRevisionRepository.deleteRevisions(List.of(articleId));
+        nearDuplicateService.remove(List.of(articleId));
+        articleCounterService.add(summaryEntity.getCreatorId(), summaryEntity.getStatus(), -1);
+    }
+
+    /**
+     * Publish an event of a decision of a moderator. It's handled after the transaction is committed.
+     * @param type Type of the event
+     * @param articleId ID of the article
+     * @param summaryEntity Entity of the article summary
+     * @param moderatorId User ID of the moderator
+     */
+    private void publishModeratorEvent(ModerationEventType type,
+                                       long articleId,
+                                       ArticleSummaryEntity summaryEntity,
+                                       long moderatorId) {
+        eventPublisher.publishEvent(ModerationEvent.byModerator(type, articleId, summaryEntity.getCreatorId(),
+                moderatorId, summaryEntity.getCreatedAt()));
+    }
+
+    /**
+     * Publish an event of a decision of a moderator made on many articles. It's handled after the transaction is
+     * committed.
+     * @param type Type of the event
+     * @param target Article locked for the decision
+     * @param moderatorId User ID of the moderator
+     */
+    private void publishModeratorEvent(ModerationEventType type, DecisionTarget target, long moderatorId) {
+        eventPublisher.publishEvent(ModerationEvent.byModerator(type, target.getId(), target.getCreatorId(),
+                moderatorId, target.getCreatedAt()));
+    }
+
+    /**
+     * Remove content of removed articles. Content that failed to be removed is only logged, because the articles
+     * are already removed.
+     * @param articleIds IDs of the articles
+     */
+    private void removeContents(List<Long> articleIds) {
+        try {
+            contentService.removeContents(articleIds);
+        } catch (ExternalConnectException e) {
+            log.warn("Content of {} removed articles was left in the storage", articleIds.size(), e);
+        }
+    }
+
+    /**
+     * Publish staged new content of an article. If it fails, the staged object is kept, so the content can be
+     * restored from it by hand.
+     * @param articleId ID of the article
+     * @param stagingKey Staging key of the content
+     */
+    private void publishStagedContent(long articleId, String stagingKey) {
+        try {
+            contentService.publishStagedContent(articleId, stagingKey);
+        } catch (ExternalConnectException e) {
+            log.error("New content of article with ID {} was left at {} in the storage", articleId, stagingKey, e);
+        }
+    }
+
+    /**
+     * Remove staged content of a rolled back transaction
+     * @param stagingKey Staging key of the content
+     */
+    private void removeStagedContent(String stagingKey) {
+        try {
+            contentService.removeStagedContent(stagingKey);
+        } catch (ExternalConnectException e) {
+            log.warn("Staged content {} of a rolled back transaction was left in the storage", stagingKey, e);
+        }
+    }
+
+    /**
+     * Run an action after the current transaction is committed or right away if there is no transaction
+     * @param action Action
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run one of actions when the current transaction is completed. The action for the commit runs before listeners
+     * of events published later in the transaction. Without a transaction it's run right away. If the outcome of the
+     * transaction is unknown, neither action is run.
+     * @param onCommit Action after the transaction is committed
+     * @param onRollback Action after the transaction is rolled back
+     */
+    private static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onCommit.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Split requested IDs of a bulk decision into applied and skipped ones
+     * @param requestedIds Requested IDs in the order of the request
+     * @param appliedIds IDs of the articles the decision was applied to
+     * @return Result of the decision
+     */
+    private static BulkDecisionResult toBulkDecisionResult(List<Long> requestedIds, List<Long> appliedIds) {
+        HashSet<Long> appliedIdSet = new HashSet<>(appliedIds);
+        List<Long> skippedIds = requestedIds.stream().filter(id -> !appliedIdSet.contains(id)).toList();
+        return new BulkDecisionResult(appliedIds, skippedIds);
+    }
+
+    /**
+     * Find entities of article summaries by optional filters. Every combination of filters has its own query, so
+     * each of them can be served by a range scan of a matching index.
+     * @param status Status of the articles or null
+     * @param creatorId ID of the creator or null
+     * @param pageRequest Page request with sorting
+     * @return List of entities of article summaries
+     */
+    private List<ArticleSummaryEntity> findArticleSummaries(ModerationStatus status,
+                                                            Long creatorId,
+                                                            PageRequest pageRequest) {
+        if (status != null && creatorId != null) {
+            return articleSummaryRepository.findAllByStatusAndCreatorId(status, creatorId, pageRequest);
+        }
+        if (status != null) {
+            return articleSummaryRepository.findAllByStatus(status, pageRequest);
+        }
+        if (creatorId != null) {
+            return articleSummaryRepository.findAllByCreatorId(creatorId, pageRequest);
+        }
+        return articleSummaryRepository.findAll(pageRequest);
+    }
+
+    /**
+     * Convert sort order of articles to {@link Sort}. ID is used as a tie-breaker to keep pages stable.
+     * @param sortOrder Sort order of articles
+     * @return Sort for the repository
+     */
+    private static Sort toSort(ArticleSortOrder sortOrder) {
+        Sort.Direction direction = sortOrder == ArticleSortOrder.NEWEST ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, "createdAt", "id");
+    }
+
+    /**
+     * Encode position of a search hit into an opaque cursor
+     * @param hit Search hit
+     * @return Cursor
+     */
+    private static String encodeCursor(SearchHit hit) {
+        String position = hit.rank() + ":" + hit.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode position of a search hit from a cursor
+     * @param cursor Cursor
+     * @return Search hit
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    private static SearchHit decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(':');
+            return new SearchHit(Long.parseLong(position.substring(separator + 1)),
+                    Float.parseFloat(position.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(cursor);
+        }
     }
 
     /**
@@ -211,7 +876,7 @@ public class ArticleModerationService {
      * @param summaryEntity Entity of article summary
      * @return Article summary
      */
-    private ArticleSummary entityToArticleSummary(ArticleSummaryEntity summaryEntity) {
+    static ArticleSummary entityToArticleSummary(ArticleSummaryEntity summaryEntity) {
         String comment = summaryEntity.getModeratorComment() == null ?
                 null : summaryEntity.getModeratorComment().getComment();
         return ArticleSummary.builder()
@@ -229,7 +894,7 @@ public class ArticleModerationService {
      * @param creator Creator of the article
      * @return Named article summary
      */
-    private NamedArticleSummary entityToNamedArticleSummary(ArticleSummaryEntity summaryEntity, Creator creator) {
+    static NamedArticleSummary entityToNamedArticleSummary(ArticleSummaryEntity summaryEntity, Creator creator) {
         return new NamedArticleSummary(
                 entityToArticleSummary(summaryEntity),
                 creator
@@ -243,7 +908,7 @@ public class ArticleModerationService {
      * @param creator Creator of the article
      * @return Article
      */
-    private Article articleFromSummaryEntity(ArticleSummaryEntity summaryEntity, String content, Creator creator) {
+    static Article articleFromSummaryEntity(ArticleSummaryEntity summaryEntity, String content, Creator creator) {
         String moderatorComment = summaryEntity.getModeratorComment() == null ?
                 null : summaryEntity.getModeratorComment().getComment();
 
@@ -257,4 +922,10 @@ public class ArticleModerationService {
                 .creator(creator)
                 .build();
     }
+
+    /**
+     * Title and content of a revision of an article
+     */
+    private record RevisionText(String title, String content) {
+    }
 }
@@ -0,0 +1,182 @@
+package me.zedaster.moderationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.configuration.ArticlePageCacheConfiguration;
+import me.zedaster.moderationservice.dto.ArticleSortOrder;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import me.zedaster.moderationservice.dto.NamedArticleSummary;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of pages of the moderation queue serialized to JSON. Moderators poll the same pages every few seconds, so a
+ * cached page saves a query, a call to the auth service and the serialization.
+ * <p>
+ * Concurrent requests of the same page share one loading. Every change of articles increments the version of the
+ * cache after its transaction is committed, so pages loaded before the change are never served again.
+ */
+@Service
+@RequiredArgsConstructor
+public class ArticlePageCache {
+    /**
+     * Service for moderation of articles
+     */
+    private final ArticleModerationService articleModerationService;
+
+    /**
+     * Mapper for serialization of pages
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Configuration of the cache
+     */
+    private final ArticlePageCacheConfiguration configuration;
+
+    /**
+     * Cached and loading pages
+     */
+    private final Map<PageKey, CachedPage> pages = new ConcurrentHashMap<>();
+
+    /**
+     * Version of the cache. It's part of the key, so pages loaded before an invalidation are never matched.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Get a page of summaries of articles for moderation as JSON
+     * @param page Page number
+     * @param status Status of the articles or null to get articles with any status
+     * @param creatorId ID of the creator of the articles or null to get articles of all creators
+     * @param sortOrder Order of the articles by the date of creation
+     * @return JSON array of named article summaries
+     * @throws ExternalConnectException if connection to external services was failed
+     */
+    public byte[] getArticleSummaries(int page, ModerationStatus status, Long creatorId, ArticleSortOrder sortOrder) {
+        if (!configuration.isEnabled()) {
+            return loadArticleSummaries(page, status, creatorId, sortOrder);
+        }
+
+        PageKey key = new PageKey(page, status, creatorId, sortOrder, version.get());
+        long now = System.nanoTime();
+        CachedPage created = new CachedPage(new CompletableFuture<>(), now);
+        CachedPage cachedPage = pages.compute(key,
+                (k, old) -> old != null && old.isValidAt(now, ttlNanos()) ? old : created);
+        if (cachedPage == created) {
+            evictIfFull(now);
+            try {
+                created.json().complete(loadArticleSummaries(page, status, creatorId, sortOrder));
+            } catch (RuntimeException e) {
+                // Failures aren't cached, the next request loads the page again
+                pages.remove(key, created);
+                created.json().completeExceptionally(e);
+            }
+        }
+        return join(cachedPage.json());
+    }
+
+    /**
+     * Invalidate the cache after a change of an article is committed. Claims don't change the pages.
+     * @param event Moderation event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModerationEvent(ModerationEvent event) {
+        if (event.getType() != ModerationEventType.CLAIMED) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Invalidate all cached pages
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        pages.clear();
+    }
+
+    private byte[] loadArticleSummaries(int page, ModerationStatus status, Long creatorId, ArticleSortOrder sortOrder) {
+        List<NamedArticleSummary> summaries = articleModerationService
+                .getArticleSummaries(page, status, creatorId, sortOrder);
+        try {
+            return objectMapper.writeValueAsBytes(summaries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize article summaries", e);
+        }
+    }
+
+    /**
+     * Remove expired and outdated pages if there are too many pages. All pages are removed if it doesn't help.
+     * @param now Current time in nanoseconds
+     */
+    private void evictIfFull(long now) {
+        if (pages.size() <= configuration.getMaxEntries()) {
+            return;
+        }
+        long currentVersion = version.get();
+        pages.entrySet().removeIf(entry -> entry.getKey().version() != currentVersion
+                || !entry.getValue().isValidAt(now, ttlNanos()));
+        if (pages.size() > configuration.getMaxEntries()) {
+            pages.clear();
+        }
+    }
+
+    private long ttlNanos() {
+        return configuration.getTimeToLive().toNanos();
+    }
+
+    /**
+     * Wait for a loading page and rethrow its exception as is
+     * @param future Future of the page
+     * @return JSON of the page
+     */
+    private static byte[] join(CompletableFuture<byte[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Key of a cached page
+     * @param page Page number
+     * @param status Status filter or null
+     * @param creatorId Creator filter or null
+     * @param sortOrder Sort order
+     * @param version Version of the cache the page was loaded in
+     */
+    private record PageKey(int page, ModerationStatus status, Long creatorId, ArticleSortOrder sortOrder,
+                           long version) {
+    }
+
+    /**
+     * Cached or loading page
+     * @param json Future of JSON of the page
+     * @param loadedAtNanos Time the loading was started at
+     */
+    private record CachedPage(CompletableFuture<byte[]> json, long loadedAtNanos) {
+        /**
+         * Check if the page can be served. A loading page is always joined, so it's loaded only once.
+         * @param now Current time in nanoseconds
+         * @param ttlNanos Time to live of pages in nanoseconds
+         * @return true if the page can be served
+         */
+        boolean isValidAt(long now, long ttlNanos) {
+            return !json.isDone() || now - loadedAtNanos < ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package me.zedaster.moderationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.configuration.ArticlePrefetchConfiguration;
+import me.zedaster.moderationservice.configuration.ExecutorFactory;
+import me.zedaster.moderationservice.dto.Creator;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import me.zedaster.moderationservice.dto.NamedArticleSummary;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import me.zedaster.moderationservice.repository.ArticleSummaryRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Prefetcher of articles a moderator is likely to open next. Moderators work through the queue in order, so when an
+ * article or a page of the queue is served, content and creators of the next articles are loaded in the background
+ * and kept for a short time.
+ * <p>
+ * Prefetching runs on a small executor with a bounded queue. It's dropped when the executor is busy, so it never
+ * competes with requests for long. Platform threads of the executor also have the lowest priority, virtual threads
+ * have no priority, so there only the bounds of the executor limit prefetching.
+ * <p>
+ * Loads of an article are versioned by generations. Eviction of an article changes the generation of its load in
+ * progress, so content loaded before e.g. a resubmission is discarded instead of being served as prefetched.
+ */
+@Service
+@Slf4j
+public class ArticlePrefetcher {
+    /**
+     * Name of the counter of lookups of prefetched articles. The hit rate is the share of lookups tagged as hits.
+     */
+    static final String LOOKUPS_METRIC = "article.prefetch.lookups";
+
+    /**
+     * Name of the counter of prefetched articles
+     */
+    static final String LOADS_METRIC = "article.prefetch.loads";
+
+    /**
+     * Name of the counter of prefetched articles that were never used
+     */
+    static final String WASTED_METRIC = "article.prefetch.wasted";
+
+    /**
+     * Name of the counter of prefetches dropped because the executor was busy
+     */
+    static final String DROPPED_METRIC = "article.prefetch.dropped";
+
+    private final ArticleSummaryRepository articleSummaryRepository;
+
+    private final ContentService contentService;
+
+    private final CreatorService creatorService;
+
+    private final ArticlePrefetchConfiguration configuration;
+
+    /**
+     * Executor of prefetching
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Prefetched articles by ID
+     */
+    private final Map<Long, PrefetchedArticle> articles = new ConcurrentHashMap<>();
+
+    /**
+     * Generations of articles being prefetched by their IDs
+     */
+    private final Map<Long, Long> loadingGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * Source of generations of loads
+     */
+    private final AtomicLong generations = new AtomicLong();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter loaded;
+
+    private final Counter failed;
+
+    private final Counter wasted;
+
+    private final Counter dropped;
+
+    public ArticlePrefetcher(ArticleSummaryRepository articleSummaryRepository,
+                             ContentService contentService,
+                             CreatorService creatorService,
+                             ArticlePrefetchConfiguration configuration,
+                             ExecutorFactory executorFactory,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.articleSummaryRepository = articleSummaryRepository;
+        this.contentService = contentService;
+        this.creatorService = creatorService;
+        this.configuration = configuration;
+        this.executor = executorFactory.newBackgroundExecutor("article-prefetch", configuration.getParallelism(),
+                configuration.getQueueCapacity());
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.hits = Counter.builder(LOOKUPS_METRIC).tag("result", "hit").register(registry);
+        this.misses = Counter.builder(LOOKUPS_METRIC).tag("result", "miss").register(registry);
+        this.loaded = Counter.builder(LOADS_METRIC).tag("outcome", "success").register(registry);
+        this.failed = Counter.builder(LOADS_METRIC).tag("outcome", "failure").register(registry);
+        this.wasted = Counter.builder(WASTED_METRIC).register(registry);
+        this.dropped = Counter.builder(DROPPED_METRIC).register(registry);
+        Gauge.builder("article.prefetch.size", articles, Map::size).register(registry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Take prefetched data of an article. The data is removed, because an article is rarely opened twice.
+     * @param articleId ID of the article
+     * @return Prefetched data or empty optional if the article wasn't prefetched
+     */
+    public Optional<PrefetchedArticle> take(long articleId) {
+        if (!configuration.isEnabled()) {
+            return Optional.empty();
+        }
+
+        PrefetchedArticle article = articles.remove(articleId);
+        if (article != null && isExpired(article, System.nanoTime())) {
+            wasted.increment();
+            article = null;
+        }
+        (article == null ? misses : hits).increment();
+        return Optional.ofNullable(article);
+    }
+
+    /**
+     * Prefetch the articles that follow an opened article in the queue
+     * @param articleId ID of the opened article
+     * @param createdAt Creation time of the opened article
+     */
+    public void prefetchAfter(long articleId, Instant createdAt) {
+        submit(() -> articleSummaryRepository
+                .findNextInQueue(ModerationStatus.MODERATING, createdAt, articleId, Limit.of(configuration.getCount()))
+                .stream()
+                .map(entry -> new Target(entry.getId(), entry.getCreatorId(), null))
+                .toList());
+    }
+
+    /**
+     * Prefetch the first moderating articles of a served page of the queue. Their creators are already known.
+     * @param summaries Summaries of the page
+     */
+    public void prefetch(List<NamedArticleSummary> summaries) {
+        List<Target> targets = summaries.stream()
+                .filter(summary -> summary.getStatus() == ModerationStatus.MODERATING)
+                .limit(configuration.getCount())
+                .map(summary -> new Target(summary.getId(), summary.getCreator().getId(), summary.getCreator()))
+                .toList();
+        if (!targets.isEmpty()) {
+            submit(() -> targets);
+        }
+    }
+
+    /**
+     * Forget prefetched data of articles that are removed from the queue or whose content is replaced
+     * @param event Moderation event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModerationEvent(ModerationEvent event) {
+        if (event.getType() == ModerationEventType.ACCEPTED || event.getType() == ModerationEventType.REMOVED
+                || event.getType() == ModerationEventType.RESUBMITTED) {
+            // A load in progress is outdated, so it must not store its result
+            loadingGenerations.computeIfPresent(event.getArticleId(),
+                    (articleId, generation) -> generations.incrementAndGet());
+            if (articles.remove(event.getArticleId()) != null) {
+                wasted.increment();
+            }
+        }
+    }
+
+    private void submit(Supplier<List<Target>> targets) {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+        try {
+            executor.execute(() -> load(targets));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Load content and creators of articles that are neither prefetched nor being prefetched
+     * @param targetsSupplier Supplier of the articles
+     */
+    private void load(Supplier<List<Target>> targetsSupplier) {
+        long generation = generations.incrementAndGet();
+        List<Target> targets = List.of();
+        try {
+            evictExpired();
+            targets = targetsSupplier.get().stream()
+                    .filter(target -> !articles.containsKey(target.articleId()))
+                    .filter(target -> loadingGenerations.putIfAbsent(target.articleId(), generation) == null)
+                    .toList();
+            if (targets.isEmpty()) {
+                return;
+            }
+
+            List<Creator> creators = getCreators(targets);
+            for (int i = 0; i < targets.size(); i++) {
+                if (articles.size() >= configuration.getMaxEntries()) {
+                    break;
+                }
+                long articleId = targets.get(i).articleId();
+                Optional<String> content = contentService.getContent(articleId);
+                if (content.isPresent()) {
+                    store(articleId, generation,
+                            new PrefetchedArticle(content.get(), creators.get(i), System.nanoTime()));
+                }
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.debug("Failed to prefetch articles", e);
+        } finally {
+            targets.forEach(target -> loadingGenerations.remove(target.articleId()));
+        }
+    }
+
+    /**
+     * Store a loaded article unless it was evicted while it was loaded. The generation is checked and the article is
+     * stored atomically with respect to {@link #onModerationEvent(ModerationEvent)}.
+     * @param articleId ID of the article
+     * @param generation Generation of the load
+     * @param article Loaded data
+     */
+    private void store(long articleId, long generation, PrefetchedArticle article) {
+        loadingGenerations.computeIfPresent(articleId, (id, currentGeneration) -> {
+            if (currentGeneration == generation) {
+                articles.put(id, article);
+                loaded.increment();
+            }
+            return currentGeneration;
+        });
+    }
+
+    /**
+     * Get creators of articles. Unknown creators are fetched by one request.
+     * @param targets Articles
+     * @return Creators in the order of the articles
+     */
+    private List<Creator> getCreators(List<Target> targets) {
+        List<Long> unknownCreatorIds = targets.stream()
+                .filter(target -> target.creator() == null)
+                .map(Target::creatorId)
+                .toList();
+        if (unknownCreatorIds.isEmpty()) {
+            return targets.stream().map(Target::creator).toList();
+        }
+
+        List<Creator> fetchedCreators = creatorService.getCreatorsByIds(unknownCreatorIds);
+        List<Creator> creators = new ArrayList<>(targets.size());
+        int fetchedIndex = 0;
+        for (Target target : targets) {
+            creators.add(target.creator() != null ? target.creator() : fetchedCreators.get(fetchedIndex++));
+        }
+        return creators;
+    }
+
+    /**
+     * Remove expired articles and count them as wasted
+     */
+    private void evictExpired() {
+        long now = System.nanoTime();
+        articles.values().removeIf(article -> {
+            boolean expired = isExpired(article, now);
+            if (expired) {
+                wasted.increment();
+            }
+            return expired;
+        });
+    }
+
+    private boolean isExpired(PrefetchedArticle article, long now) {
+        return now - article.loadedAtNanos() >= configuration.getTimeToLive().toNanos();
+    }
+
+    /**
+     * Prefetched data of an article
+     * @param content Content of the article
+     * @param creator Creator of the article
+     * @param loadedAtNanos Time the data was loaded at
+     */
+    public record PrefetchedArticle(String content, Creator creator, long loadedAtNanos) {
+    }
+
+    /**
+     * Article to prefetch
+     * @param articleId ID of the article
+     * @param creatorId ID of the creator
+     * @param creator Creator if it's already known or null
+     */
+    private record Target(long articleId, long creatorId, Creator creator) {
+    }
+}
@@ -2,8 +2,11 @@ package me.zedaster.moderationservice.service;
 
 import me.zedaster.moderationservice.configuration.microservice.ArticleServiceConfiguration;
 import me.zedaster.moderationservice.dto.PublishArticleDto;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
 /**
@@ -13,8 +16,15 @@ import org.springframework.web.client.RestClient;
 public class ArticleService {
     private final RestClient restClient;
 
-    public ArticleService(ArticleServiceConfiguration configuration) {
-        this.restClient = RestClient.create(configuration.getUri());
+    public ArticleService(ArticleServiceConfiguration configuration,
+                          ObjectProvider<ObservationRegistry> observationRegistry) {
+        // The JDK client is used explicitly, otherwise Reactor Netty of the reactive build would be picked up.
+        // Requests are timed as http.client.requests if metrics are enabled.
+        this.restClient = RestClient.builder()
+                .baseUrl(configuration.getUri())
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .observationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP))
+                .build();
     }
 
     /**
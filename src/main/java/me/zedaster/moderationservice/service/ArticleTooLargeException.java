@@ -0,0 +1,7 @@
+package me.zedaster.moderationservice.service;
+
+public class ArticleTooLargeException extends RuntimeException {
+    public ArticleTooLargeException(long maxBodySize) {
+        super("Article mustn't take more than %d bytes!".formatted(maxBodySize));
+    }
+}
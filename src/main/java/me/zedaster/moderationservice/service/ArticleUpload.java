@@ -0,0 +1,46 @@
+package me.zedaster.moderationservice.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Created article read by {@link ArticleUploadReader}. The title is in memory, the content is in a temporary file in
+ * UTF-8. The file is deleted when the upload is closed.
+ */
+@RequiredArgsConstructor
+@Getter
+public class ArticleUpload implements AutoCloseable {
+    /**
+     * Title of the article
+     */
+    private final String title;
+
+    /**
+     * File with the content
+     */
+    private final Path contentFile;
+
+    /**
+     * Size of the content in bytes
+     */
+    private final long contentSize;
+
+    /**
+     * Base64 of the CRC32C checksum of the content, like S3 expects it
+     */
+    private final String contentChecksum;
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(contentFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
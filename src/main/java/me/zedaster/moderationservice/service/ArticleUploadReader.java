@@ -0,0 +1,460 @@
+package me.zedaster.moderationservice.service;
+
+import me.zedaster.moderationservice.configuration.ArticleUploadConfiguration;
+import me.zedaster.moderationservice.dto.CreateArticleDto;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Reader of JSON bodies of created articles ({@link CreateArticleDto}) as a stream. The content is decoded straight
+ * into a temporary file while its checksum is computed, only the title is kept in memory. So the memory used by a
+ * request doesn't depend on the length of the article.
+ * <p>
+ * Limits are applied while reading: a body over the maximum size or a field over its maximum length is rejected as
+ * soon as the limit is reached, without reading the rest. Unknown fields are validated and skipped. The title and the
+ * content must be set once.
+ */
+@Component
+public class ArticleUploadReader {
+    private static final String MALFORMED_MESSAGE = "Malformed JSON of the article!";
+
+    /**
+     * Names of fields longer than this are not known and are only skipped
+     */
+    private static final int MAX_NAME_LENGTH = 32;
+
+    /**
+     * Maximum nesting depth of the JSON document, the same as the default one of Jackson
+     */
+    private static final int MAX_DEPTH = 1000;
+
+    private final long maxBodySize;
+
+    private final Path spoolDirectory;
+
+    public ArticleUploadReader(ArticleUploadConfiguration configuration) {
+        this.maxBodySize = configuration.getMaxBodySize().toBytes();
+        this.spoolDirectory = configuration.getSpoolDirectory().isEmpty()
+                ? Path.of(System.getProperty("java.io.tmpdir"))
+                : Path.of(configuration.getSpoolDirectory());
+    }
+
+    /**
+     * Read a created article. The returned upload must be closed to delete its content file.
+     * @param body JSON body of the request
+     * @param contentLength Length of the body from the request headers or -1 if it's unknown
+     * @return Read article
+     * @throws InvalidArticleException If the body is malformed or the article is invalid
+     * @throws ArticleTooLargeException If the body is too large
+     * @throws IOException If the body can't be read or the content can't be written
+     */
+    public ArticleUpload read(InputStream body, long contentLength) throws IOException {
+        if (contentLength > maxBodySize) {
+            throw new ArticleTooLargeException(maxBodySize);
+        }
+
+        Path contentFile = Files.createTempFile(spoolDirectory, "article-", ".txt");
+        try {
+            JsonCursor json = new JsonCursor(new InputStreamReader(new LimitedInputStream(body, maxBodySize),
+                    StandardCharsets.UTF_8.newDecoder()));
+            return readArticle(json, contentFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(contentFile);
+            throw e;
+        }
+    }
+
+    private ArticleUpload readArticle(JsonCursor json, Path contentFile) throws IOException {
+        String title = null;
+        boolean titleRead = false;
+        int contentLength = -1;
+        boolean contentRead = false;
+        CRC32C checksum = new CRC32C();
+
+        json.expect('{');
+        if (!json.consumeIf('}')) {
+            do {
+                StringBuilder name = new StringBuilder(MAX_NAME_LENGTH);
+                if (json.readString(name, MAX_NAME_LENGTH, null) < 0) {
+                    throw new InvalidArticleException(MALFORMED_MESSAGE);
+                }
+                json.expect(':');
+
+                switch (name.toString()) {
+                    case "title" -> {
+                        if (titleRead) {
+                            throw new InvalidArticleException("Title must be set once!");
+                        }
+                        titleRead = true;
+                        StringBuilder titleBuilder = new StringBuilder();
+                        int length = json.readString(titleBuilder, CreateArticleDto.MAX_TITLE_LENGTH,
+                                CreateArticleDto.TITLE_TOO_LONG_MESSAGE);
+                        title = length < 0 ? null : titleBuilder.toString();
+                    }
+                    case "content" -> {
+                        if (contentRead) {
+                            throw new InvalidArticleException("Content must be set once!");
+                        }
+                        contentRead = true;
+                        try (Writer writer = new OutputStreamWriter(new CheckedOutputStream(
+                                Files.newOutputStream(contentFile), checksum), StandardCharsets.UTF_8)) {
+                            contentLength = json.readString(writer, CreateArticleDto.MAX_CONTENT_LENGTH,
+                                    CreateArticleDto.CONTENT_TOO_LONG_MESSAGE);
+                        }
+                    }
+                    default -> json.skipValue();
+                }
+            } while (json.consumeIf(','));
+            json.expect('}');
+        }
+        json.expectEnd();
+
+        if (title == null) {
+            throw new InvalidArticleException("Title is required!");
+        }
+        if (title.length() < CreateArticleDto.MIN_TITLE_LENGTH) {
+            throw new InvalidArticleException(CreateArticleDto.TITLE_TOO_SHORT_MESSAGE);
+        }
+        if (contentLength < 0) {
+            throw new InvalidArticleException("Content is required!");
+        }
+        if (contentLength < CreateArticleDto.MIN_CONTENT_LENGTH) {
+            throw new InvalidArticleException(CreateArticleDto.CONTENT_TOO_SHORT_MESSAGE);
+        }
+
+        byte[] checksumBytes = ByteBuffer.allocate(Integer.BYTES).putInt((int) checksum.getValue()).array();
+        return new ArticleUpload(title, contentFile, Files.size(contentFile),
+                Base64.getEncoder().encodeToString(checksumBytes));
+    }
+
+    /**
+     * Cursor over characters of a JSON document
+     */
+    private static class JsonCursor {
+        private static final int EOF = -1;
+
+        private final Reader reader;
+
+        private final char[] buffer = new char[2048];
+
+        private int position = 0;
+
+        private int limit = 0;
+
+        JsonCursor(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Read a string or null
+         * @param sink Sink of characters of the string
+         * @param maxLength Maximum length of the string
+         * @param tooLongMessage Message of the exception thrown when the string is longer than the maximum. If it's
+         *                       null, the rest of the string is skipped instead.
+         * @return Length of the string or -1 if the value is null
+         */
+        int readString(Appendable sink, int maxLength, String tooLongMessage) throws IOException {
+            int first = nextNonWhitespace();
+            if (first == 'n') {
+                expectLiteral("ull");
+                return -1;
+            }
+            if (first != '"') {
+                throw new InvalidArticleException(MALFORMED_MESSAGE);
+            }
+
+            int length = 0;
+            while (true) {
+                int c = next();
+                if (c == '"') {
+                    return length;
+                }
+                if (c == EOF || c < 0x20) {
+                    throw new InvalidArticleException(MALFORMED_MESSAGE);
+                }
+                if (c == '\\') {
+                    c = readEscape();
+                }
+                if (length == maxLength) {
+                    if (tooLongMessage != null) {
+                        throw new InvalidArticleException(tooLongMessage);
+                    }
+                    continue;
+                }
+                sink.append((char) c);
+                length++;
+            }
+        }
+
+        /**
+         * Skip a value of any type. The value is validated, and nested arrays and objects are tracked by a stack of
+         * their brackets, so a deep value doesn't overflow the stack of the thread.
+         */
+        void skipValue() throws IOException {
+            // Closing brackets of the arrays and objects the cursor is in
+            StringBuilder closingBrackets = new StringBuilder();
+            while (true) {
+                int c = nextNonWhitespace();
+                switch (c) {
+                    case '"' -> {
+                        position--;
+                        readString(new StringBuilder(0), 0, null);
+                    }
+                    case '{', '[' -> {
+                        // The article object is the first level
+                        if (closingBrackets.length() + 2 > MAX_DEPTH) {
+                            throw new InvalidArticleException(MALFORMED_MESSAGE);
+                        }
+                        char closingBracket = c == '{' ? '}' : ']';
+                        if (consumeIf(closingBracket)) {
+                            break;
+                        }
+                        closingBrackets.append(closingBracket);
+                        if (c == '{') {
+                            skipName();
+                        }
+                        continue;
+                    }
+                    case 't' -> expectLiteral("rue");
+                    case 'f' -> expectLiteral("alse");
+                    case 'n' -> expectLiteral("ull");
+                    default -> skipNumber(c);
+                }
+
+                // The value is complete, close the arrays and objects that end after it
+                while (true) {
+                    if (closingBrackets.isEmpty()) {
+                        return;
+                    }
+                    int last = closingBrackets.length() - 1;
+                    c = nextNonWhitespace();
+                    if (c == closingBrackets.charAt(last)) {
+                        closingBrackets.setLength(last);
+                    } else if (c == ',') {
+                        if (closingBrackets.charAt(last) == '}') {
+                            skipName();
+                        }
+                        break;
+                    } else {
+                        throw new InvalidArticleException(MALFORMED_MESSAGE);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Skip a name of a field with the following colon
+         */
+        private void skipName() throws IOException {
+            if (nextNonWhitespace() != '"') {
+                throw new InvalidArticleException(MALFORMED_MESSAGE);
+            }
+            position--;
+            readString(new StringBuilder(0), 0, null);
+            expect(':');
+        }
+
+        /**
+         * Skip a number
+         * @param first First character of the number
+         */
+        private void skipNumber(int first) throws IOException {
+            int c = first;
+            if (c == '-') {
+                c = next();
+            }
+            if (c == '0') {
+                c = next();
+            } else if (isDigit(c)) {
+                c = skipDigits();
+            } else {
+                throw new InvalidArticleException(MALFORMED_MESSAGE);
+            }
+            if (c == '.') {
+                c = requireDigits();
+            }
+            if (c == 'e' || c == 'E') {
+                c = next();
+                if (c != '+' && c != '-') {
+                    unread(c);
+                }
+                c = requireDigits();
+            }
+            unread(c);
+        }
+
+        /**
+         * Skip one or more digits
+         * @return Character after the digits
+         */
+        private int requireDigits() throws IOException {
+            if (!isDigit(next())) {
+                throw new InvalidArticleException(MALFORMED_MESSAGE);
+            }
+            return skipDigits();
+        }
+
+        /**
+         * Skip digits
+         * @return Character after the digits
+         */
+        private int skipDigits() throws IOException {
+            int c;
+            do {
+                c = next();
+            } while (isDigit(c));
+            return c;
+        }
+
+        private static boolean isDigit(int c) {
+            return c >= '0' && c <= '9';
+        }
+
+        /**
+         * Return a read character back
+         * @param c Character or EOF
+         */
+        private void unread(int c) {
+            if (c != EOF) {
+                position--;
+            }
+        }
+
+        void expect(char expected) throws IOException {
+            if (nextNonWhitespace() != expected) {
+                throw new InvalidArticleException(MALFORMED_MESSAGE);
+            }
+        }
+
+        boolean consumeIf(char expected) throws IOException {
+            int c = nextNonWhitespace();
+            if (c == expected) {
+                return true;
+            }
+            if (c != EOF) {
+                position--;
+            }
+            return false;
+        }
+
+        void expectEnd() throws IOException {
+            if (nextNonWhitespace() != EOF) {
+                throw new InvalidArticleException(MALFORMED_MESSAGE);
+            }
+        }
+
+        private int readEscape() throws IOException {
+            int c = next();
+            return switch (c) {
+                case '"', '\\', '/' -> c;
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 't' -> '\t';
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next(), 16);
+                        if (digit < 0) {
+                            throw new InvalidArticleException(MALFORMED_MESSAGE);
+                        }
+                        code = code * 16 + digit;
+                    }
+                    yield code;
+                }
+                default -> throw new InvalidArticleException(MALFORMED_MESSAGE);
+            };
+        }
+
+        private void expectLiteral(String rest) throws IOException {
+            for (int i = 0; i < rest.length(); i++) {
+                if (next() != rest.charAt(i)) {
+                    throw new InvalidArticleException(MALFORMED_MESSAGE);
+                }
+            }
+        }
+
+        private int nextNonWhitespace() throws IOException {
+            int c;
+            do {
+                c = next();
+            } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+            return c;
+        }
+
+        /**
+         * Read the next character. Once it's read, {@code position--} returns it back, EOF is never returned back.
+         */
+        private int next() throws IOException {
+            if (position == limit) {
+                int count;
+                try {
+                    count = reader.read(buffer);
+                } catch (CharacterCodingException e) {
+                    throw new InvalidArticleException(MALFORMED_MESSAGE);
+                }
+                if (count <= 0) {
+                    return EOF;
+                }
+                position = 0;
+                limit = count;
+            }
+            return buffer[position++];
+        }
+    }
+
+    /**
+     * Stream that fails once more bytes than the maximum are read
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long maxSize;
+
+        private long size = 0;
+
+        LimitedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) {
+                count(count);
+            }
+            return count;
+        }
+
+        private void count(int count) {
+            size += count;
+            if (size > maxSize) {
+                throw new ArticleTooLargeException(maxSize);
+            }
+        }
+    }
+}
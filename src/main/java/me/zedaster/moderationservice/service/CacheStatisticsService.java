@@ -0,0 +1,52 @@
+package me.zedaster.moderationservice.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.zedaster.moderationservice.dto.CacheRegionStatsDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Service for statistics of the second-level cache of entities and queries
+ */
+@Service
+public class CacheStatisticsService {
+    /**
+     * Statistics of Hibernate
+     */
+    private final Statistics statistics;
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Get statistics of all regions of the second-level cache. Counts are zero if statistics are disabled.
+     * @return Statistics of regions sorted by their names
+     */
+    public List<CacheRegionStatsDto> getRegionStatistics() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(this::getRegionStatistics)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private CacheRegionStatsDto getRegionStatistics(String regionName) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+        if (regionStatistics == null) {
+            return null;
+        }
+        return new CacheRegionStatsDto(
+                regionName,
+                regionStatistics.getHitCount(),
+                regionStatistics.getMissCount(),
+                regionStatistics.getPutCount(),
+                regionStatistics.getElementCountInMemory());
+    }
+}
@@ -1,21 +1,39 @@
 package me.zedaster.moderationservice.service;
 
+import io.micrometer.observation.annotation.Observed;
 import me.zedaster.moderationservice.configuration.S3Configuration;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class ContentService {
+    /**
+     * Name of the timer of requests to S3
+     */
+    private static final String S3_REQUESTS_METRIC = "s3.requests";
+
+    /**
+     * Maximum count of objects removed by one request to S3
+     */
+    private static final int MAX_OBJECTS_PER_DELETE = 1000;
 
     /**
      * Client for interacting with S3
@@ -36,10 +54,13 @@ public class ContentService {
                 .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
                 .forcePathStyle(true)
                 .region(Region.AWS_GLOBAL)
+                // Set explicitly, so the SDK doesn't look up HTTP clients on the classpath at startup
+                .httpClientBuilder(ApacheHttpClient.builder())
                 .build();
         createBucketIfNotExists();
     }
 
+    @Observed(name = S3_REQUESTS_METRIC, lowCardinalityKeyValues = {"operation", "getObject"})
     public Optional<String> getContent(long articleId) throws ExternalConnectException {
         String key = "articles/" + articleId + ".txt";
 
@@ -59,6 +80,7 @@ public class ContentService {
         }
     }
 
+    @Observed(name = S3_REQUESTS_METRIC, lowCardinalityKeyValues = {"operation", "putObject"})
     public void saveContent(long articleId, String content) throws ExternalConnectException  {
         String key = "articles/" + articleId + ".txt";
 
@@ -75,6 +97,84 @@ public class ContentService {
         }
     }
 
+    /**
+     * Save content from a file. The file is streamed to S3 with its known size and checksum, so it's neither loaded
+     * in memory nor read twice.
+     * @param articleId ID of the article
+     * @param contentFile File with the content in UTF-8
+     * @param size Size of the file in bytes
+     * @param checksumCrc32c Base64 of the CRC32C checksum of the file
+     * @throws ExternalConnectException if the content failed to be saved
+     */
+    @Observed(name = S3_REQUESTS_METRIC, lowCardinalityKeyValues = {"operation", "putObject"})
+    public void saveContent(long articleId, Path contentFile, long size, String checksumCrc32c)
+            throws ExternalConnectException {
+        putFile(articleId, "articles/" + articleId + ".txt", contentFile, size, checksumCrc32c);
+    }
+
+    /**
+     * Save new content of an article from a file under a staging key. The content of the article is unchanged until
+     * the staged content is published by {@link #publishStagedContent(long, String)}.
+     * @param articleId ID of the article
+     * @param contentFile File with the content in UTF-8
+     * @param size Size of the file in bytes
+     * @param checksumCrc32c Base64 of the CRC32C checksum of the file
+     * @return Staging key of the content
+     * @throws ExternalConnectException if the content failed to be saved
+     */
+    @Observed(name = S3_REQUESTS_METRIC, lowCardinalityKeyValues = {"operation", "putObject"})
+    public String stageContent(long articleId, Path contentFile, long size, String checksumCrc32c)
+            throws ExternalConnectException {
+        String stagingKey = "staging/articles/" + articleId + "/" + UUID.randomUUID() + ".txt";
+        putFile(articleId, stagingKey, contentFile, size, checksumCrc32c);
+        return stagingKey;
+    }
+
+    /**
+     * Replace content of an article with staged content. The staged object is removed after it's copied.
+     * @param articleId ID of the article
+     * @param stagingKey Staging key returned by {@link #stageContent(long, Path, long, String)}
+     * @throws ExternalConnectException if the content failed to be copied. The staged object is kept then.
+     */
+    @Observed(name = S3_REQUESTS_METRIC, lowCardinalityKeyValues = {"operation", "copyObject"})
+    public void publishStagedContent(long articleId, String stagingKey) throws ExternalConnectException {
+        try {
+            CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder()
+                    .sourceBucket(bucketName)
+                    .sourceKey(stagingKey)
+                    .destinationBucket(bucketName)
+                    .destinationKey("articles/" + articleId + ".txt")
+                    .build();
+
+            s3Client.copyObject(copyObjectRequest);
+        } catch (SdkClientException e) {
+            throw new ExternalConnectException("Failed to publish content for article with ID %d in S3 storage"
+                    .formatted(articleId), e);
+        }
+        removeStagedContent(stagingKey);
+    }
+
+    /**
+     * Remove staged content that won't be published
+     * @param stagingKey Staging key returned by {@link #stageContent(long, Path, long, String)}
+     * @throws ExternalConnectException if the content failed to be removed
+     */
+    @Observed(name = S3_REQUESTS_METRIC, lowCardinalityKeyValues = {"operation", "deleteObject"})
+    public void removeStagedContent(String stagingKey) throws ExternalConnectException {
+        try {
+            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(stagingKey)
+                    .build();
+
+            s3Client.deleteObject(deleteObjectRequest);
+        } catch (SdkClientException e) {
+            throw new ExternalConnectException("Failed to remove staged content %s from S3 storage"
+                    .formatted(stagingKey), e);
+        }
+    }
+
+    @Observed(name = S3_REQUESTS_METRIC, lowCardinalityKeyValues = {"operation", "deleteObject"})
     public void removeContent(long articleId) throws ExternalConnectException  {
         String key = "articles/" + articleId + ".txt";
 
@@ -91,6 +191,58 @@ public class ContentService {
         }
     }
 
+    /**
+     * Remove content of many articles by batched requests. Content that doesn't exist is ignored.
+     * @param articleIds IDs of the articles
+     * @throws ExternalConnectException if content of some article failed to be removed
+     */
+    @Observed(name = S3_REQUESTS_METRIC, lowCardinalityKeyValues = {"operation", "deleteObjects"})
+    public void removeContents(List<Long> articleIds) throws ExternalConnectException {
+        for (int from = 0; from < articleIds.size(); from += MAX_OBJECTS_PER_DELETE) {
+            List<ObjectIdentifier> objects = articleIds
+                    .subList(from, Math.min(from + MAX_OBJECTS_PER_DELETE, articleIds.size()))
+                    .stream()
+                    .map(articleId -> ObjectIdentifier.builder().key("articles/" + articleId + ".txt").build())
+                    .toList();
+
+            DeleteObjectsResponse response;
+            try {
+                DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder().objects(objects).quiet(true).build())
+                        .build();
+
+                response = s3Client.deleteObjects(deleteObjectsRequest);
+            } catch (SdkClientException e) {
+                throw new ExternalConnectException("Failed to remove content for %d articles from S3 storage"
+                        .formatted(objects.size()), e);
+            }
+
+            if (response.hasErrors() && !response.errors().isEmpty()) {
+                throw new ExternalConnectException("Failed to remove content for %d articles from S3 storage: %s"
+                        .formatted(response.errors().size(), response.errors().get(0).message()), null);
+            }
+        }
+    }
+
+    private void putFile(long articleId, String key, Path contentFile, long size, String checksumCrc32c)
+            throws ExternalConnectException {
+        try {
+            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentLength(size)
+                    .checksumCRC32C(checksumCrc32c)
+                    .build();
+
+            s3Client.putObject(putObjectRequest, RequestBody.fromContentProvider(
+                    () -> newInputStream(contentFile), size, "text/plain; charset=UTF-8"));
+        } catch (SdkClientException e) {
+            throw new ExternalConnectException("Failed to save content for article with ID %d in S3 storage"
+                    .formatted(articleId), e);
+        }
+    }
+
     /**
      * Create a bucket if it doesn't exist
      */
@@ -104,6 +256,14 @@ public class ContentService {
         }
     }
 
+    private static InputStream newInputStream(Path file) {
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Check if the bucket exists
      * @return True if the bucket exists, false otherwise
@@ -0,0 +1,7 @@
+package me.zedaster.moderationservice.service;
+
+public class InvalidArticleException extends RuntimeException {
+    public InvalidArticleException(String message) {
+        super(message);
+    }
+}
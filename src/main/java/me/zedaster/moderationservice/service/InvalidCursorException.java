@@ -0,0 +1,7 @@
+package me.zedaster.moderationservice.service;
+
+public class InvalidCursorException extends IllegalArgumentException {
+    public InvalidCursorException(String cursor) {
+        super("Cursor '%s' is invalid!".formatted(cursor));
+    }
+}
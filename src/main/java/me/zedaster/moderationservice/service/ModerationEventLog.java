@@ -0,0 +1,253 @@
+package me.zedaster.moderationservice.service;
+
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.configuration.ModerationEventLogConfiguration;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.repository.ModerationEventRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of moderation events. Events of committed transactions are put into an in-memory queue and
+ * written by a background thread in batches, so logging doesn't wait for the database.
+ * <p>
+ * The log is best-effort. A batch that fails to be written is kept and retried with a growing delay, while new
+ * events wait in the queue. So a brief outage of the database, a missing partition or a full bulkhead of connections
+ * only delays events. Events are lost when the queue is full, when a batch fails all its attempts, or when the last
+ * write at shutdown fails. Lost events are counted by the {@value #LOST_METRIC} counter tagged by the reason.
+ */
+@Service
+@Slf4j
+public class ModerationEventLog {
+    /**
+     * Count of months ahead for which partitions are created in advance
+     */
+    private static final int PARTITION_MONTHS_AHEAD = 2;
+
+    /**
+     * Name of the counter of events that were never written
+     */
+    static final String LOST_METRIC = "moderation.events.lost";
+
+    private final ModerationEventRepository moderationEventRepository;
+
+    private final ModerationEventLogConfiguration configuration;
+
+    /**
+     * Events waiting to be written
+     */
+    private final BlockingQueue<ModerationEvent> queue;
+
+    /**
+     * Count of events dropped because the queue was full
+     */
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    /**
+     * Executor of writing and partition maintenance
+     */
+    private final ScheduledExecutorService executor;
+
+    private final Counter droppedCounter;
+
+    private final Counter failedCounter;
+
+    /**
+     * Batch that failed to be written and waits for a retry, it's accessed only by the writing thread
+     */
+    private List<ModerationEvent> failedBatch;
+
+    /**
+     * Count of failed attempts to write the failed batch
+     */
+    private int failedAttempts;
+
+    /**
+     * Value of {@link System#nanoTime()} before which the failed batch isn't retried
+     */
+    private long retryAtNanos;
+
+    public ModerationEventLog(ModerationEventRepository moderationEventRepository,
+                              ModerationEventLogConfiguration configuration,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        this.moderationEventRepository = moderationEventRepository;
+        this.configuration = configuration;
+        this.queue = new ArrayBlockingQueue<>(configuration.getQueueCapacity());
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.droppedCounter = Counter.builder(LOST_METRIC).tag("reason", "queue_full").register(registry);
+        this.failedCounter = Counter.builder(LOST_METRIC).tag("reason", "write_failed").register(registry);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "moderation-event-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start writing and partition maintenance. It's started after all singletons are created, so the background
+     * thread never asks for a bean that is still being created by the main thread.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        long flushMillis = configuration.getFlushInterval().toMillis();
+        executor.execute(this::maintainPartitions);
+        executor.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::maintainPartitions, 1, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            flush(true);
+        }
+    }
+
+    /**
+     * Put an event into the queue after the transaction that caused it is committed. The event is dropped if the
+     * queue is full, so a slow database never slows down requests.
+     * @param event Moderation event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModerationEvent(ModerationEvent event) {
+        if (!queue.offer(event)) {
+            droppedCounter.increment();
+            long dropped = droppedEvents.incrementAndGet();
+            if (dropped % 1000 == 1) {
+                log.warn("Moderation event queue is full, {} events were dropped so far", dropped);
+            }
+        }
+    }
+
+    /**
+     * Get count of events dropped because the queue was full
+     * @return Count of dropped events
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Write all queued events in batches. The failed batch is retried first, and nothing is written until its delay
+     * is over. A batch that fails again stops writing until the next delay.
+     */
+    void flush() {
+        flush(false);
+    }
+
+    /**
+     * Write all queued events in batches
+     * @param stopping Whether it's the last write at shutdown. Then the delay of the failed batch is ignored, and
+     * after a failure all unwritten events are lost.
+     */
+    private void flush(boolean stopping) {
+        if (failedBatch != null) {
+            if (!stopping && System.nanoTime() - retryAtNanos < 0) {
+                return;
+            }
+            List<ModerationEvent> batch = failedBatch;
+            failedBatch = null;
+            if (!write(batch, stopping)) {
+                return;
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            List<ModerationEvent> batch = new ArrayList<>(configuration.getBatchSize());
+            queue.drainTo(batch, configuration.getBatchSize());
+            if (!write(batch, stopping)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write a batch. If it fails, the batch becomes the failed one until the next attempt, or it's lost after the
+     * last attempt.
+     * @param batch Batch of events
+     * @param stopping Whether it's the last write at shutdown
+     * @return True if the next batch can be written
+     */
+    private boolean write(List<ModerationEvent> batch, boolean stopping) {
+        try {
+            moderationEventRepository.insertAll(batch);
+            failedAttempts = 0;
+            return true;
+        } catch (RuntimeException e) {
+            failedAttempts++;
+            if (stopping) {
+                int lost = batch.size() + queue.size();
+                log.error("Failed to write moderation events at shutdown, {} events are lost", lost, e);
+                failedCounter.increment(lost);
+                queue.clear();
+                return false;
+            }
+            if (failedAttempts >= configuration.getRetryAttempts()) {
+                log.error("Failed to write {} moderation events after {} attempts, they are lost", batch.size(),
+                        failedAttempts, e);
+                failedCounter.increment(batch.size());
+                failedAttempts = 0;
+                return true;
+            }
+
+            Duration delay = retryDelay(failedAttempts);
+            log.warn("Failed to write {} moderation events, retrying in {} ms", batch.size(), delay.toMillis(), e);
+            failedBatch = batch;
+            retryAtNanos = System.nanoTime() + delay.toNanos();
+            return false;
+        }
+    }
+
+    /**
+     * Get delay before the next attempt to write a batch. It's doubled after each failed attempt up to the maximum.
+     * @param failedAttempts Count of failed attempts
+     * @return Delay
+     */
+    private Duration retryDelay(int failedAttempts) {
+        Duration delay = configuration.getRetryBackoff();
+        for (int i = 1; i < failedAttempts && delay.compareTo(configuration.getMaxRetryBackoff()) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(configuration.getMaxRetryBackoff()) < 0 ? delay : configuration.getMaxRetryBackoff();
+    }
+
+    /**
+     * Create partitions for the current and next months and drop partitions older than the retention period
+     */
+    void maintainPartitions() {
+        try {
+            YearMonth currentMonth = YearMonth.now(Clock.system(ZoneOffset.UTC));
+            moderationEventRepository.createTableIfNotExists();
+            for (int i = 0; i <= PARTITION_MONTHS_AHEAD; i++) {
+                moderationEventRepository.createPartitionIfNotExists(currentMonth.plusMonths(i));
+            }
+            List<String> dropped = moderationEventRepository
+                    .dropPartitionsBefore(currentMonth.minusMonths(configuration.getRetentionMonths()));
+            if (!dropped.isEmpty()) {
+                log.info("Dropped old partitions of moderation events: {}", dropped);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to maintain partitions of moderation events", e);
+        }
+    }
+}
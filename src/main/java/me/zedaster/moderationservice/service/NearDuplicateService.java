@@ -0,0 +1,321 @@
+package me.zedaster.moderationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.configuration.NearDuplicateConfiguration;
+import me.zedaster.moderationservice.entity.ArticleFingerprintEntity;
+import me.zedaster.moderationservice.repository.ArticleFingerprintRepository;
+import me.zedaster.moderationservice.similarity.MinHashIndex;
+import me.zedaster.moderationservice.similarity.MinHasher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service for detection of near-duplicate articles. MinHash signatures of content are stored in the database and
+ * kept in an in-memory LSH index, which is rebuilt from the database at startup. A new article joins the cluster of
+ * the most similar earlier article, so moderators can decline a whole cluster at once.
+ * <p>
+ * The index is changed after the transaction that saves a signature is committed. So two near-duplicates saved at
+ * the same moment may miss each other and start separate clusters.
+ * <p>
+ * The index belongs to the process and sees only signatures saved by it since startup. With several instances an
+ * article is compared only with the articles saved by its instance or loaded at its startup, so the instances may
+ * put near-duplicates into different clusters, and {@link #getNearDuplicates(long)} may differ between them until
+ * they are restarted. The stored clusters are never merged afterwards.
+ * <p>
+ * Articles without words have no signature and are never near-duplicates.
+ */
+@Service
+@Slf4j
+public class NearDuplicateService {
+    /**
+     * Name of the counter of saved articles that are near-duplicates of earlier ones
+     */
+    static final String NEAR_DUPLICATES_METRIC = "article.near_duplicates";
+
+    /**
+     * Name of the timer of lookups in the index
+     */
+    static final String LOOKUPS_METRIC = "article.near_duplicates.lookups";
+
+    /**
+     * Seed of hash functions of signatures. Changing it makes stored signatures incomparable.
+     */
+    private static final long SIGNATURE_SEED = 0x5EED_D0C5L;
+
+    /**
+     * Count of signatures loaded from the database at once while the index is rebuilt
+     */
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ArticleFingerprintRepository articleFingerprintRepository;
+
+    private final NearDuplicateConfiguration configuration;
+
+    private final MinHasher minHasher;
+
+    /**
+     * Index of signatures of all articles
+     */
+    private final MinHashIndex index;
+
+    /**
+     * IDs of clusters by article ID
+     */
+    private final Map<Long, Long> clusterIds = new HashMap<>();
+
+    /**
+     * IDs of articles by cluster ID
+     */
+    private final Map<Long, Set<Long>> clusters = new HashMap<>();
+
+    /**
+     * Lock of the index and the clusters
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Counter nearDuplicates;
+
+    private final Timer lookups;
+
+    public NearDuplicateService(ArticleFingerprintRepository articleFingerprintRepository,
+                                NearDuplicateConfiguration configuration,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.articleFingerprintRepository = articleFingerprintRepository;
+        this.configuration = configuration;
+        this.minHasher = new MinHasher(configuration.getHashCount(), configuration.getShingleSize(), SIGNATURE_SEED);
+        this.index = new MinHashIndex(configuration.getHashCount(), configuration.getBands());
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.nearDuplicates = Counter.builder(NEAR_DUPLICATES_METRIC).register(registry);
+        this.lookups = Timer.builder(LOOKUPS_METRIC).register(registry);
+        Gauge.builder("article.near_duplicates.indexed", this, NearDuplicateService::getIndexedCount)
+                .register(registry);
+    }
+
+    /**
+     * Rebuild the index from signatures stored in the database. Signatures calculated with another count of hashes
+     * are skipped.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            clusterIds.clear();
+            clusters.clear();
+            int skipped = 0;
+            long lastId = 0;
+            List<ArticleFingerprintEntity> page;
+            do {
+                page = articleFingerprintRepository
+                        .findAllByArticleIdGreaterThanOrderByArticleId(lastId, Limit.of(REBUILD_PAGE_SIZE));
+                for (ArticleFingerprintEntity fingerprint : page) {
+                    if (fingerprint.getSignature().length == configuration.getHashCount() * Integer.BYTES) {
+                        addToIndex(fingerprint.getArticleId(), fingerprint.getClusterId(),
+                                fromBytes(fingerprint.getSignature()));
+                    } else {
+                        skipped++;
+                    }
+                    lastId = fingerprint.getArticleId();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+
+            log.info("Index of near-duplicates is rebuilt with {} articles", index.size());
+            if (skipped > 0) {
+                log.warn("{} signatures with another count of hashes were skipped", skipped);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Save the signature of the content of an article. The article joins the cluster of the most similar other
+     * article or starts its own one. If the article was already saved (its content is replaced), it may move to
+     * another cluster.
+     * @param articleId ID of the article
+     * @param content Content of the article
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void register(long articleId, String content) {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+
+        register(articleId, minHasher.signature(content));
+    }
+
+    /**
+     * Save the signature of the content of an article like {@link #register(long, String)}. The content is read
+     * from the file in chunks.
+     * @param articleId ID of the article
+     * @param contentFile File with the content in UTF-8
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void register(long articleId, Path contentFile) {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(contentFile)) {
+            register(articleId, minHasher.signature(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Save the signature of an article. An article without a signature is removed, so the replaced content doesn't
+     * keep it in its old cluster.
+     * @param articleId ID of the article
+     * @param signature Signature or null if the content has no words
+     */
+    private void register(long articleId, int[] signature) {
+        if (signature == null) {
+            log.debug("Article with ID {} has no words and isn't fingerprinted", articleId);
+            remove(List.of(articleId));
+            return;
+        }
+
+        long clusterId = articleId;
+        Timer.Sample sample = Timer.start();
+        lock.readLock().lock();
+        try {
+            for (MinHashIndex.Match match : index.find(signature, configuration.getSimilarityThreshold())) {
+                if (match.id() != articleId) {
+                    clusterId = clusterIds.get(match.id());
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+            sample.stop(lookups);
+        }
+
+        if (clusterId != articleId) {
+            nearDuplicates.increment();
+            log.debug("Article with ID {} is a near-duplicate in cluster {}", articleId, clusterId);
+        }
+        articleFingerprintRepository.upsert(articleId, clusterId, toBytes(signature));
+
+        long finalClusterId = clusterId;
+        ArticleModerationService.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                addToIndex(articleId, finalClusterId, signature);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Remove signatures of articles
+     * @param articleIds IDs of the articles
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void remove(List<Long> articleIds) {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+
+        articleFingerprintRepository.deleteFingerprints(articleIds);
+        ArticleModerationService.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                articleIds.forEach(this::removeFromIndex);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Get other articles of the cluster of an article
+     * @param articleId ID of the article
+     * @return IDs of the articles in ascending order. It's empty if the article has no near-duplicates or is unknown.
+     */
+    public List<Long> getNearDuplicates(long articleId) {
+        lock.readLock().lock();
+        try {
+            Long clusterId = clusterIds.get(articleId);
+            if (clusterId == null) {
+                return List.of();
+            }
+            return clusters.get(clusterId).stream()
+                    .filter(id -> id != articleId)
+                    .sorted()
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int getIndexedCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addToIndex(long articleId, long clusterId, int[] signature) {
+        removeFromIndex(articleId);
+        index.add(articleId, signature);
+        clusterIds.put(articleId, clusterId);
+        clusters.computeIfAbsent(clusterId, id -> new HashSet<>()).add(articleId);
+    }
+
+    private void removeFromIndex(long articleId) {
+        index.remove(articleId);
+        Long clusterId = clusterIds.remove(articleId);
+        if (clusterId != null) {
+            Set<Long> cluster = clusters.get(clusterId);
+            cluster.remove(articleId);
+            if (cluster.isEmpty()) {
+                clusters.remove(clusterId);
+            }
+        }
+    }
+
+    private static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    private static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+}
@@ -0,0 +1,9 @@
+package me.zedaster.moderationservice.service;
+
+import java.util.NoSuchElementException;
+
+public class NoSuchRevisionException extends NoSuchElementException {
+    public NoSuchRevisionException(long articleId, int wrongRevision) {
+        super("Revision %d of article with ID %d was not found!".formatted(wrongRevision, articleId));
+    }
+}
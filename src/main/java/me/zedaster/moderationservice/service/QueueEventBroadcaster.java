@@ -0,0 +1,288 @@
+package me.zedaster.moderationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.zedaster.moderationservice.configuration.QueueEventsConfiguration;
+import me.zedaster.moderationservice.dto.QueueEventDto;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Broadcaster of changes of the moderation queue to moderators subscribed by Server-Sent Events. Streams are
+ * asynchronous requests, so an idle stream holds no thread. Each event is serialized once and put in a bounded buffer
+ * of every stream without blocking. Buffers are written by a small pool of writers, at most one writer per stream at a
+ * time. A stream whose buffer is full is too slow and is closed, so it doesn't delay the others. Only a write that is
+ * already blocked keeps its writer until the container fails it.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class QueueEventBroadcaster {
+    /**
+     * Comment sent to idle streams
+     */
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    /**
+     * Mapper for serialization of events
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Configuration of the streams
+     */
+    private final QueueEventsConfiguration configuration;
+
+    /**
+     * Open streams
+     */
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Count of open streams. A slot is reserved in it before a stream is opened, so the limit can't be exceeded by
+     * concurrent subscriptions.
+     */
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    /**
+     * Executor of heartbeats
+     */
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    /**
+     * Executor of writes to streams. A stream has at most one write task queued or running. The queue has a place for
+     * every open stream and as many dropped streams waiting to be closed. Dropped streams no longer count as open,
+     * so while writers are blocked by slow clients new streams can be opened and dropped, and the queue may still be
+     * full. Then the write of a dropped stream is replaced by closing it right away, and the write of an open stream
+     * is retried by the next event or heartbeat.
+     */
+    private final ExecutorService writeExecutor;
+
+    public QueueEventBroadcaster(ObjectMapper objectMapper, QueueEventsConfiguration configuration) {
+        this.objectMapper = objectMapper;
+        this.configuration = configuration;
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "queue-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writerNumber = new AtomicInteger();
+        this.writeExecutor = new ThreadPoolExecutor(configuration.getWriterThreads(),
+                configuration.getWriterThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(2 * configuration.getMaxSubscribers()), r -> {
+            Thread thread = new Thread(r, "queue-events-" + writerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void startHeartbeat() {
+        long heartbeatMillis = configuration.getHeartbeatInterval().toMillis();
+        heartbeatExecutor.scheduleWithFixedDelay(() -> broadcast(HEARTBEAT), heartbeatMillis, heartbeatMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatExecutor.shutdownNow();
+        writeExecutor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        subscriberCount.set(0);
+    }
+
+    /**
+     * Open a stream of changes of the moderation queue
+     * @return Emitter of the stream
+     * @throws TooManySubscribersException if the limit of open streams is reached
+     */
+    public SseEmitter subscribe() {
+        if (subscriberCount.incrementAndGet() > configuration.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new TooManySubscribersException(configuration.getMaxSubscribers());
+        }
+
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, configuration.getSubscriberBufferSize());
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Get count of open streams
+     * @return Count of open streams
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Send a change to all streams after the transaction that caused it is committed
+     * @param event Moderation event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModerationEvent(ModerationEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        QueueEventDto queueEvent = new QueueEventDto(event.getType(), event.getArticleId(), event.getCreatorId(),
+                event.getModeratorId(), event.getOccurredAt());
+        Set<DataWithMediaType> data;
+        try {
+            data = SseEmitter.event()
+                    .name(event.getType().name())
+                    .data(objectMapper.writeValueAsString(queueEvent), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize queue event {}", queueEvent, e);
+            return;
+        }
+        broadcast(data);
+    }
+
+    /**
+     * Create the emitter of a new stream
+     * @return Emitter
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(configuration.getTimeout().toMillis());
+    }
+
+    /**
+     * Put data in the buffers of all streams without blocking. Streams with full buffers are dropped.
+     * @param data Data of an event
+     */
+    private void broadcast(Set<DataWithMediaType> data) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.buffer.offer(data)) {
+                drop(subscriber);
+            } else {
+                scheduleWrite(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Close a stream that doesn't keep up with events. It's closed by its writer, because closing waits for a write
+     * in progress.
+     */
+    private void drop(Subscriber subscriber) {
+        if (!unsubscribe(subscriber)) {
+            return;
+        }
+        log.debug("Closing a stream of queue events that doesn't keep up with {} buffered events",
+                configuration.getSubscriberBufferSize());
+        subscriber.dropped = true;
+        subscriber.buffer.clear();
+        scheduleWrite(subscriber);
+    }
+
+    /**
+     * Forget a stream
+     * @return true if the stream was open
+     */
+    private boolean unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Submit a write of the buffer of a stream unless it's already submitted
+     */
+    private void scheduleWrite(Subscriber subscriber) {
+        if (!subscriber.writing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writeExecutor.execute(() -> write(subscriber));
+        } catch (RejectedExecutionException e) {
+            // No write of the stream is in progress, so a dropped stream is closed without waiting. An open stream
+            // is written by the next event or heartbeat, or it's closed when the broadcaster is stopped.
+            subscriber.writing.set(false);
+            if (subscriber.dropped) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Write the buffer of a stream or close the stream if it's dropped. Streams that failed to be written are closed
+     * by the container, so they are only forgotten here.
+     */
+    private void write(Subscriber subscriber) {
+        boolean open = true;
+        try {
+            Set<DataWithMediaType> data;
+            while (!subscriber.dropped && (data = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(data);
+            }
+            if (subscriber.dropped) {
+                open = false;
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            open = false;
+            unsubscribe(subscriber);
+        } finally {
+            subscriber.writing.set(false);
+        }
+        // Data could be buffered or the stream dropped after the loop ended, but before the flag was cleared
+        if (open && (subscriber.dropped || !subscriber.buffer.isEmpty())) {
+            scheduleWrite(subscriber);
+        }
+    }
+
+    /**
+     * Open stream with its buffer of events
+     */
+    private static class Subscriber {
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Set<DataWithMediaType>> buffer;
+
+        /**
+         * Whether a write of the stream is submitted or running
+         */
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        /**
+         * Whether the stream doesn't keep up and must be closed
+         */
+        private volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package me.zedaster.moderationservice.service;
+
+public class TooManySubscribersException extends RuntimeException {
+    public TooManySubscribersException(int maxSubscribers) {
+        super("There are already %d subscribers of queue events!".formatted(maxSubscribers));
+    }
+}
@@ -0,0 +1,133 @@
+package me.zedaster.moderationservice.similarity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Locality-sensitive hashing index of MinHash signatures. A signature is split into bands of a few rows, and items
+ * with an equal band fall into the same bucket. Similar items share some band with a high probability, so candidates
+ * for a query are found by a few hash lookups, not by comparison with every item. Candidates are then checked by the
+ * similarity of their full signatures.
+ * <p>
+ * With b bands of r rows, items with similarity s become candidates with the probability 1 - (1 - s^r)^b.
+ * <p>
+ * The index isn't thread-safe.
+ */
+public final class MinHashIndex {
+    private final int bands;
+
+    private final int rows;
+
+    /**
+     * Signatures of items by ID
+     */
+    private final Map<Long, int[]> signatures = new HashMap<>();
+
+    /**
+     * IDs of items by keys of their bands
+     */
+    private final Map<Long, List<Long>> buckets = new HashMap<>();
+
+    /**
+     * @param hashCount Length of signatures
+     * @param bands Count of bands, it must divide the length of signatures
+     */
+    public MinHashIndex(int hashCount, int bands) {
+        if (bands < 1 || hashCount % bands != 0) {
+            throw new IllegalArgumentException("Count of bands must divide count of hashes");
+        }
+        this.bands = bands;
+        this.rows = hashCount / bands;
+    }
+
+    /**
+     * Add an item or replace the signature of an existing one
+     * @param id ID of the item
+     * @param signature Signature of the item
+     */
+    public void add(long id, int[] signature) {
+        remove(id);
+        signatures.put(id, signature);
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>(1)).add(id);
+        }
+    }
+
+    /**
+     * Remove an item if it exists
+     * @param id ID of the item
+     */
+    public void remove(long id) {
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(signature, band);
+            List<Long> bucket = buckets.get(key);
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Find items similar to a signature
+     * @param signature Signature
+     * @param threshold Minimum similarity of found items
+     * @return Found items, the most similar goes first
+     */
+    public List<Match> find(int[] signature, double threshold) {
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            List<Long> bucket = buckets.get(bandKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (long candidate : candidates) {
+            double similarity = MinHasher.similarity(signature, signatures.get(candidate));
+            if (similarity >= threshold) {
+                matches.add(new Match(candidate, similarity));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::id));
+        return matches;
+    }
+
+    /**
+     * Remove all items
+     */
+    public void clear() {
+        signatures.clear();
+        buckets.clear();
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = key * 0x9e3779b97f4a7c15L + signature[i];
+        }
+        return MinHasher.mix(key);
+    }
+
+    /**
+     * Item similar to a query
+     * @param id ID of the item
+     * @param similarity Estimated similarity to the query, from 0 to 1
+     */
+    public record Match(long id, double similarity) {
+    }
+}
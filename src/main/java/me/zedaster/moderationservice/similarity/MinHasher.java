@@ -0,0 +1,224 @@
+package me.zedaster.moderationservice.similarity;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Calculator of MinHash signatures of texts. A text is a set of shingles (runs of a few consecutive words), and the
+ * share of equal positions in signatures of two texts estimates the Jaccard similarity of their sets of shingles.
+ * So reworded copies of a text have close signatures, while the signatures take a fixed size.
+ * <p>
+ * Words are runs of letters and digits compared ignoring case, everything else is ignored.
+ */
+public final class MinHasher {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Count of chars read from a reader at once
+     */
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final int shingleSize;
+
+    /**
+     * Odd multipliers of hash functions of the signature
+     */
+    private final long[] multipliers;
+
+    /**
+     * Increments of hash functions of the signature
+     */
+    private final long[] increments;
+
+    /**
+     * @param hashCount Count of hash functions, which is the length of signatures
+     * @param shingleSize Count of words in a shingle
+     * @param seed Seed of hash functions. Signatures are comparable only if they are calculated with the same seed.
+     */
+    public MinHasher(int hashCount, int shingleSize, long seed) {
+        if (hashCount < 1 || shingleSize < 1) {
+            throw new IllegalArgumentException("Count of hashes and size of shingles must be positive");
+        }
+        this.shingleSize = shingleSize;
+        this.multipliers = new long[hashCount];
+        this.increments = new long[hashCount];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < hashCount; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Calculate the signature of a text
+     * @param text Text
+     * @return Signature with non-negative values or null if the text has no words
+     */
+    public int[] signature(String text) {
+        try {
+            return signature(new StringReader(text));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Calculate the signature of a text read from a reader. The text is read in chunks, so it isn't kept in memory.
+     * @param reader Reader of the text. It isn't closed.
+     * @return Signature with non-negative values or null if the text has no words
+     * @throws IOException if the text can't be read
+     */
+    public int[] signature(Reader reader) throws IOException {
+        Shingler shingler = new Shingler();
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        // High surrogate at the end of the previous chunk
+        char pendingHigh = 0;
+        int count;
+        while ((count = reader.read(buffer)) >= 0) {
+            for (int i = 0; i < count; i++) {
+                char c = buffer[i];
+                if (pendingHigh != 0) {
+                    char high = pendingHigh;
+                    pendingHigh = 0;
+                    if (Character.isLowSurrogate(c)) {
+                        shingler.accept(Character.toCodePoint(high, c));
+                        continue;
+                    }
+                    shingler.accept(high);
+                }
+                if (Character.isHighSurrogate(c)) {
+                    pendingHigh = c;
+                } else {
+                    shingler.accept(c);
+                }
+            }
+        }
+        if (pendingHigh != 0) {
+            shingler.accept(pendingHigh);
+        }
+        return shingler.finish();
+    }
+
+    /**
+     * Estimate similarity of texts by their signatures
+     * @param a Signature of the first text
+     * @param b Signature of the second text
+     * @return Share of equal positions, from 0 to 1
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    /**
+     * Splitter of a text into words and shingles, it takes the text by code points
+     */
+    private class Shingler {
+        private final int[] signature = new int[multipliers.length];
+
+        /**
+         * Hashes of the last words, the oldest one is at the current position
+         */
+        private final long[] window = new long[shingleSize];
+
+        private int wordCount = 0;
+
+        /**
+         * Hash of the current word
+         */
+        private long wordHash;
+
+        /**
+         * Whether the last code point is a part of a word
+         */
+        private boolean inWord = false;
+
+        Shingler() {
+            Arrays.fill(signature, Integer.MAX_VALUE);
+        }
+
+        void accept(int codePoint) {
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (!inWord) {
+                    wordHash = FNV_OFFSET_BASIS;
+                    inWord = true;
+                }
+                wordHash = (wordHash ^ Character.toLowerCase(codePoint)) * FNV_PRIME;
+            } else {
+                endWord();
+            }
+        }
+
+        /**
+         * Finish the text
+         * @return Signature or null if the text has no words
+         */
+        int[] finish() {
+            endWord();
+            // A text shorter than a shingle is a shingle on its own
+            if (wordCount > 0 && wordCount < shingleSize) {
+                addShingle(shingleHash(window, wordCount, wordCount));
+            }
+            return wordCount > 0 ? signature : null;
+        }
+
+        private void endWord() {
+            if (!inWord) {
+                return;
+            }
+            inWord = false;
+            window[wordCount % shingleSize] = wordHash;
+            wordCount++;
+            if (wordCount >= shingleSize) {
+                addShingle(shingleHash(window, wordCount, shingleSize));
+            }
+        }
+
+        private void addShingle(long shingleHash) {
+            for (int i = 0; i < signature.length; i++) {
+                // Multiply-shift hashing, the high bits are the best mixed ones
+                int value = (int) ((multipliers[i] * shingleHash + increments[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hash the last words in their order
+     * @param window Hashes of the last words
+     * @param wordCount Count of words read so far
+     * @param size Count of the last words to hash
+     */
+    private static long shingleHash(long[] window, int wordCount, int size) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = wordCount - size; i < wordCount; i++) {
+            hash = (hash ^ window[i % window.length]) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Finalizer of MurmurHash3, so close shingles give unrelated hashes
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,124 @@
+package me.zedaster.moderationservice.controller;
+
+import me.zedaster.moderationservice.TestUtils;
+import me.zedaster.moderationservice.dto.*;
+import me.zedaster.moderationservice.service.NoSuchArticleException;
+import me.zedaster.moderationservice.service.ReactiveArticleQueryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ReactiveModerationController}
+ */
+@WebFluxTest(ReactiveModerationController.class)
+public class ReactiveModerationControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveArticleQueryService reactiveArticleQueryService;
+
+    @Test
+    public void getUserArticles() {
+        ArticleSummary summary = new ArticleSummary(1L, "a".repeat(15),
+                TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0), ModerationStatus.MODERATING, null);
+        when(reactiveArticleQueryService.getUserArticleSummaries(123L, 2)).thenReturn(Mono.just(List.of(summary)));
+        when(reactiveArticleQueryService.getArticleStats(123L)).thenReturn(Mono.just(stats(11, 1)));
+
+        webTestClient.get()
+                .uri("/protected/moderation/articles/user?tokenPayload.sub=123&page=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "12")
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].createdAt").isEqualTo("2021-01-01T12:30:00Z");
+    }
+
+    @Test
+    public void getAllArticles() {
+        ArticleSummary summary = new ArticleSummary(1L, "a".repeat(15),
+                TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0), ModerationStatus.EDIT_REQUESTED, "comment");
+        NamedArticleSummary namedSummary = new NamedArticleSummary(summary, new Creator(3L, "user"));
+        when(reactiveArticleQueryService.getArticleSummaries(1, ModerationStatus.EDIT_REQUESTED, null,
+                ArticleSortOrder.NEWEST)).thenReturn(Mono.just(List.of(namedSummary)));
+        when(reactiveArticleQueryService.getArticleStats(null)).thenReturn(Mono.just(stats(11, 1)));
+
+        webTestClient.get()
+                .uri("/protected/moderation/articles?tokenPayload.role=MODERATOR&status=EDIT_REQUESTED&sort=NEWEST")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "1")
+                .expectBody()
+                .jsonPath("$[0].moderatorComment").isEqualTo("comment")
+                .jsonPath("$[0].creator.name").isEqualTo("user");
+    }
+
+    @Test
+    public void getAllArticlesWithWrongRole() {
+        webTestClient.get()
+                .uri("/protected/moderation/articles?tokenPayload.role=USER")
+                .exchange()
+                .expectStatus().isForbidden();
+        verifyNoInteractions(reactiveArticleQueryService);
+    }
+
+    @Test
+    public void getOwnArticle() {
+        Article article = Article.builder()
+                .id(1L)
+                .title("a".repeat(15))
+                .content("c".repeat(100))
+                .status(ModerationStatus.MODERATING)
+                .creator(new Creator(123L, "user"))
+                .build();
+        when(reactiveArticleQueryService.userOwnArticle(123L, 1L)).thenReturn(Mono.just(true));
+        when(reactiveArticleQueryService.getArticle(1L)).thenReturn(Mono.just(article));
+
+        webTestClient.get()
+                .uri("/protected/moderation/articles/1?tokenPayload.role=USER&tokenPayload.sub=123")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content").isEqualTo("c".repeat(100))
+                .jsonPath("$.creator.id").isEqualTo(123);
+    }
+
+    @Test
+    public void getArticleOfAnotherUser() {
+        when(reactiveArticleQueryService.userOwnArticle(123L, 1L)).thenReturn(Mono.just(false));
+
+        webTestClient.get()
+                .uri("/protected/moderation/articles/1?tokenPayload.role=USER&tokenPayload.sub=123")
+                .exchange()
+                .expectStatus().isForbidden();
+        verify(reactiveArticleQueryService, never()).getArticle(anyLong());
+    }
+
+    @Test
+    public void getNonExistentArticle() {
+        when(reactiveArticleQueryService.getArticle(404L)).thenReturn(Mono.error(new NoSuchArticleException(404L)));
+
+        webTestClient.get()
+                .uri("/protected/moderation/articles/404?tokenPayload.role=MODERATOR&tokenPayload.sub=5")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Article with ID 404 was not found!");
+    }
+
+    private static ArticleStatsDto stats(long moderating, long editRequested) {
+        return new ArticleStatsDto(Map.of(
+                ModerationStatus.MODERATING, moderating,
+                ModerationStatus.EDIT_REQUESTED, editRequested), moderating + editRequested);
+    }
+}
@@ -0,0 +1,108 @@
+package me.zedaster.moderationservice.service;
+
+import me.zedaster.moderationservice.TestUtils;
+import me.zedaster.moderationservice.dto.*;
+import me.zedaster.moderationservice.repository.ReactiveArticleSummaryRepository;
+import me.zedaster.moderationservice.repository.ReactiveArticleSummaryRepository.SummaryRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ReactiveArticleQueryService} class.
+ */
+@SpringBootTest(classes = ReactiveArticleQueryService.class, properties = "spring.main.web-application-type=reactive")
+public class ReactiveArticleQueryServiceTest {
+    @Autowired
+    private ReactiveArticleQueryService reactiveArticleQueryService;
+
+    @MockitoBean
+    private ReactiveArticleSummaryRepository reactiveArticleSummaryRepository;
+
+    @MockitoBean
+    private ReactiveContentService reactiveContentService;
+
+    @MockitoBean
+    private ReactiveCreatorService reactiveCreatorService;
+
+    /**
+     * Test {@link ReactiveArticleQueryService#getArticleSummaries(int, ModerationStatus, Long, ArticleSortOrder)}
+     * method.
+     */
+    @Test
+    public void getArticleSummaries() {
+        SummaryRow row1 = new SummaryRow(summary(1L), 7L);
+        SummaryRow row2 = new SummaryRow(summary(2L), 8L);
+        when(reactiveArticleSummaryRepository.findAll(ModerationStatus.MODERATING, null, ArticleSortOrder.OLDEST,
+                10, 10)).thenReturn(Flux.just(row1, row2));
+        when(reactiveCreatorService.getCreatorsByIds(List.of(7L, 8L)))
+                .thenReturn(Mono.just(List.of(new Creator(7L, "alice"), new Creator(8L, "bob"))));
+
+        List<NamedArticleSummary> summaries = reactiveArticleQueryService
+                .getArticleSummaries(2, ModerationStatus.MODERATING, null, ArticleSortOrder.OLDEST)
+                .block();
+
+        assertEquals(2, summaries.size());
+        assertEquals(1L, summaries.get(0).getId());
+        assertEquals("alice", summaries.get(0).getCreator().getName());
+        assertEquals("bob", summaries.get(1).getCreator().getName());
+    }
+
+    /**
+     * Test {@link ReactiveArticleQueryService#getArticle(long)} method.
+     */
+    @Test
+    public void getArticle() {
+        when(reactiveArticleSummaryRepository.findById(1L)).thenReturn(Mono.just(new SummaryRow(summary(1L), 7L)));
+        when(reactiveContentService.getContent(1L)).thenReturn(Mono.just("c".repeat(100)));
+        when(reactiveCreatorService.getCreator(7L)).thenReturn(Mono.just(new Creator(7L, "alice")));
+
+        Article article = reactiveArticleQueryService.getArticle(1L).block();
+
+        assertEquals(1L, article.getId());
+        assertEquals("c".repeat(100), article.getContent());
+        assertEquals("alice", article.getCreator().getName());
+    }
+
+    /**
+     * Test {@link ReactiveArticleQueryService#getArticle(long)} method with non-existent article.
+     */
+    @Test
+    public void getNonExistentArticle() {
+        when(reactiveArticleSummaryRepository.findById(1L)).thenReturn(Mono.empty());
+
+        NoSuchArticleException ex = assertThrows(NoSuchArticleException.class,
+                () -> reactiveArticleQueryService.getArticle(1L).block());
+        assertEquals("Article with ID 1 was not found!", ex.getMessage());
+        verifyNoInteractions(reactiveContentService, reactiveCreatorService);
+    }
+
+    /**
+     * Test {@link ReactiveArticleQueryService#getArticleStats(Long)} method.
+     */
+    @Test
+    public void getArticleStats() {
+        when(reactiveArticleSummaryRepository.sumCountersByStatus(0L))
+                .thenReturn(Mono.just(Map.of(ModerationStatus.MODERATING, 5L)));
+
+        ArticleStatsDto stats = reactiveArticleQueryService.getArticleStats(null).block();
+
+        assertEquals(5L, stats.countOf(ModerationStatus.MODERATING));
+        assertEquals(0L, stats.countOf(ModerationStatus.EDIT_REQUESTED));
+        assertEquals(5L, stats.getTotal());
+    }
+
+    private static ArticleSummary summary(long id) {
+        return new ArticleSummary(id, "a".repeat(15), TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0),
+                ModerationStatus.MODERATING, null);
+    }
+}
@@ -0,0 +1,78 @@
+package me.zedaster.moderationservice.configuration;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import me.zedaster.moderationservice.configuration.microservice.AuthServiceConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import java.net.URI;
+
+/**
+ * Non-blocking clients of the database and other services. They are created only if the application runs as a
+ * reactive web application (the reactive profile).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveReadConfig {
+    /**
+     * Pool of R2DBC connections. It isn't a bean, because a bean of {@link io.r2dbc.spi.ConnectionFactory} would turn
+     * off the auto-configured {@link javax.sql.DataSource} that JPA of the shared services still needs.
+     */
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ReactiveReadConfiguration configuration) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(configuration.getR2dbcUrl())
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, configuration.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, configuration.getPassword())
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(configuration.getMaxPoolSize())
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void disposeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient(S3Configuration s3config) {
+        AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(s3config.getAccessKey(), s3config.getSecretKey());
+        return S3AsyncClient.builder()
+                .endpointOverride(URI.create(s3config.getEndpointUrl()))
+                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                .forcePathStyle(true)
+                .region(Region.AWS_GLOBAL)
+                // Set explicitly, so the SDK doesn't look up HTTP clients on the classpath at startup
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder())
+                .build();
+    }
+
+    @Bean
+    public WebClient authServiceWebClient(AuthServiceConfiguration configuration,
+                                          ObjectProvider<ObservationRegistry> observationRegistry) {
+        return WebClient.builder()
+                .baseUrl(configuration.getUri().toString())
+                .observationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP))
+                .build();
+    }
+}
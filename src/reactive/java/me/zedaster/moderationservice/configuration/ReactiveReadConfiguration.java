@@ -0,0 +1,32 @@
+package me.zedaster.moderationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the non-blocking read endpoints served in the reactive profile.
+ */
+@ConfigurationProperties(prefix = "reactive-read")
+@Data
+public class ReactiveReadConfiguration {
+    /**
+     * R2DBC URL of the database, e.g. {@code r2dbc:postgresql://localhost:5432/articles_db}.
+     */
+    private String r2dbcUrl;
+
+    /**
+     * Username of the database.
+     */
+    private String username;
+
+    /**
+     * Password of the database.
+     */
+    private String password;
+
+    /**
+     * Maximum count of connections in the pool. Connections aren't held while waiting for other services, so the
+     * pool can be much smaller than the pool of the blocking endpoints.
+     */
+    private int maxPoolSize = 16;
+}
@@ -0,0 +1,101 @@
+package me.zedaster.moderationservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.dto.*;
+import me.zedaster.moderationservice.service.NoSuchArticleException;
+import me.zedaster.moderationservice.service.ReactiveArticleQueryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking controller for protected read endpoints. It replaces the read endpoints of
+ * {@link ProtectedModerationController} when the application runs in the reactive profile, the paths and the
+ * responses are the same.
+ */
+@RestController
+@RequestMapping("/protected/moderation")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveModerationController {
+    /**
+     * Header with total count of items matching a list request
+     */
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    /**
+     * Reactive query service
+     */
+    private final ReactiveArticleQueryService reactiveArticleQueryService;
+
+    /**
+     * Get moderating articles of authorized user
+     * @param userId User ID of authorized user
+     * @param pageNumber Page number
+     * @return List of summaries. Total count of articles of the user is in {@value TOTAL_COUNT_HEADER} header.
+     */
+    @GetMapping("/articles/user")
+    public Mono<ResponseEntity<List<ArticleSummary>>> getUserArticles(
+            @RequestParam("tokenPayload.sub") long userId,
+            @RequestParam(value = "page", defaultValue = "1") int pageNumber) {
+        return Mono.zip(
+                        reactiveArticleQueryService.getUserArticleSummaries(userId, pageNumber),
+                        reactiveArticleQueryService.getArticleStats(userId))
+                .map(summariesAndStats -> ResponseEntity.ok()
+                        .header(TOTAL_COUNT_HEADER, String.valueOf(summariesAndStats.getT2().getTotal()))
+                        .body(summariesAndStats.getT1()));
+    }
+
+    /**
+     * Get particular article by ID
+     * @param role Role of authorized user
+     * @param userId User ID of authorized user
+     * @param id Article ID
+     * @return Article object
+     * @throws NoAccessException If user has no access to the article
+     * @throws NoSuchArticleException If article was not found by specified ID
+     */
+    @GetMapping("/articles/{id}")
+    public Mono<Article> getParticularArticle(@RequestParam("tokenPayload.role") Role role,
+                                              @RequestParam("tokenPayload.sub") long userId,
+                                              @PathVariable("id") long id) {
+        Mono<Boolean> hasAccess = role == Role.USER ?
+                reactiveArticleQueryService.userOwnArticle(userId, id) : Mono.just(true);
+        return hasAccess
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(NoAccessException::new))
+                .flatMap(ignored -> reactiveArticleQueryService.getArticle(id));
+    }
+
+    /**
+     * Get all moderating articles
+     * @param role Role of authorized user
+     * @param pageNumber Page number
+     * @param status Status of articles (optional)
+     * @param creatorId User ID of creator of articles (optional)
+     * @param sortOrder Order of articles by the date of creation. The oldest go first by default.
+     * @return List of summaries with creator data. Total count of articles matching the filters is in
+     * {@value TOTAL_COUNT_HEADER} header.
+     * @throws NoAccessException If user has no access to this method
+     */
+    @GetMapping("/articles")
+    public Mono<ResponseEntity<List<NamedArticleSummary>>> getAllArticles(
+            @RequestParam("tokenPayload.role") Role role,
+            @RequestParam(value = "page", defaultValue = "1") int pageNumber,
+            @RequestParam(value = "status", required = false) ModerationStatus status,
+            @RequestParam(value = "creatorId", required = false) Long creatorId,
+            @RequestParam(value = "sort", defaultValue = "OLDEST") ArticleSortOrder sortOrder) {
+        if (!role.canModerate()) {
+            return Mono.error(new NoAccessException());
+        }
+        return Mono.zip(
+                        reactiveArticleQueryService.getArticleSummaries(pageNumber, status, creatorId, sortOrder),
+                        reactiveArticleQueryService.getArticleStats(creatorId))
+                .map(summariesAndStats -> ResponseEntity.ok()
+                        .header(TOTAL_COUNT_HEADER, String.valueOf(summariesAndStats.getT2().countOf(status)))
+                        .body(summariesAndStats.getT1()));
+    }
+}
@@ -0,0 +1,138 @@
+package me.zedaster.moderationservice.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.dto.ArticleSortOrder;
+import me.zedaster.moderationservice.dto.ArticleSummary;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking repository of article summaries with comments of moderators. It reads the same tables as
+ * {@link ArticleSummaryRepository} and {@link ArticleCounterRepository}.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveArticleSummaryRepository {
+    private static final String SELECT_SUMMARIES = """
+            SELECT s.id, s.title, s.created_at, s.status, s.creator_id, c.comment
+            FROM article_summaries s
+            LEFT JOIN moderator_comments c ON c.article_id = s.id""";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Find a page of summaries by optional filters
+     * @param status Status of the articles or null
+     * @param creatorId ID of the creator or null
+     * @param sortOrder Order of the articles by the date of creation
+     * @param offset Count of skipped articles
+     * @param limit Maximum count of articles
+     * @return Summaries with IDs of their creators
+     */
+    public Flux<SummaryRow> findAll(ModerationStatus status,
+                                    Long creatorId,
+                                    ArticleSortOrder sortOrder,
+                                    long offset,
+                                    int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (status != null) {
+            conditions.add("s.status = :status");
+            parameters.put("status", status.getId());
+        }
+        if (creatorId != null) {
+            conditions.add("s.creator_id = :creatorId");
+            parameters.put("creatorId", creatorId);
+        }
+        String direction = sortOrder == ArticleSortOrder.NEWEST ? "DESC" : "ASC";
+
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARIES);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY s.created_at %1$s, s.id %1$s LIMIT :limit OFFSET :offset".formatted(direction));
+        parameters.put("limit", limit);
+        parameters.put("offset", offset);
+
+        return databaseClient.sql(sql.toString())
+                .bindValues(parameters)
+                .map(ReactiveArticleSummaryRepository::toSummaryRow)
+                .all();
+    }
+
+    /**
+     * Find a summary by ID
+     * @param articleId ID of the article
+     * @return Summary with ID of its creator or empty mono if the article was not found
+     */
+    public Mono<SummaryRow> findById(long articleId) {
+        return databaseClient.sql(SELECT_SUMMARIES + " WHERE s.id = :id")
+                .bind("id", articleId)
+                .map(ReactiveArticleSummaryRepository::toSummaryRow)
+                .one();
+    }
+
+    /**
+     * Check if the article was created by the user
+     * @param articleId ID of the article
+     * @param creatorId ID of the user
+     * @return true if the article exists and was created by the user
+     */
+    public Mono<Boolean> existsByIdAndCreatorId(long articleId, long creatorId) {
+        return databaseClient
+                .sql("SELECT EXISTS (SELECT 1 FROM article_summaries WHERE id = :id AND creator_id = :creatorId)")
+                .bind("id", articleId)
+                .bind("creatorId", creatorId)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * Sum the counters of articles of a creator by status
+     * @param counterCreatorId ID of the creator in the counters
+     * @return Counts of articles by status. Statuses without articles may be missing.
+     */
+    public Mono<Map<ModerationStatus, Long>> sumCountersByStatus(long counterCreatorId) {
+        return databaseClient.sql("""
+                        SELECT status, sum(count)::bigint AS count
+                        FROM article_counters
+                        WHERE creator_id = :creatorId
+                        GROUP BY status""")
+                .bind("creatorId", counterCreatorId)
+                .map(row -> Map.entry(ModerationStatus.getById(row.get("status", Integer.class)),
+                        row.get("count", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private static SummaryRow toSummaryRow(Readable row) {
+        ArticleSummary summary = ArticleSummary.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .status(ModerationStatus.getById(row.get("status", Integer.class)))
+                .moderatorComment(row.get("comment", String.class))
+                .build();
+        return new SummaryRow(summary, row.get("creator_id", Long.class));
+    }
+
+    /**
+     * Summary of an article with ID of its creator
+     * @param summary Summary of the article
+     * @param creatorId ID of the creator
+     */
+    public record SummaryRow(ArticleSummary summary, long creatorId) {
+    }
+}
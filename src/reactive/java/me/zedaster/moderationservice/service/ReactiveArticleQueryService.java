@@ -0,0 +1,134 @@
+package me.zedaster.moderationservice.service;
+
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.dto.*;
+import me.zedaster.moderationservice.repository.ReactiveArticleSummaryRepository;
+import me.zedaster.moderationservice.repository.ReactiveArticleSummaryRepository.SummaryRow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Non-blocking counterpart of the read methods of {@link ArticleModerationService}. It returns the same DTOs, but
+ * never blocks a thread while waiting for the database, the S3 storage or the auth service.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveArticleQueryService {
+    /**
+     * Size of the page with article summaries
+     */
+    private static final int ARTICLE_SUMMARIES_PAGE_SIZE = 10;
+
+    private final ReactiveArticleSummaryRepository reactiveArticleSummaryRepository;
+
+    private final ReactiveContentService reactiveContentService;
+
+    private final ReactiveCreatorService reactiveCreatorService;
+
+    /**
+     * Get summaries of articles created by user for moderation
+     * @param userId ID of the user
+     * @param page Page number
+     * @return List of article summaries
+     */
+    public Mono<List<ArticleSummary>> getUserArticleSummaries(long userId, int page) {
+        return reactiveArticleSummaryRepository
+                .findAll(null, userId, ArticleSortOrder.OLDEST, offsetOf(page), ARTICLE_SUMMARIES_PAGE_SIZE)
+                .map(SummaryRow::summary)
+                .collectList();
+    }
+
+    /**
+     * Get summaries of articles for moderation
+     * @param page Page number
+     * @param status Status of the articles or null to get articles with any status
+     * @param creatorId ID of the creator of the articles or null to get articles of all creators
+     * @param sortOrder Order of the articles by the date of creation
+     * @return List of article summaries with creator data
+     */
+    public Mono<List<NamedArticleSummary>> getArticleSummaries(int page,
+                                                               ModerationStatus status,
+                                                               Long creatorId,
+                                                               ArticleSortOrder sortOrder) {
+        return reactiveArticleSummaryRepository
+                .findAll(status, creatorId, sortOrder, offsetOf(page), ARTICLE_SUMMARIES_PAGE_SIZE)
+                .collectList()
+                .flatMap(rows -> reactiveCreatorService
+                        .getCreatorsByIds(rows.stream().map(SummaryRow::creatorId).toList())
+                        .map(creators -> IntStream.range(0, rows.size())
+                                .mapToObj(i -> new NamedArticleSummary(rows.get(i).summary(), creators.get(i)))
+                                .toList()));
+    }
+
+    /**
+     * Get moderating article by ID. The content and the creator are fetched at the same time.
+     * @param articleId ID of the article
+     * @return Article. It fails with {@link NoSuchArticleException} if the article was not found.
+     */
+    public Mono<Article> getArticle(long articleId) {
+        return reactiveArticleSummaryRepository
+                .findById(articleId)
+                .switchIfEmpty(Mono.error(() -> new NoSuchArticleException(articleId)))
+                .flatMap(row -> Mono.zip(
+                                reactiveContentService.getContent(articleId)
+                                        .switchIfEmpty(Mono.error(() -> new NoSuchArticleException(articleId))),
+                                reactiveCreatorService.getCreator(row.creatorId()))
+                        .map(contentAndCreator -> toArticle(row.summary(), contentAndCreator.getT1(),
+                                contentAndCreator.getT2())));
+    }
+
+    /**
+     * Check if user owns article.
+     * @param userId ID of the user
+     * @param articleId ID of the article
+     * @return true if user owns article, false otherwise
+     */
+    public Mono<Boolean> userOwnArticle(long userId, long articleId) {
+        return reactiveArticleSummaryRepository.existsByIdAndCreatorId(articleId, userId);
+    }
+
+    /**
+     * Get counts of moderating articles
+     * @param creatorId ID of the creator or null to get counts of all articles
+     * @return Counts of articles by status
+     */
+    public Mono<ArticleStatsDto> getArticleStats(Long creatorId) {
+        long counterCreatorId = creatorId == null ? ArticleCounterService.GLOBAL_CREATOR_ID : creatorId;
+        return reactiveArticleSummaryRepository
+                .sumCountersByStatus(counterCreatorId)
+                .map(sums -> {
+                    Map<ModerationStatus, Long> countsByStatus = new EnumMap<>(ModerationStatus.class);
+                    for (ModerationStatus status : ModerationStatus.values()) {
+                        countsByStatus.put(status, sums.getOrDefault(status, 0L));
+                    }
+                    long total = countsByStatus.values().stream().mapToLong(Long::longValue).sum();
+                    return new ArticleStatsDto(countsByStatus, total);
+                });
+    }
+
+    private static long offsetOf(int page) {
+        if (page < 1) {
+            throw new IllegalArgumentException("Page number must be positive");
+        }
+        return (long) (page - 1) * ARTICLE_SUMMARIES_PAGE_SIZE;
+    }
+
+    private static Article toArticle(ArticleSummary summary, String content, Creator creator) {
+        return Article.builder()
+                .id(summary.getId())
+                .title(summary.getTitle())
+                .content(content)
+                .createdAt(summary.getCreatedAt())
+                .status(summary.getStatus())
+                .moderatorComment(summary.getModeratorComment())
+                .creator(creator)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package me.zedaster.moderationservice.service;
+
+import me.zedaster.moderationservice.configuration.S3Configuration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+/**
+ * Non-blocking reader of article content from the S3 storage
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveContentService {
+    /**
+     * Asynchronous client of S3
+     */
+    private final S3AsyncClient s3AsyncClient;
+
+    /**
+     * Bucket name for storing content
+     */
+    private final String bucketName;
+
+    public ReactiveContentService(S3AsyncClient s3AsyncClient, S3Configuration s3config) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucketName = s3config.getContentBucketName();
+    }
+
+    /**
+     * Get content of an article
+     * @param articleId ID of the article
+     * @return Content or empty mono if there is no content of the article. It fails with
+     * {@link ExternalConnectException} if the storage is not available.
+     */
+    public Mono<String> getContent(long articleId) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key("articles/" + articleId + ".txt")
+                .build();
+        return Mono.fromFuture(() -> s3AsyncClient.getObject(getObjectRequest, AsyncResponseTransformer.toBytes()))
+                .map(response -> response.asUtf8String())
+                .onErrorResume(NoSuchKeyException.class, e -> Mono.empty())
+                .onErrorMap(SdkClientException.class,
+                        e -> new ExternalConnectException("Content storage is not available", e));
+    }
+}
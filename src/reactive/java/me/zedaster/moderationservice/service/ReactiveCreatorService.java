@@ -0,0 +1,56 @@
+package me.zedaster.moderationservice.service;
+
+import lombok.RequiredArgsConstructor;
+import me.zedaster.moderationservice.dto.Creator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking client of the auth service for fetching creators
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCreatorService {
+    private final WebClient authServiceWebClient;
+
+    /**
+     * Get creators by their ids.
+     * @param userIds List of creator ids
+     * @return List of creators in the same order. It fails with {@link ExternalConnectException} if the auth service
+     * is not available.
+     */
+    public Mono<List<Creator>> getCreatorsByIds(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return authServiceWebClient.get()
+                .uri(builder -> builder.path("/internal/profile/usernames").queryParam("ids", userIds).build())
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
+                .map(names -> CreatorService.zipCreators(userIds, names))
+                .onErrorMap(WebClientRequestException.class,
+                        e -> new ExternalConnectException("Creator service is not available", e));
+    }
+
+    /**
+     * Get creator by their id.
+     * @param creatorId Creator id
+     * @return Creator. It fails with {@link ExternalConnectException} if the auth service is not available.
+     */
+    public Mono<Creator> getCreator(long creatorId) {
+        return authServiceWebClient.get()
+                .uri("/internal/profile/{id}/username", creatorId)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(name -> new Creator(creatorId, name))
+                .onErrorMap(WebClientRequestException.class,
+                        e -> new ExternalConnectException("Creator service is not available", e));
+    }
+}
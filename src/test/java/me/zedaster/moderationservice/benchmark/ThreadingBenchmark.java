@@ -0,0 +1,193 @@
+package me.zedaster.moderationservice.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.observation.ObservationRegistry;
+import me.zedaster.moderationservice.configuration.ArticleFetchConfiguration;
+import me.zedaster.moderationservice.configuration.ExecutorFactory;
+import me.zedaster.moderationservice.configuration.S3Configuration;
+import me.zedaster.moderationservice.configuration.microservice.AuthServiceConfiguration;
+import me.zedaster.moderationservice.loadtest.FakeS3Server;
+import me.zedaster.moderationservice.loadtest.FaultProfile;
+import me.zedaster.moderationservice.service.ContentService;
+import me.zedaster.moderationservice.service.CreatorService;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of request handling on platform threads and on virtual threads. It isn't run by tests.
+ * <p>
+ * A request is {@code GET /protected/moderation/articles/{id}} without the prefetcher: a database lookup, then the
+ * content and the creator fetched in parallel by the real {@link ContentService} and {@link CreatorService} over
+ * HTTP, on an executor from {@link ExecutorFactory} with the default {@link ArticleFetchConfiguration}. The S3 storage
+ * and the auth service are local fakes with fixed latencies. The database lookup is modelled by a wait for one of
+ * the connections of the default Hikari pool and a fixed pause, because the benchmark runs without a database.
+ * <p>
+ * All requests are submitted at once, so the concurrency is limited only by the threads handling them. In the
+ * platform mode requests are handled by a pool of the size of the default Tomcat pool, in the virtual mode each
+ * request gets its own virtual thread.
+ * <p>
+ * Run it with Java 21+ from the IDE or with
+ * {@code java -cp target/classes:target/test-classes:<dependencies> me.zedaster.moderationservice.benchmark.ThreadingBenchmark [requests]}
+ */
+public class ThreadingBenchmark {
+    /**
+     * Size of the default pool of Tomcat request threads
+     */
+    private static final int TOMCAT_THREADS = 200;
+
+    /**
+     * Size of the default Hikari pool
+     */
+    private static final int DATABASE_CONNECTIONS = 10;
+
+    private static final long DATABASE_MILLIS = 3;
+
+    private static final Duration CONTENT_LATENCY = Duration.ofMillis(30);
+
+    private static final long CREATOR_MILLIS = 20;
+
+    /**
+     * Count of distinct articles requested
+     */
+    private static final int ARTICLES = 100;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+
+        try (FakeS3Server s3Server = new FakeS3Server(new FaultProfile(CONTENT_LATENCY, 0, 0))) {
+            HttpServer authServer = startAuthServer();
+            try {
+                ContentService contentService = new ContentService(s3Configuration(s3Server));
+                for (long articleId = 1; articleId <= ARTICLES; articleId++) {
+                    contentService.saveContent(articleId, "c".repeat(2000));
+                }
+                CreatorService creatorService = new CreatorService(
+                        new AuthServiceConfiguration("http://localhost:" + authServer.getAddress().getPort()),
+                        new StaticListableBeanFactory().getBeanProvider(ObservationRegistry.class));
+
+                run("platform", requests, false, contentService, creatorService);
+                if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+                    run("virtual", requests, true, contentService, creatorService);
+                } else {
+                    System.out.println("virtual: skipped, Java 21+ is required");
+                }
+            } finally {
+                authServer.stop(0);
+            }
+        }
+    }
+
+    private static void run(String mode, int requests, boolean virtualThreads, ContentService contentService,
+                            CreatorService creatorService) throws InterruptedException {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        ExecutorFactory executorFactory = new ExecutorFactory(environment, null);
+        ArticleFetchConfiguration fetchConfiguration = new ArticleFetchConfiguration();
+        ExecutorService fetchExecutor = executorFactory.newBoundedExecutor("fetch",
+                fetchConfiguration.getParallelism(), fetchConfiguration.getQueueCapacity());
+        ExecutorService platformRequestExecutor = virtualThreads ? null : Executors.newFixedThreadPool(TOMCAT_THREADS);
+        Executor requestExecutor = virtualThreads ? new VirtualThreadTaskExecutor("request-") : platformRequestExecutor;
+        Semaphore connections = new Semaphore(DATABASE_CONNECTIONS, true);
+
+        long[] latencies = new long[requests];
+        CountDownLatch done = new CountDownLatch(requests);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            long submittedNanos = System.nanoTime();
+            requestExecutor.execute(() -> {
+                handleRequest(request % ARTICLES + 1, connections, fetchExecutor, contentService, creatorService);
+                latencies[request] = System.nanoTime() - submittedNanos;
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        fetchExecutor.shutdown();
+        if (platformRequestExecutor != null) {
+            platformRequestExecutor.shutdown();
+        }
+
+        Arrays.sort(latencies);
+        double throughput = requests / (elapsedNanos / 1e9);
+        System.out.printf("%s: %d requests, fetch parallelism %d, %.0f requests/s, p50 %d ms, p99 %d ms%n", mode,
+                requests, fetchConfiguration.getParallelism(), throughput,
+                TimeUnit.NANOSECONDS.toMillis(percentile(latencies, 0.50)),
+                TimeUnit.NANOSECONDS.toMillis(percentile(latencies, 0.99)));
+    }
+
+    private static void handleRequest(long articleId, Semaphore connections, Executor fetchExecutor,
+                                      ContentService contentService, CreatorService creatorService) {
+        connections.acquireUninterruptibly();
+        try {
+            sleep(DATABASE_MILLIS);
+        } finally {
+            connections.release();
+        }
+        CompletableFuture<?> content = CompletableFuture
+                .supplyAsync(() -> contentService.getContent(articleId), fetchExecutor);
+        CompletableFuture<?> creator = CompletableFuture
+                .supplyAsync(() -> creatorService.getCreator(articleId), fetchExecutor);
+        CompletableFuture.allOf(content, creator).join();
+    }
+
+    /**
+     * Start a fake of the auth service that answers requests for names of creators
+     */
+    private static HttpServer startAuthServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/internal/profile/", ThreadingBenchmark::handleCreatorRequest);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private static void handleCreatorRequest(HttpExchange exchange) throws IOException {
+        sleep(CREATOR_MILLIS);
+        byte[] body = "creator".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static S3Configuration s3Configuration(FakeS3Server s3Server) {
+        S3Configuration configuration = new S3Configuration();
+        configuration.setAccessKey("benchmark");
+        configuration.setSecretKey("benchmark");
+        configuration.setEndpointUrl(s3Server.getEndpointUrl());
+        configuration.setContentBucketName("benchmark-content");
+        return configuration;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
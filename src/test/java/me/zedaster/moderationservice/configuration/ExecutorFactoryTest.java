@@ -0,0 +1,71 @@
+package me.zedaster.moderationservice.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ExecutorFactory} class.
+ */
+public class ExecutorFactoryTest {
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new ExecutorFactory.WaitForQueuePolicy());
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that a caller waits for space in the full queue instead of running the task itself
+     */
+    @Test
+    public void waitForQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(() -> {
+        });
+
+        CompletableFuture<Thread> taskThread = new CompletableFuture<>();
+        Thread caller = new Thread(() -> executor.execute(() -> taskThread.complete(Thread.currentThread())));
+        caller.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (caller.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, caller.getState());
+        assertFalse(taskThread.isDone());
+
+        release.countDown();
+        assertNotEquals(caller, taskThread.get(1, TimeUnit.SECONDS));
+        caller.join(1000);
+        assertFalse(caller.isAlive());
+    }
+
+    /**
+     * Test that tasks are rejected after the executor is shut down
+     */
+    @Test
+    public void rejectAfterShutdown() {
+        executor.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package me.zedaster.moderationservice.configuration;
+
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link MetricsConfig} class.
+ */
+public class MetricsConfigTest {
+    public static class ObservedOperations {
+        @Observed(name = "test.operations")
+        public void succeed() {
+        }
+
+        @Observed(name = "test.operations")
+        public void fail() {
+            throw new IllegalStateException("test");
+        }
+    }
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ObservedOperations operations;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(meterRegistry))
+                .observationFilter(new MetricsConfig().observedMethodTagsFilter());
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new ObservedOperations());
+        proxyFactory.addAspect(new ObservedAspect(observationRegistry));
+        operations = proxyFactory.getProxy();
+    }
+
+    /**
+     * Test that a successful call of an observed method is tagged with success outcome
+     */
+    @Test
+    public void tagSuccess() {
+        operations.succeed();
+
+        assertEquals(1, meterRegistry.get("test.operations")
+                .tag("outcome", "SUCCESS")
+                .tag("exception", "none")
+                .timer()
+                .count());
+    }
+
+    /**
+     * Test that a failed call of an observed method is tagged with error outcome and type of the exception
+     */
+    @Test
+    public void tagError() {
+        assertThrows(IllegalStateException.class, () -> operations.fail());
+
+        assertEquals(1, meterRegistry.get("test.operations")
+                .tag("outcome", "ERROR")
+                .tag("exception", "IllegalStateException")
+                .timer()
+                .count());
+    }
+}
@@ -0,0 +1,29 @@
+package me.zedaster.moderationservice.configuration;
+
+import me.zedaster.moderationservice.entity.ModeratingStatusConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RuntimeHintsConfig} class.
+ */
+public class RuntimeHintsConfigTest {
+    /**
+     * Test that the JPA converter and the second-level cache can be created in the native image
+     */
+    @Test
+    public void registerHints() throws NoSuchMethodException {
+        RuntimeHints hints = new RuntimeHints();
+        new RuntimeHintsConfig.ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(ModeratingStatusConverter.class.getConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(org.ehcache.jsr107.EhcacheCachingProvider.class)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache-core.xsd").test(hints));
+    }
+}
@@ -0,0 +1,182 @@
+package me.zedaster.moderationservice.configuration.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link BulkheadAspect} class.
+ */
+public class BulkheadAspectTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BulkheadAspect aspect;
+
+    @BeforeEach
+    public void setUp() {
+        BulkheadConfiguration configuration = new BulkheadConfiguration();
+        configuration.setLimits(Map.of(
+                Dependency.S3, new BulkheadConfiguration.Limits(1, 1, Duration.ofMillis(300)),
+                Dependency.AUTH_SERVICE, new BulkheadConfiguration.Limits(1, 0, Duration.ZERO),
+                Dependency.DATABASE, new BulkheadConfiguration.Limits(1, 0, Duration.ZERO)));
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new BulkheadAspect(configuration, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that a call over the limit waits for a call in progress
+     */
+    @Test
+    public void waitForPermit() throws Throwable {
+        Future<Object> blocked = submit(aspect::limitS3, blockingCall());
+        awaitActiveCalls(Dependency.S3, 1);
+
+        Future<Object> waiting = submit(aspect::limitS3, call("second"));
+        awaitWaitingCalls(Dependency.S3, 1);
+        release.countDown();
+
+        assertEquals("blocked", blocked.get(1, TimeUnit.SECONDS));
+        assertEquals("second", waiting.get(1, TimeUnit.SECONDS));
+        assertEquals(0, aspect.getBulkhead(Dependency.S3).getActiveCalls());
+    }
+
+    /**
+     * Test that a call is rejected at once when the queue of waiting calls is full
+     */
+    @Test
+    public void rejectWhenQueueFull() throws Throwable {
+        submit(aspect::limitAuthService, blockingCall());
+        awaitActiveCalls(Dependency.AUTH_SERVICE, 1);
+
+        ProceedingJoinPoint rejected = call("rejected");
+        assertThrows(BulkheadFullException.class, () -> aspect.limitAuthService(rejected));
+
+        verify(rejected, never()).proceed();
+        assertEquals(1, meterRegistry.get("bulkhead.rejections")
+                .tags("dependency", "auth", "reason", "queue_full").counter().count());
+        assertEquals(1.0, meterRegistry.get("bulkhead.saturation").tag("dependency", "auth").gauge().value());
+    }
+
+    /**
+     * Test that a call waiting too long is rejected
+     */
+    @Test
+    public void rejectAfterTimeout() throws Throwable {
+        submit(aspect::limitS3, blockingCall());
+        awaitActiveCalls(Dependency.S3, 1);
+
+        assertThrows(BulkheadFullException.class, () -> aspect.limitS3(call("rejected")));
+
+        assertEquals(0, aspect.getBulkhead(Dependency.S3).getWaitingCalls());
+        assertEquals(1, meterRegistry.get("bulkhead.rejections")
+                .tags("dependency", "s3", "reason", "timeout").counter().count());
+    }
+
+    /**
+     * Test that a nested call to the same dependency doesn't wait for the outer call
+     */
+    @Test
+    public void allowNestedCall() throws Throwable {
+        ProceedingJoinPoint outer = call("outer");
+        when(outer.proceed()).thenAnswer(invocation -> aspect.limitAuthService(call("nested")));
+
+        assertEquals("nested", aspect.limitAuthService(outer));
+        assertEquals(0, aspect.getBulkhead(Dependency.AUTH_SERVICE).getActiveCalls());
+    }
+
+    /**
+     * Test that non-blocking calls and calls to dependencies without limits are not limited
+     */
+    @Test
+    public void skipUnlimitedCalls() throws Throwable {
+        submit(aspect::limitAuthService, blockingCall());
+        awaitActiveCalls(Dependency.AUTH_SERVICE, 1);
+
+        ProceedingJoinPoint reactiveCall = call("reactive");
+        MethodSignature signature = (MethodSignature) reactiveCall.getSignature();
+        when(signature.getReturnType()).thenReturn(Publisher.class);
+
+        assertEquals("reactive", aspect.limitAuthService(reactiveCall));
+        assertEquals("article", aspect.limitArticleService(call("article")));
+        assertNull(aspect.getBulkhead(Dependency.ARTICLE_SERVICE));
+        // Connections to the database are limited by BulkheadDataSource
+        assertNull(aspect.getBulkhead(Dependency.DATABASE));
+    }
+
+    private Future<Object> submit(Limit limit, ProceedingJoinPoint joinPoint) {
+        return executor.submit(() -> {
+            try {
+                return limit.apply(joinPoint);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private ProceedingJoinPoint blockingCall() throws Throwable {
+        ProceedingJoinPoint joinPoint = call("blocked");
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            release.await();
+            return "blocked";
+        });
+        return joinPoint;
+    }
+
+    private static ProceedingJoinPoint call(String result) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getReturnType()).thenReturn(String.class);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+
+    private void awaitActiveCalls(Dependency dependency, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (aspect.getBulkhead(dependency).getActiveCalls() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, aspect.getBulkhead(dependency).getActiveCalls());
+    }
+
+    private void awaitWaitingCalls(Dependency dependency, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (aspect.getBulkhead(dependency).getWaitingCalls() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, aspect.getBulkhead(dependency).getWaitingCalls());
+    }
+
+    /**
+     * Advice of the aspect
+     */
+    private interface Limit {
+        Object apply(ProceedingJoinPoint joinPoint) throws Throwable;
+    }
+}
@@ -0,0 +1,90 @@
+package me.zedaster.moderationservice.configuration.bulkhead;
+
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link BulkheadDataSource} class.
+ */
+public class BulkheadDataSourceTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private DataSource targetDataSource;
+
+    private BulkheadDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        targetDataSource = mock(DataSource.class);
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new BulkheadDataSource(targetDataSource, new Bulkhead(Dependency.DATABASE,
+                new BulkheadConfiguration.Limits(1, 1, Duration.ofSeconds(1)), null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that a connection holds a permit until it's closed
+     */
+    @Test
+    public void holdPermitUntilClose() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.getBulkhead().getActiveCalls());
+        Connection target = ((ConnectionProxy) connection).getTargetConnection();
+
+        connection.close();
+        connection.close();
+
+        verify(target, times(1)).close();
+        assertTrue(connection.isClosed());
+        assertEquals(0, dataSource.getBulkhead().getActiveCalls());
+    }
+
+    /**
+     * Test that a failure of the pool returns the permit
+     */
+    @Test
+    public void releasePermitOnFailure() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("Connection is not available"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(0, dataSource.getBulkhead().getActiveCalls());
+    }
+
+    /**
+     * Test that a new connection doesn't overtake a waiting one when a permit is returned
+     */
+    @Test
+    public void keepOrderOfWaitingConnections() throws Exception {
+        Connection first = dataSource.getConnection();
+        Future<Connection> waiting = executor.submit(() -> dataSource.getConnection());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (dataSource.getBulkhead().getWaitingCalls() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, dataSource.getBulkhead().getWaitingCalls());
+
+        first.close();
+
+        assertThrows(BulkheadFullException.class, () -> dataSource.getConnection());
+        assertNotNull(waiting.get(1, TimeUnit.SECONDS));
+    }
+}
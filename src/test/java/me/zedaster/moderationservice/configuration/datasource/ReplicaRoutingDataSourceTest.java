@@ -0,0 +1,98 @@
+package me.zedaster.moderationservice.configuration.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ReplicaRoutingDataSource} class.
+ */
+public class ReplicaRoutingDataSourceTest {
+    private DataSource primary;
+
+    private Connection replica0Connection;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        DataSource replica0 = mock(DataSource.class);
+        DataSource replica1 = mock(DataSource.class);
+        replica0Connection = mockConnection(replica0);
+        mockConnection(replica1);
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        routingDataSource.close();
+    }
+
+    /**
+     * Test that read-write transactions go to the primary database.
+     */
+    @Test
+    public void routeWriteToPrimary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Test that read-only transactions are balanced between replicas.
+     */
+    @Test
+    public void routeReadsToReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Test that read-only transactions go to the primary database when it's forced.
+     */
+    @Test
+    public void routeForcedReadToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+            assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+        }
+        assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Test that unhealthy replicas are excluded from routing.
+     */
+    @Test
+    public void excludeUnhealthyReplica() throws SQLException {
+        when(replica0Connection.isValid(anyInt())).thenReturn(false);
+        routingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(List.of("replica-1"), routingDataSource.getHealthyReplicaKeys());
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+    }
+
+    private static Connection mockConnection(DataSource dataSource) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return connection;
+    }
+}
@@ -0,0 +1,66 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RequestTimings} class.
+ */
+public class RequestTimingsTest {
+    /**
+     * Test that the header contains only called dependencies and the total time
+     */
+    @Test
+    public void formatServerTimingHeader() {
+        RequestTimings timings = new RequestTimings();
+        timings.add(Dependency.DATABASE, 1_000_000);
+        timings.add(Dependency.DATABASE, 2_250_000);
+        timings.add(Dependency.S3, 12_000_000);
+
+        String header = timings.toServerTimingHeader();
+
+        assertTrue(header.startsWith("db;dur=3.3;desc=\"Database, 2 calls\", s3;dur=12.0;desc=\"S3 storage, 1 call\", "
+                + "total;dur="), header);
+        assertFalse(header.contains("auth"));
+    }
+
+    /**
+     * Test that timings are bound to the current thread until the scope is closed
+     */
+    @Test
+    public void bindToCurrentThread() {
+        RequestTimings timings = new RequestTimings();
+        assertNull(RequestTimings.current());
+
+        try (RequestTimings.Scope ignored = RequestTimings.bind(timings)) {
+            assertSame(timings, RequestTimings.current());
+        }
+
+        assertNull(RequestTimings.current());
+    }
+
+    /**
+     * Test that a propagated task adds calls to the timings of the thread that created it
+     */
+    @Test
+    public void propagateToOtherThread() {
+        RequestTimings timings = new RequestTimings();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (RequestTimings.Scope ignored = RequestTimings.bind(timings)) {
+            Runnable task = RequestTimings.propagate(
+                    () -> RequestTimings.current().add(Dependency.AUTH_SERVICE, 5_000_000));
+            CompletableFuture.runAsync(task, executor).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, timings.getCount(Dependency.AUTH_SERVICE));
+        assertEquals(5_000_000, timings.getDurationNanos(Dependency.AUTH_SERVICE));
+    }
+}
@@ -0,0 +1,55 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import jakarta.servlet.FilterChain;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ServerTimingFilter} class.
+ */
+public class ServerTimingFilterTest {
+    private final ServerTimingFilter filter = new ServerTimingFilter(false);
+
+    /**
+     * Test that calls made before the body is written are in the header
+     */
+    @Test
+    public void addHeaderBeforeBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, chainResponse) -> {
+            RequestTimings.current().add(Dependency.DATABASE, 2_000_000);
+            chainResponse.getOutputStream().write("{}".getBytes());
+            chainResponse.flushBuffer();
+            // Too late for the header
+            RequestTimings.current().add(Dependency.S3, 2_000_000);
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/test"), response, chain);
+
+        String header = response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("db;dur=2.0;"), header);
+        assertFalse(header.contains("s3"));
+        assertNull(RequestTimings.current());
+    }
+
+    /**
+     * Test that the header is added to a response without body
+     */
+    @Test
+    public void addHeaderWithoutBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, chainResponse) ->
+                RequestTimings.current().add(Dependency.ARTICLE_SERVICE, 1_000_000);
+
+        filter.doFilter(new MockHttpServletRequest("PATCH", "/test"), response, chain);
+
+        String header = response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("article;dur=1.0;"), header);
+    }
+}
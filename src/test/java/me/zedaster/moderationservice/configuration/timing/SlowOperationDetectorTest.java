@@ -0,0 +1,112 @@
+package me.zedaster.moderationservice.configuration.timing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
+import me.zedaster.moderationservice.service.ContentService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link SlowOperationDetector} class.
+ */
+@ExtendWith(OutputCaptureExtension.class)
+public class SlowOperationDetectorTest {
+    private SimpleMeterRegistry meterRegistry;
+
+    private SlowOperationDetector detector;
+
+    @BeforeEach
+    public void setUp() {
+        SlowOperationConfiguration configuration = new SlowOperationConfiguration();
+        configuration.setThresholds(Map.of(Dependency.S3, Duration.ofMillis(20)));
+        configuration.setMaxRecordsPerMinute(1);
+        meterRegistry = new SimpleMeterRegistry();
+        detector = new SlowOperationDetector(configuration, meterRegistry);
+    }
+
+    /**
+     * Test that a slow call is logged with the operation, the article ID and the timings of the request
+     */
+    @Test
+    public void logSlowCall(CapturedOutput output) throws Throwable {
+        RequestTimings timings = new RequestTimings("GET /protected/moderation/articles/5");
+        timings.add(Dependency.DATABASE, 3_000_000);
+
+        Object result;
+        try (RequestTimings.Scope ignored = RequestTimings.bind(timings)) {
+            result = detector.detectS3(mockGetContent(5, 40));
+        }
+
+        assertEquals(Optional.of("content"), result);
+        assertTrue(output.getOut().contains("Slow call to S3 storage: ContentService.getContent took"));
+        assertTrue(output.getOut().contains("article=5, params=[5], request=\"GET /protected/moderation/articles/5\", "
+                + "timings: total_ms="));
+        assertTrue(output.getOut().contains("db_calls=1"));
+        assertEquals(1, meterRegistry.get("slow.operations").tag("dependency", "s3").counter().count());
+    }
+
+    /**
+     * Test that a fast call isn't logged
+     */
+    @Test
+    public void skipFastCall(CapturedOutput output) throws Throwable {
+        detector.detectS3(mockGetContent(5, 0));
+
+        assertFalse(output.getOut().contains("Slow call"));
+        assertEquals(0, meterRegistry.get("slow.operations").tag("dependency", "s3").counter().count());
+    }
+
+    /**
+     * Test that records over the limit are not logged but counted
+     */
+    @Test
+    public void limitRecords(CapturedOutput output) throws Throwable {
+        detector.detectS3(mockGetContent(5, 40));
+        detector.detectS3(mockGetContent(6, 40));
+
+        assertTrue(output.getOut().contains("article=5"));
+        assertFalse(output.getOut().contains("article=6"));
+        assertEquals(2, meterRegistry.get("slow.operations").tag("dependency", "s3").counter().count());
+    }
+
+    /**
+     * Test that calls to dependencies without thresholds aren't checked
+     */
+    @Test
+    public void skipDependencyWithoutThreshold(CapturedOutput output) throws Throwable {
+        detector.detectDatabase(mockGetContent(5, 40));
+
+        assertFalse(output.getOut().contains("Slow call"));
+    }
+
+    private static ProceedingJoinPoint mockGetContent(long articleId, long durationMillis) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getName()).thenReturn("getContent");
+        when(signature.getParameterNames()).thenReturn(new String[]{"articleId"});
+        when(signature.getMethod()).thenReturn(ContentService.class.getMethod("getContent", long.class));
+
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{articleId});
+        when(joinPoint.getTarget()).thenReturn(mock(ContentService.class));
+        when(joinPoint.getThis()).thenReturn(new Object());
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            Thread.sleep(durationMillis);
+            return Optional.of("content");
+        });
+        return joinPoint;
+    }
+}
@@ -0,0 +1,75 @@
+package me.zedaster.moderationservice.controller;
+
+import me.zedaster.moderationservice.dto.CacheRegionStatsDto;
+import me.zedaster.moderationservice.dto.ImportErrorDto;
+import me.zedaster.moderationservice.dto.ImportReportDto;
+import me.zedaster.moderationservice.service.ArticleCounterService;
+import me.zedaster.moderationservice.service.ArticleImportService;
+import me.zedaster.moderationservice.service.CacheStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link InternalModerationController}
+ */
+@WebMvcTest(InternalModerationController.class)
+public class InternalModerationControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ArticleImportService articleImportService;
+
+    @MockitoBean
+    private ArticleCounterService articleCounterService;
+
+    @MockitoBean
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Test
+    public void importArticles() throws Exception {
+        ImportReportDto report = new ImportReportDto(1, 1, 10, 100.0,
+                List.of(new ImportErrorDto(2, "Malformed JSON record")));
+        when(articleImportService.importArticles(any())).thenReturn(report);
+
+        mockMvc.perform(post("/internal/moderation/articles/import")
+                        .contentType("application/x-ndjson")
+                        .content("{}\n{"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Malformed JSON record"));
+    }
+
+    @Test
+    public void rebuildCounters() throws Exception {
+        mockMvc.perform(post("/internal/moderation/counters/rebuild"))
+                .andExpect(status().isOk());
+        verify(articleCounterService, times(1)).rebuild();
+    }
+
+    @Test
+    public void getCacheStatistics() throws Exception {
+        when(cacheStatisticsService.getRegionStatistics()).thenReturn(List.of(
+                new CacheRegionStatsDto("me.zedaster.moderationservice.entity.ArticleSummaryEntity", 10, 2, 3, 1)));
+
+        mockMvc.perform(get("/internal/moderation/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region").value("me.zedaster.moderationservice.entity.ArticleSummaryEntity"))
+                .andExpect(jsonPath("$[0].hits").value(10))
+                .andExpect(jsonPath("$[0].misses").value(2));
+    }
+}
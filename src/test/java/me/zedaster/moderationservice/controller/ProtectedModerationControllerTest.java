@@ -1,30 +1,58 @@
 package me.zedaster.moderationservice.controller;
 
 import me.zedaster.moderationservice.TestUtils;
+import me.zedaster.moderationservice.configuration.ArticlePageCacheConfiguration;
+import me.zedaster.moderationservice.configuration.ArticleUploadConfiguration;
+import me.zedaster.moderationservice.configuration.QueueEventsConfiguration;
+import me.zedaster.moderationservice.configuration.bulkhead.BulkheadFullException;
+import me.zedaster.moderationservice.configuration.timing.RequestTimings.Dependency;
 import me.zedaster.moderationservice.dto.*;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import me.zedaster.moderationservice.service.ArticleLeasedException;
 import me.zedaster.moderationservice.service.ArticleModerationService;
+import me.zedaster.moderationservice.service.ArticlePageCache;
+import me.zedaster.moderationservice.service.ArticlePrefetcher;
+import me.zedaster.moderationservice.service.ArticleUpload;
+import me.zedaster.moderationservice.service.ArticleUploadReader;
+import me.zedaster.moderationservice.service.QueueEventBroadcaster;
+import me.zedaster.moderationservice.service.InvalidCursorException;
 import me.zedaster.moderationservice.service.NoSuchArticleException;
+import me.zedaster.moderationservice.service.NoSuchRevisionException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.nio.file.Files;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Tests for {@link ProtectedModerationController}
  */
 @WebMvcTest(ProtectedModerationController.class)
+@Import({ArticlePageCache.class, ArticlePageCacheConfiguration.class, QueueEventBroadcaster.class,
+        QueueEventsConfiguration.class, ArticleUploadReader.class, ArticleUploadConfiguration.class})
 public class ProtectedModerationControllerTest {
     private static final String ASK_EDIT_JSON = """
             {
@@ -41,12 +69,21 @@ public class ProtectedModerationControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private QueueEventBroadcaster queueEventBroadcaster;
+
     /**
      * Mock moderation service
      */
     @MockitoBean
     private ArticleModerationService articleModerationService;
 
+    /**
+     * Mock prefetcher of articles
+     */
+    @MockitoBean
+    private ArticlePrefetcher articlePrefetcher;
+
     @Test
     public void getUserArticles() throws Exception {
         Instant createdAt1 = TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0);
@@ -57,9 +94,11 @@ public class ProtectedModerationControllerTest {
                 new ArticleSummary(2L, "b".repeat(15), createdAt2, ModerationStatus.MODERATING, null)
         );
         when(articleModerationService.getUserArticleSummaries(123, 12)).thenReturn(articleSummaries);
+        when(articleModerationService.getArticleStats(123L)).thenReturn(stats(15, 5));
 
         mockMvc.perform(get("/protected/moderation/articles/user?tokenPayload.sub=123&page=12"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "20"))
                 .andExpect(jsonPath("$.*", hasSize(2)))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].title").value("a".repeat(15)))
@@ -90,6 +129,7 @@ public class ProtectedModerationControllerTest {
                 .andExpect(jsonPath("$.creator.name").value("Alice"));
 
         verify(articleModerationService, times(1)).userOwnArticle(456L, 123L);
+        verify(articlePrefetcher, never()).prefetchAfter(anyLong(), any());
     }
 
     @Test
@@ -134,6 +174,7 @@ public class ProtectedModerationControllerTest {
                 .andExpect(jsonPath("$.creator.name").value("Alice"));
 
         verify(articleModerationService, never()).userOwnArticle(anyLong(), anyLong());
+        verify(articlePrefetcher, times(1)).prefetchAfter(1L, createdAt);
     }
 
     @Test
@@ -155,10 +196,36 @@ public class ProtectedModerationControllerTest {
                 .formatted(NOT_FOUND_ARTICLE_ID)));
     }
 
+    @Test
+    public void getParticularArticleWithBusyDependency() throws Exception {
+        doThrow(new BulkheadFullException(Dependency.S3)).when(articleModerationService).getArticle(1L);
+
+        mockMvc.perform(get("/protected/moderation/articles/1?tokenPayload.role=MODERATOR&tokenPayload.sub=777"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("S3 storage is busy, try again later!"));
+    }
+
+    @Test
+    public void getParticularArticleWithBusyDatabase() throws Exception {
+        doThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                new BulkheadFullException(Dependency.DATABASE))).when(articleModerationService).getArticle(1L);
+
+        mockMvc.perform(get("/protected/moderation/articles/1?tokenPayload.role=MODERATOR&tokenPayload.sub=777"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Database is busy, try again later!"));
+    }
+
     @Test
     public void createArticle() throws Exception {
-        CreateArticleDto createDto = new CreateArticleDto("a".repeat(15), "b".repeat(100));
-        doNothing().when(articleModerationService).saveArticle(123, createDto);
+        doAnswer(invocation -> {
+            ArticleUpload upload = invocation.getArgument(1);
+            assertEquals("a".repeat(15), upload.getTitle());
+            assertEquals("b".repeat(100), Files.readString(upload.getContentFile()));
+            assertEquals(100, upload.getContentSize());
+            return null;
+        }).when(articleModerationService).saveArticle(eq(123L), any(ArticleUpload.class));
 
         String contentJson = """
                 {
@@ -171,7 +238,141 @@ public class ProtectedModerationControllerTest {
                         .content((contentJson)))
                 .andExpect(status().is(200));
 
-        verify(articleModerationService, times(1)).saveArticle(123, createDto);
+        verify(articleModerationService, times(1)).saveArticle(eq(123L), any(ArticleUpload.class));
+    }
+
+    @Test
+    public void createInvalidArticle() throws Exception {
+        String contentJson = """
+                {
+                  "title": "%s",
+                  "content": "%s"
+                }""".formatted("a".repeat(15), "b".repeat(99));
+
+        mockMvc.perform(post("/protected/moderation/articles?tokenPayload.sub=123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content((contentJson)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Content must contain at least 100 characters!"));
+
+        verify(articleModerationService, never()).saveArticle(anyLong(), any(ArticleUpload.class));
+    }
+
+    @Test
+    public void createTooLargeArticle() throws Exception {
+        String contentJson = """
+                {
+                  "title": "%s",
+                  "content": "%s"
+                }""".formatted("a".repeat(15), "b".repeat(128 * 1024));
+
+        mockMvc.perform(post("/protected/moderation/articles?tokenPayload.sub=123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content((contentJson)))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.message").value("Article mustn't take more than 131072 bytes!"));
+
+        verify(articleModerationService, never()).saveArticle(anyLong(), any(ArticleUpload.class));
+    }
+
+    @Test
+    public void resubmitArticle() throws Exception {
+        doAnswer(invocation -> {
+            ArticleUpload upload = invocation.getArgument(2);
+            assertEquals("a".repeat(15), upload.getTitle());
+            assertEquals("b".repeat(100), Files.readString(upload.getContentFile()));
+            return null;
+        }).when(articleModerationService).resubmitArticle(eq(1L), eq(123L), any(ArticleUpload.class));
+
+        String contentJson = """
+                {
+                  "title": "%s",
+                  "content": "%s"
+                }""".formatted("a".repeat(15), "b".repeat(100));
+
+        mockMvc.perform(put("/protected/moderation/articles/1?tokenPayload.sub=123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(contentJson))
+                .andExpect(status().is(200));
+
+        verify(articleModerationService, times(1)).resubmitArticle(eq(1L), eq(123L), any(ArticleUpload.class));
+    }
+
+    @Test
+    public void resubmitArticleOfAnotherUser() throws Exception {
+        doThrow(new NoSuchArticleException(1L)).when(articleModerationService)
+                .resubmitArticle(eq(1L), eq(123L), any(ArticleUpload.class));
+
+        String contentJson = """
+                {
+                  "title": "%s",
+                  "content": "%s"
+                }""".formatted("a".repeat(15), "b".repeat(100));
+
+        mockMvc.perform(put("/protected/moderation/articles/1?tokenPayload.sub=123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(contentJson))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Article with ID 1 was not found!"));
+    }
+
+    @Test
+    public void getArticleDiff() throws Exception {
+        ArticleDiff diff = new ArticleDiff(1L, 1, 2, "a".repeat(15), "b".repeat(15), List.of(
+                new DiffLine(DiffType.EQUAL, 1, 1, "Same line", null),
+                new DiffLine(DiffType.CHANGED, 2, 2, null, List.of(
+                        new DiffSegment(DiffType.DELETED, "old"),
+                        new DiffSegment(DiffType.INSERTED, "new"))),
+                new DiffLine(DiffType.INSERTED, null, 3, "Added line", null)));
+        when(articleModerationService.getArticleDiff(1L, 1, null)).thenReturn(diff);
+
+        mockMvc.perform(get("/protected/moderation/articles/1/diff?tokenPayload.role=MODERATOR&from=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromRevision").value(1))
+                .andExpect(jsonPath("$.toRevision").value(2))
+                .andExpect(jsonPath("$.toTitle").value("b".repeat(15)))
+                .andExpect(jsonPath("$.lines", hasSize(3)))
+                .andExpect(jsonPath("$.lines[0].text").value("Same line"))
+                .andExpect(jsonPath("$.lines[1].type").value("CHANGED"))
+                .andExpect(jsonPath("$.lines[1].text").doesNotExist())
+                .andExpect(jsonPath("$.lines[1].segments[1].text").value("new"))
+                .andExpect(jsonPath("$.lines[2].fromLine").doesNotExist())
+                .andExpect(jsonPath("$.lines[2].toLine").value(3));
+    }
+
+    @Test
+    public void getArticleDiffByUser() throws Exception {
+        mockMvc.perform(get("/protected/moderation/articles/1/diff?tokenPayload.role=USER"))
+                .andExpect(status().isForbidden());
+        verify(articleModerationService, never()).getArticleDiff(anyLong(), any(), any());
+    }
+
+    @Test
+    public void getArticleDiffOfMissingRevision() throws Exception {
+        when(articleModerationService.getArticleDiff(1L, null, 5))
+                .thenThrow(new NoSuchRevisionException(1L, 5));
+
+        mockMvc.perform(get("/protected/moderation/articles/1/diff?tokenPayload.role=MODERATOR&to=5"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Revision 5 of article with ID 1 was not found!"));
+    }
+
+    @Test
+    public void getNearDuplicates() throws Exception {
+        when(articleModerationService.getNearDuplicates(2L)).thenReturn(List.of(1L, 3L));
+
+        mockMvc.perform(get("/protected/moderation/articles/2/duplicates?tokenPayload.role=MODERATOR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]").value(1))
+                .andExpect(jsonPath("$[1]").value(3));
+    }
+
+    @Test
+    public void getNearDuplicatesByUser() throws Exception {
+        mockMvc.perform(get("/protected/moderation/articles/2/duplicates?tokenPayload.role=USER"))
+                .andExpect(status().isForbidden());
+        verify(articleModerationService, never()).getNearDuplicates(anyLong());
     }
 
     @Test
@@ -193,10 +394,13 @@ public class ProtectedModerationControllerTest {
                         .status(ModerationStatus.MODERATING)
                         .build(), new Creator(2L, "Bob")
                 ));
-        when(articleModerationService.getArticleSummaries(12)).thenReturn(articleSummaries);
+        when(articleModerationService.getArticleSummaries(12, null, null, ArticleSortOrder.OLDEST))
+                .thenReturn(articleSummaries);
+        when(articleModerationService.getArticleStats(null)).thenReturn(stats(100, 20));
 
         mockMvc.perform(get("/protected/moderation/articles?tokenPayload.role=MODERATOR&tokenPayload.sub=123&page=12"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "120"))
                 .andExpect(jsonPath("$.*", hasSize(2)))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].title").value("a".repeat(15)))
@@ -212,6 +416,48 @@ public class ProtectedModerationControllerTest {
                 .andExpect(jsonPath("$[1].creator.name").value("Bob"));
     }
 
+    @Test
+    public void getAllArticlesWithFilters() throws Exception {
+        when(articleModerationService.getArticleSummaries(1, ModerationStatus.MODERATING, 5L, ArticleSortOrder.NEWEST))
+                .thenReturn(List.of());
+        when(articleModerationService.getArticleStats(5L)).thenReturn(stats(3, 2));
+
+        mockMvc.perform(get("/protected/moderation/articles?tokenPayload.role=MODERATOR&tokenPayload.sub=123&page=1"
+                        + "&status=MODERATING&creatorId=5&sort=NEWEST"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(jsonPath("$.*", hasSize(0)));
+
+        verify(articleModerationService, times(1))
+                .getArticleSummaries(1, ModerationStatus.MODERATING, 5L, ArticleSortOrder.NEWEST);
+    }
+
+    @Test
+    public void getArticleStats() throws Exception {
+        when(articleModerationService.getArticleStats(null)).thenReturn(stats(100, 20));
+
+        mockMvc.perform(get("/protected/moderation/articles/stats?tokenPayload.role=MODERATOR&tokenPayload.sub=123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(120))
+                .andExpect(jsonPath("$.countsByStatus.MODERATING").value(100))
+                .andExpect(jsonPath("$.countsByStatus.EDIT_REQUESTED").value(20));
+    }
+
+    @Test
+    public void getArticleStatsWithWrongRole() throws Exception {
+        testNoAccess(get("/protected/moderation/articles/stats?tokenPayload.role=USER&tokenPayload.sub=123"));
+    }
+
+    @Test
+    public void getUserArticleStats() throws Exception {
+        when(articleModerationService.getArticleStats(123L)).thenReturn(stats(2, 1));
+
+        mockMvc.perform(get("/protected/moderation/articles/user/stats?tokenPayload.sub=123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.countsByStatus.MODERATING").value(2));
+    }
+
     @Test
     public void getAllArticlesWithWrongRole() throws Exception {
         testNoAccess(get("/protected/moderation/articles?tokenPayload.role=USER&tokenPayload.sub=123&page=12"));
@@ -219,40 +465,40 @@ public class ProtectedModerationControllerTest {
 
     @Test
     public void acceptArticle() throws Exception {
-        doNothing().when(articleModerationService).publishArticle(1L);
-        mockMvc.perform(patch("/protected/moderation/articles/1/accept?tokenPayload.role=MODERATOR"))
+        doNothing().when(articleModerationService).publishArticle(1L, 5L);
+        mockMvc.perform(patch("/protected/moderation/articles/1/accept?tokenPayload.role=MODERATOR&tokenPayload.sub=5"))
                 .andExpect(status().isOk());
-        verify(articleModerationService, times(1)).publishArticle(1L);
+        verify(articleModerationService, times(1)).publishArticle(1L, 5L);
     }
 
     @Test
     public void acceptArticleWithWrongRole() throws Exception {
-        testNoAccess(patch("/protected/moderation/articles/321/accept?tokenPayload.role=USER"));
+        testNoAccess(patch("/protected/moderation/articles/321/accept?tokenPayload.role=USER&tokenPayload.sub=5"));
     }
 
     @Test
     public void acceptNonExistentArticle() throws Exception {
         doThrow(new NoSuchArticleException(NOT_FOUND_ARTICLE_ID))
-                .when(articleModerationService).publishArticle(NOT_FOUND_ARTICLE_ID);
-        testNotFound(patch("/protected/moderation/articles/%d/accept?tokenPayload.role=MODERATOR"
+                .when(articleModerationService).publishArticle(NOT_FOUND_ARTICLE_ID, 5L);
+        testNotFound(patch("/protected/moderation/articles/%d/accept?tokenPayload.role=MODERATOR&tokenPayload.sub=5"
                 .formatted(NOT_FOUND_ARTICLE_ID)));
     }
 
     @Test
     public void askEdit() throws Exception {
-        doNothing().when(articleModerationService).askEdit(321L, "Test comment");
+        doNothing().when(articleModerationService).askEdit(321L, 5L, "Test comment");
 
-        mockMvc.perform(patch("/protected/moderation/articles/321/askEdit?tokenPayload.role=MODERATOR")
+        mockMvc.perform(patch("/protected/moderation/articles/321/askEdit?tokenPayload.role=MODERATOR&tokenPayload.sub=5")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content((ASK_EDIT_JSON)))
                 .andExpect(status().isOk());
 
-        verify(articleModerationService, times(1)).askEdit(321L, "Test comment");
+        verify(articleModerationService, times(1)).askEdit(321L, 5L, "Test comment");
     }
 
     @Test
     public void askEditWrongRole() throws Exception {
-        testNoAccess(patch("/protected/moderation/articles/321/askEdit?tokenPayload.role=USER")
+        testNoAccess(patch("/protected/moderation/articles/321/askEdit?tokenPayload.role=USER&tokenPayload.sub=5")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(ASK_EDIT_JSON));
     }
@@ -260,8 +506,8 @@ public class ProtectedModerationControllerTest {
     @Test
     public void askEditNonExistentArticle() throws Exception {
         doThrow(new NoSuchArticleException(NOT_FOUND_ARTICLE_ID))
-                .when(articleModerationService).askEdit(eq(NOT_FOUND_ARTICLE_ID), anyString());
-        testNotFound(patch("/protected/moderation/articles/%d/askEdit?tokenPayload.role=MODERATOR"
+                .when(articleModerationService).askEdit(eq(NOT_FOUND_ARTICLE_ID), eq(5L), anyString());
+        testNotFound(patch("/protected/moderation/articles/%d/askEdit?tokenPayload.role=MODERATOR&tokenPayload.sub=5"
                 .formatted(NOT_FOUND_ARTICLE_ID))
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(ASK_EDIT_JSON));
@@ -270,25 +516,194 @@ public class ProtectedModerationControllerTest {
 
     @Test
     public void removeArticle() throws Exception {
-        doNothing().when(articleModerationService).removeArticle(123);
-        mockMvc.perform(delete("/protected/moderation/articles/123?tokenPayload.role=MODERATOR"))
+        doNothing().when(articleModerationService).removeArticle(123, 5L);
+        mockMvc.perform(delete("/protected/moderation/articles/123?tokenPayload.role=MODERATOR&tokenPayload.sub=5"))
                 .andExpect(status().isOk());
-        verify(articleModerationService, times(1)).removeArticle(123);
+        verify(articleModerationService, times(1)).removeArticle(123, 5L);
+    }
+
+    @Test
+    public void subscribeToQueueEvents() throws Exception {
+        MvcResult result = mockMvc.perform(get("/protected/moderation/articles/events?tokenPayload.role=MODERATOR"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        queueEventBroadcaster.onModerationEvent(ModerationEvent.byModerator(ModerationEventType.CLAIMED, 321L, 7L, 5L,
+                Instant.now()));
+
+        String content = "";
+        for (int i = 0; i < 100 && !content.contains("data:"); i++) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.startsWith("event:CLAIMED\ndata:{"));
+        assertTrue(content.contains("\"articleId\":321"));
+        assertTrue(content.contains("\"moderatorId\":5"));
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, result.getResponse().getContentType());
+    }
+
+    @Test
+    public void subscribeToQueueEventsWrongRole() throws Exception {
+        testNoAccess(get("/protected/moderation/articles/events?tokenPayload.role=USER"));
+    }
+
+    @Test
+    public void askEditArticles() throws Exception {
+        when(articleModerationService.askEditArticles(List.of(1L, 2L, 3L), 5L, "Spam"))
+                .thenReturn(new BulkDecisionResult(List.of(1L, 3L), List.of(2L)));
+
+        mockMvc.perform(patch("/protected/moderation/articles/bulk/askEdit?tokenPayload.role=MODERATOR&tokenPayload.sub=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids": [1, 2, 3], "comment": "Spam"}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", hasSize(2)))
+                .andExpect(jsonPath("$.applied[1]").value(3L))
+                .andExpect(jsonPath("$.skipped[0]").value(2L));
+    }
+
+    @Test
+    public void askEditArticlesWrongRole() throws Exception {
+        testNoAccess(patch("/protected/moderation/articles/bulk/askEdit?tokenPayload.role=USER&tokenPayload.sub=5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"ids": [1], "comment": "Spam"}"""));
+    }
+
+    @Test
+    public void removeArticles() throws Exception {
+        when(articleModerationService.removeArticles(List.of(1L, 2L), 5L))
+                .thenReturn(new BulkDecisionResult(List.of(1L, 2L), List.of()));
+
+        mockMvc.perform(post("/protected/moderation/articles/bulk/decline?tokenPayload.role=MODERATOR&tokenPayload.sub=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids": [1, 2]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", hasSize(2)))
+                .andExpect(jsonPath("$.skipped", hasSize(0)));
+    }
+
+    @Test
+    public void removeArticlesWrongRole() throws Exception {
+        testNoAccess(post("/protected/moderation/articles/bulk/decline?tokenPayload.role=USER&tokenPayload.sub=5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"ids": [1]}"""));
+        verify(articleModerationService, never()).removeArticles(any(), anyLong());
+    }
+
+    @Test
+    public void removeNearDuplicates() throws Exception {
+        when(articleModerationService.removeNearDuplicates(2L, 5L))
+                .thenReturn(new BulkDecisionResult(List.of(2L, 1L), List.of(3L)));
+
+        mockMvc.perform(post("/protected/moderation/articles/2/duplicates/decline?tokenPayload.role=MODERATOR&tokenPayload.sub=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", hasSize(2)))
+                .andExpect(jsonPath("$.skipped[0]").value(3));
+    }
+
+    @Test
+    public void removeNearDuplicatesWrongRole() throws Exception {
+        testNoAccess(post("/protected/moderation/articles/2/duplicates/decline?tokenPayload.role=USER&tokenPayload.sub=5"));
+        verify(articleModerationService, never()).removeNearDuplicates(anyLong(), anyLong());
     }
 
     @Test
     public void removeArticleWrongRole() throws Exception {
-        testNoAccess(delete("/protected/moderation/articles/321?tokenPayload.role=USER"));
+        testNoAccess(delete("/protected/moderation/articles/321?tokenPayload.role=USER&tokenPayload.sub=5"));
     }
 
     @Test
     public void removeNonExistentArticle() throws Exception {
         doThrow(new NoSuchArticleException(NOT_FOUND_ARTICLE_ID))
-                .when(articleModerationService).removeArticle(NOT_FOUND_ARTICLE_ID);
-        testNotFound(delete("/protected/moderation/articles/%s?tokenPayload.role=MODERATOR"
+                .when(articleModerationService).removeArticle(NOT_FOUND_ARTICLE_ID, 5L);
+        testNotFound(delete("/protected/moderation/articles/%s?tokenPayload.role=MODERATOR&tokenPayload.sub=5"
                 .formatted(NOT_FOUND_ARTICLE_ID)));
     }
 
+    @Test
+    public void claimNextArticle() throws Exception {
+        ArticleSummary summary = new ArticleSummary(1L, "a".repeat(15),
+                TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0), ModerationStatus.MODERATING, null);
+        ArticleLease lease = new ArticleLease(summary, TestUtils.createInstantOf(2021, 1, 2, 12, 0, 0));
+        when(articleModerationService.claimNextArticle(5L)).thenReturn(Optional.of(lease));
+
+        mockMvc.perform(get("/protected/moderation/articles/next?tokenPayload.role=MODERATOR&tokenPayload.sub=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.article.id").value(1))
+                .andExpect(jsonPath("$.expiresAt").value("2021-01-02T12:00:00Z"));
+    }
+
+    @Test
+    public void claimNextArticleWhenNoneIsFree() throws Exception {
+        when(articleModerationService.claimNextArticle(5L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/protected/moderation/articles/next?tokenPayload.role=MODERATOR&tokenPayload.sub=5"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void claimNextArticleWithWrongRole() throws Exception {
+        testNoAccess(get("/protected/moderation/articles/next?tokenPayload.role=USER&tokenPayload.sub=5"));
+    }
+
+    @Test
+    public void renewLeaseOfAnotherModerator() throws Exception {
+        when(articleModerationService.renewLease(1L, 5L)).thenThrow(new ArticleLeasedException(1L));
+
+        mockMvc.perform(patch("/protected/moderation/articles/1/lease?tokenPayload.role=MODERATOR&tokenPayload.sub=5"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Article with ID 1 is claimed by another moderator!"));
+    }
+
+    @Test
+    public void acceptArticleLeasedByAnotherModerator() throws Exception {
+        doThrow(new ArticleLeasedException(1L)).when(articleModerationService).publishArticle(1L, 5L);
+
+        mockMvc.perform(patch("/protected/moderation/articles/1/accept?tokenPayload.role=MODERATOR&tokenPayload.sub=5"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void searchArticles() throws Exception {
+        ArticleSummary summary = new ArticleSummary(1L, "a".repeat(15),
+                TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0), ModerationStatus.MODERATING, null);
+        ArticleSearchResult result = new ArticleSearchResult(
+                List.of(new NamedArticleSummary(summary, new Creator(3L, "user"))), "next");
+        when(articleModerationService.searchArticles("some title", ModerationStatus.MODERATING, "abc"))
+                .thenReturn(result);
+
+        mockMvc.perform(get("/protected/moderation/articles/search?tokenPayload.role=MODERATOR" +
+                        "&q=some title&status=MODERATING&cursor=abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles", hasSize(1)))
+                .andExpect(jsonPath("$.articles[0].id").value(1))
+                .andExpect(jsonPath("$.articles[0].creator.name").value("user"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    public void searchArticlesWithInvalidCursor() throws Exception {
+        when(articleModerationService.searchArticles("title", null, "abc"))
+                .thenThrow(new InvalidCursorException("abc"));
+
+        mockMvc.perform(get("/protected/moderation/articles/search?tokenPayload.role=MODERATOR&q=title&cursor=abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchArticlesWithWrongRole() throws Exception {
+        testNoAccess(get("/protected/moderation/articles/search?tokenPayload.role=USER&q=title"));
+    }
+
+    private static ArticleStatsDto stats(long moderating, long editRequested) {
+        return new ArticleStatsDto(Map.of(
+                ModerationStatus.MODERATING, moderating,
+                ModerationStatus.EDIT_REQUESTED, editRequested), moderating + editRequested);
+    }
+
     private void testNoAccess(MockHttpServletRequestBuilder requestBuilder) throws Exception {
         mockMvc.perform(requestBuilder)
                 .andExpect(status().is(403))
@@ -0,0 +1,86 @@
+package me.zedaster.moderationservice.diff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MyersDiff} class.
+ */
+public class MyersDiffTest {
+    /**
+     * Test the example from the paper of Myers.
+     */
+    @Test
+    public void diffPaperExample() {
+        int[] a = "ABCABBA".chars().toArray();
+        int[] b = "CBABAC".chars().toArray();
+
+        List<MyersDiff.Edit> edits = MyersDiff.diff(a, b);
+
+        assertEquals(5, editCount(edits));
+        assertEquals(new String(b, 0, b.length), applyEdits(a, b, edits));
+    }
+
+    /**
+     * Test equal and empty sequences.
+     */
+    @Test
+    public void diffEqualAndEmpty() {
+        int[] a = {1, 2, 3};
+        assertEquals(List.of(), MyersDiff.diff(a, a.clone()));
+        assertEquals(List.of(new MyersDiff.Edit(0, 3, 0, 0)), MyersDiff.diff(a, new int[0]));
+        assertEquals(List.of(new MyersDiff.Edit(0, 0, 0, 3)), MyersDiff.diff(new int[0], a));
+        assertEquals(List.of(new MyersDiff.Edit(0, 3, 0, 2)), MyersDiff.diff(a, new int[]{4, 5}));
+    }
+
+    /**
+     * Test that edit scripts of random sequences are the shortest ones. The length of the shortest edit script is
+     * found by the classic quadratic algorithm of the longest common subsequence.
+     */
+    @Test
+    public void diffIsShortest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int[] a = random.ints(random.nextInt(40), 0, 4).toArray();
+            int[] b = random.ints(random.nextInt(40), 0, 4).toArray();
+
+            List<MyersDiff.Edit> edits = MyersDiff.diff(a, b);
+
+            assertEquals(a.length + b.length - 2 * longestCommonSubsequence(a, b), editCount(edits));
+            assertEquals(new String(b, 0, b.length), applyEdits(a, b, edits));
+        }
+    }
+
+    private static int editCount(List<MyersDiff.Edit> edits) {
+        return edits.stream().mapToInt(edit -> edit.aTo() - edit.aFrom() + edit.bTo() - edit.bFrom()).sum();
+    }
+
+    private static String applyEdits(int[] a, int[] b, List<MyersDiff.Edit> edits) {
+        StringBuilder result = new StringBuilder();
+        int position = 0;
+        for (MyersDiff.Edit edit : edits) {
+            assertTrue(edit.aFrom() >= position);
+            result.append(new String(a, position, edit.aFrom() - position));
+            result.append(new String(b, edit.bFrom(), edit.bTo() - edit.bFrom()));
+            position = edit.aTo();
+        }
+        result.append(new String(a, position, a.length - position));
+        return result.toString();
+    }
+
+    private static int longestCommonSubsequence(int[] a, int[] b) {
+        int[][] lengths = new int[a.length + 1][b.length + 1];
+        for (int i = 1; i <= a.length; i++) {
+            for (int j = 1; j <= b.length; j++) {
+                lengths[i][j] = a[i - 1] == b[j - 1]
+                        ? lengths[i - 1][j - 1] + 1
+                        : Math.max(lengths[i - 1][j], lengths[i][j - 1]);
+            }
+        }
+        return lengths[a.length][b.length];
+    }
+}
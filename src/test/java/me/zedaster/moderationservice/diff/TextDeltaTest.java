@@ -0,0 +1,68 @@
+package me.zedaster.moderationservice.diff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TextDelta} class.
+ */
+public class TextDeltaTest {
+    /**
+     * Test that a delta restores the target text and stores only the changed lines.
+     */
+    @Test
+    public void createAndApply() {
+        StringBuilder sourceBuilder = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sourceBuilder.append("Line number ").append(i).append(" of the new revision of the article.\n");
+        }
+        String source = sourceBuilder.toString();
+        String target = source
+                .replace("Line number 10 of", "Line number ten of")
+                .replace("Line number 150 of the new revision of the article.\n", "")
+                + "Последняя строка без перевода";
+
+        byte[] delta = TextDelta.create(source, target);
+
+        assertEquals(target, TextDelta.apply(source, delta));
+        assertTrue(delta.length < 200, "Delta takes " + delta.length + " bytes");
+    }
+
+    /**
+     * Test deltas between random texts, including empty ones.
+     */
+    @Test
+    public void createAndApplyRandom() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            String source = randomText(random);
+            String target = randomText(random);
+            assertEquals(target, TextDelta.apply(source, TextDelta.create(source, target)));
+        }
+    }
+
+    /**
+     * Test applying a delta to a text it wasn't created from.
+     */
+    @Test
+    public void applyToWrongSource() {
+        byte[] delta = TextDelta.create("a\nb\nc\n", "a\nc\n");
+        assertThrows(IllegalArgumentException.class, () -> TextDelta.apply("a\n", delta));
+        assertThrows(IllegalArgumentException.class, () -> TextDelta.apply("a\n", new byte[]{1, 2, 3}));
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int lines = random.nextInt(15);
+        for (int i = 0; i < lines; i++) {
+            text.append("line ").append(random.nextInt(5));
+            if (i < lines - 1 || random.nextBoolean()) {
+                text.append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package me.zedaster.moderationservice.diff;
+
+import me.zedaster.moderationservice.dto.DiffLine;
+import me.zedaster.moderationservice.dto.DiffSegment;
+import me.zedaster.moderationservice.dto.DiffType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TextDiff} class.
+ */
+public class TextDiffTest {
+    /**
+     * Test a diff with changed, deleted and inserted lines. Unchanged lines far from changes are left out.
+     */
+    @Test
+    public void diff() {
+        String from = """
+                one
+                two
+                three
+                four
+                five
+                The quick brown fox jumps.
+                seven
+                """;
+        String to = """
+                one
+                two
+                three
+                four
+                five
+                The quick red fox jumps!
+                eight
+                nine
+                """;
+
+        List<DiffLine> lines = TextDiff.diff(from, to, 1);
+
+        assertEquals(List.of(
+                new DiffLine(DiffType.EQUAL, 5, 5, "five", null),
+                new DiffLine(DiffType.CHANGED, 6, 6, null, List.of(
+                        new DiffSegment(DiffType.EQUAL, "The quick "),
+                        new DiffSegment(DiffType.DELETED, "brown"),
+                        new DiffSegment(DiffType.INSERTED, "red"),
+                        new DiffSegment(DiffType.EQUAL, " fox jumps"),
+                        new DiffSegment(DiffType.DELETED, "."),
+                        new DiffSegment(DiffType.INSERTED, "!"))),
+                new DiffLine(DiffType.CHANGED, 7, 7, null, List.of(
+                        new DiffSegment(DiffType.DELETED, "seven"),
+                        new DiffSegment(DiffType.INSERTED, "eight"))),
+                new DiffLine(DiffType.INSERTED, null, 8, "nine", null)
+        ), lines);
+    }
+
+    /**
+     * Test that a diff keeps unchanged lines only around changes.
+     */
+    @Test
+    public void diffContext() {
+        String from = "a\nb\nc\nd\ne\nf\ng\nh\n";
+        String to = "x\nb\nc\nd\ne\nf\ng\ny\n";
+
+        List<DiffLine> lines = TextDiff.diff(from, to, 2);
+
+        assertEquals(List.of(
+                new DiffLine(DiffType.CHANGED, 1, 1, null, List.of(
+                        new DiffSegment(DiffType.DELETED, "a"), new DiffSegment(DiffType.INSERTED, "x"))),
+                new DiffLine(DiffType.EQUAL, 2, 2, "b", null),
+                new DiffLine(DiffType.EQUAL, 3, 3, "c", null),
+                new DiffLine(DiffType.EQUAL, 6, 6, "f", null),
+                new DiffLine(DiffType.EQUAL, 7, 7, "g", null),
+                new DiffLine(DiffType.CHANGED, 8, 8, null, List.of(
+                        new DiffSegment(DiffType.DELETED, "h"), new DiffSegment(DiffType.INSERTED, "y")))
+        ), lines);
+        assertEquals(List.of(), TextDiff.diff(from, from, 2));
+    }
+
+    /**
+     * Test that a line break added to the last line isn't shown as a change.
+     */
+    @Test
+    public void diffLineBreakOfLastLine() {
+        List<DiffLine> lines = TextDiff.diff("a\nb", "a\nb\nc", 0);
+        assertEquals(List.of(
+                new DiffLine(DiffType.EQUAL, 2, 2, "b", null),
+                new DiffLine(DiffType.INSERTED, null, 3, "c", null)
+        ), lines);
+    }
+
+    /**
+     * Test deleted lines.
+     */
+    @Test
+    public void diffDeletedLines() {
+        List<DiffLine> lines = TextDiff.diff("a\nb\nc\n", "a\n", 0);
+        assertEquals(List.of(
+                new DiffLine(DiffType.DELETED, 2, null, "b", null),
+                new DiffLine(DiffType.DELETED, 3, null, "c", null)
+        ), lines);
+    }
+}
@@ -0,0 +1,59 @@
+package me.zedaster.moderationservice.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark of JSON serialization of responses. The object mapper is configured like the one of Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+    private ObjectMapper objectMapper;
+
+    private Article article;
+
+    private List<NamedArticleSummary> summaryPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Instant createdAt = Instant.parse("2021-01-01T12:30:00Z");
+        Creator creator = new Creator(777L, "creator");
+        article = Article.builder()
+                .id(1L)
+                .title("a".repeat(100))
+                // Maximum length of content
+                .content("c".repeat(18_000))
+                .createdAt(createdAt)
+                .status(ModerationStatus.MODERATING)
+                .creator(creator)
+                .build();
+        // Size of a page of the moderation queue
+        summaryPage = IntStream.rangeClosed(1, 10)
+                .mapToObj(id -> new NamedArticleSummary(new ArticleSummary(id, "a".repeat(100), createdAt,
+                        ModerationStatus.EDIT_REQUESTED, "c".repeat(200)), creator))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeArticle() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(article);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+}
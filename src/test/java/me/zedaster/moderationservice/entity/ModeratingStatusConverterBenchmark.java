@@ -0,0 +1,33 @@
+package me.zedaster.moderationservice.entity;
+
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link ModeratingStatusConverter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModeratingStatusConverterBenchmark {
+    private final ModeratingStatusConverter converter = new ModeratingStatusConverter();
+
+    private ModerationStatus status = ModerationStatus.EDIT_REQUESTED;
+
+    private Integer statusId = 1;
+
+    @Benchmark
+    public Integer convertToDatabaseColumn() {
+        return converter.convertToDatabaseColumn(status);
+    }
+
+    @Benchmark
+    public ModerationStatus convertToEntityAttribute() {
+        return converter.convertToEntityAttribute(statusId);
+    }
+}
@@ -0,0 +1,244 @@
+package me.zedaster.moderationservice.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory S3-compatible endpoint. It supports the path-style requests that the service makes: checking and creating
+ * a bucket, putting, copying, getting and deleting objects. Only requests to objects are delayed and failed by the fault
+ * profile, so the application always starts.
+ */
+public class FakeS3Server implements AutoCloseable {
+    private static final String NO_SUCH_KEY = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <Error><Code>NoSuchKey</Code><Message>The specified key does not exist.</Message></Error>""";
+
+    private static final String INTERNAL_ERROR = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <Error><Code>InternalError</Code><Message>Injected failure.</Message></Error>""";
+
+    private static final String DELETE_RESULT = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <DeleteResult xmlns="http://s3.amazonaws.com/doc/2006-03-01/"></DeleteResult>""";
+
+    private static final String COPY_RESULT = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <CopyObjectResult xmlns="http://s3.amazonaws.com/doc/2006-03-01/"></CopyObjectResult>""";
+
+    private static final Pattern DELETE_KEY_PATTERN = Pattern.compile("<Key>([^<]*)</Key>");
+
+    private final FaultProfile faultProfile;
+
+    /**
+     * Objects by bucket name and key
+     */
+    private final Map<String, Map<String, byte[]>> buckets = new ConcurrentHashMap<>();
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    public FakeS3Server(FaultProfile faultProfile) throws IOException {
+        this.faultProfile = faultProfile;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * Get the endpoint URL for the S3 client
+     * @return Endpoint URL
+     */
+    public String getEndpointUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Get count of stored objects in all buckets
+     * @return Count of objects
+     */
+    public int getObjectCount() {
+        return buckets.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(1);
+            int slash = path.indexOf('/');
+            if (slash < 0) {
+                handleBucket(exchange, path);
+            } else {
+                handleObject(exchange, path.substring(0, slash), path.substring(slash + 1));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleBucket(HttpExchange exchange, String bucket) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "HEAD" -> exchange.sendResponseHeaders(buckets.containsKey(bucket) ? 200 : 404, -1);
+            case "PUT" -> {
+                buckets.putIfAbsent(bucket, new ConcurrentHashMap<>());
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "POST" -> handleDeleteObjects(exchange, bucket);
+            default -> exchange.sendResponseHeaders(501, -1);
+        }
+    }
+
+    /**
+     * Handle {@code POST /<bucket>?delete} that removes many objects. Keys are taken from {@code <Key>} elements.
+     */
+    private void handleDeleteObjects(HttpExchange exchange, String bucket) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        sleep(faultProfile.sampleLatencyMillis());
+        if (faultProfile.sampleError()) {
+            sendXml(exchange, 500, INTERNAL_ERROR);
+            return;
+        }
+
+        Map<String, byte[]> objects = buckets.computeIfAbsent(bucket, name -> new ConcurrentHashMap<>());
+        Matcher keyMatcher = DELETE_KEY_PATTERN.matcher(body);
+        while (keyMatcher.find()) {
+            objects.remove(keyMatcher.group(1));
+        }
+        sendXml(exchange, 200, DELETE_RESULT);
+    }
+
+    private void handleObject(HttpExchange exchange, String bucket, String key) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        sleep(faultProfile.sampleLatencyMillis());
+        if (faultProfile.sampleError()) {
+            sendXml(exchange, 500, INTERNAL_ERROR);
+            return;
+        }
+
+        Map<String, byte[]> objects = buckets.computeIfAbsent(bucket, name -> new ConcurrentHashMap<>());
+        switch (exchange.getRequestMethod()) {
+            case "PUT" -> {
+                String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+                if (copySource != null) {
+                    handleCopyObject(exchange, objects, key, copySource);
+                    return;
+                }
+                objects.put(key, isAwsChunked(exchange) ? decodeAwsChunked(body) : body);
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "GET" -> {
+                byte[] content = objects.get(key);
+                if (content == null) {
+                    sendXml(exchange, 404, NO_SUCH_KEY);
+                    return;
+                }
+                exchange.sendResponseHeaders(200, content.length);
+                try (OutputStream responseBody = exchange.getResponseBody()) {
+                    responseBody.write(content);
+                }
+            }
+            case "DELETE" -> {
+                objects.remove(key);
+                exchange.sendResponseHeaders(204, -1);
+            }
+            default -> exchange.sendResponseHeaders(501, -1);
+        }
+    }
+
+    /**
+     * Handle {@code PUT /<bucket>/<key>} with {@code x-amz-copy-source: <bucket>/<key>} that copies an object
+     */
+    private void handleCopyObject(HttpExchange exchange, Map<String, byte[]> objects, String key, String copySource)
+            throws IOException {
+        String source = URLDecoder.decode(copySource, StandardCharsets.UTF_8);
+        source = source.startsWith("/") ? source.substring(1) : source;
+        int slash = source.indexOf('/');
+        byte[] content = buckets.getOrDefault(source.substring(0, slash), Map.of()).get(source.substring(slash + 1));
+        if (content == null) {
+            sendXml(exchange, 404, NO_SUCH_KEY);
+            return;
+        }
+        objects.put(key, content);
+        sendXml(exchange, 200, COPY_RESULT);
+    }
+
+    private static boolean isAwsChunked(HttpExchange exchange) {
+        String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        return (contentSha256 != null && contentSha256.startsWith("STREAMING-"))
+                || (contentEncoding != null && contentEncoding.contains("aws-chunked"));
+    }
+
+    /**
+     * Decode a body in the aws-chunked encoding of signed streaming uploads. Each chunk is
+     * {@code <hex size>;chunk-signature=<signature>\r\n<data>\r\n}, the last chunk has zero size.
+     */
+    private static byte[] decodeAwsChunked(byte[] body) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(body.length);
+        int position = 0;
+        while (position < body.length) {
+            int lineEnd = indexOfCrlf(body, position);
+            String header = new String(body, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int semicolon = header.indexOf(';');
+            int size = Integer.parseInt(semicolon < 0 ? header : header.substring(0, semicolon), 16);
+            if (size == 0) {
+                break;
+            }
+            decoded.write(body, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return bytes.length;
+    }
+
+    private static void sendXml(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package me.zedaster.moderationservice.loadtest;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+/**
+ * WireMock extension that delays every stubbed response and replaces some of them with server errors according to a
+ * fault profile.
+ */
+public class FaultInjectionTransformer implements ResponseDefinitionTransformerV2 {
+    private final FaultProfile faultProfile;
+
+    public FaultInjectionTransformer(FaultProfile faultProfile) {
+        this.faultProfile = faultProfile;
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        int latencyMillis = (int) faultProfile.sampleLatencyMillis();
+        if (faultProfile.sampleError()) {
+            return ResponseDefinitionBuilder.responseDefinition()
+                    .withStatus(503)
+                    .withFixedDelay(latencyMillis)
+                    .build();
+        }
+        return ResponseDefinitionBuilder.like(serveEvent.getResponseDefinition())
+                .withFixedDelay(latencyMillis)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "fault-injection";
+    }
+}
@@ -0,0 +1,56 @@
+package me.zedaster.moderationservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency and error distribution of a fake dependency. Latency is log-normal around the median, so most responses are
+ * close to the median and some are much slower, like responses of real services.
+ * @param medianLatency Median latency of a response
+ * @param latencySigma Standard deviation of the logarithm of latency. 0 makes latency constant.
+ * @param errorRate Share of requests that fail with an error from 0 to 1
+ */
+public record FaultProfile(Duration medianLatency, double latencySigma, double errorRate) {
+    /**
+     * Read the profile of a dependency from system properties {@code loadtest.<name>.latency},
+     * {@code loadtest.<name>.latency-sigma} and {@code loadtest.<name>.error-rate}
+     * @param name Name of the dependency
+     * @param defaults Values of the properties that are not set
+     * @return Profile of the dependency
+     */
+    public static FaultProfile fromSystemProperties(String name, FaultProfile defaults) {
+        String prefix = "loadtest." + name + ".";
+        String latency = System.getProperty(prefix + "latency");
+        String latencySigma = System.getProperty(prefix + "latency-sigma");
+        String errorRate = System.getProperty(prefix + "error-rate");
+        return new FaultProfile(
+                latency == null ? defaults.medianLatency() : DurationStyle.detectAndParse(latency),
+                latencySigma == null ? defaults.latencySigma() : Double.parseDouble(latencySigma),
+                errorRate == null ? defaults.errorRate() : Double.parseDouble(errorRate));
+    }
+
+    /**
+     * Get a random latency of a response
+     * @return Latency in milliseconds
+     */
+    public long sampleLatencyMillis() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(medianLatency.toMillis() * Math.exp(latencySigma * gaussian));
+    }
+
+    /**
+     * Decide randomly whether a request fails
+     * @return True if the request must fail
+     */
+    public boolean sampleError() {
+        return ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    @Override
+    public String toString() {
+        return "median %d ms, sigma %.2f, errors %.1f%%".formatted(medianLatency.toMillis(), latencySigma,
+                errorRate * 100);
+    }
+}
@@ -0,0 +1,121 @@
+package me.zedaster.moderationservice.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of latencies. Percentiles are estimated from logarithmic buckets of 1/8 of a power of two, so
+ * they are accurate within 9%. Latencies are also counted in fixed buckets for printing.
+ */
+public class LatencyHistogram {
+    /**
+     * Count of buckets per power of two
+     */
+    private static final int SUB_BUCKETS = 8;
+
+    /**
+     * Count of logarithmic buckets. The last one starts at 2^30 microseconds (about 18 minutes).
+     */
+    private static final int BUCKET_COUNT = 30 * SUB_BUCKETS + 1;
+
+    /**
+     * Upper bounds of the printed buckets in milliseconds. The last printed bucket has no upper bound.
+     */
+    private static final long[] PRINTED_BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    private static final int BAR_WIDTH = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLongArray printedBuckets = new AtomicLongArray(PRINTED_BOUNDS_MILLIS.length + 1);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sumNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a latency
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+        int bucket = (int) Math.min(BUCKET_COUNT - 1, Math.floor(Math.log(micros) / Math.log(2) * SUB_BUCKETS));
+        buckets.incrementAndGet(bucket);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int printedBucket = 0;
+        while (printedBucket < PRINTED_BOUNDS_MILLIS.length && millis >= PRINTED_BOUNDS_MILLIS[printedBucket]) {
+            printedBucket++;
+        }
+        printedBuckets.incrementAndGet(printedBucket);
+
+        count.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the mean latency
+     * @return Mean latency in milliseconds
+     */
+    public double getMeanMillis() {
+        long currentCount = count.sum();
+        return currentCount == 0 ? 0 : sumNanos.sum() / 1e6 / currentCount;
+    }
+
+    /**
+     * Get the maximum latency
+     * @return Maximum latency in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * Estimate a percentile of latency
+     * @param percentile Percentile from 0 to 1
+     * @return Upper bound of the bucket with the percentile in milliseconds
+     */
+    public double getPercentileMillis(double percentile) {
+        long currentCount = count.sum();
+        if (currentCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * currentCount);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                double upperBoundMicros = Math.pow(2, (double) (i + 1) / SUB_BUCKETS);
+                return Math.min(upperBoundMicros / 1e3, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Print the histogram with a bar for each printed bucket
+     * @param out Stream to print to
+     */
+    public void print(PrintStream out) {
+        long currentCount = Math.max(1, count.sum());
+        for (int i = 0; i < printedBuckets.length(); i++) {
+            long bucketCount = printedBuckets.get(i);
+            String range = i < PRINTED_BOUNDS_MILLIS.length
+                    ? "< %d ms".formatted(PRINTED_BOUNDS_MILLIS[i])
+                    : ">= %d ms".formatted(PRINTED_BOUNDS_MILLIS[i - 1]);
+            int barLength = (int) Math.round((double) bucketCount / currentCount * BAR_WIDTH);
+            out.printf("    %10s %8d %6.2f%% %s%n", range, bucketCount, 100.0 * bucketCount / currentCount,
+                    "#".repeat(barLength));
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package me.zedaster.moderationservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import me.zedaster.moderationservice.ModerationServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * End-to-end load test of the service. It isn't run by tests.
+ * <p>
+ * The application is booted in-process against fakes of its dependencies: {@link FakeS3Server} instead of S3 and
+ * WireMock stubs of {@code /internal/profile/*} of the auth service and {@code /internal/articles} of the article
+ * service. Latency and errors of each fake follow a {@link FaultProfile}. The database is a PostgreSQL container
+ * unless {@code loadtest.db-url} is set. Tables of the service are recreated in both cases.
+ * <p>
+ * Workers send a weighted mix of create, list, view, accept and ask-edit requests back to back for the warmup and then
+ * for the measured duration. Throughput, status codes and a latency histogram are reported for every endpoint, and
+ * the heap and the threads of the JVM after the run.
+ * <p>
+ * In the reactive mode the articles are seeded by the servlet application, which is then replaced by an application
+ * with the reactive profile on the same database and fakes. It serves only list and view requests, so the mix must
+ * consist of them. Run the servlet mode with the same mix to compare both stacks. The reactive mode needs a build with
+ * the reactive Maven profile.
+ * <p>
+ * Run it with {@code mvn -Pload-test test-compile exec:java [-D<option>=<value> ...]}
+ * or {@code mvn -Pload-test,reactive test-compile exec:java -Dloadtest.reactive=true [...]}. Options are system
+ * properties:
+ * <ul>
+ *     <li>{@code loadtest.duration} (60s), {@code loadtest.warmup} (15s) - durations of the phases</li>
+ *     <li>{@code loadtest.concurrency} (64) - count of concurrent workers</li>
+ *     <li>{@code loadtest.seed-articles} (500) - count of articles created before the warmup</li>
+ *     <li>{@code loadtest.mix} (create=20,list=30,view=35,accept=8,ask-edit=7 or list=45,view=55 in the reactive
+ *     mode) - weights of the requests</li>
+ *     <li>{@code loadtest.reactive} (false) - whether the load is sent to an application with the reactive profile</li>
+ *     <li>{@code loadtest.s3.*}, {@code loadtest.auth.*}, {@code loadtest.article.*} - fault profiles of the fakes,
+ *     see {@link FaultProfile#fromSystemProperties(String, FaultProfile)}</li>
+ *     <li>{@code loadtest.db-url}, {@code loadtest.db-username}, {@code loadtest.db-password} - existing database</li>
+ * </ul>
+ * Other system properties (e.g. {@code spring.threads.virtual.enabled}) are applied to the application as usual.
+ */
+public class LoadTestHarness {
+    private static final String MODERATION_PATH = "/protected/moderation/articles";
+
+    /**
+     * Count of recently seen article IDs that are viewed
+     */
+    private static final int VIEWED_IDS_CAPACITY = 4096;
+
+    private static final int CREATOR_COUNT = 1000;
+
+    private static final int MODERATOR_COUNT = 20;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Requests that an application with the reactive profile serves
+     */
+    private static final Set<Operation> REACTIVE_OPERATIONS = EnumSet.of(Operation.LIST, Operation.VIEW);
+
+    /**
+     * Requests of the load
+     */
+    enum Operation {
+        CREATE("create", "POST   " + MODERATION_PATH),
+        LIST("list", "GET    " + MODERATION_PATH),
+        VIEW("view", "GET    " + MODERATION_PATH + "/{id}"),
+        ACCEPT("accept", "PATCH  " + MODERATION_PATH + "/{id}/accept"),
+        ASK_EDIT("ask-edit", "PATCH  " + MODERATION_PATH + "/{id}/askEdit");
+
+        private final String key;
+
+        private final String endpoint;
+
+        Operation(String key, String endpoint) {
+            this.key = key;
+            this.endpoint = endpoint;
+        }
+    }
+
+    /**
+     * Results of requests to an endpoint
+     */
+    static class EndpointStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder successes = new LongAdder();
+
+        private final LongAdder clientErrors = new LongAdder();
+
+        private final LongAdder serverErrors = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        void record(long nanos, int status) {
+            latency.record(nanos);
+            if (status < 0) {
+                failures.increment();
+            } else if (status >= 500) {
+                serverErrors.increment();
+            } else if (status >= 400) {
+                clientErrors.increment();
+            } else {
+                successes.increment();
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+
+    private final String baseUrl;
+
+    private final Map<Operation, Integer> mix;
+
+    private final int mixTotal;
+
+    /**
+     * Articles that are moderating and not decided by workers yet
+     */
+    private final Queue<Long> moderatingIds = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Articles that were ever put in {@link #moderatingIds}, so an article is decided only once
+     */
+    private final Set<Long> queuedIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Articles that were accepted and removed, so they are not viewed anymore
+     */
+    private final Set<Long> acceptedIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Ring of recently seen article IDs
+     */
+    private final AtomicLongArray viewedIds = new AtomicLongArray(VIEWED_IDS_CAPACITY);
+
+    private final AtomicLong viewedIdsCursor = new AtomicLong();
+
+    private volatile Map<Operation, EndpointStats> stats = newStats();
+
+    LoadTestHarness(String baseUrl, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.mixTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s"));
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "15s"));
+        int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+        int seedArticles = Integer.getInteger("loadtest.seed-articles", 500);
+        boolean reactive = Boolean.getBoolean("loadtest.reactive");
+        Map<Operation, Integer> mix = parseMix(System.getProperty("loadtest.mix",
+                reactive ? "list=45,view=55" : "create=20,list=30,view=35,accept=8,ask-edit=7"));
+        if (reactive && !REACTIVE_OPERATIONS.containsAll(mix.keySet())) {
+            throw new IllegalArgumentException("The reactive profile serves only list and view requests: " + mix);
+        }
+        FaultProfile s3Profile = FaultProfile.fromSystemProperties("s3",
+                new FaultProfile(Duration.ofMillis(8), 0.5, 0));
+        FaultProfile authProfile = FaultProfile.fromSystemProperties("auth",
+                new FaultProfile(Duration.ofMillis(5), 0.5, 0));
+        FaultProfile articleProfile = FaultProfile.fromSystemProperties("article",
+                new FaultProfile(Duration.ofMillis(15), 0.5, 0));
+
+        PostgreSQLContainer<?> postgres = null;
+        WireMockServer authService = null;
+        WireMockServer articleService = null;
+        ConfigurableApplicationContext context = null;
+        try (FakeS3Server s3 = new FakeS3Server(s3Profile)) {
+            authService = startAuthService(authProfile);
+            articleService = startArticleService(articleProfile);
+
+            Map<String, String> properties = new HashMap<>();
+            String dbUrl = System.getProperty("loadtest.db-url");
+            if (dbUrl == null) {
+                postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+                postgres.start();
+                properties.put("spring.datasource.url", postgres.getJdbcUrl());
+                properties.put("spring.datasource.username", postgres.getUsername());
+                properties.put("spring.datasource.password", postgres.getPassword());
+            } else {
+                properties.put("spring.datasource.url", dbUrl);
+                properties.put("spring.datasource.username", System.getProperty("loadtest.db-username", ""));
+                properties.put("spring.datasource.password", System.getProperty("loadtest.db-password", ""));
+            }
+            // Articles from previous runs have no content in the fake S3, so the tables start empty
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("server.port", "0");
+            properties.put("s3.endpoint-url", s3.getEndpointUrl());
+            properties.put("s3.access-key", "load-test");
+            properties.put("s3.secret-key", "load-test");
+            properties.put("microservices.auth-service.url", authService.baseUrl());
+            properties.put("microservices.article-service.url", articleService.baseUrl());
+            properties.put("logging.level.root", "WARN");
+
+            context = startApplication(args, properties);
+            LoadTestHarness harness = new LoadTestHarness(getBaseUrl(context), mix);
+            harness.seed(seedArticles, concurrency);
+
+            if (reactive) {
+                context.close();
+                context = null;
+                properties.put("spring.profiles.active", "reactive");
+                properties.put("spring.jpa.hibernate.ddl-auto", "none");
+                properties.put("reactive-read.r2dbc-url",
+                        properties.get("spring.datasource.url").replaceFirst("^jdbc:", "r2dbc:"));
+                properties.put("reactive-read.username", properties.get("spring.datasource.username"));
+                properties.put("reactive-read.password", properties.get("spring.datasource.password"));
+                context = startApplication(args, properties);
+                harness = new LoadTestHarness(getBaseUrl(context), mix);
+            }
+
+            PrintStream out = System.out;
+            out.printf("Application: %s (%s)%n", harness.baseUrl, reactive ? "reactive" : "servlet");
+            out.printf("S3: %s%nAuth service: %s%nArticle service: %s%n", s3Profile, authProfile, articleProfile);
+            out.printf("Concurrency: %d, warmup: %d s, duration: %d s, mix: %s%n", concurrency, warmup.toSeconds(),
+                    duration.toSeconds(), mix);
+
+            harness.run(warmup, concurrency);
+            harness.resetStats();
+            ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+            long elapsedNanos = harness.run(duration, concurrency);
+            harness.printReport(out, elapsedNanos);
+            printMemory(out);
+            out.printf("Objects in S3: %d%n", s3.getObjectCount());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (authService != null) {
+                authService.stop();
+            }
+            if (articleService != null) {
+                articleService.stop();
+            }
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String[] args, Map<String, String> properties) {
+        // Command line arguments override application.yml, unlike default properties
+        List<String> arguments = new ArrayList<>(List.of(args));
+        properties.forEach((key, value) -> arguments.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(ModerationServiceApplication.class)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private static String getBaseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /**
+     * Print the heap after a full GC and the threads of the JVM. The harness runs in the same JVM, so only the
+     * difference between runs with the same options tells about the application.
+     */
+    private static void printMemory(PrintStream out) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long committedBeforeGc = memory.getHeapMemoryUsage().getCommitted();
+        System.gc();
+        out.printf("%nHeap: %.1f MB used after GC, %.1f MB committed before GC%n",
+                memory.getHeapMemoryUsage().getUsed() / 1048576.0, committedBeforeGc / 1048576.0);
+        out.printf("Threads: %d live, %d peak during the measured run%n", threads.getThreadCount(), threads.getPeakThreadCount());
+    }
+
+    private static WireMockServer startAuthService(FaultProfile faultProfile) {
+        WireMockServer server = new WireMockServer(options()
+                .dynamicPort()
+                .http2PlainDisabled(true)
+                .containerThreads(200)
+                .extensions(new FaultInjectionTransformer(faultProfile)));
+        server.start();
+        server.stubFor(get(urlPathEqualTo("/internal/profile/usernames"))
+                .willReturn(okJson("""
+                        [{{#each request.query.ids}}"user{{this}}"{{#unless @last}},{{/unless}}{{/each}}]""")
+                        .withTransformers("response-template")));
+        server.stubFor(get(urlPathMatching("/internal/profile/[0-9]+/username"))
+                .willReturn(ok("user{{request.path.[2]}}")
+                        .withTransformers("response-template")));
+        return server;
+    }
+
+    private static WireMockServer startArticleService(FaultProfile faultProfile) {
+        WireMockServer server = new WireMockServer(options()
+                .dynamicPort()
+                .http2PlainDisabled(true)
+                .containerThreads(200)
+                .extensions(new FaultInjectionTransformer(faultProfile)));
+        server.start();
+        server.stubFor(post(urlEqualTo("/internal/articles")).willReturn(ok()));
+        return server;
+    }
+
+    /**
+     * Parse weights of requests
+     * @param mix Weights like {@code create=20,list=30}
+     * @return Weights by requests
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim().split("=");
+            Operation operation = null;
+            for (Operation candidate : Operation.values()) {
+                if (candidate.key.equals(keyAndWeight[0])) {
+                    operation = candidate;
+                }
+            }
+            if (operation == null || keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid entry of the request mix: " + entry);
+            }
+            weights.put(operation, Integer.parseInt(keyAndWeight[1]));
+        }
+        return weights;
+    }
+
+    /**
+     * Create articles, so there is something to list and decide from the start
+     */
+    private void seed(int articleCount, int concurrency) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Integer>> creations = new ArrayList<>();
+            for (int i = 0; i < articleCount; i++) {
+                creations.add(executor.submit(this::create));
+            }
+            for (Future<Integer> creation : creations) {
+                creation.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (int page = 1; page <= 5; page++) {
+            list(page, true);
+        }
+    }
+
+    /**
+     * Send requests from concurrent workers for the duration
+     * @return Elapsed time in nanoseconds
+     */
+    private long run(Duration duration, int concurrency) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + duration.toNanos();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadlineNanos) {
+                        sendRandomRequest();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    private void sendRandomRequest() {
+        int point = ThreadLocalRandom.current().nextInt(mixTotal);
+        Operation operation = null;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            point -= entry.getValue();
+            if (point < 0) {
+                operation = entry.getKey();
+                break;
+            }
+        }
+
+        switch (operation) {
+            case CREATE -> create();
+            case LIST -> list(ThreadLocalRandom.current().nextInt(1, 6), ThreadLocalRandom.current().nextBoolean());
+            case VIEW -> view();
+            case ACCEPT, ASK_EDIT -> decide(operation);
+        }
+    }
+
+    private int create() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, String> article = Map.of(
+                "title", "Load test article " + random.nextInt(1_000_000),
+                "content", "Lorem ipsum dolor sit amet. ".repeat(random.nextInt(40, 400)));
+        HttpRequest request = newRequest(MODERATION_PATH + "?tokenPayload.sub=" + random.nextInt(1, CREATOR_COUNT + 1))
+                .POST(jsonBody(article))
+                .build();
+        return send(Operation.CREATE, request).statusCode();
+    }
+
+    /**
+     * List a page of articles and remember their IDs
+     * @param moderatingOnly Whether to list only moderating articles. They are queued for decisions.
+     */
+    private void list(int page, boolean moderatingOnly) {
+        String query = "?tokenPayload.role=MODERATOR&page=" + page + (moderatingOnly ? "&status=MODERATING" : "");
+        Response response = send(Operation.LIST, newRequest(MODERATION_PATH + query).GET().build());
+        if (response.statusCode() != 200) {
+            return;
+        }
+        try {
+            for (JsonNode summary : objectMapper.readTree(response.body())) {
+                long id = summary.get("id").asLong();
+                viewedIds.set((int) (viewedIdsCursor.getAndIncrement() % VIEWED_IDS_CAPACITY), id);
+                if (moderatingOnly && queuedIds.add(id)) {
+                    moderatingIds.offer(id);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid list of articles", e);
+        }
+    }
+
+    private void view() {
+        long seen = Math.min(viewedIdsCursor.get(), VIEWED_IDS_CAPACITY);
+        if (seen == 0) {
+            list(1, false);
+            return;
+        }
+        long id = viewedIds.get(ThreadLocalRandom.current().nextInt((int) seen));
+        for (int attempt = 0; attempt < 3 && acceptedIds.contains(id); attempt++) {
+            id = viewedIds.get(ThreadLocalRandom.current().nextInt((int) seen));
+        }
+        String query = "?tokenPayload.role=MODERATOR&tokenPayload.sub=" + randomModeratorId();
+        send(Operation.VIEW, newRequest(MODERATION_PATH + "/" + id + query).GET().build());
+    }
+
+    /**
+     * Accept or ask to edit a moderating article. If no articles are known, moderating articles are listed instead.
+     */
+    private void decide(Operation operation) {
+        Long id = moderatingIds.poll();
+        if (id == null) {
+            list(1, true);
+            return;
+        }
+        String query = "?tokenPayload.role=MODERATOR&tokenPayload.sub=" + randomModeratorId();
+        if (operation == Operation.ACCEPT) {
+            HttpRequest request = newRequest(MODERATION_PATH + "/" + id + "/accept" + query)
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            if (send(operation, request).statusCode() == 200) {
+                acceptedIds.add(id);
+            }
+        } else {
+            HttpRequest request = newRequest(MODERATION_PATH + "/" + id + "/askEdit" + query)
+                    .method("PATCH", jsonBody(Map.of("comment", "Please add sources to the article")))
+                    .build();
+            send(operation, request);
+        }
+    }
+
+    private HttpRequest.Builder newRequest(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Send a request and record its latency and status
+     * @return Response or a response with status -1 if the request failed
+     */
+    private Response send(Operation operation, HttpRequest request) {
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            HttpResponse<byte[]> httpResponse = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            response = new Response(httpResponse.statusCode(), httpResponse.body());
+        } catch (IOException e) {
+            response = new Response(-1, new byte[0]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = new Response(-1, new byte[0]);
+        }
+        stats.get(operation).record(System.nanoTime() - startNanos, response.statusCode());
+        return response;
+    }
+
+    private void resetStats() {
+        stats = newStats();
+    }
+
+    private static Map<Operation, EndpointStats> newStats() {
+        Map<Operation, EndpointStats> newStats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            newStats.put(operation, new EndpointStats());
+        }
+        return newStats;
+    }
+
+    private static int randomModeratorId() {
+        return ThreadLocalRandom.current().nextInt(1, MODERATOR_COUNT + 1);
+    }
+
+    private void printReport(PrintStream out, long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        long totalCount = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            LatencyHistogram latency = endpointStats.latency;
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            totalCount += latency.getCount();
+            out.printf("%n%s%n", entry.getKey().endpoint);
+            out.printf("  %d requests, %.1f requests/s, 2xx %d, 4xx %d, 5xx %d, failed %d%n",
+                    latency.getCount(), latency.getCount() / elapsedSeconds, endpointStats.successes.sum(),
+                    endpointStats.clientErrors.sum(), endpointStats.serverErrors.sum(), endpointStats.failures.sum());
+            out.printf("  latency ms: mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                    latency.getMeanMillis(), latency.getPercentileMillis(0.5), latency.getPercentileMillis(0.9),
+                    latency.getPercentileMillis(0.99), latency.getPercentileMillis(0.999), latency.getMaxMillis());
+            latency.print(out);
+        }
+        out.printf("%nTotal: %d requests in %.1f s, %.1f requests/s%n", totalCount, elapsedSeconds,
+                totalCount / elapsedSeconds);
+    }
+
+    private record Response(int statusCode, byte[] body) {
+    }
+}
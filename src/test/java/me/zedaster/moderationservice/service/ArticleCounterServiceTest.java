@@ -0,0 +1,123 @@
+package me.zedaster.moderationservice.service;
+
+import me.zedaster.moderationservice.dto.ArticleStatsDto;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import me.zedaster.moderationservice.repository.ArticleCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ArticleCounterService} class.
+ */
+@SpringBootTest(classes = ArticleCounterService.class)
+public class ArticleCounterServiceTest {
+    @Autowired
+    private ArticleCounterService articleCounterService;
+
+    @MockitoBean
+    private ArticleCounterRepository articleCounterRepository;
+
+    /**
+     * Test {@link ArticleCounterService#add(long, ModerationStatus, long)} method.
+     */
+    @Test
+    public void add() {
+        articleCounterService.add(777L, ModerationStatus.MODERATING, 2);
+
+        verify(articleCounterRepository, times(1)).add(eq(0L), eq(0), intThat(s -> s >= 0 && s < 16), eq(2L));
+        verify(articleCounterRepository, times(1)).add(777L, 0, 0, 2L);
+    }
+
+    /**
+     * Test {@link ArticleCounterService#move(long, ModerationStatus, ModerationStatus)} method.
+     */
+    @Test
+    public void move() {
+        articleCounterService.move(777L, ModerationStatus.MODERATING, ModerationStatus.EDIT_REQUESTED);
+
+        verify(articleCounterRepository, times(1)).add(777L, 0, 0, -1L);
+        verify(articleCounterRepository, times(1)).add(777L, 1, 0, 1L);
+    }
+
+    /**
+     * Test {@link ArticleCounterService#move(long, ModerationStatus, ModerationStatus)} method with the same status.
+     */
+    @Test
+    public void moveToSameStatus() {
+        articleCounterService.move(777L, ModerationStatus.EDIT_REQUESTED, ModerationStatus.EDIT_REQUESTED);
+
+        verify(articleCounterRepository, never()).add(anyLong(), anyInt(), anyInt(), anyLong());
+    }
+
+    /**
+     * Test that changes made in a transaction are summed and written before the commit in the order of counter rows,
+     * with one global stripe for the whole transaction. Changes that cancel out are not written.
+     */
+    @Test
+    public void changesInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            articleCounterService.move(777L, ModerationStatus.EDIT_REQUESTED, ModerationStatus.MODERATING);
+            articleCounterService.add(5L, ModerationStatus.EDIT_REQUESTED, 2);
+            articleCounterService.add(5L, ModerationStatus.MODERATING, 1);
+            articleCounterService.add(5L, ModerationStatus.MODERATING, -1);
+            verify(articleCounterRepository, never()).add(anyLong(), anyInt(), anyInt(), anyLong());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            synchronizations.get(0).beforeCommit(false);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<Integer> stripes = ArgumentCaptor.forClass(Integer.class);
+        InOrder inOrder = inOrder(articleCounterRepository);
+        inOrder.verify(articleCounterRepository).add(eq(0L), eq(0), stripes.capture(), eq(1L));
+        inOrder.verify(articleCounterRepository).add(eq(0L), eq(1), stripes.capture(), eq(1L));
+        inOrder.verify(articleCounterRepository).add(5L, 1, 0, 2L);
+        inOrder.verify(articleCounterRepository).add(777L, 0, 0, 1L);
+        inOrder.verify(articleCounterRepository).add(777L, 1, 0, -1L);
+        verifyNoMoreInteractions(articleCounterRepository);
+        assertEquals(stripes.getAllValues().get(0), stripes.getAllValues().get(1));
+    }
+
+    /**
+     * Test {@link ArticleCounterService#getStats(Long)} method.
+     */
+    @Test
+    public void getStats() {
+        when(articleCounterRepository.sumByStatus(0L)).thenReturn(List.of(statusCount(0, 7)));
+
+        ArticleStatsDto stats = articleCounterService.getStats(null);
+
+        assertEquals(7, stats.getTotal());
+        assertEquals(7, stats.countOf(ModerationStatus.MODERATING));
+        assertEquals(0, stats.countOf(ModerationStatus.EDIT_REQUESTED));
+    }
+
+    private static ArticleCounterRepository.StatusCount statusCount(int status, long count) {
+        return new ArticleCounterRepository.StatusCount() {
+            @Override
+            public int getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
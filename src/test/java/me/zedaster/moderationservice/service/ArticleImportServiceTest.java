@@ -0,0 +1,153 @@
+package me.zedaster.moderationservice.service;
+
+import me.zedaster.moderationservice.configuration.ArticleImportConfiguration;
+import me.zedaster.moderationservice.configuration.ExecutorFactory;
+import me.zedaster.moderationservice.dto.ImportReportDto;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import me.zedaster.moderationservice.entity.ArticleSummaryEntity;
+import me.zedaster.moderationservice.repository.ArticleSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ArticleImportService} class.
+ */
+@SpringBootTest(classes = {ArticleImportService.class, ArticleImportServiceTest.TestConfig.class, ExecutorFactory.class,
+        ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+public class ArticleImportServiceTest {
+    @TestConfiguration
+    public static class TestConfig {
+        @Bean
+        public ArticleImportConfiguration articleImportConfiguration() {
+            ArticleImportConfiguration configuration = new ArticleImportConfiguration();
+            configuration.setBatchSize(2);
+            configuration.setUploadParallelism(2);
+            return configuration;
+        }
+    }
+
+    @Autowired
+    private ArticleImportService articleImportService;
+
+    @MockitoBean
+    private ArticleSummaryRepository articleSummaryRepository;
+
+    @MockitoBean
+    private ContentService contentService;
+
+    @MockitoBean
+    private ArticleCounterService articleCounterService;
+
+    @MockitoBean
+    private NearDuplicateService nearDuplicateService;
+
+    /**
+     * Test {@link ArticleImportService#importArticles(java.io.InputStream)} method with valid records.
+     */
+    @Test
+    public void importArticles() throws IOException {
+        mockSaveAll();
+
+        String ndjson = record(1, "a".repeat(15), "c".repeat(100)) + "\n"
+                + "\n"
+                + record(2, "b".repeat(15), "d".repeat(100)) + "\n";
+        ImportReportDto report = importNdjson(ndjson);
+
+        assertEquals(2, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertEquals(0, report.getErrors().size());
+        verify(contentService, times(1)).saveContent(1L, "c".repeat(100));
+        verify(contentService, times(1)).saveContent(2L, "d".repeat(100));
+        verify(articleCounterService, times(1)).add(1L, ModerationStatus.MODERATING, 1);
+        verify(articleCounterService, times(1)).add(2L, ModerationStatus.MODERATING, 1);
+        verify(nearDuplicateService, times(1)).register(1L, "c".repeat(100));
+        verify(nearDuplicateService, times(1)).register(2L, "d".repeat(100));
+        verify(articleSummaryRepository, times(1)).saveAll(argThat(entities -> {
+            List<ArticleSummaryEntity> list = new ArrayList<>();
+            entities.forEach(list::add);
+            assertEquals(2, list.size());
+            assertEquals("a".repeat(15), list.get(0).getTitle());
+            assertEquals(1L, list.get(0).getCreatorId());
+            assertEquals(2L, list.get(1).getCreatorId());
+            return true;
+        }));
+    }
+
+    /**
+     * Test {@link ArticleImportService#importArticles(java.io.InputStream)} method with malformed and invalid records.
+     */
+    @Test
+    public void importInvalidArticles() throws IOException {
+        mockSaveAll();
+
+        String ndjson = "{not a json\n"
+                + record(1, "short", "c".repeat(100)) + "\n"
+                + record(1, "a".repeat(15), "c".repeat(100)) + "\n";
+        ImportReportDto report = importNdjson(ndjson);
+
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(1, report.getErrors().get(0).getLine());
+        assertEquals("Malformed JSON record", report.getErrors().get(0).getMessage());
+        assertEquals(2, report.getErrors().get(1).getLine());
+        assertEquals("title: Title must contain at least 15 characters!", report.getErrors().get(1).getMessage());
+    }
+
+    /**
+     * Test {@link ArticleImportService#importArticles(java.io.InputStream)} method when upload of content fails.
+     */
+    @Test
+    public void importArticlesWithUploadError() throws IOException {
+        mockSaveAll();
+        doThrow(new ExternalConnectException("Failed to save content", null))
+                .when(contentService).saveContent(eq(2L), anyString());
+
+        String ndjson = record(1, "a".repeat(15), "c".repeat(100)) + "\n"
+                + record(2, "b".repeat(15), "d".repeat(100)) + "\n";
+        ImportReportDto report = importNdjson(ndjson);
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertEquals("Failed to save content", report.getErrors().get(0).getMessage());
+        verify(articleSummaryRepository, times(1)).deleteAllById(List.of(2L));
+        verify(articleCounterService, times(1)).add(1L, ModerationStatus.MODERATING, 1);
+        verify(articleCounterService, never()).add(eq(2L), any(), anyLong());
+        verify(nearDuplicateService, never()).register(eq(2L), anyString());
+    }
+
+    private ImportReportDto importNdjson(String ndjson) throws IOException {
+        return articleImportService.importArticles(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void mockSaveAll() {
+        AtomicLong nextId = new AtomicLong(1);
+        when(articleSummaryRepository.saveAll(any())).thenAnswer(i -> {
+            Iterable<ArticleSummaryEntity> entities = i.getArgument(0);
+            entities.forEach(e -> e.setId(nextId.getAndIncrement()));
+            return entities;
+        });
+    }
+
+    private static String record(long creatorId, String title, String content) {
+        return """
+                {"creatorId": %d, "title": "%s", "content": "%s"}""".formatted(creatorId, title, content);
+    }
+}
@@ -0,0 +1,59 @@
+package me.zedaster.moderationservice.service;
+
+import me.zedaster.moderationservice.dto.Article;
+import me.zedaster.moderationservice.dto.ArticleSummary;
+import me.zedaster.moderationservice.dto.Creator;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import me.zedaster.moderationservice.dto.NamedArticleSummary;
+import me.zedaster.moderationservice.entity.ArticleSummaryEntity;
+import me.zedaster.moderationservice.entity.ModeratorCommentEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of mapping of entities to DTOs in {@link ArticleModerationService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArticleMappingBenchmark {
+    private ArticleSummaryEntity summaryEntity;
+
+    private Creator creator;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        summaryEntity = new ArticleSummaryEntity();
+        summaryEntity.setId(1L);
+        summaryEntity.setTitle("a".repeat(100));
+        summaryEntity.setCreatedAt(Instant.parse("2021-01-01T12:30:00Z"));
+        summaryEntity.setStatus(ModerationStatus.EDIT_REQUESTED);
+        summaryEntity.setCreatorId(777L);
+        summaryEntity.setModeratorComment(new ModeratorCommentEntity(1L, "c".repeat(200)));
+        creator = new Creator(777L, "creator");
+        // Maximum length of content
+        content = "c".repeat(18_000);
+    }
+
+    @Benchmark
+    public ArticleSummary entityToArticleSummary() {
+        return ArticleModerationService.entityToArticleSummary(summaryEntity);
+    }
+
+    @Benchmark
+    public NamedArticleSummary entityToNamedArticleSummary() {
+        return ArticleModerationService.entityToNamedArticleSummary(summaryEntity, creator);
+    }
+
+    @Benchmark
+    public Article articleFromSummaryEntity() {
+        return ArticleModerationService.articleFromSummaryEntity(summaryEntity, content, creator);
+    }
+}
@@ -2,21 +2,48 @@ package me.zedaster.moderationservice.service;
 
 import jakarta.validation.ConstraintViolationException;
 import me.zedaster.moderationservice.TestUtils;
+import me.zedaster.moderationservice.configuration.ArticleFetchConfiguration;
+import me.zedaster.moderationservice.configuration.ArticleLeaseConfiguration;
+import me.zedaster.moderationservice.configuration.ExecutorFactory;
+import me.zedaster.moderationservice.diff.TextDelta;
 import me.zedaster.moderationservice.dto.*;
+import me.zedaster.moderationservice.entity.ArticleRevisionEntity;
 import me.zedaster.moderationservice.entity.ArticleSummaryEntity;
 import me.zedaster.moderationservice.entity.ModeratorCommentEntity;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import me.zedaster.moderationservice.repository.ArticleRevisionRepository;
+import me.zedaster.moderationservice.repository.ArticleSearchRepository;
+import me.zedaster.moderationservice.repository.ArticleSearchRepository.SearchHit;
 import me.zedaster.moderationservice.repository.ArticleSummaryRepository;
+import me.zedaster.moderationservice.repository.ArticleSummaryRepository.DecisionTarget;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
-
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,7 +51,9 @@ import static org.mockito.Mockito.*;
 /**
  * Tests for {@link ArticleModerationService} class.
  */
-@SpringBootTest(classes = {ArticleModerationService.class, ValidationAutoConfiguration.class})
+@SpringBootTest(classes = {ArticleModerationService.class, ArticleLeaseConfiguration.class,
+        ArticleFetchConfiguration.class, ExecutorFactory.class, ValidationAutoConfiguration.class})
+@RecordApplicationEvents
 public class ArticleModerationServiceTest {
 
     /**
@@ -41,6 +70,12 @@ public class ArticleModerationServiceTest {
     @MockitoBean
     private ArticleSummaryRepository articleSummaryRepository;
 
+    @MockitoBean
+    private ArticleSearchRepository articleSearchRepository;
+
+    @MockitoBean
+    private ArticleRevisionRepository articleRevisionRepository;
+
     @MockitoBean
     private ContentService contentService;
 
@@ -50,6 +85,18 @@ public class ArticleModerationServiceTest {
     @MockitoBean
     private ArticleService articleService;
 
+    @MockitoBean
+    private ArticleCounterService articleCounterService;
+
+    @MockitoBean
+    private ArticlePrefetcher articlePrefetcher;
+
+    @MockitoBean
+    private NearDuplicateService nearDuplicateService;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     /**
      * Test {@link ArticleModerationService#getUserArticleSummaries(long, int)} method.
      */
@@ -109,7 +156,7 @@ public class ArticleModerationServiceTest {
     }
 
     /**
-     * Test {@link ArticleModerationService#getArticleSummaries(int)} method.
+     * Test {@link ArticleModerationService#getArticleSummaries(int, ModerationStatus, Long, ArticleSortOrder)} method.
      */
     @Test
     public void getArticleSummaries() {
@@ -131,14 +178,15 @@ public class ArticleModerationServiceTest {
         articleSummary2.setCreatedAt(createdAt2);
         articleSummary2.setCreatorId(2L);
 
-        PageRequest pageRequest = PageRequest.of(12 - 1, ARTICLE_SUMMARIES_PAGE_SIZE);
+        PageRequest pageRequest = PageRequest.of(12 - 1, ARTICLE_SUMMARIES_PAGE_SIZE,
+                Sort.by(Sort.Direction.ASC, "createdAt", "id"));
         when(articleSummaryRepository.findAll(pageRequest)).thenReturn(List.of(articleSummary1, articleSummary2));
 
         Creator creator1 = new Creator(1L, "alice");
         Creator creator2 = new Creator(2L, "bob");
         List<Creator> creators = List.of(creator1, creator2);
         when(creatorService.getCreatorsByIds(List.of(1L, 2L))).thenReturn(creators);
-        List<NamedArticleSummary> summaries = articleModerationService.getArticleSummaries(12);
+        List<NamedArticleSummary> summaries = articleModerationService.getArticleSummaries(12, null, null, ArticleSortOrder.OLDEST);
 
         assertEquals(2, summaries.size());
         assertEquals(1L, summaries.get(0).getId());
@@ -155,15 +203,73 @@ public class ArticleModerationServiceTest {
         assertEquals(createdAt2, summaries.get(1).getCreatedAt());
         assertEquals(2L, summaries.get(1).getCreator().getId());
         assertEquals("bob", summaries.get(1).getCreator().getName());
+        verify(articlePrefetcher, times(1)).prefetch(summaries);
     }
 
     /**
-     * Test {@link ArticleModerationService#getArticleSummaries(int)} method with incorrect page number.
+     * Test {@link ArticleModerationService#getArticleSummaries(int, ModerationStatus, Long, ArticleSortOrder)} method with incorrect page number.
      */
     @Test
     public void getArticleSummariesByIncorrectPage() {
         assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.getArticleSummaries(0));
+                () -> articleModerationService.getArticleSummaries(0, null, null, ArticleSortOrder.OLDEST));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#getArticleSummaries(int, ModerationStatus, Long, ArticleSortOrder)} method
+     * with filters by status and creator.
+     */
+    @Test
+    public void getFilteredArticleSummaries() {
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setId(1L);
+        articleSummary.setTitle("a".repeat(15));
+        articleSummary.setStatus(ModerationStatus.MODERATING);
+        articleSummary.setCreatedAt(TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0));
+        articleSummary.setCreatorId(5L);
+
+        PageRequest pageRequest = PageRequest.of(0, ARTICLE_SUMMARIES_PAGE_SIZE,
+                Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        when(articleSummaryRepository.findAllByStatusAndCreatorId(ModerationStatus.MODERATING, 5L, pageRequest))
+                .thenReturn(List.of(articleSummary));
+        when(creatorService.getCreatorsByIds(List.of(5L))).thenReturn(List.of(new Creator(5L, "alice")));
+
+        List<NamedArticleSummary> summaries = articleModerationService
+                .getArticleSummaries(1, ModerationStatus.MODERATING, 5L, ArticleSortOrder.NEWEST);
+
+        assertEquals(1, summaries.size());
+        assertEquals(1L, summaries.get(0).getId());
+        assertEquals("alice", summaries.get(0).getCreator().getName());
+        verify(articleSummaryRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#getArticleSummaries(int, ModerationStatus, Long, ArticleSortOrder)} method
+     * with filter by status only.
+     */
+    @Test
+    public void getArticleSummariesByStatus() {
+        PageRequest pageRequest = PageRequest.of(0, ARTICLE_SUMMARIES_PAGE_SIZE,
+                Sort.by(Sort.Direction.ASC, "createdAt", "id"));
+        when(articleSummaryRepository.findAllByStatus(ModerationStatus.EDIT_REQUESTED, pageRequest))
+                .thenReturn(List.of());
+        when(creatorService.getCreatorsByIds(List.of())).thenReturn(List.of());
+
+        List<NamedArticleSummary> summaries = articleModerationService
+                .getArticleSummaries(1, ModerationStatus.EDIT_REQUESTED, null, ArticleSortOrder.OLDEST);
+
+        assertTrue(summaries.isEmpty());
+        verify(articleSummaryRepository, times(1)).findAllByStatus(ModerationStatus.EDIT_REQUESTED, pageRequest);
+    }
+
+    /**
+     * Test {@link ArticleModerationService#getArticleSummaries(int, ModerationStatus, Long, ArticleSortOrder)} method
+     * with incorrect creator ID.
+     */
+    @Test
+    public void getArticleSummariesByIncorrectCreatorId() {
+        assertThrows(ConstraintViolationException.class,
+                () -> articleModerationService.getArticleSummaries(1, null, 0L, ArticleSortOrder.OLDEST));
     }
 
     /**
@@ -198,6 +304,61 @@ public class ArticleModerationServiceTest {
         assertEquals(content, article.getContent());
     }
 
+    /**
+     * Test {@link ArticleModerationService#getArticle(long)} method with prefetched content and creator.
+     */
+    @Test
+    public void getPrefetchedArticle() {
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setId(1L);
+        articleSummary.setTitle("a".repeat(15));
+        articleSummary.setStatus(ModerationStatus.MODERATING);
+        articleSummary.setCreatedAt(TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0));
+        articleSummary.setCreatorId(1L);
+
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+        when(articlePrefetcher.take(1L)).thenReturn(Optional.of(
+                new ArticlePrefetcher.PrefetchedArticle("c".repeat(200), new Creator(1L, "alice"), 0)));
+
+        Article article = articleModerationService.getArticle(1);
+
+        assertEquals("c".repeat(200), article.getContent());
+        assertEquals("alice", article.getCreator().getName());
+        verify(contentService, never()).getContent(anyLong());
+        verify(creatorService, never()).getCreator(anyLong());
+    }
+
+    /**
+     * Test that {@link ArticleModerationService#getArticle(long)} method fetches the content and the creator in
+     * parallel. Each call waits until the other one is started.
+     */
+    @Test
+    public void getArticleFetchesInParallel() {
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setId(1L);
+        articleSummary.setTitle("a".repeat(15));
+        articleSummary.setStatus(ModerationStatus.MODERATING);
+        articleSummary.setCreatorId(1L);
+
+        CountDownLatch startedCalls = new CountDownLatch(2);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+        when(contentService.getContent(1L)).thenAnswer(i -> {
+            startedCalls.countDown();
+            assertTrue(startedCalls.await(5, TimeUnit.SECONDS));
+            return Optional.of("c".repeat(200));
+        });
+        when(creatorService.getCreator(1L)).thenAnswer(i -> {
+            startedCalls.countDown();
+            assertTrue(startedCalls.await(5, TimeUnit.SECONDS));
+            return new Creator(1L, "alice");
+        });
+
+        Article article = articleModerationService.getArticle(1);
+
+        assertEquals("c".repeat(200), article.getContent());
+        assertEquals("alice", article.getCreator().getName());
+    }
+
     /**
      * Test {@link ArticleModerationService#getArticle(long)} method with incorrect article ID.
      */
@@ -239,6 +400,26 @@ public class ArticleModerationServiceTest {
         assertEquals("Article with ID 1 was not found!", ex.getMessage());
     }
 
+    /**
+     * Test {@link ArticleModerationService#getArticleStats(Long)} method.
+     */
+    @Test
+    public void getArticleStats() {
+        ArticleStatsDto stats = new ArticleStatsDto(
+                Map.of(ModerationStatus.MODERATING, 3L, ModerationStatus.EDIT_REQUESTED, 1L), 4);
+        when(articleCounterService.getStats(777L)).thenReturn(stats);
+
+        assertSame(stats, articleModerationService.getArticleStats(777L));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#getArticleStats(Long)} method with incorrect creator ID.
+     */
+    @Test
+    public void getArticleStatsByIncorrectCreatorId() {
+        assertThrows(ConstraintViolationException.class, () -> articleModerationService.getArticleStats(0L));
+    }
+
     /**
      * Test {@link ArticleModerationService#userOwnArticle(long, long)} method if user owns the article.
      */
@@ -278,15 +459,16 @@ public class ArticleModerationServiceTest {
     }
 
     /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method.
+     * Test {@link ArticleModerationService#saveArticle(long, ArticleUpload)} method.
      */
     @Test
-    public void createArticle() {
+    public void createArticle(@TempDir Path spoolDirectory) throws IOException {
         Instant createdAt = TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0);
 
         String testTitle = "a".repeat(15);
         String testContent = "c".repeat(100);
-        CreateArticleDto createArticleDto = new CreateArticleDto(testTitle, testContent);
+        Path contentFile = Files.writeString(spoolDirectory.resolve("article-1.txt"), testContent);
+        ArticleUpload upload = new ArticleUpload(testTitle, contentFile, 100, "AAAAAA==");
 
         when(articleSummaryRepository.save(any())).thenAnswer((i) -> {
             ArticleSummaryEntity articleSummary = i.getArgument(0);
@@ -294,13 +476,16 @@ public class ArticleModerationServiceTest {
             return articleSummary;
         });
 
-        doNothing().when(contentService).saveContent(1L, testContent);
-
         try (MockedStatic<Instant> mockedInstant = mockStatic(Instant.class)) {
             mockedInstant.when(Instant::now).thenReturn(createdAt);
-            articleModerationService.saveArticle(777, createArticleDto);
+            articleModerationService.saveArticle(777, upload);
         }
 
+        ModerationEvent event = applicationEvents.stream(ModerationEvent.class).findFirst().orElseThrow();
+        assertEquals(ModerationEventType.CREATED, event.getType());
+        assertEquals(1L, event.getArticleId());
+        assertNull(event.getModeratorId());
+
         verify(articleSummaryRepository, times(1)).save(argThat(articleSummary -> {
             assertEquals(testTitle, articleSummary.getTitle());
             assertEquals(createdAt, articleSummary.getCreatedAt());
@@ -309,87 +494,24 @@ public class ArticleModerationServiceTest {
             assertNull(articleSummary.getModeratorComment());
             return true;
         }));
-
-        verify(contentService, times(1)).saveContent(1L, testContent);
-    }
-
-    /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method with incorrect creator ID.
-     */
-    @Test
-    public void createArticleByIncorrectCreatorId() {
-        String testTitle = "a".repeat(15);
-        String testContent = "c".repeat(100);
-        assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.saveArticle(0, new CreateArticleDto(testTitle, testContent)));
-    }
-
-    /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method with too small title.
-     */
-    @Test
-    public void createArticleWithTooSmallTitle() {
-        String testTitle = "a".repeat(14);
-        String testContent = "c".repeat(100);
-        assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.saveArticle(777, new CreateArticleDto(testTitle, testContent)));
-    }
-
-    /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method with too long title.
-     */
-    @Test
-    public void createArticleWithTooLongTitle() {
-        String testTitle = "a".repeat(101);
-        String testContent = "c".repeat(100);
-        assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.saveArticle(777, new CreateArticleDto(testTitle, testContent)));
-    }
-
-    /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method with null title.
-     */
-    @Test
-    public void createArticleWithNullTitle() {
-        String testContent = "c".repeat(100);
-        assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.saveArticle(777, new CreateArticleDto(null, testContent)));
-    }
-
-    /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method with too small content.
-     */
-    @Test
-    public void createArticleWithTooSmallContent() {
-        String testTitle = "a".repeat(15);
-        String testContent = "c".repeat(99);
-        assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.saveArticle(777, new CreateArticleDto(testTitle, testContent)));
-    }
-
-    /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method with too long content.
-     */
-    @Test
-    public void createArticleWithTooLongContent() {
-        String testTitle = "a".repeat(15);
-        String testContent = "c".repeat(18_001);
-        assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.saveArticle(777, new CreateArticleDto(testTitle, testContent)));
+        verify(contentService, times(1)).saveContent(1L, contentFile, 100, "AAAAAA==");
+        verify(articleCounterService, times(1)).add(777L, ModerationStatus.MODERATING, 1);
+        verify(nearDuplicateService, times(1)).register(1L, contentFile);
     }
 
     /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method with null content.
+     * Test {@link ArticleModerationService#saveArticle(long, ArticleUpload)} method with incorrect creator ID.
      */
     @Test
-    public void createArticleWithNullContent() {
-        String testTitle = "a".repeat(15);
-        assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.saveArticle(777, new CreateArticleDto(testTitle, null)));
+    public void createArticleByIncorrectCreatorId(@TempDir Path spoolDirectory) throws IOException {
+        Path contentFile = Files.writeString(spoolDirectory.resolve("article-1.txt"), "c".repeat(100));
+        ArticleUpload upload = new ArticleUpload("a".repeat(15), contentFile, 100, "AAAAAA==");
+        assertThrows(ConstraintViolationException.class, () -> articleModerationService.saveArticle(0, upload));
+        verify(articleSummaryRepository, never()).save(any());
     }
 
     /**
-     * Test {@link ArticleModerationService#saveArticle(long, CreateArticleDto)} method.
+     * Test {@link ArticleModerationService#publishArticle(long, long)} method.
      */
     @Test
     public void publishArticle() {
@@ -401,13 +523,14 @@ public class ArticleModerationServiceTest {
         articleSummary.setStatus(ModerationStatus.MODERATING);
         articleSummary.setCreatorId(777L);
 
+        when(articleSummaryRepository.takeModerating(eq(1L), eq(5L), any())).thenReturn(1);
         when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
         when(contentService.getContent(1L)).thenReturn(Optional.of(testContent));
         doNothing().when(articleService).saveArticle(any());
         doNothing().when(articleSummaryRepository).deleteById(1L);
         doNothing().when(contentService).removeContent(1L);
 
-        articleModerationService.publishArticle(1L);
+        articleModerationService.publishArticle(1L, 5L);
 
         verify(articleService, times(1)).saveArticle(argThat(publishArticleDto -> {
             assertEquals(testTitle, publishArticleDto.getTitle());
@@ -418,10 +541,17 @@ public class ArticleModerationServiceTest {
 
         verify(articleSummaryRepository, times(1)).deleteById(1L);
         verify(contentService, times(1)).removeContent(1L);
+        verify(articleCounterService, times(1)).add(777L, ModerationStatus.MODERATING, -1);
+
+        ModerationEvent event = applicationEvents.stream(ModerationEvent.class).findFirst().orElseThrow();
+        assertEquals(ModerationEventType.ACCEPTED, event.getType());
+        assertEquals(1L, event.getArticleId());
+        assertEquals(777L, event.getCreatorId());
+        assertEquals(5L, event.getModeratorId());
     }
 
     /**
-     * Test {@link ArticleModerationService#publishArticle(long)} method with article in non-moderating status.
+     * Test {@link ArticleModerationService#publishArticle(long, long)} method with article in non-moderating status.
      */
     @Test
     public void publishNonModeratingArticle() {
@@ -431,12 +561,12 @@ public class ArticleModerationServiceTest {
         when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
 
         IllegalStateException ex = assertThrows(IllegalStateException.class,
-                () -> articleModerationService.publishArticle(1L));
+                () -> articleModerationService.publishArticle(1L, 5L));
         assertEquals("Article with ID 1 is not in MODERATING status", ex.getMessage());
     }
 
     /**
-     * Test {@link ArticleModerationService#publishArticle(long)} method with content storage connect exception.
+     * Test {@link ArticleModerationService#publishArticle(long, long)} method with content storage connect exception.
      */
     @Test
     public void publishArticleConnectError() {
@@ -448,6 +578,7 @@ public class ArticleModerationServiceTest {
         articleSummary.setStatus(ModerationStatus.MODERATING);
         articleSummary.setCreatorId(777L);
 
+        when(articleSummaryRepository.takeModerating(eq(1L), eq(5L), any())).thenReturn(1);
         when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
         when(contentService.getContent(1L)).thenReturn(Optional.of(testContent));
 
@@ -455,33 +586,33 @@ public class ArticleModerationServiceTest {
         doThrow(connectException).when(articleService).saveArticle(any());
 
         ExternalConnectException thrownEx = assertThrows(ExternalConnectException.class,
-                () -> articleModerationService.publishArticle(1L));
+                () -> articleModerationService.publishArticle(1L, 5L));
         assertSame(connectException, thrownEx);
     }
 
     /**
-     * Test {@link ArticleModerationService#publishArticle(long)} method with incorrect article ID.
+     * Test {@link ArticleModerationService#publishArticle(long, long)} method with incorrect article ID.
      */
     @Test
     public void publishArticleByIncorrectId() {
         assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.publishArticle(0));
+                () -> articleModerationService.publishArticle(0, 5L));
     }
 
     /**
-     * Test {@link ArticleModerationService#publishArticle(long)} method with non-existent article.
+     * Test {@link ArticleModerationService#publishArticle(long, long)} method with non-existent article.
      */
     @Test
     public void publishNonExistentArticle() {
         when(articleSummaryRepository.findById(1L)).thenReturn(Optional.empty());
 
         NoSuchArticleException ex = assertThrows(NoSuchArticleException.class,
-                () -> articleModerationService.publishArticle(1L));
+                () -> articleModerationService.publishArticle(1L, 5L));
         assertEquals("Article with ID 1 was not found!", ex.getMessage());
     }
 
     /**
-     * Test {@link ArticleModerationService#askEdit(long, String)} method.
+     * Test {@link ArticleModerationService#askEdit(long, long, String)} method.
      */
     @Test
     public void askEdit() {
@@ -492,13 +623,14 @@ public class ArticleModerationServiceTest {
         articleSummary.setId(1L);
         articleSummary.setTitle(testTitle);
         articleSummary.setCreatedAt(createdAt);
-        articleSummary.setStatus(ModerationStatus.MODERATING);
+        articleSummary.setStatus(ModerationStatus.EDIT_REQUESTED);
         articleSummary.setCreatorId(777L);
 
+        when(articleSummaryRepository.requestEdit(eq(1L), eq(5L), any())).thenReturn(1);
         when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
         when(articleSummaryRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
-        articleModerationService.askEdit(1, "comment");
+        articleModerationService.askEdit(1, 5, "comment");
 
         verify(articleSummaryRepository, times(1)).save(argThat(newArticleSummary -> {
             assertEquals(1L, newArticleSummary.getId());
@@ -509,80 +641,620 @@ public class ArticleModerationServiceTest {
             assertEquals("comment", newArticleSummary.getModeratorComment().getComment());
             return true;
         }));
+        verify(articleCounterService, times(1))
+                .move(777L, ModerationStatus.MODERATING, ModerationStatus.EDIT_REQUESTED);
+
+        ModerationEvent event = applicationEvents.stream(ModerationEvent.class).findFirst().orElseThrow();
+        assertEquals(ModerationEventType.EDIT_REQUESTED, event.getType());
+        assertEquals(5L, event.getModeratorId());
+        assertEquals(createdAt, event.getOccurredAt().minus(event.getWaitTime()));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#resubmitArticle(long, long, ArticleUpload)} method. The replaced revision
+     * is kept as a delta that restores it from the new content.
+     */
+    @Test
+    public void resubmitArticle(@TempDir Path spoolDirectory) throws IOException {
+        String oldContent = "First line\nSecond line\n" + "c".repeat(100);
+        String newContent = "First line\nEdited second line\n" + "c".repeat(100);
+        Path contentFile = Files.writeString(spoolDirectory.resolve("article.txt"), newContent);
+        ArticleUpload upload = new ArticleUpload("b".repeat(15), contentFile, 100, "AAAAAA==");
+
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity("a".repeat(15), Instant.now(), 777L);
+        articleSummary.setId(1L);
+        articleSummary.setModeratorComment(new ModeratorCommentEntity(1L, "Fix the second line"));
+
+        when(articleSummaryRepository.resubmit(1L, 777L)).thenReturn(1);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+        when(contentService.getContent(1L)).thenReturn(Optional.of(oldContent));
+        when(articleRevisionRepository.countByArticleId(1L)).thenReturn(1);
+        when(contentService.stageContent(1L, contentFile, 100, "AAAAAA==")).thenReturn("staging/articles/1/new.txt");
+
+        articleModerationService.resubmitArticle(1, 777, upload);
+
+        verify(articleRevisionRepository, times(1)).save(argThat(revision -> {
+            assertEquals(1L, revision.getArticleId());
+            assertEquals(2, revision.getRevision());
+            assertEquals("a".repeat(15), revision.getTitle());
+            assertEquals("Fix the second line", revision.getModeratorComment());
+            assertEquals(oldContent, TextDelta.apply(newContent, revision.getDelta()));
+            return true;
+        }));
+        verify(articleSummaryRepository, times(1)).save(argThat(newArticleSummary -> {
+            assertEquals("b".repeat(15), newArticleSummary.getTitle());
+            assertNull(newArticleSummary.getModeratorComment());
+            return true;
+        }));
+        verify(articleCounterService, times(1))
+                .move(777L, ModerationStatus.EDIT_REQUESTED, ModerationStatus.MODERATING);
+        verify(contentService, times(1)).stageContent(1L, contentFile, 100, "AAAAAA==");
+        verify(contentService, times(1)).publishStagedContent(1L, "staging/articles/1/new.txt");
+        verify(contentService, never()).saveContent(anyLong(), any(Path.class), anyLong(), any());
+        verify(nearDuplicateService, times(1)).register(1L, newContent);
+
+        ModerationEvent event = applicationEvents.stream(ModerationEvent.class).findFirst().orElseThrow();
+        assertEquals(ModerationEventType.RESUBMITTED, event.getType());
+        assertNull(event.getModeratorId());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#resubmitArticle(long, long, ArticleUpload)} method when the commit fails.
+     * The stored content isn't replaced, so the old revision is still the current one, and the staged content is
+     * removed. After a successful commit the staged content replaces the old one.
+     */
+    @Test
+    public void resubmitArticleRolledBack(@TempDir Path spoolDirectory) throws IOException {
+        String oldContent = "c".repeat(100);
+        Path contentFile = Files.writeString(spoolDirectory.resolve("article.txt"), "d".repeat(100));
+        ArticleUpload upload = new ArticleUpload("b".repeat(15), contentFile, 100, "AAAAAA==");
+
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity("a".repeat(15), Instant.now(), 777L);
+        articleSummary.setId(1L);
+        when(articleSummaryRepository.resubmit(1L, 777L)).thenReturn(1);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+
+        // Storage with the content of the article and staged objects by key
+        Map<String, String> storage = new HashMap<>(Map.of("articles/1.txt", oldContent));
+        when(contentService.getContent(1L)).thenAnswer(i -> Optional.ofNullable(storage.get("articles/1.txt")));
+        when(contentService.stageContent(eq(1L), eq(contentFile), anyLong(), any())).thenAnswer(i -> {
+            String stagingKey = "staging/articles/1/" + storage.size() + ".txt";
+            storage.put(stagingKey, Files.readString(contentFile));
+            return stagingKey;
+        });
+        doAnswer(i -> storage.put("articles/1.txt", storage.remove(i.<String>getArgument(1))))
+                .when(contentService).publishStagedContent(eq(1L), any());
+        doAnswer(i -> storage.remove(i.<String>getArgument(0)))
+                .when(contentService).removeStagedContent(any());
+
+        List<TransactionSynchronization> synchronizations = resubmitInTransaction(upload);
+        assertEquals(oldContent, storage.get("articles/1.txt"));
+        assertEquals(2, storage.size());
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(Map.of("articles/1.txt", oldContent), storage);
+
+        synchronizations = resubmitInTransaction(upload);
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(Map.of("articles/1.txt", "d".repeat(100)), storage);
+        verify(contentService, never()).saveContent(anyLong(), any(Path.class), anyLong(), any());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#resubmitArticle(long, long, ArticleUpload)} method for an article of
+     * another user and for an article that isn't waiting for edit.
+     */
+    @Test
+    public void resubmitArticleRejected() {
+        ArticleUpload upload = new ArticleUpload("b".repeat(15), Path.of("article.txt"), 100, "AAAAAA==");
+        when(articleSummaryRepository.resubmit(anyLong(), anyLong())).thenReturn(0);
+        when(articleSummaryRepository.existsByIdAndCreatorId(1L, 777L)).thenReturn(true);
+
+        NoSuchArticleException notFound = assertThrows(NoSuchArticleException.class,
+                () -> articleModerationService.resubmitArticle(1, 778, upload));
+        assertEquals("Article with ID 1 was not found!", notFound.getMessage());
+        IllegalStateException wrongStatus = assertThrows(IllegalStateException.class,
+                () -> articleModerationService.resubmitArticle(1, 777, upload));
+        assertEquals("Article with ID 1 is not in EDIT_REQUESTED status", wrongStatus.getMessage());
+
+        verify(articleRevisionRepository, never()).save(any());
+        verify(contentService, never()).saveContent(anyLong(), any(Path.class), anyLong(), any());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#getArticleDiff(long, Integer, Integer)} method. Earlier revisions are
+     * restored from the latest one.
+     */
+    @Test
+    public void getArticleDiff() {
+        String firstContent = "Title line\nThe quick brown fox\n";
+        String secondContent = "Title line\nThe quick red fox\n";
+        String thirdContent = "Title line\nThe quick red fox\nA new line\n";
+
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity("c".repeat(15), Instant.now(), 777L);
+        articleSummary.setId(1L);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+        when(contentService.getContent(1L)).thenReturn(Optional.of(thirdContent));
+        when(articleRevisionRepository.findAllByArticleIdOrderByRevisionDesc(1L)).thenReturn(List.of(
+                new ArticleRevisionEntity(1L, 2, "b".repeat(15), "Add a line",
+                        TextDelta.create(thirdContent, secondContent), Instant.now()),
+                new ArticleRevisionEntity(1L, 1, "a".repeat(15), "Fix the color",
+                        TextDelta.create(secondContent, firstContent), Instant.now())));
+
+        ArticleDiff latestDiff = articleModerationService.getArticleDiff(1, null, null);
+        assertEquals(2, latestDiff.getFromRevision());
+        assertEquals(3, latestDiff.getToRevision());
+        assertEquals("b".repeat(15), latestDiff.getFromTitle());
+        assertEquals("c".repeat(15), latestDiff.getToTitle());
+        assertEquals(List.of(
+                new DiffLine(DiffType.EQUAL, 1, 1, "Title line", null),
+                new DiffLine(DiffType.EQUAL, 2, 2, "The quick red fox", null),
+                new DiffLine(DiffType.INSERTED, null, 3, "A new line", null)
+        ), latestDiff.getLines());
+
+        ArticleDiff firstDiff = articleModerationService.getArticleDiff(1, 1, 2);
+        assertEquals("a".repeat(15), firstDiff.getFromTitle());
+        assertEquals("b".repeat(15), firstDiff.getToTitle());
+        assertEquals(List.of(
+                new DiffLine(DiffType.EQUAL, 1, 1, "Title line", null),
+                new DiffLine(DiffType.CHANGED, 2, 2, null, List.of(
+                        new DiffSegment(DiffType.EQUAL, "The quick "),
+                        new DiffSegment(DiffType.DELETED, "brown"),
+                        new DiffSegment(DiffType.INSERTED, "red"),
+                        new DiffSegment(DiffType.EQUAL, " fox")))
+        ), firstDiff.getLines());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#getArticleDiff(long, Integer, Integer)} method for missing revisions.
+     */
+    @Test
+    public void getArticleDiffOfMissingRevision() {
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity("a".repeat(15), Instant.now(), 777L);
+        articleSummary.setId(1L);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+        when(articleRevisionRepository.findAllByArticleIdOrderByRevisionDesc(1L)).thenReturn(List.of());
+
+        NoSuchRevisionException noPrevious = assertThrows(NoSuchRevisionException.class,
+                () -> articleModerationService.getArticleDiff(1, null, null));
+        assertEquals("Revision 0 of article with ID 1 was not found!", noPrevious.getMessage());
+        assertThrows(NoSuchRevisionException.class, () -> articleModerationService.getArticleDiff(1, 1, 2));
+        verify(contentService, never()).getContent(anyLong());
     }
 
     /**
-     * Test {@link ArticleModerationService#askEdit(long, String)} method for non-existent article.
+     * Test {@link ArticleModerationService#askEdit(long, long, String)} method for non-existent article.
      */
     @Test
     public void askEditNonExistentArticle() {
         when(articleSummaryRepository.findById(1L)).thenReturn(Optional.empty());
 
         NoSuchArticleException ex = assertThrows(NoSuchArticleException.class,
-                () -> articleModerationService.askEdit(1, "comment"));
+                () -> articleModerationService.askEdit(1, 5, "comment"));
         assertEquals("Article with ID 1 was not found!", ex.getMessage());
     }
 
     /**
-     * Test {@link ArticleModerationService#askEdit(long, String)} method with incorrect article ID.
+     * Test {@link ArticleModerationService#askEdit(long, long, String)} method with incorrect article ID.
      */
     @Test
     public void askEditByIncorrectArticleId() {
         assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.askEdit(0, "comment"));
+                () -> articleModerationService.askEdit(0, 5, "comment"));
     }
 
     /**
-     * Test {@link ArticleModerationService#askEdit(long, String)} method with empty comment.
+     * Test {@link ArticleModerationService#askEdit(long, long, String)} method with empty comment.
      */
     @Test
     public void askEditWithEmptyComment() {
         assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.askEdit(1, ""));
+                () -> articleModerationService.askEdit(1, 5, ""));
     }
 
     /**
-     * Test {@link ArticleModerationService#askEdit(long, String)} method with null comment.
+     * Test {@link ArticleModerationService#askEdit(long, long, String)} method with null comment.
      */
     @Test
     public void askEditWithNullComment() {
         assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.askEdit(1, null));
+                () -> articleModerationService.askEdit(1, 5, null));
     }
 
     /**
-     * Test {@link ArticleModerationService#removeArticle(long)} method.
+     * Test {@link ArticleModerationService#askEditArticles(List, long, String)} method.
+     */
+    @Test
+    public void askEditArticles() {
+        Instant createdAt = TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0);
+        List<DecisionTarget> targets = List.of(
+                decisionTarget(1L, 777L, ModerationStatus.MODERATING, createdAt),
+                decisionTarget(3L, 777L, ModerationStatus.MODERATING, createdAt),
+                decisionTarget(4L, 888L, ModerationStatus.MODERATING, createdAt));
+        when(articleSummaryRepository.lockForEditRequest(eq(List.of(3L, 1L, 2L, 4L)), eq(5L), any()))
+                .thenReturn(targets);
+
+        BulkDecisionResult result = articleModerationService.askEditArticles(List.of(3L, 1L, 2L, 3L, 4L), 5L, "Spam");
+
+        assertEquals(List.of(1L, 3L, 4L), result.getApplied());
+        assertEquals(List.of(2L), result.getSkipped());
+        verify(articleSummaryRepository, times(1)).requestEditAll(List.of(1L, 3L, 4L));
+        verify(articleSummaryRepository, times(1)).upsertComments(List.of(1L, 3L, 4L), "Spam");
+        verify(articleCounterService, times(1))
+                .move(777L, ModerationStatus.MODERATING, ModerationStatus.EDIT_REQUESTED, 2);
+        verify(articleCounterService, times(1))
+                .move(888L, ModerationStatus.MODERATING, ModerationStatus.EDIT_REQUESTED, 1);
+        assertEquals(3, applicationEvents.stream(ModerationEvent.class)
+                .filter(event -> event.getType() == ModerationEventType.EDIT_REQUESTED)
+                .count());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#askEditArticles(List, long, String)} method when no article can be changed.
+     */
+    @Test
+    public void askEditArticlesWithoutChanges() {
+        when(articleSummaryRepository.lockForEditRequest(eq(List.of(1L)), eq(5L), any())).thenReturn(List.of());
+
+        BulkDecisionResult result = articleModerationService.askEditArticles(List.of(1L), 5L, "Spam");
+
+        assertEquals(List.of(), result.getApplied());
+        assertEquals(List.of(1L), result.getSkipped());
+        verify(articleSummaryRepository, never()).requestEditAll(any());
+        verify(articleSummaryRepository, never()).upsertComments(any(), any());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#askEditArticles(List, long, String)} method with too many articles.
+     */
+    @Test
+    public void askEditTooManyArticles() {
+        List<Long> articleIds = LongStream.rangeClosed(1, 1001).boxed().toList();
+        assertThrows(ConstraintViolationException.class,
+                () -> articleModerationService.askEditArticles(articleIds, 5L, "Spam"));
+        assertThrows(ConstraintViolationException.class,
+                () -> articleModerationService.askEditArticles(List.of(), 5L, "Spam"));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#removeArticles(List, long)} method.
+     */
+    @Test
+    public void removeArticles() {
+        Instant createdAt = TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0);
+        List<DecisionTarget> targets = List.of(
+                decisionTarget(1L, 777L, ModerationStatus.MODERATING, createdAt),
+                decisionTarget(2L, 777L, ModerationStatus.EDIT_REQUESTED, createdAt),
+                decisionTarget(3L, 777L, ModerationStatus.MODERATING, createdAt));
+        when(articleSummaryRepository.lockForRemoval(eq(List.of(1L, 2L, 3L, 4L)), eq(5L), any())).thenReturn(targets);
+
+        BulkDecisionResult result = articleModerationService.removeArticles(List.of(1L, 2L, 3L, 4L), 5L);
+
+        assertEquals(List.of(1L, 2L, 3L), result.getApplied());
+        assertEquals(List.of(4L), result.getSkipped());
+        verify(articleSummaryRepository, times(1)).deleteComments(List.of(1L, 2L, 3L));
+        verify(articleSummaryRepository, times(1)).deleteSummaries(List.of(1L, 2L, 3L));
+        verify(articleRevisionRepository, times(1)).deleteRevisions(List.of(1L, 2L, 3L));
+        verify(nearDuplicateService, times(1)).remove(List.of(1L, 2L, 3L));
+        verify(contentService, times(1)).removeContents(List.of(1L, 2L, 3L));
+        verify(articleCounterService, times(1)).add(777L, ModerationStatus.MODERATING, -2);
+        verify(articleCounterService, times(1)).add(777L, ModerationStatus.EDIT_REQUESTED, -1);
+        assertEquals(3, applicationEvents.stream(ModerationEvent.class)
+                .filter(event -> event.getType() == ModerationEventType.REMOVED)
+                .count());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#removeArticles(List, long)} method with content storage connect exception.
+     * The articles stay removed.
+     */
+    @Test
+    public void removeArticlesWithStorageFailure() {
+        Instant createdAt = TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0);
+        List<DecisionTarget> targets = List.of(decisionTarget(1L, 777L, ModerationStatus.MODERATING, createdAt));
+        when(articleSummaryRepository.lockForRemoval(eq(List.of(1L)), eq(5L), any())).thenReturn(targets);
+        doThrow(new ExternalConnectException("Failed", null)).when(contentService).removeContents(List.of(1L));
+
+        BulkDecisionResult result = articleModerationService.removeArticles(List.of(1L), 5L);
+
+        assertEquals(List.of(1L), result.getApplied());
+        verify(articleSummaryRepository, times(1)).deleteSummaries(List.of(1L));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#removeNearDuplicates(long, long)} method. The article is removed together
+     * with its near-duplicates.
+     */
+    @Test
+    public void removeNearDuplicates() {
+        Instant createdAt = TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0);
+        when(nearDuplicateService.getNearDuplicates(2L)).thenReturn(List.of(1L, 3L));
+        List<DecisionTarget> targets = List.of(
+                decisionTarget(2L, 777L, ModerationStatus.MODERATING, createdAt),
+                decisionTarget(1L, 778L, ModerationStatus.MODERATING, createdAt));
+        when(articleSummaryRepository.lockForRemoval(eq(List.of(2L, 1L, 3L)), eq(5L), any())).thenReturn(targets);
+
+        BulkDecisionResult result = articleModerationService.removeNearDuplicates(2L, 5L);
+
+        assertEquals(List.of(2L, 1L), result.getApplied());
+        assertEquals(List.of(3L), result.getSkipped());
+        verify(articleSummaryRepository, times(1)).deleteSummaries(List.of(2L, 1L));
+        verify(nearDuplicateService, times(1)).remove(List.of(2L, 1L));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#getNearDuplicates(long)} method with a missing article.
+     */
+    @Test
+    public void getNearDuplicatesOfMissingArticle() {
+        when(articleSummaryRepository.existsById(1L)).thenReturn(false);
+        assertThrows(NoSuchArticleException.class, () -> articleModerationService.getNearDuplicates(1L));
+        verify(nearDuplicateService, never()).getNearDuplicates(anyLong());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#removeArticle(long, long)} method.
      */
     @Test
     public void removeArticle() {
-        when(articleSummaryRepository.existsById(1L)).thenReturn(true);
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setId(1L);
+        articleSummary.setStatus(ModerationStatus.EDIT_REQUESTED);
+        articleSummary.setCreatorId(777L);
+
+        when(articleSummaryRepository.takeForRemoval(eq(1L), eq(5L), any())).thenReturn(1);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
         doNothing().when(articleSummaryRepository).deleteById(1L);
         doNothing().when(contentService).removeContent(1L);
 
-        articleModerationService.removeArticle(1L);
+        articleModerationService.removeArticle(1L, 5L);
 
         verify(articleSummaryRepository, times(1)).deleteById(1L);
         verify(contentService, times(1)).removeContent(1L);
+        verify(articleRevisionRepository, times(1)).deleteRevisions(List.of(1L));
+        verify(articleCounterService, times(1)).add(777L, ModerationStatus.EDIT_REQUESTED, -1);
+
+        ModerationEvent event = applicationEvents.stream(ModerationEvent.class).findFirst().orElseThrow();
+        assertEquals(ModerationEventType.REMOVED, event.getType());
+        assertEquals(5L, event.getModeratorId());
     }
 
     /**
-     * Test {@link ArticleModerationService#removeArticle(long)} method with content storage connect exception.
+     * Test {@link ArticleModerationService#removeArticle(long, long)} method with content storage connect exception.
      */
     @Test
     public void removeArticleByIncorrectId() {
         assertThrows(ConstraintViolationException.class,
-                () -> articleModerationService.removeArticle(0));
+                () -> articleModerationService.removeArticle(0, 5L));
     }
 
     /**
-     * Test {@link ArticleModerationService#removeArticle(long)} method with non-existent article.
+     * Test {@link ArticleModerationService#removeArticle(long, long)} method with non-existent article.
      */
     @Test
     public void removeNonExistentArticle() {
-        when(articleSummaryRepository.existsById(1L)).thenReturn(false);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.empty());
 
         NoSuchArticleException ex = assertThrows(NoSuchArticleException.class,
-                () -> articleModerationService.removeArticle(1));
+                () -> articleModerationService.removeArticle(1, 5L));
         assertEquals("Article with ID 1 was not found!", ex.getMessage());
     }
+
+    /**
+     * Test {@link ArticleModerationService#publishArticle(long, long)} method with article claimed by another
+     * moderator.
+     */
+    @Test
+    public void publishArticleLeasedByAnotherModerator() {
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setStatus(ModerationStatus.MODERATING);
+        articleSummary.setLeaseHolder(6L);
+
+        when(articleSummaryRepository.takeModerating(eq(1L), eq(5L), any())).thenReturn(0);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+
+        ArticleLeasedException ex = assertThrows(ArticleLeasedException.class,
+                () -> articleModerationService.publishArticle(1L, 5L));
+        assertEquals("Article with ID 1 is claimed by another moderator!", ex.getMessage());
+        verify(articleService, never()).saveArticle(any());
+        verify(articleSummaryRepository, never()).deleteById(anyLong());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#askEdit(long, long, String)} method with article claimed by another
+     * moderator.
+     */
+    @Test
+    public void askEditLeasedByAnotherModerator() {
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setStatus(ModerationStatus.MODERATING);
+        articleSummary.setLeaseHolder(6L);
+
+        when(articleSummaryRepository.requestEdit(eq(1L), eq(5L), any())).thenReturn(0);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+
+        assertThrows(ArticleLeasedException.class, () -> articleModerationService.askEdit(1L, 5L, "comment"));
+        verify(articleCounterService, never()).move(anyLong(), any(), any());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#claimNextArticle(long)} method.
+     */
+    @Test
+    public void claimNextArticle() {
+        Instant createdAt = TestUtils.createInstantOf(2021, 1, 1, 12, 30, 0);
+
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setId(1L);
+        articleSummary.setTitle("a".repeat(15));
+        articleSummary.setCreatedAt(createdAt);
+        articleSummary.setStatus(ModerationStatus.MODERATING);
+        articleSummary.setCreatorId(777L);
+
+        when(articleSummaryRepository.findNextUnclaimed(any())).thenReturn(Optional.of(articleSummary));
+        when(articleSummaryRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        Instant before = Instant.now();
+        ArticleLease lease = articleModerationService.claimNextArticle(5L).orElseThrow();
+
+        assertEquals(1L, lease.getArticle().getId());
+        assertEquals(createdAt, lease.getArticle().getCreatedAt());
+        assertFalse(lease.getExpiresAt().isBefore(before.plusSeconds(300)));
+        verify(articleSummaryRepository, times(1)).save(argThat(entity -> {
+            assertEquals(5L, entity.getLeaseHolder());
+            assertEquals(lease.getExpiresAt(), entity.getLeaseExpiresAt());
+            return true;
+        }));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#claimNextArticle(long)} method when all articles are claimed.
+     */
+    @Test
+    public void claimNextArticleWhenNoneIsFree() {
+        when(articleSummaryRepository.findNextUnclaimed(any())).thenReturn(Optional.empty());
+
+        assertTrue(articleModerationService.claimNextArticle(5L).isEmpty());
+        verify(articleSummaryRepository, never()).save(any());
+    }
+
+    /**
+     * Test {@link ArticleModerationService#renewLease(long, long)} method.
+     */
+    @Test
+    public void renewLease() {
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setId(1L);
+        articleSummary.setStatus(ModerationStatus.MODERATING);
+
+        when(articleSummaryRepository.renewLease(eq(1L), eq(5L), any())).thenReturn(1);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+
+        ArticleLease lease = articleModerationService.renewLease(1L, 5L);
+
+        assertEquals(1L, lease.getArticle().getId());
+        verify(articleSummaryRepository, times(1)).renewLease(eq(1L), eq(5L), eq(lease.getExpiresAt()));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#renewLease(long, long)} method with lease of another moderator.
+     */
+    @Test
+    public void renewLeaseOfAnotherModerator() {
+        ArticleSummaryEntity articleSummary = new ArticleSummaryEntity();
+        articleSummary.setStatus(ModerationStatus.MODERATING);
+        articleSummary.setLeaseHolder(6L);
+
+        when(articleSummaryRepository.renewLease(eq(1L), eq(5L), any())).thenReturn(0);
+        when(articleSummaryRepository.findById(1L)).thenReturn(Optional.of(articleSummary));
+
+        assertThrows(ArticleLeasedException.class, () -> articleModerationService.renewLease(1L, 5L));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#searchArticles(String, ModerationStatus, String)} method. Articles are
+     * returned in order of rank and the cursor of the full page leads to the next page.
+     */
+    @Test
+    public void searchArticles() {
+        List<SearchHit> hits = LongStream.rangeClosed(1, ARTICLE_SUMMARIES_PAGE_SIZE)
+                .mapToObj(id -> new SearchHit(id, 1.5f / id))
+                .toList();
+        List<ArticleSummaryEntity> entities = hits.stream()
+                .map(hit -> {
+                    ArticleSummaryEntity entity = new ArticleSummaryEntity();
+                    entity.setId(hit.id());
+                    entity.setTitle("Title " + hit.id());
+                    entity.setStatus(ModerationStatus.MODERATING);
+                    entity.setCreatorId(100 + hit.id());
+                    return entity;
+                })
+                .toList();
+        List<Creator> creators = entities.stream()
+                .map(entity -> new Creator(entity.getCreatorId(), "user" + entity.getCreatorId()))
+                .toList();
+
+        when(articleSearchRepository.search("title", ModerationStatus.MODERATING, null, ARTICLE_SUMMARIES_PAGE_SIZE))
+                .thenReturn(hits);
+        // The entities are loaded in arbitrary order
+        List<ArticleSummaryEntity> shuffledEntities = new ArrayList<>(entities);
+        Collections.reverse(shuffledEntities);
+        when(articleSummaryRepository.findAllById(any())).thenReturn(shuffledEntities);
+        when(creatorService.getCreatorsByIds(anyList())).thenReturn(creators);
+
+        ArticleSearchResult result = articleModerationService
+                .searchArticles("title", ModerationStatus.MODERATING, null);
+
+        assertEquals(ARTICLE_SUMMARIES_PAGE_SIZE, result.getArticles().size());
+        for (int i = 0; i < ARTICLE_SUMMARIES_PAGE_SIZE; i++) {
+            assertEquals(i + 1, result.getArticles().get(i).getId());
+            assertEquals(101L + i, result.getArticles().get(i).getCreator().getId());
+        }
+        assertNotNull(result.getNextCursor());
+
+        articleModerationService.searchArticles("title", ModerationStatus.MODERATING, result.getNextCursor());
+        verify(articleSearchRepository, times(1)).search("title", ModerationStatus.MODERATING,
+                hits.get(hits.size() - 1), ARTICLE_SUMMARIES_PAGE_SIZE);
+    }
+
+    /**
+     * Test {@link ArticleModerationService#searchArticles(String, ModerationStatus, String)} method with the last
+     * page of results.
+     */
+    @Test
+    public void searchArticlesLastPage() {
+        when(articleSearchRepository.search("title", null, null, ARTICLE_SUMMARIES_PAGE_SIZE))
+                .thenReturn(List.of());
+
+        ArticleSearchResult result = articleModerationService.searchArticles("title", null, null);
+
+        assertTrue(result.getArticles().isEmpty());
+        assertNull(result.getNextCursor());
+        verifyNoInteractions(creatorService);
+    }
+
+    /**
+     * Test {@link ArticleModerationService#searchArticles(String, ModerationStatus, String)} method with a malformed
+     * cursor.
+     */
+    @Test
+    public void searchArticlesWithInvalidCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> articleModerationService.searchArticles("title", null, "not a cursor"));
+    }
+
+    /**
+     * Test {@link ArticleModerationService#searchArticles(String, ModerationStatus, String)} method with blank text.
+     */
+    @Test
+    public void searchArticlesWithBlankText() {
+        assertThrows(ConstraintViolationException.class,
+                () -> articleModerationService.searchArticles(" ", null, null));
+    }
+
+    /**
+     * Resubmit article 1 of creator 777 in a transaction that isn't completed
+     * @param upload Upload
+     * @return Synchronizations registered by the transaction
+     */
+    private List<TransactionSynchronization> resubmitInTransaction(ArticleUpload upload) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            articleModerationService.resubmitArticle(1, 777, upload);
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static DecisionTarget decisionTarget(long id, long creatorId, ModerationStatus status, Instant createdAt) {
+        DecisionTarget target = mock(DecisionTarget.class);
+        when(target.getId()).thenReturn(id);
+        when(target.getCreatorId()).thenReturn(creatorId);
+        when(target.getStatus()).thenReturn(status.getId());
+        when(target.getCreatedAt()).thenReturn(createdAt);
+        return target;
+    }
 }
@@ -0,0 +1,153 @@
+package me.zedaster.moderationservice.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import me.zedaster.moderationservice.configuration.ArticlePageCacheConfiguration;
+import me.zedaster.moderationservice.dto.*;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ArticlePageCache} class.
+ */
+public class ArticlePageCacheTest {
+    private ArticleModerationService articleModerationService;
+
+    private ArticlePageCacheConfiguration configuration;
+
+    private ArticlePageCache articlePageCache;
+
+    @BeforeEach
+    public void setUp() {
+        articleModerationService = mock(ArticleModerationService.class);
+        configuration = new ArticlePageCacheConfiguration();
+        articlePageCache = new ArticlePageCache(articleModerationService,
+                JsonMapper.builder().findAndAddModules().build(), configuration);
+        when(articleModerationService.getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST))
+                .thenReturn(List.of(summary(1L)));
+    }
+
+    /**
+     * Test that a page is loaded once and then served from the cache
+     */
+    @Test
+    public void cachePage() {
+        byte[] first = getFirstPage();
+        byte[] second = getFirstPage();
+
+        assertSame(first, second);
+        String json = new String(first, StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"title\":\"Title\""));
+        assertTrue(json.contains("\"name\":\"Alice\""));
+        verify(articleModerationService, times(1)).getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST);
+    }
+
+    /**
+     * Test that pages with different filters are cached separately
+     */
+    @Test
+    public void cachePagesByFilters() {
+        when(articleModerationService.getArticleSummaries(1, ModerationStatus.MODERATING, 5L, ArticleSortOrder.NEWEST))
+                .thenReturn(List.of());
+
+        getFirstPage();
+        byte[] filtered = articlePageCache.getArticleSummaries(1, ModerationStatus.MODERATING, 5L,
+                ArticleSortOrder.NEWEST);
+
+        assertEquals("[]", new String(filtered, StandardCharsets.UTF_8));
+        verify(articleModerationService, times(1)).getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST);
+        verify(articleModerationService, times(1))
+                .getArticleSummaries(1, ModerationStatus.MODERATING, 5L, ArticleSortOrder.NEWEST);
+    }
+
+    /**
+     * Test that a moderation event invalidates cached pages
+     */
+    @Test
+    public void invalidateOnModerationEvent() {
+        getFirstPage();
+        articlePageCache.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, 2L, 5L));
+        getFirstPage();
+
+        verify(articleModerationService, times(2)).getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST);
+    }
+
+    /**
+     * Test that an expired page is loaded again
+     */
+    @Test
+    public void expirePage() {
+        configuration.setTimeToLive(Duration.ZERO);
+
+        getFirstPage();
+        getFirstPage();
+
+        verify(articleModerationService, times(2)).getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST);
+    }
+
+    /**
+     * Test that a failed loading isn't cached
+     */
+    @Test
+    public void notCacheFailure() {
+        when(articleModerationService.getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST))
+                .thenThrow(new ExternalConnectException("Failed", null))
+                .thenReturn(List.of(summary(1L)));
+
+        assertThrows(ExternalConnectException.class, this::getFirstPage);
+        assertNotNull(getFirstPage());
+        verify(articleModerationService, times(2)).getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST);
+    }
+
+    /**
+     * Test that concurrent requests of the same page share one loading
+     */
+    @Test
+    public void shareLoading() throws Exception {
+        CountDownLatch loadingStarted = new CountDownLatch(1);
+        CountDownLatch loadingAllowed = new CountDownLatch(1);
+        when(articleModerationService.getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST))
+                .thenAnswer(invocation -> {
+                    loadingStarted.countDown();
+                    loadingAllowed.await();
+                    return List.of(summary(1L));
+                });
+
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(this::getFirstPage);
+        loadingStarted.await();
+        Thread waitingThread = new Thread(this::getFirstPage);
+        waitingThread.start();
+        while (waitingThread.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        loadingAllowed.countDown();
+        waitingThread.join();
+
+        assertNotNull(first.join());
+        verify(articleModerationService, times(1)).getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST);
+    }
+
+    private byte[] getFirstPage() {
+        return articlePageCache.getArticleSummaries(1, null, null, ArticleSortOrder.OLDEST);
+    }
+
+    private static NamedArticleSummary summary(long id) {
+        return new NamedArticleSummary(ArticleSummary.builder()
+                .id(id)
+                .title("Title")
+                .createdAt(Instant.parse("2021-01-01T12:30:00Z"))
+                .status(ModerationStatus.MODERATING)
+                .build(), new Creator(5L, "Alice"));
+    }
+}
@@ -0,0 +1,188 @@
+package me.zedaster.moderationservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.zedaster.moderationservice.configuration.ArticlePrefetchConfiguration;
+import me.zedaster.moderationservice.configuration.ExecutorFactory;
+import me.zedaster.moderationservice.dto.ArticleSummary;
+import me.zedaster.moderationservice.dto.Creator;
+import me.zedaster.moderationservice.dto.ModerationStatus;
+import me.zedaster.moderationservice.dto.NamedArticleSummary;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import me.zedaster.moderationservice.repository.ArticleSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ArticlePrefetcher} class.
+ */
+public class ArticlePrefetcherTest {
+    private static final Instant CREATED_AT = Instant.parse("2021-01-01T12:30:00Z");
+
+    private ArticleSummaryRepository articleSummaryRepository;
+
+    private ContentService contentService;
+
+    private CreatorService creatorService;
+
+    private ArticlePrefetchConfiguration configuration;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ArticlePrefetcher articlePrefetcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        articleSummaryRepository = mock(ArticleSummaryRepository.class);
+        contentService = mock(ContentService.class);
+        creatorService = mock(CreatorService.class);
+        configuration = new ArticlePrefetchConfiguration();
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getIfAvailable(any())).thenReturn(meterRegistry);
+
+        articlePrefetcher = new ArticlePrefetcher(articleSummaryRepository, contentService, creatorService,
+                configuration, new ExecutorFactory(new MockEnvironment(), null), meterRegistryProvider);
+        when(contentService.getContent(anyLong()))
+                .thenAnswer(invocation -> Optional.of("Content " + invocation.getArgument(0)));
+    }
+
+    /**
+     * Test that the articles of a served page are prefetched and taken once
+     */
+    @Test
+    public void prefetchPage() throws InterruptedException {
+        articlePrefetcher.prefetch(List.of(summary(1L, ModerationStatus.MODERATING),
+                summary(2L, ModerationStatus.EDIT_REQUESTED), summary(3L, ModerationStatus.MODERATING)));
+        articlePrefetcher.stop();
+
+        Optional<ArticlePrefetcher.PrefetchedArticle> article = articlePrefetcher.take(1L);
+        assertTrue(article.isPresent());
+        assertEquals("Content 1", article.get().content());
+        assertEquals("alice", article.get().creator().getName());
+        assertTrue(articlePrefetcher.take(1L).isEmpty());
+        assertTrue(articlePrefetcher.take(2L).isEmpty());
+
+        verify(contentService, never()).getContent(2L);
+        verify(creatorService, never()).getCreatorsByIds(any());
+        assertEquals(1.0, meterRegistry.get(ArticlePrefetcher.LOOKUPS_METRIC).tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get(ArticlePrefetcher.LOOKUPS_METRIC).tag("result", "miss").counter().count());
+        assertEquals(2.0, meterRegistry.get(ArticlePrefetcher.LOADS_METRIC).tag("outcome", "success").counter().count());
+    }
+
+    /**
+     * Test that the articles following an opened article are prefetched with their creators fetched in one request
+     */
+    @Test
+    public void prefetchAfter() throws InterruptedException {
+        List<ArticleSummaryRepository.QueueEntry> entries = List.of(queueEntry(2L, 10L), queueEntry(3L, 11L));
+        when(articleSummaryRepository.findNextInQueue(ModerationStatus.MODERATING, CREATED_AT, 1L,
+                Limit.of(configuration.getCount()))).thenReturn(entries);
+        when(creatorService.getCreatorsByIds(List.of(10L, 11L)))
+                .thenReturn(List.of(new Creator(10L, "bob"), new Creator(11L, "carol")));
+
+        articlePrefetcher.prefetchAfter(1L, CREATED_AT);
+        articlePrefetcher.stop();
+
+        assertEquals("bob", articlePrefetcher.take(2L).orElseThrow().creator().getName());
+        assertEquals("carol", articlePrefetcher.take(3L).orElseThrow().creator().getName());
+        verify(creatorService, times(1)).getCreatorsByIds(List.of(10L, 11L));
+    }
+
+    /**
+     * Test that an expired article isn't taken and is counted as wasted
+     */
+    @Test
+    public void expireArticle() throws InterruptedException {
+        configuration.setTimeToLive(Duration.ZERO);
+
+        articlePrefetcher.prefetch(List.of(summary(1L, ModerationStatus.MODERATING)));
+        articlePrefetcher.stop();
+
+        assertTrue(articlePrefetcher.take(1L).isEmpty());
+        assertEquals(1.0, meterRegistry.get(ArticlePrefetcher.WASTED_METRIC).counter().count());
+    }
+
+    /**
+     * Test that a decided article is forgotten
+     */
+    @Test
+    public void forgetDecidedArticle() throws InterruptedException {
+        articlePrefetcher.prefetch(List.of(summary(1L, ModerationStatus.MODERATING),
+                summary(2L, ModerationStatus.MODERATING)));
+        articlePrefetcher.stop();
+
+        articlePrefetcher.onModerationEvent(
+                new ModerationEvent(ModerationEventType.ACCEPTED, 1L, 1L, 7L, Instant.now(), null));
+        articlePrefetcher.onModerationEvent(
+                new ModerationEvent(ModerationEventType.CLAIMED, 2L, 1L, 7L, Instant.now(), null));
+
+        assertTrue(articlePrefetcher.take(1L).isEmpty());
+        assertTrue(articlePrefetcher.take(2L).isPresent());
+        assertEquals(1.0, meterRegistry.get(ArticlePrefetcher.WASTED_METRIC).counter().count());
+    }
+
+    /**
+     * Test that content loaded before the article was resubmitted is discarded
+     */
+    @Test
+    public void discardLoadOfResubmittedArticle() throws InterruptedException {
+        when(contentService.getContent(1L)).thenAnswer(invocation -> {
+            articlePrefetcher.onModerationEvent(
+                    ModerationEvent.byCreator(ModerationEventType.RESUBMITTED, 1L, 1L));
+            return Optional.of("Old content");
+        });
+
+        articlePrefetcher.prefetch(List.of(summary(1L, ModerationStatus.MODERATING),
+                summary(2L, ModerationStatus.MODERATING)));
+        articlePrefetcher.stop();
+
+        assertTrue(articlePrefetcher.take(1L).isEmpty());
+        assertTrue(articlePrefetcher.take(2L).isPresent());
+        assertEquals(1.0, meterRegistry.get(ArticlePrefetcher.LOADS_METRIC).tag("outcome", "success").counter().count());
+    }
+
+    /**
+     * Test that nothing is prefetched when prefetching is disabled
+     */
+    @Test
+    public void disabled() throws InterruptedException {
+        configuration.setEnabled(false);
+
+        articlePrefetcher.prefetch(List.of(summary(1L, ModerationStatus.MODERATING)));
+        articlePrefetcher.stop();
+
+        assertTrue(articlePrefetcher.take(1L).isEmpty());
+        verify(contentService, never()).getContent(anyLong());
+    }
+
+    private static NamedArticleSummary summary(long id, ModerationStatus status) {
+        return new NamedArticleSummary(ArticleSummary.builder()
+                .id(id)
+                .title("Title")
+                .createdAt(CREATED_AT)
+                .status(status)
+                .build(), new Creator(1L, "alice"));
+    }
+
+    private static ArticleSummaryRepository.QueueEntry queueEntry(long id, long creatorId) {
+        ArticleSummaryRepository.QueueEntry entry = mock(ArticleSummaryRepository.QueueEntry.class);
+        when(entry.getId()).thenReturn(id);
+        when(entry.getCreatorId()).thenReturn(creatorId);
+        return entry;
+    }
+}
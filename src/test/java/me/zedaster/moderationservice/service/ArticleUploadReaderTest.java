@@ -0,0 +1,249 @@
+package me.zedaster.moderationservice.service;
+
+import me.zedaster.moderationservice.configuration.ArticleUploadConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ArticleUploadReader} class.
+ */
+public class ArticleUploadReaderTest {
+    @TempDir
+    private Path spoolDirectory;
+
+    private ArticleUploadReader articleUploadReader;
+
+    @BeforeEach
+    public void setUp() {
+        ArticleUploadConfiguration configuration = new ArticleUploadConfiguration();
+        configuration.setMaxBodySize(DataSize.ofKilobytes(64));
+        configuration.setSpoolDirectory(spoolDirectory.toString());
+        articleUploadReader = new ArticleUploadReader(configuration);
+    }
+
+    /**
+     * Test reading an article with escaped characters, non-ASCII characters and an unknown field.
+     */
+    @Test
+    public void readArticle() throws IOException {
+        String content = "Привет, \"мир\"!\n\tTab and slash / and emoji \uD83D\uDE00 " + "c".repeat(80);
+        String json = """
+                {
+                  "unknown": {"nested": [1, "two", null]},
+                  "title" : "Title with \\"quotes\\"",
+                  "content": "Привет, \\"мир\\"!\\n\\tTab and slash \\/ and emoji \\ud83d\\ude00 %s",
+                  "number": -1.5e3
+                }""".formatted("c".repeat(80));
+
+        try (ArticleUpload upload = read(json)) {
+            assertEquals("Title with \"quotes\"", upload.getTitle());
+            byte[] expectedBytes = content.getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expectedBytes, Files.readAllBytes(upload.getContentFile()));
+            assertEquals(expectedBytes.length, upload.getContentSize());
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(expectedBytes);
+            byte[] checksumBytes = ByteBuffer.allocate(Integer.BYTES).putInt((int) checksum.getValue()).array();
+            assertEquals(Base64.getEncoder().encodeToString(checksumBytes), upload.getContentChecksum());
+        }
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading an article with too long content. The content file must be deleted.
+     */
+    @Test
+    public void readTooLongContent() {
+        String json = "{\"title\": \"%s\", \"content\": \"%s\"}".formatted("a".repeat(15), "b".repeat(18_001));
+        InvalidArticleException exception = assertThrows(InvalidArticleException.class, () -> read(json));
+        assertEquals("Content mustn't contain more than 18 000 characters!", exception.getMessage());
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading an article with too short title.
+     */
+    @Test
+    public void readTooShortTitle() {
+        String json = "{\"title\": \"%s\", \"content\": \"%s\"}".formatted("a".repeat(14), "b".repeat(100));
+        InvalidArticleException exception = assertThrows(InvalidArticleException.class, () -> read(json));
+        assertEquals("Title must contain at least 15 characters!", exception.getMessage());
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading an article with too long title.
+     */
+    @Test
+    public void readTooLongTitle() {
+        String json = "{\"title\": \"%s\", \"content\": \"%s\"}".formatted("a".repeat(101), "b".repeat(100));
+        InvalidArticleException exception = assertThrows(InvalidArticleException.class, () -> read(json));
+        assertEquals("Title mustn't contain more than 100 characters!", exception.getMessage());
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading an article without title.
+     */
+    @Test
+    public void readWithoutTitle() {
+        String json = "{\"content\": \"%s\"}".formatted("b".repeat(100));
+        InvalidArticleException exception = assertThrows(InvalidArticleException.class, () -> read(json));
+        assertEquals("Title is required!", exception.getMessage());
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading an article with too short content.
+     */
+    @Test
+    public void readTooShortContent() {
+        String json = "{\"title\": \"%s\", \"content\": \"%s\"}".formatted("a".repeat(15), "b".repeat(99));
+        InvalidArticleException exception = assertThrows(InvalidArticleException.class, () -> read(json));
+        assertEquals("Content must contain at least 100 characters!", exception.getMessage());
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading an article without content.
+     */
+    @Test
+    public void readWithoutContent() {
+        String json = "{\"title\": \"%s\", \"content\": null}".formatted("a".repeat(15));
+        InvalidArticleException exception = assertThrows(InvalidArticleException.class, () -> read(json));
+        assertEquals("Content is required!", exception.getMessage());
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading malformed JSON.
+     */
+    @Test
+    public void readMalformedJson() {
+        String[] bodies = {
+                "",
+                "[]",
+                "{\"title\": \"%s\", \"content\": \"%s\"".formatted("a".repeat(15), "b".repeat(100)),
+                "{\"title\": \"%s\", \"content\": \"%s\"} {}".formatted("a".repeat(15), "b".repeat(100)),
+                "{\"title\": \"%s\", \"content\": \"\\x\"}".formatted("a".repeat(15)),
+        };
+        for (String body : bodies) {
+            InvalidArticleException exception = assertThrows(InvalidArticleException.class, () -> read(body));
+            assertEquals("Malformed JSON of the article!", exception.getMessage());
+        }
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading unknown fields with values of all types. They are validated and skipped.
+     */
+    @Test
+    public void readUnknownFields() throws IOException {
+        String json = """
+                {"a": 0, "b": -0.5, "c": 12e+3, "d": 1E-2, "e": true, "f": false, "g": null, "h": "[{",
+                 "i": [], "j": {}, "k": [[{"x": [1, {}]}], {"y": null}], "title": "%s", "content": "%s", "l": -7,
+                 "m": %s}"""
+                .formatted("a".repeat(15), "b".repeat(100), "[".repeat(999) + "]".repeat(999));
+
+        try (ArticleUpload upload = read(json)) {
+            assertEquals("a".repeat(15), upload.getTitle());
+        }
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading unknown fields with invalid values. JSON with them is malformed, like for Jackson.
+     */
+    @Test
+    public void readInvalidUnknownFields() {
+        String article = "\"title\": \"%s\", \"content\": \"%s\"".formatted("a".repeat(15), "b".repeat(100));
+        String[] values = {
+                // Empty values
+                "", " ",
+                // Mismatched brackets
+                "[}", "{]", "[1}", "{\"x\": 1]", "[[]", "[1,]", "[,1]", "{\"x\"}", "{\"x\": }", "{1: 2}",
+                "{\"x\": 1,}",
+                // Invalid literals
+                "tru3", "truex", "nul", "False", "undefined",
+                // Invalid numbers
+                "01", "-", "+1", "1.", ".5", "1e", "1e+", "0x10", "1-2", "--1", "1.5.5",
+                // Invalid strings
+                "'x'", "\"x",
+                // Too deep nesting
+                "[".repeat(1000) + "]".repeat(1000),
+        };
+        for (String value : values) {
+            for (String body : new String[] {"{\"x\":%s, %s}".formatted(value, article),
+                    "{%s, \"x\":%s}".formatted(article, value)}) {
+                InvalidArticleException exception = assertThrows(InvalidArticleException.class, () -> read(body),
+                        body);
+                assertEquals("Malformed JSON of the article!", exception.getMessage(), body);
+            }
+        }
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading an article with the title or the content set twice.
+     */
+    @Test
+    public void readDuplicateFields() {
+        String title = "\"title\": \"%s\"".formatted("a".repeat(15));
+        String content = "\"content\": \"%s\"".formatted("b".repeat(100));
+
+        InvalidArticleException titleException = assertThrows(InvalidArticleException.class,
+                () -> read("{%s, %s, %s}".formatted(title, content, title)));
+        assertEquals("Title must be set once!", titleException.getMessage());
+        InvalidArticleException nullTitleException = assertThrows(InvalidArticleException.class,
+                () -> read("{\"title\": null, %s, %s}".formatted(content, title)));
+        assertEquals("Title must be set once!", nullTitleException.getMessage());
+        InvalidArticleException contentException = assertThrows(InvalidArticleException.class,
+                () -> read("{%s, %s, %s}".formatted(title, content, content)));
+        assertEquals("Content must be set once!", contentException.getMessage());
+        assertSpoolEmpty();
+    }
+
+    /**
+     * Test reading a body over the maximum size, both with known and unknown length.
+     */
+    @Test
+    public void readTooLargeBody() {
+        byte[] body = "{\"title\": \"%s\", \"content\": \"%s\"}"
+                .formatted("a".repeat(15), "\\u0062".repeat(12_000))
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(ArticleTooLargeException.class,
+                () -> articleUploadReader.read(new ByteArrayInputStream(body), body.length));
+        ArticleTooLargeException exception = assertThrows(ArticleTooLargeException.class,
+                () -> articleUploadReader.read(new ByteArrayInputStream(body), -1));
+        assertEquals("Article mustn't take more than 65536 bytes!", exception.getMessage());
+        assertSpoolEmpty();
+    }
+
+    private ArticleUpload read(String json) throws IOException {
+        InputStream body = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        return articleUploadReader.read(body, -1);
+    }
+
+    private void assertSpoolEmpty() {
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -14,8 +15,16 @@ import org.springframework.context.annotation.Primary;
 import org.testcontainers.containers.MinIOContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
 import java.util.Optional;
+import java.util.zip.CRC32C;
 
 @SpringBootTest(classes = {ContentService.class, ContentServiceTest.TestConfig.class})
 @Testcontainers
@@ -81,6 +90,25 @@ public class ContentServiceTest {
         Assertions.assertTrue(noContentAfterRemove.isEmpty());
     }
 
+    @Test
+    public void testStagedContent(@TempDir Path spoolDirectory) throws IOException {
+        contentService.saveContent(2L, "a".repeat(100));
+        byte[] newContent = "b".repeat(100).getBytes(StandardCharsets.UTF_8);
+        Path contentFile = Files.write(spoolDirectory.resolve("article.txt"), newContent);
+        // staged content doesn't replace the current one
+        String stagingKey = contentService.stageContent(2L, contentFile, newContent.length, crc32c(newContent));
+        Assertions.assertEquals(Optional.of("a".repeat(100)), contentService.getContent(2L));
+        // removed staged content can't be published
+        String removedKey = contentService.stageContent(2L, contentFile, newContent.length, crc32c(newContent));
+        contentService.removeStagedContent(removedKey);
+        Assertions.assertThrows(NoSuchKeyException.class, () -> contentService.publishStagedContent(2L, removedKey));
+        Assertions.assertEquals(Optional.of("a".repeat(100)), contentService.getContent(2L));
+        // published content replaces the current one, and the staged object is removed
+        contentService.publishStagedContent(2L, stagingKey);
+        Assertions.assertEquals(Optional.of("b".repeat(100)), contentService.getContent(2L));
+        Assertions.assertThrows(NoSuchKeyException.class, () -> contentService.publishStagedContent(2L, stagingKey));
+    }
+
     @Test
     public void getContentShouldThrowConnectException() {
         minIoContainer.stop();
@@ -106,4 +134,11 @@ public class ContentServiceTest {
                 () -> contentService.removeContent(1L));
         Assertions.assertEquals("Failed to remove content for article with ID 1 from S3 storage", ex.getMessage());
     }
+
+    private static String crc32c(byte[] bytes) {
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(bytes);
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(Integer.BYTES)
+                .putInt((int) crc32c.getValue()).array());
+    }
 }
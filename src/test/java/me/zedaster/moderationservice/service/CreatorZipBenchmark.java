@@ -0,0 +1,40 @@
+package me.zedaster.moderationservice.service;
+
+import me.zedaster.moderationservice.dto.Creator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmark of combining IDs of creators with their names in {@link CreatorService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreatorZipBenchmark {
+    /**
+     * Count of creators. 10 is the size of a page of the moderation queue.
+     */
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Long> userIds;
+
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        userIds = LongStream.rangeClosed(1, size).boxed().toList();
+        names = userIds.stream().map(id -> "user" + id).toList();
+    }
+
+    @Benchmark
+    public List<Creator> zipCreators() {
+        return CreatorService.zipCreators(userIds, names);
+    }
+}
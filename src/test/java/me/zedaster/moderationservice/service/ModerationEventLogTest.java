@@ -0,0 +1,191 @@
+package me.zedaster.moderationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.zedaster.moderationservice.configuration.ModerationEventLogConfiguration;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import me.zedaster.moderationservice.repository.ModerationEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ModerationEventLog} class.
+ */
+@SpringBootTest(classes = {ModerationEventLog.class, ModerationEventLogTest.TestConfig.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ModerationEventLogTest {
+    @TestConfiguration
+    public static class TestConfig {
+        @Bean
+        public ModerationEventLogConfiguration moderationEventLogConfiguration() {
+            ModerationEventLogConfiguration configuration = new ModerationEventLogConfiguration();
+            configuration.setQueueCapacity(5);
+            configuration.setBatchSize(2);
+            // Events are flushed manually in the tests
+            configuration.setFlushInterval(Duration.ofHours(1));
+            configuration.setRetentionMonths(3);
+            // Failed batches are retried by the next flush
+            configuration.setRetryAttempts(3);
+            configuration.setRetryBackoff(Duration.ZERO);
+            return configuration;
+        }
+
+        @Bean
+        public SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private ModerationEventLog moderationEventLog;
+
+    @Autowired
+    private ModerationEventLogConfiguration configuration;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @MockitoBean
+    private ModerationEventRepository moderationEventRepository;
+
+    /**
+     * Test that queued events are written in batches of the configured size.
+     */
+    @Test
+    public void flushInBatches() {
+        for (int i = 1; i <= 5; i++) {
+            moderationEventLog.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, i, 777L));
+        }
+
+        moderationEventLog.flush();
+
+        verify(moderationEventRepository, times(2)).insertAll(argThat(batch -> batch.size() == 2));
+        verify(moderationEventRepository, times(1)).insertAll(argThat(batch -> batch.size() == 1));
+        assertEquals(0, moderationEventLog.getDroppedEvents());
+    }
+
+    /**
+     * Test that events are dropped when the queue is full.
+     */
+    @Test
+    public void dropEventsWhenQueueIsFull() {
+        for (int i = 1; i <= 7; i++) {
+            moderationEventLog.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, i, 777L));
+        }
+
+        assertEquals(2, moderationEventLog.getDroppedEvents());
+        assertEquals(2, lostEvents("queue_full"));
+    }
+
+    /**
+     * Test that a failed batch is kept and written by the next flush before the next batches.
+     */
+    @Test
+    public void retryFailedBatch() {
+        List<List<Long>> writtenIds = new ArrayList<>();
+        doThrow(new RuntimeException("test")).doAnswer(invocation -> {
+            List<ModerationEvent> batch = invocation.getArgument(0);
+            writtenIds.add(batch.stream().map(ModerationEvent::getArticleId).toList());
+            return null;
+        }).when(moderationEventRepository).insertAll(anyList());
+        for (int i = 1; i <= 4; i++) {
+            moderationEventLog.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, i, 777L));
+        }
+
+        moderationEventLog.flush();
+        verify(moderationEventRepository, times(1)).insertAll(anyList());
+
+        moderationEventLog.flush();
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L)), writtenIds);
+        assertEquals(0, lostEvents("write_failed"));
+    }
+
+    /**
+     * Test that a failed batch isn't retried until its delay is over.
+     */
+    @Test
+    public void waitBeforeRetry() {
+        configuration.setRetryBackoff(Duration.ofHours(1));
+        doThrow(new RuntimeException("test")).when(moderationEventRepository).insertAll(anyList());
+        moderationEventLog.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, 1, 777L));
+
+        moderationEventLog.flush();
+        moderationEventLog.flush();
+
+        verify(moderationEventRepository, times(1)).insertAll(anyList());
+        assertEquals(0, lostEvents("write_failed"));
+    }
+
+    /**
+     * Test that a batch that fails all attempts is lost and doesn't stop writing of the next batches.
+     */
+    @Test
+    public void loseBatchAfterAllAttempts() {
+        doThrow(new RuntimeException("test")).doThrow(new RuntimeException("test")).doThrow(new RuntimeException("test"))
+                .doNothing().when(moderationEventRepository).insertAll(anyList());
+        for (int i = 1; i <= 3; i++) {
+            moderationEventLog.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, i, 777L));
+        }
+
+        moderationEventLog.flush();
+        moderationEventLog.flush();
+        moderationEventLog.flush();
+
+        verify(moderationEventRepository, times(4)).insertAll(anyList());
+        verify(moderationEventRepository, times(1)).insertAll(argThat(batch -> batch.size() == 1));
+        assertEquals(2, lostEvents("write_failed"));
+    }
+
+    /**
+     * Test that events that fail to be written at shutdown are counted as lost.
+     */
+    @Test
+    public void loseEventsAtShutdown() throws InterruptedException {
+        configuration.setRetryBackoff(Duration.ofHours(1));
+        doThrow(new RuntimeException("test")).when(moderationEventRepository).insertAll(anyList());
+        for (int i = 1; i <= 5; i++) {
+            moderationEventLog.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, i, 777L));
+        }
+        moderationEventLog.flush();
+
+        moderationEventLog.stop();
+
+        verify(moderationEventRepository, times(2)).insertAll(anyList());
+        assertEquals(5, lostEvents("write_failed"));
+    }
+
+    /**
+     * Test that partitions are created ahead and old partitions are dropped.
+     */
+    @Test
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        clearInvocations(moderationEventRepository);
+
+        moderationEventLog.maintainPartitions();
+
+        verify(moderationEventRepository, times(1)).createTableIfNotExists();
+        verify(moderationEventRepository, times(1)).createPartitionIfNotExists(currentMonth);
+        verify(moderationEventRepository, times(1)).createPartitionIfNotExists(currentMonth.plusMonths(2));
+        verify(moderationEventRepository, times(1)).dropPartitionsBefore(currentMonth.minusMonths(3));
+    }
+
+    private double lostEvents(String reason) {
+        return meterRegistry.get(ModerationEventLog.LOST_METRIC).tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,176 @@
+package me.zedaster.moderationservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.zedaster.moderationservice.configuration.NearDuplicateConfiguration;
+import me.zedaster.moderationservice.entity.ArticleFingerprintEntity;
+import me.zedaster.moderationservice.repository.ArticleFingerprintRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link NearDuplicateService} class.
+ */
+public class NearDuplicateServiceTest {
+    private static final String TEXT = """
+            Moderation keeps the catalogue readable. Every article waits in the queue until a moderator opens it,
+            reads the content and decides whether it can be published. Articles that need small fixes go back to
+            their creators with a comment, and articles that break the rules are removed.""";
+
+    private static final String REWORDED_TEXT = """
+            Moderation keeps our catalogue readable! Every article waits in the queue until a moderator opens it,
+            reads the content and decides whether it can be published. Articles that need small fixes go back to
+            their authors with a comment, and articles that break the rules are removed.""";
+
+    private static final String OTHER_TEXT = """
+            The recipe needs three eggs, a cup of flour and some milk. Whisk everything until the batter is smooth,
+            let it rest for half an hour and fry thin pancakes on a hot pan with a little butter.""";
+
+    private ArticleFingerprintRepository articleFingerprintRepository;
+
+    private NearDuplicateConfiguration configuration;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NearDuplicateService nearDuplicateService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        articleFingerprintRepository = mock(ArticleFingerprintRepository.class);
+        configuration = new NearDuplicateConfiguration();
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getIfAvailable(any())).thenReturn(meterRegistry);
+        nearDuplicateService = new NearDuplicateService(articleFingerprintRepository, configuration,
+                meterRegistryProvider);
+    }
+
+    /**
+     * Test that a near-duplicate joins the cluster of the earlier article and an unrelated article starts its own
+     */
+    @Test
+    public void register() {
+        nearDuplicateService.register(1L, TEXT);
+        nearDuplicateService.register(2L, OTHER_TEXT);
+        nearDuplicateService.register(3L, REWORDED_TEXT);
+
+        verify(articleFingerprintRepository, times(1)).upsert(eq(1L), eq(1L), any());
+        verify(articleFingerprintRepository, times(1)).upsert(eq(2L), eq(2L), any());
+        verify(articleFingerprintRepository, times(1)).upsert(eq(3L), eq(1L), any());
+        assertEquals(List.of(3L), nearDuplicateService.getNearDuplicates(1L));
+        assertEquals(List.of(1L), nearDuplicateService.getNearDuplicates(3L));
+        assertEquals(List.of(), nearDuplicateService.getNearDuplicates(2L));
+        assertEquals(List.of(), nearDuplicateService.getNearDuplicates(4L));
+        assertEquals(1.0, meterRegistry.get(NearDuplicateService.NEAR_DUPLICATES_METRIC).counter().count());
+        assertEquals(3, meterRegistry.get(NearDuplicateService.LOOKUPS_METRIC).timer().count());
+    }
+
+    /**
+     * Test that removed articles leave their clusters
+     */
+    @Test
+    public void remove() {
+        nearDuplicateService.register(1L, TEXT);
+        nearDuplicateService.register(2L, REWORDED_TEXT);
+        nearDuplicateService.register(3L, TEXT);
+
+        nearDuplicateService.remove(List.of(1L));
+
+        verify(articleFingerprintRepository, times(1)).deleteFingerprints(List.of(1L));
+        assertEquals(List.of(3L), nearDuplicateService.getNearDuplicates(2L));
+        assertEquals(List.of(), nearDuplicateService.getNearDuplicates(1L));
+    }
+
+    /**
+     * Test that the index is rebuilt from stored signatures page by page
+     */
+    @Test
+    public void rebuild() {
+        nearDuplicateService.register(1L, TEXT);
+        nearDuplicateService.register(2L, REWORDED_TEXT);
+        ArgumentCaptor<byte[]> signatures = ArgumentCaptor.forClass(byte[].class);
+        verify(articleFingerprintRepository, times(2)).upsert(anyLong(), anyLong(), signatures.capture());
+
+        when(articleFingerprintRepository.findAllByArticleIdGreaterThanOrderByArticleId(0L, Limit.of(1000)))
+                .thenReturn(List.of(
+                        fingerprint(5L, 5L, signatures.getAllValues().get(0)),
+                        fingerprint(6L, 5L, signatures.getAllValues().get(1)),
+                        fingerprint(7L, 7L, new byte[8])));
+        nearDuplicateService.rebuild();
+
+        assertEquals(List.of(6L), nearDuplicateService.getNearDuplicates(5L));
+        assertEquals(List.of(), nearDuplicateService.getNearDuplicates(1L));
+        assertEquals(List.of(), nearDuplicateService.getNearDuplicates(7L));
+
+        // A new near-duplicate joins the loaded cluster
+        nearDuplicateService.register(8L, TEXT);
+        verify(articleFingerprintRepository, times(1)).upsert(eq(8L), eq(5L), any());
+    }
+
+    /**
+     * Test that content without words isn't fingerprinted and removes the old signature of the article
+     */
+    @Test
+    public void registerWithoutWords() {
+        nearDuplicateService.register(1L, "...");
+        nearDuplicateService.register(2L, "!!! ???");
+        nearDuplicateService.register(3L, TEXT);
+        nearDuplicateService.register(3L, "---");
+
+        verify(articleFingerprintRepository, times(1)).upsert(anyLong(), anyLong(), any());
+        verify(articleFingerprintRepository, times(1)).deleteFingerprints(List.of(3L));
+        assertEquals(List.of(), nearDuplicateService.getNearDuplicates(1L));
+        assertEquals(List.of(), nearDuplicateService.getNearDuplicates(2L));
+    }
+
+    /**
+     * Test that content read from a file is fingerprinted like the same text
+     */
+    @Test
+    public void registerFile(@TempDir Path directory) throws IOException {
+        Path contentFile = directory.resolve("content");
+        Files.writeString(contentFile, REWORDED_TEXT);
+        nearDuplicateService.register(1L, TEXT);
+        nearDuplicateService.register(2L, contentFile);
+
+        verify(articleFingerprintRepository, times(1)).upsert(eq(2L), eq(1L), any());
+        assertEquals(List.of(2L), nearDuplicateService.getNearDuplicates(1L));
+    }
+
+    /**
+     * Test that nothing is stored when detection is disabled
+     */
+    @Test
+    public void disabled() {
+        configuration.setEnabled(false);
+        nearDuplicateService.register(1L, TEXT);
+        nearDuplicateService.register(2L, TEXT);
+        nearDuplicateService.remove(List.of(1L));
+        nearDuplicateService.rebuild();
+
+        verifyNoInteractions(articleFingerprintRepository);
+        assertEquals(List.of(), nearDuplicateService.getNearDuplicates(1L));
+    }
+
+    private static ArticleFingerprintEntity fingerprint(long articleId, long clusterId, byte[] signature) {
+        ArticleFingerprintEntity entity = new ArticleFingerprintEntity();
+        entity.setArticleId(articleId);
+        entity.setClusterId(clusterId);
+        entity.setSignature(signature);
+        return entity;
+    }
+}
@@ -0,0 +1,222 @@
+package me.zedaster.moderationservice.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import me.zedaster.moderationservice.configuration.QueueEventsConfiguration;
+import me.zedaster.moderationservice.event.ModerationEvent;
+import me.zedaster.moderationservice.event.ModerationEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link QueueEventBroadcaster} class.
+ */
+public class QueueEventBroadcasterTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final QueueEventsConfiguration configuration = new QueueEventsConfiguration();
+
+    /**
+     * Emitters returned by the next subscriptions. A new {@link SseEmitter} is created when it's empty.
+     */
+    private final List<SseEmitter> nextEmitters = new ArrayList<>();
+
+    private QueueEventBroadcaster queueEventBroadcaster;
+
+    @BeforeEach
+    public void setUp() {
+        configuration.setMaxSubscribers(2);
+        configuration.setSubscriberBufferSize(2);
+        configuration.setWriterThreads(2);
+        queueEventBroadcaster = newBroadcaster();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        queueEventBroadcaster.stop();
+    }
+
+    /**
+     * Test that subscriptions over the limit are rejected
+     */
+    @Test
+    public void limitSubscribers() {
+        queueEventBroadcaster.subscribe();
+        queueEventBroadcaster.subscribe();
+
+        assertEquals(2, queueEventBroadcaster.getSubscriberCount());
+        TooManySubscribersException ex = assertThrows(TooManySubscribersException.class,
+                () -> queueEventBroadcaster.subscribe());
+        assertEquals("There are already 2 subscribers of queue events!", ex.getMessage());
+    }
+
+    /**
+     * Test that concurrent subscriptions don't exceed the limit
+     */
+    @Test
+    public void limitConcurrentSubscribers() throws Exception {
+        configuration.setMaxSubscribers(50);
+        queueEventBroadcaster.stop();
+        queueEventBroadcaster = newBroadcaster();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 20; j++) {
+                        try {
+                            queueEventBroadcaster.subscribe();
+                        } catch (TooManySubscribersException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(50, queueEventBroadcaster.getSubscriberCount());
+        assertEquals(110, rejected.get());
+    }
+
+    /**
+     * Test that a stream that doesn't keep up is dropped without delaying other streams
+     */
+    @Test
+    public void dropSlowSubscriber() throws Exception {
+        CountDownLatch slowWriteStarted = new CountDownLatch(1);
+        nextEmitters.add(new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) {
+                slowWriteStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        BlockingQueue<Set<DataWithMediaType>> fastWrites = new LinkedBlockingQueue<>();
+        nextEmitters.add(new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) {
+                fastWrites.add(items);
+            }
+        });
+        queueEventBroadcaster.subscribe();
+        queueEventBroadcaster.subscribe();
+
+        queueEventBroadcaster.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, 1L, 7L));
+        assertTrue(slowWriteStarted.await(1, TimeUnit.SECONDS));
+        assertNotNull(fastWrites.poll(1, TimeUnit.SECONDS));
+        // The slow stream buffers two events and is dropped at the third one
+        for (long articleId = 2; articleId <= 4; articleId++) {
+            queueEventBroadcaster.onModerationEvent(
+                    ModerationEvent.byCreator(ModerationEventType.CREATED, articleId, 7L));
+            assertNotNull(fastWrites.poll(1, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, queueEventBroadcaster.getSubscriberCount());
+    }
+
+    /**
+     * Test that streams dropped while writers are blocked are closed even when their writes don't fit the queue
+     */
+    @Test
+    public void closeDroppedSubscribersWithBlockedWriters() throws Exception {
+        configuration.setWriterThreads(1);
+        queueEventBroadcaster.stop();
+        queueEventBroadcaster = newBroadcaster();
+        CountDownLatch slowWriteStarted = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(7);
+        nextEmitters.add(new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) {
+                slowWriteStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void complete() {
+                closed.countDown();
+                super.complete();
+            }
+        });
+        queueEventBroadcaster.subscribe();
+        queueEventBroadcaster.onModerationEvent(ModerationEvent.byCreator(ModerationEventType.CREATED, 1L, 7L));
+        assertTrue(slowWriteStarted.await(1, TimeUnit.SECONDS));
+
+        // Every stream buffers two events and is dropped at the third one while its write waits for the writer.
+        // The writes of four streams fill the queue, so the last two streams are closed by the broadcasting thread.
+        long articleId = 2;
+        for (int i = 0; i < 6; i++) {
+            nextEmitters.add(new SseEmitter() {
+                @Override
+                public void complete() {
+                    closed.countDown();
+                    super.complete();
+                }
+            });
+            queueEventBroadcaster.subscribe();
+            for (int j = 0; j < 3; j++) {
+                queueEventBroadcaster.onModerationEvent(
+                        ModerationEvent.byCreator(ModerationEventType.CREATED, articleId++, 7L));
+            }
+            assertEquals(0, queueEventBroadcaster.getSubscriberCount());
+        }
+        assertEquals(5, closed.getCount());
+
+        release.countDown();
+        assertTrue(closed.await(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test that an event without subscribers is ignored
+     */
+    @Test
+    public void ignoreEventWithoutSubscribers() {
+        assertDoesNotThrow(() -> queueEventBroadcaster.onModerationEvent(
+                ModerationEvent.byCreator(ModerationEventType.CREATED, 1L, 7L)));
+        assertEquals(0, queueEventBroadcaster.getSubscriberCount());
+    }
+
+    private QueueEventBroadcaster newBroadcaster() {
+        return new QueueEventBroadcaster(JsonMapper.builder().findAndAddModules().build(), configuration) {
+            @Override
+            SseEmitter createEmitter() {
+                return nextEmitters.isEmpty() ? super.createEmitter() : nextEmitters.remove(0);
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package me.zedaster.moderationservice.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MinHashIndex} class.
+ */
+public class MinHashIndexTest {
+    private final MinHasher minHasher = new MinHasher(64, 3, 42);
+
+    /**
+     * Test that a reworded text is found and an unrelated text is not
+     */
+    @Test
+    public void find() {
+        MinHashIndex index = new MinHashIndex(64, 16);
+        index.add(1L, minHasher.signature(MinHasherTest.TEXT));
+        index.add(2L, minHasher.signature(MinHasherTest.OTHER_TEXT));
+
+        List<MinHashIndex.Match> matches = index.find(minHasher.signature(MinHasherTest.REWORDED_TEXT), 0.6);
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).id());
+        assertTrue(matches.get(0).similarity() >= 0.6);
+
+        matches = index.find(minHasher.signature(MinHasherTest.TEXT), 0.6);
+        assertEquals(List.of(new MinHashIndex.Match(1L, 1.0)), matches);
+    }
+
+    /**
+     * Test that the most similar items go first
+     */
+    @Test
+    public void findOrder() {
+        MinHashIndex index = new MinHashIndex(64, 16);
+        index.add(1L, minHasher.signature(MinHasherTest.REWORDED_TEXT));
+        index.add(2L, minHasher.signature(MinHasherTest.TEXT));
+
+        List<MinHashIndex.Match> matches = index.find(minHasher.signature(MinHasherTest.TEXT), 0.5);
+        assertEquals(List.of(2L, 1L), matches.stream().map(MinHashIndex.Match::id).toList());
+    }
+
+    /**
+     * Test removing and replacing items
+     */
+    @Test
+    public void removeAndReplace() {
+        MinHashIndex index = new MinHashIndex(64, 16);
+        int[] signature = minHasher.signature(MinHasherTest.TEXT);
+        index.add(1L, signature);
+        index.add(2L, signature);
+        index.remove(1L);
+        index.remove(3L);
+        assertEquals(1, index.size());
+        assertEquals(List.of(2L), index.find(signature, 0.6).stream().map(MinHashIndex.Match::id).toList());
+
+        index.add(2L, minHasher.signature(MinHasherTest.OTHER_TEXT));
+        assertEquals(1, index.size());
+        assertTrue(index.find(signature, 0.6).isEmpty());
+
+        index.clear();
+        assertEquals(0, index.size());
+    }
+
+    /**
+     * Test that the count of bands must divide the length of signatures
+     */
+    @Test
+    public void wrongBands() {
+        assertThrows(IllegalArgumentException.class, () -> new MinHashIndex(64, 10));
+        assertThrows(IllegalArgumentException.class, () -> new MinHashIndex(64, 0));
+    }
+}
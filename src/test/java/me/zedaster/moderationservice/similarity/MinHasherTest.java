@@ -0,0 +1,92 @@
+package me.zedaster.moderationservice.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MinHasher} class.
+ */
+public class MinHasherTest {
+    static final String TEXT = """
+            Moderation keeps the catalogue readable. Every article waits in the queue until a moderator opens it,
+            reads the content and decides whether it can be published. Articles that need small fixes go back to
+            their creators with a comment, and articles that break the rules are removed. The queue is served in
+            the order of creation, so old articles never wait forever, and leases make sure that two moderators
+            don't read the same article at the same time. Counters of articles are kept for every creator, so the
+            statistics page never scans the whole table.""";
+
+    static final String REWORDED_TEXT = """
+            Moderation keeps our catalogue readable! Every article waits in the queue until a moderator opens it,
+            reads the text and decides whether it can be published. Articles that need small fixes go back to
+            their authors with a comment, and articles that break the rules are deleted. The queue is served in
+            the order of creation, so old articles never wait forever, and leases make sure that two moderators
+            don't read the same article at once. Counters of articles are kept for every creator, so the
+            statistics page never scans the whole table.""";
+
+    static final String OTHER_TEXT = """
+            The recipe needs three eggs, a cup of flour and some milk. Whisk everything until the batter is smooth,
+            let it rest for half an hour and fry thin pancakes on a hot pan with a little butter. Serve them warm
+            with jam, honey or sour cream, and keep the rest covered so they don't dry out.""";
+
+    private final MinHasher minHasher = new MinHasher(64, 3, 42);
+
+    /**
+     * Test that a reworded text has a close signature and an unrelated text has a distant one
+     */
+    @Test
+    public void similarity() {
+        int[] signature = minHasher.signature(TEXT);
+        assertEquals(64, signature.length);
+
+        double reworded = MinHasher.similarity(signature, minHasher.signature(REWORDED_TEXT));
+        double other = MinHasher.similarity(signature, minHasher.signature(OTHER_TEXT));
+        assertTrue(reworded > 0.6, "Similarity of reworded text is " + reworded);
+        assertTrue(other < 0.1, "Similarity of unrelated text is " + other);
+    }
+
+    /**
+     * Test that case, punctuation and whitespace don't change the signature
+     */
+    @Test
+    public void ignoreCaseAndPunctuation() {
+        assertArrayEquals(minHasher.signature("Hello, World! How are you?"),
+                minHasher.signature("hello   world -- HOW are\nyou"));
+    }
+
+    /**
+     * Test signatures of texts shorter than a shingle and of texts without words
+     */
+    @Test
+    public void shortTexts() {
+        assertArrayEquals(minHasher.signature("Two words"), minHasher.signature("two, WORDS"));
+        assertFalse(Arrays.equals(minHasher.signature("Two words"), minHasher.signature("Two")));
+
+        assertNull(minHasher.signature(" ... "));
+        assertNull(minHasher.signature(""));
+    }
+
+    /**
+     * Test that a text read from a reader in chunks has the same signature as the whole text
+     */
+    @Test
+    public void signReader() throws IOException {
+        String text = TEXT.repeat(40) + " \uD835\uDC00\uD835\uDC01 end";
+        assertTrue(text.length() > 8192);
+        assertArrayEquals(minHasher.signature(text), minHasher.signature(new StringReader(text)));
+        assertFalse(Arrays.equals(minHasher.signature("one \uD835\uDC00 two"), minHasher.signature("one two")));
+    }
+
+    /**
+     * Test that signatures depend on the seed only
+     */
+    @Test
+    public void deterministic() {
+        assertArrayEquals(minHasher.signature(TEXT), new MinHasher(64, 3, 42).signature(TEXT));
+        assertFalse(Arrays.equals(minHasher.signature(TEXT), new MinHasher(64, 3, 43).signature(TEXT)));
+    }
+}